@@ -0,0 +1,38 @@
+// Micro-benchmarks of the internal hot paths, they are not published.
+//
+// Run all benchmarks:  ./gradlew :jimmer-benchmark:jmh
+// Run some benchmarks: ./gradlew :jimmer-benchmark:jmh -PjmhIncludes=Reader
+//
+// The results are written to build/results/jmh/results.json
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    jmh(projects.jimmerSql)
+    jmh(libs.h2)
+    jmh(libs.caffeine)
+    jmh(libs.jetbrains.annotations)
+    jmhAnnotationProcessor(projects.jimmerApt)
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.compilerArgs.add("-parameters")
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    findProperty("jmhIncludes")?.let {
+        includes.set(listOf(it.toString()))
+    }
+}
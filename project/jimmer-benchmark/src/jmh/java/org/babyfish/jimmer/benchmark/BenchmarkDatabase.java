@@ -0,0 +1,126 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.h2.jdbcx.JdbcDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database shared by the benchmarks which need JDBC.
+ */
+public class BenchmarkDatabase {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    public static final int STORE_COUNT = 10;
+
+    public static final int BOOK_COUNT_PER_STORE = 100;
+
+    private final JdbcDataSource dataSource;
+
+    public BenchmarkDatabase() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL(
+                "jdbc:h2:mem:jimmer_benchmark_" +
+                        SEQUENCE.incrementAndGet() +
+                        ";DB_CLOSE_DELAY=-1"
+        );
+        try (Connection con = dataSource.getConnection()) {
+            createTables(con);
+            insertRows(con);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot initialize the benchmark database", ex);
+        }
+    }
+
+    public Connection getConnection() {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot open connection", ex);
+        }
+    }
+
+    public JSqlClient createSqlClient() {
+        return sqlClientBuilder()
+                .setConnectionManager(ConnectionManager.simpleConnectionManager(dataSource))
+                .build();
+    }
+
+    public JSqlClient.Builder sqlClientBuilder() {
+        return JSqlClient.newBuilder().setDialect(new H2Dialect());
+    }
+
+    public void shutdown() {
+        try (Connection con = dataSource.getConnection();
+             Statement stmt = con.createStatement()) {
+            stmt.execute("shutdown");
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Cannot shutdown the benchmark database", ex);
+        }
+    }
+
+    private static void createTables(Connection con) throws SQLException {
+        StringBuilder builder = new StringBuilder();
+        try (InputStream in = BenchmarkDatabase.class.getResourceAsStream("/benchmark-database.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("Cannot find \"benchmark-database.sql\"");
+            }
+            Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+            char[] buf = new char[1024];
+            int len;
+            while ((len = reader.read(buf)) != -1) {
+                builder.append(buf, 0, len);
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot read \"benchmark-database.sql\"", ex);
+        }
+        try (Statement stmt = con.createStatement()) {
+            for (String sql : builder.toString().split(";")) {
+                if (!sql.trim().isEmpty()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void insertRows(Connection con) throws SQLException {
+        try (PreparedStatement stmt = con.prepareStatement(
+                "insert into book_store(id, name, website) values(?, ?, ?)")) {
+            for (int i = 1; i <= STORE_COUNT; i++) {
+                stmt.setLong(1, i);
+                stmt.setString(2, "Store-" + i);
+                stmt.setString(3, "https://store-" + i + ".com");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = con.prepareStatement(
+                "insert into book(id, name, edition, price, store_id) values(?, ?, ?, ?, ?)")) {
+            long id = 0;
+            for (int i = 1; i <= STORE_COUNT; i++) {
+                for (int j = 1; j <= BOOK_COUNT_PER_STORE; j++) {
+                    stmt.setLong(1, ++id);
+                    stmt.setString(2, "Book-" + id);
+                    stmt.setInt(3, 1 + j % 3);
+                    stmt.setBigDecimal(4, BigDecimal.valueOf(10 + id % 90));
+                    stmt.setLong(5, i);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.cache.Cache;
+import org.babyfish.jimmer.sql.cache.CacheEnvironment;
+import org.babyfish.jimmer.sql.cache.CacheLoader;
+import org.babyfish.jimmer.sql.cache.caffeine.CaffeineValueBinder;
+import org.babyfish.jimmer.sql.cache.chain.ChainCacheBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading objects through a cache chain whose first level is Caffeine,
+ * all the keys are hit after warmup so that the chain overhead dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ChainCacheBenchmark {
+
+    @Param({"1", "100"})
+    public int keyCount;
+
+    private BenchmarkDatabase database;
+
+    private Connection con;
+
+    private Cache<Long, Book> cache;
+
+    private CacheEnvironment<Long, Book> env;
+
+    private List<Long> keys;
+
+    @Setup
+    public void setup() {
+        database = new BenchmarkDatabase();
+        con = database.getConnection();
+        JSqlClient sqlClient = database.createSqlClient();
+        cache = new ChainCacheBuilder<Long, Book>()
+                .add(
+                        CaffeineValueBinder
+                                .<Long, Book>forObject(ImmutableType.get(Book.class))
+                                .maximumSize(1024)
+                                .build()
+                )
+                .build();
+        env = new CacheEnvironment<>(
+                sqlClient,
+                con,
+                CacheLoader.objectLoader(sqlClient, con, Book.class),
+                false
+        );
+        keys = new ArrayList<>(keyCount);
+        for (long id = 1; id <= keyCount; id++) {
+            keys.add(id);
+        }
+        cache.getAll(keys, env);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        con.close();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public Map<Long, Book> getAll() {
+        return cache.getAll(keys, env);
+    }
+}
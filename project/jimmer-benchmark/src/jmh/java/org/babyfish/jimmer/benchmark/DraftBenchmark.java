@@ -0,0 +1,57 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookDraft;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating immutable objects and modifying them by drafts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DraftBenchmark {
+
+    private Book book;
+
+    @Setup
+    public void setup() {
+        book = BookDraft.$.produce(draft -> {
+            draft.setId(1L);
+            draft.setName("GraphQL in Action");
+            draft.setEdition(1);
+            draft.setPrice(new BigDecimal("80"));
+            draft.applyStore(store -> {
+                store.setId(1L);
+                store.setName("Manning");
+            });
+        });
+    }
+
+    @Benchmark
+    public Book create() {
+        return BookDraft.$.produce(draft -> {
+            draft.setId(1L);
+            draft.setName("GraphQL in Action");
+            draft.setEdition(1);
+            draft.setPrice(new BigDecimal("80"));
+        });
+    }
+
+    @Benchmark
+    public Book modifyScalar() {
+        return BookDraft.$.produce(book, draft -> {
+            draft.setEdition(draft.edition() + 1);
+        });
+    }
+
+    @Benchmark
+    public Book modifyAssociation() {
+        return BookDraft.$.produce(book, draft -> {
+            draft.store(true).setWebsite("https://www.manning.com");
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookFetcher;
+import org.babyfish.jimmer.benchmark.model.BookStore;
+import org.babyfish.jimmer.benchmark.model.BookStoreFetcher;
+import org.babyfish.jimmer.benchmark.model.BookStoreTable;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.fetcher.Fetcher;
+import org.babyfish.jimmer.sql.fetcher.Field;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building object fetchers and fetching associations by them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class FetcherBenchmark {
+
+    private BenchmarkDatabase database;
+
+    private JSqlClient sqlClient;
+
+    private Fetcher<BookStore> storeFetcher;
+
+    @Setup
+    public void setup() {
+        database = new BenchmarkDatabase();
+        sqlClient = database.createSqlClient();
+        storeFetcher = BookStoreFetcher.$
+                .allScalarFields()
+                .books(
+                        BookFetcher.$
+                                .allScalarFields()
+                );
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Field> buildFetcher() {
+        Fetcher<Book> fetcher = BookFetcher.$
+                .name()
+                .edition()
+                .price()
+                .store(
+                        BookStoreFetcher.$
+                                .name()
+                                .website()
+                );
+        return fetcher.getFieldMap();
+    }
+
+    @Benchmark
+    public List<BookStore> fetchOneToMany() {
+        BookStoreTable table = BookStoreTable.$;
+        return sqlClient
+                .createQuery(table)
+                .select(table.fetch(storeFetcher))
+                .execute();
+    }
+}
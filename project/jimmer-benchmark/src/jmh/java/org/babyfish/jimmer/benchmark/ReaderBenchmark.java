@@ -0,0 +1,63 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookTable;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading JDBC result sets into entities and tuples,
+ * the database is in-memory so that the materialization dominates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ReaderBenchmark {
+
+    private BenchmarkDatabase database;
+
+    private JSqlClient sqlClient;
+
+    @Setup
+    public void setup() {
+        database = new BenchmarkDatabase();
+        sqlClient = database.createSqlClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<Book> entities() {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .select(table)
+                .execute();
+    }
+
+    @Benchmark
+    public List<Tuple3<Long, String, BigDecimal>> tuples() {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .select(table.id(), table.name(), table.price())
+                .execute();
+    }
+
+    @Benchmark
+    public List<Long> scalars() {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .select(table.id())
+                .execute();
+    }
+}
@@ -0,0 +1,138 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.runtime.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Executor which never touches the database, it only consumes
+ * the rendered SQL and variables so that the JIT cannot eliminate them.
+ *
+ * <p>Queries return empty lists, updates and each batch row affect one row.</p>
+ */
+class RenderOnlyExecutor implements Executor {
+
+    private final Blackhole blackhole;
+
+    RenderOnlyExecutor(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <R> R execute(@NotNull Args<R> args) {
+        blackhole.consume(args.sql);
+        blackhole.consume(args.variables);
+        switch (args.purpose.getType()) {
+            case QUERY:
+                return (R) Collections.emptyList();
+            default:
+                return (R) (Integer) 0;
+        }
+    }
+
+    @Override
+    public BatchContext executeBatch(
+            @NotNull Connection con,
+            @NotNull String sql,
+            @Nullable ImmutableProp generatedIdProp,
+            @NotNull ExecutionPurpose purpose,
+            @NotNull JSqlClientImplementor sqlClient
+    ) {
+        return new RenderOnlyBatchContext(sql, purpose, sqlClient);
+    }
+
+    private class RenderOnlyBatchContext implements BatchContext {
+
+        private final String sql;
+
+        private final ExecutionPurpose purpose;
+
+        private final ExecutorContext ctx;
+
+        private final JSqlClientImplementor sqlClient;
+
+        private int batchCount;
+
+        private List<Runnable> executedListeners;
+
+        RenderOnlyBatchContext(String sql, ExecutionPurpose purpose, JSqlClientImplementor sqlClient) {
+            this.sql = sql;
+            this.purpose = purpose;
+            this.ctx = ExecutorContext.create(sqlClient);
+            this.sqlClient = sqlClient;
+        }
+
+        @Override
+        public JSqlClientImplementor sqlClient() {
+            return sqlClient;
+        }
+
+        @Override
+        public String sql() {
+            return sql;
+        }
+
+        @Override
+        public ExecutionPurpose purpose() {
+            return purpose;
+        }
+
+        @Override
+        public ExecutorContext ctx() {
+            return ctx;
+        }
+
+        @Override
+        public void add(List<Object> variables) {
+            blackhole.consume(variables);
+            batchCount++;
+        }
+
+        @Override
+        public int[] execute(BiFunction<SQLException, BatchContext, Exception> exceptionTranslator) {
+            blackhole.consume(sql);
+            int[] rowCounts = new int[batchCount];
+            Arrays.fill(rowCounts, 1);
+            return rowCounts;
+        }
+
+        @Override
+        public Object[] generatedIds() {
+            // The benchmark objects always have ids
+            return new Object[0];
+        }
+
+        @Override
+        public void addExecutedListener(Runnable listener) {
+            if (listener == null) {
+                return;
+            }
+            List<Runnable> listeners = executedListeners;
+            if (listeners == null) {
+                executedListeners = listeners = new ArrayList<>();
+            }
+            listeners.add(listener);
+        }
+
+        @Override
+        public void close() {
+            List<Runnable> listeners = executedListeners;
+            if (listeners != null) {
+                for (Runnable listener : listeners) {
+                    listener.run();
+                }
+            }
+        }
+    }
+}
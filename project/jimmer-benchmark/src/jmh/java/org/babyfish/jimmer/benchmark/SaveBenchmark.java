@@ -0,0 +1,104 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookDraft;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.mutation.BatchSaveResult;
+import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Preparing the batches of save commands: analysing the shape of objects,
+ * rendering the SQL and binding the variables of each row.
+ *
+ * <p>The statements are consumed by {@link RenderOnlyExecutor} instead of being
+ * executed by the database, so the JDBC round trips do not hide the cost of
+ * the batch preparation. Insert and update are measured with the modes which
+ * never query the existing rows; the queries of upsert, if any, return nothing.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SaveBenchmark {
+
+    @Param({"1", "100"})
+    public int entityCount;
+
+    private BenchmarkDatabase database;
+
+    private Connection con;
+
+    private JSqlClient sqlClient;
+
+    private List<Book> newBooks;
+
+    private List<Book> changedBooks;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        database = new BenchmarkDatabase();
+        con = database.getConnection();
+        sqlClient = database
+                .sqlClientBuilder()
+                .setConnectionManager(new ConnectionManager() {
+                    @Override
+                    public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+                        return block.apply(con != null ? con : SaveBenchmark.this.con);
+                    }
+                })
+                .setExecutor(new RenderOnlyExecutor(blackhole))
+                .build();
+        newBooks = new ArrayList<>(entityCount);
+        changedBooks = new ArrayList<>(entityCount);
+        for (int i = 1; i <= entityCount; i++) {
+            long id = i;
+            newBooks.add(
+                    BookDraft.$.produce(draft -> {
+                        draft.setId(100_000L + id);
+                        draft.setName("New-Book-" + id);
+                        draft.setEdition(1);
+                        draft.setPrice(BigDecimal.TEN);
+                        draft.applyStore(store -> store.setId(1L));
+                    })
+            );
+            changedBooks.add(
+                    BookDraft.$.produce(draft -> {
+                        draft.setId(id);
+                        draft.setPrice(BigDecimal.ONE);
+                    })
+            );
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        con.close();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public BatchSaveResult<Book> insert() {
+        return sqlClient.saveEntities(newBooks, SaveMode.INSERT_ONLY);
+    }
+
+    @Benchmark
+    public BatchSaveResult<Book> update() {
+        return sqlClient.saveEntities(changedBooks, SaveMode.UPDATE_ONLY);
+    }
+
+    @Benchmark
+    public BatchSaveResult<Book> upsert() {
+        return sqlClient.saveEntities(newBooks);
+    }
+}
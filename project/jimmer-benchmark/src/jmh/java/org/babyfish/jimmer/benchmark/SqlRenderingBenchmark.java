@@ -0,0 +1,98 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookStoreTable;
+import org.babyfish.jimmer.benchmark.model.BookTable;
+import org.babyfish.jimmer.benchmark.model.BookTableEx;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Building and rendering SQL without executing it,
+ * the executor returns empty result and only consumes the rendered SQL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class SqlRenderingBenchmark {
+
+    private BenchmarkDatabase database;
+
+    private Connection con;
+
+    private JSqlClient sqlClient;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        database = new BenchmarkDatabase();
+        con = database.getConnection();
+        sqlClient = database
+                .sqlClientBuilder()
+                .setConnectionManager(new ConnectionManager() {
+                    @Override
+                    public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+                        return block.apply(con != null ? con : SqlRenderingBenchmark.this.con);
+                    }
+                })
+                .setExecutor(new RenderOnlyExecutor(blackhole))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        con.close();
+        database.shutdown();
+    }
+
+    @Benchmark
+    public List<Book> simpleQuery() {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .where(table.name().eq("GraphQL in Action"))
+                .orderBy(table.edition().desc())
+                .select(table)
+                .execute();
+    }
+
+    @Benchmark
+    public List<Book> complexQuery() {
+        BookTableEx table = BookTableEx.$;
+        return sqlClient
+                .createQuery(table)
+                .where(table.store().name().like("Store"))
+                .where(table.price().between(new BigDecimal("20"), new BigDecimal("80")))
+                .where(
+                        table.store().id().in(
+                                sqlClient
+                                        .createSubQuery(BookStoreTable.$)
+                                        .where(BookStoreTable.$.website().isNotNull())
+                                        .select(BookStoreTable.$.id())
+                        )
+                )
+                .orderBy(table.store().name().asc(), table.name().asc())
+                .select(table)
+                .limit(10, 20)
+                .execute();
+    }
+
+    @Benchmark
+    public Integer update() {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createUpdate(table)
+                .set(table.price(), table.price().plus(BigDecimal.ONE))
+                .where(table.edition().eq(3))
+                .execute();
+    }
+}
@@ -0,0 +1,77 @@
+package org.babyfish.jimmer.benchmark;
+
+import org.babyfish.jimmer.benchmark.model.Book;
+import org.babyfish.jimmer.benchmark.model.BookDraft;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.ValueSerializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializing cached values for remote caches such as Redis.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class ValueSerializerBenchmark {
+
+    private static final int MAP_SIZE = 100;
+
+    private ValueSerializer<Book> serializer;
+
+    private Book book;
+
+    private byte[] bookBytes;
+
+    private Map<Long, Book> bookMap;
+
+    private Map<Long, byte[]> bookBytesMap;
+
+    @Setup
+    public void setup() {
+        serializer = new ValueSerializer<>(ImmutableType.get(Book.class));
+        bookMap = new LinkedHashMap<>();
+        for (long id = 1; id <= MAP_SIZE; id++) {
+            long bookId = id;
+            bookMap.put(
+                    bookId,
+                    BookDraft.$.produce(draft -> {
+                        draft.setId(bookId);
+                        draft.setName("Book-" + bookId);
+                        draft.setEdition(1);
+                        draft.setPrice(BigDecimal.valueOf(bookId));
+                        draft.applyStore(store -> store.setId(1L));
+                    })
+            );
+        }
+        book = bookMap.get(1L);
+        bookBytes = serializer.serialize(book);
+        bookBytesMap = serializer.serialize(bookMap);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(book);
+    }
+
+    @Benchmark
+    public Book deserialize() {
+        return serializer.deserialize(bookBytes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAP_SIZE)
+    public Map<Long, byte[]> serializeMap() {
+        return serializer.serialize(bookMap);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MAP_SIZE)
+    public Map<Long, Book> deserializeMap() {
+        return serializer.deserialize(bookBytesMap);
+    }
+}
@@ -0,0 +1,25 @@
+package org.babyfish.jimmer.benchmark.model;
+
+import org.babyfish.jimmer.sql.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+
+@Entity
+public interface Book {
+
+    @Id
+    long id();
+
+    @Key
+    String name();
+
+    @Key
+    int edition();
+
+    BigDecimal price();
+
+    @Nullable
+    @ManyToOne
+    BookStore store();
+}
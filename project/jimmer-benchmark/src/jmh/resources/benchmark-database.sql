@@ -0,0 +1,19 @@
+drop table book if exists;
+drop table book_store if exists;
+
+create table book_store(
+    id bigint not null primary key,
+    name varchar(50) not null,
+    website varchar(100),
+    constraint uq_book_store unique(name)
+);
+
+create table book(
+    id bigint not null primary key,
+    name varchar(50) not null,
+    edition integer not null,
+    price numeric(10, 2) not null,
+    store_id bigint,
+    constraint uq_book unique(name, edition),
+    constraint fk_book_store foreign key(store_id) references book_store(id)
+);
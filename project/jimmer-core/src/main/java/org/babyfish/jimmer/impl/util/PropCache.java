@@ -36,6 +36,21 @@ public class PropCache<V> {
         negativeMap2 = nullable ? new LRUMap<>() : null;
     }
 
+    /**
+     * @return Whether the value or the absence of value has been created for the key,
+     * it never invokes the creator.
+     */
+    public boolean isCached(ImmutableProp key) {
+        Lock lock;
+        (lock = cacheLock.readLock()).lock();
+        try {
+            return positiveMap.containsKey(key) ||
+                    (negativeMap != null && negativeMap.containsKey(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public V get(ImmutableProp key) {
 
         String keyString = key != null ? key.toString() : null;
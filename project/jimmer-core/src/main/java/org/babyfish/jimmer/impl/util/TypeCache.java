@@ -37,6 +37,21 @@ public class TypeCache<V> {
         negativeMap2 = nullable ? new LRUMap<>() : null;
     }
 
+    /**
+     * @return Whether the value or the absence of value has been created for the key,
+     * it never invokes the creator.
+     */
+    public boolean isCached(ImmutableType key) {
+        Lock lock;
+        (lock = cacheLock.readLock()).lock();
+        try {
+            return positiveMap.containsKey(key) ||
+                    (negativeMap != null && negativeMap.containsKey(key));
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public V get(ImmutableType key) {
 
         String keyString = key != null ? key.toString() : null;
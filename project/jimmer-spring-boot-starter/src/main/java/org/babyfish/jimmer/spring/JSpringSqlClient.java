@@ -28,6 +28,7 @@ import org.babyfish.jimmer.sql.kt.filter.KFilter;
 import org.babyfish.jimmer.sql.kt.filter.impl.JavaFiltersKt;
 import org.babyfish.jimmer.sql.meta.DatabaseNamingStrategy;
 import org.babyfish.jimmer.sql.meta.MetaStringResolver;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.runtime.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,6 +98,8 @@ class JSpringSqlClient extends JLazyInitializationSqlClient {
         Dialect dialect = getOptionalBean(Dialect.class);
         Executor executor = getOptionalBean(Executor.class);
         SqlFormatter sqlFormatter = getOptionalBean(SqlFormatter.class);
+        SqlMetrics metrics = getOptionalBean(SqlMetrics.class);
+        JdbcDispatcher jdbcDispatcher = getOptionalBean(JdbcDispatcher.class);
         CacheFactory cacheFactory = getOptionalBean(CacheFactory.class);
         CacheOperator cacheOperator = getOptionalBean(CacheOperator.class);
         MicroServiceExchange exchange = getOptionalBean(MicroServiceExchange.class);
@@ -159,6 +162,12 @@ class JSpringSqlClient extends JLazyInitializationSqlClient {
         } else {
             builder.setExecutor(executor);
         }
+        if (metrics != null) {
+            builder.setMetrics(metrics);
+        }
+        if (jdbcDispatcher != null) {
+            builder.setJdbcDispatcher(jdbcDispatcher);
+        }
         if (sqlFormatter != null) {
             builder.setSqlFormatter(sqlFormatter);
         } else if (properties.isPrettySql()) {
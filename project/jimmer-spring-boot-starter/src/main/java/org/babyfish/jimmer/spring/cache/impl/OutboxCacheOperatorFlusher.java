@@ -0,0 +1,47 @@
+package org.babyfish.jimmer.spring.cache.impl;
+
+import org.babyfish.jimmer.sql.cache.OutboxCacheOperator;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+
+/**
+ * The cache deletions of {@link OutboxCacheOperator} are executed after commit,
+ * or immediately if there is no transaction, this flusher only retries the failed
+ * deletions and executes the deletions left by crashed applications,
+ * so its default interval is much longer than {@link TransactionCacheOperatorFlusher}.
+ */
+public class OutboxCacheOperatorFlusher {
+
+    private final List<OutboxCacheOperator> operators;
+
+    public OutboxCacheOperatorFlusher(List<OutboxCacheOperator> operators) {
+        if (operators.isEmpty()) {
+            throw new IllegalArgumentException("`operators` cannot be empty");
+        }
+        this.operators = operators;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${jimmer.outbox-cache-operator-fixed-delay:60000}",
+            initialDelay = 0
+    )
+    public void retry() {
+        Throwable throwable = null;
+        for (OutboxCacheOperator operator : operators) {
+            try {
+                operator.flush();
+            } catch (RuntimeException | Error ex) {
+                if (throwable == null) {
+                    throwable = ex;
+                }
+            }
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException)throwable;
+        }
+        if (throwable != null) {
+            throw (Error)throwable;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.babyfish.jimmer.spring.cfg;
+
+import org.babyfish.jimmer.spring.cache.impl.OutboxCacheOperatorFlusher;
+import org.babyfish.jimmer.sql.cache.OutboxCacheOperator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+
+@ConditionalOnBean(OutboxCacheOperator.class)
+@EnableScheduling
+@Configuration
+public class OutboxCacheOperatorFlusherConfig {
+
+    @Bean
+    public OutboxCacheOperatorFlusher outboxCacheOperatorFlusher(
+            List<OutboxCacheOperator> outboxCacheOperators
+    ) {
+        return new OutboxCacheOperatorFlusher(outboxCacheOperators);
+    }
+}
@@ -14,7 +14,11 @@ import org.springframework.context.annotation.Import;
 import java.util.List;
 
 @Configuration
-@Import({TransactionCacheOperatorFlusherConfig.class, MicroServiceExchangeConfig.class})
+@Import({
+        TransactionCacheOperatorFlusherConfig.class,
+        OutboxCacheOperatorFlusherConfig.class,
+        MicroServiceExchangeConfig.class
+})
 public class SqlClientConfig {
 
     @Bean(name = "sqlClient")
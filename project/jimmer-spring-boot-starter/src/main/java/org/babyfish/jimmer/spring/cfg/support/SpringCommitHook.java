@@ -0,0 +1,115 @@
+package org.babyfish.jimmer.spring.cfg.support;
+
+import org.babyfish.jimmer.sql.cache.CommitHook;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Commit hook based on the transaction synchronization of spring,
+ * for example
+ * <pre>{@code
+ * @Bean
+ * public CacheOperator cacheOperator() {
+ *     return new OutboxCacheOperator(new SpringCommitHook());
+ * }
+ * }</pre>
+ *
+ * <p>The callbacks are found from the synchronizations of current transaction,
+ * spring suspends them when an independent transaction such as {@code REQUIRES_NEW}
+ * is started, so the inner transaction never sees the callbacks of the outer one.</p>
+ *
+ * <p>The after-completion callbacks of spring are invoked before the connection of
+ * the completed transaction is released, so the statements executed after commit
+ * use a new connection of the data source and commit it explicitly.</p>
+ */
+public class SpringCommitHook implements CommitHook {
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <C extends Callback> C callback(Object key, Supplier<C> creator) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+                !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof CallbackSynchronization) {
+                CallbackSynchronization callbackSynchronization = (CallbackSynchronization) synchronization;
+                if (callbackSynchronization.key == key) {
+                    return (C) callbackSynchronization.callback;
+                }
+            }
+        }
+        C callback = creator.get();
+        TransactionSynchronizationManager.registerSynchronization(
+                new CallbackSynchronization(key, callback)
+        );
+        return callback;
+    }
+
+    @Override
+    public <R> R executeAfterCompletion(ConnectionManager connectionManager, Function<Connection, R> block) {
+        if (!(connectionManager instanceof DataSourceAwareConnectionManager)) {
+            return CommitHook.super.executeAfterCompletion(connectionManager, block);
+        }
+        // Not `DataSourceUtils.getConnection` which returns the connection of the completed transaction
+        DataSource dataSource = ((DataSourceAwareConnectionManager) connectionManager).getDataSource();
+        try (Connection con = dataSource.getConnection()) {
+            boolean autoCommit = con.getAutoCommit();
+            if (autoCommit) {
+                con.setAutoCommit(false);
+            }
+            try {
+                R result = block.apply(con);
+                con.commit();
+                return result;
+            } catch (RuntimeException | Error ex) {
+                try {
+                    con.rollback();
+                } catch (SQLException rollbackEx) {
+                    ex.addSuppressed(rollbackEx);
+                }
+                throw ex;
+            } finally {
+                if (autoCommit) {
+                    con.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot execute the statements after the transaction is completed", ex);
+        }
+    }
+
+    private static class CallbackSynchronization implements TransactionSynchronization {
+
+        final Object key;
+
+        final Callback callback;
+
+        CallbackSynchronization(Object key, Callback callback) {
+            this.key = key;
+            this.callback = callback;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            callback.beforeCommit();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+                callback.afterCommit();
+            } else {
+                callback.afterRollback();
+            }
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package org.babyfish.jimmer.spring.cfg.support;
 
+import org.babyfish.jimmer.sql.runtime.PreparedStatementCache;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.util.function.Function;
 
+/**
+ * Connection manager based on the connections of spring.
+ *
+ * <p>If the connection is bound to a spring transaction, the cached statements
+ * of {@link PreparedStatementCache} are kept until the transaction is completed,
+ * so that they can be reused by the following statements of the same transaction;
+ * otherwise, they are closed when the connection is released.</p>
+ */
 public class SpringConnectionManager implements DataSourceAwareConnectionManager {
 
     private final DataSource dataSource;
@@ -30,7 +41,47 @@ public class SpringConnectionManager implements DataSourceAwareConnectionManager
         try {
             return block.apply(newConnection);
         } finally {
+            if (!DataSourceUtils.isConnectionTransactional(newConnection, dataSource) ||
+                    !registerStatementCacheRelease(newConnection)) {
+                PreparedStatementCache.close(newConnection);
+            }
             DataSourceUtils.releaseConnection(newConnection, dataSource);
         }
     }
+
+    @Override
+    public boolean isConnectionBoundToThread() {
+        return TransactionSynchronizationManager.hasResource(dataSource);
+    }
+
+    private static boolean registerStatementCacheRelease(Connection con) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof StatementCacheSynchronization &&
+                    ((StatementCacheSynchronization) synchronization).con == con) {
+                return true;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new StatementCacheSynchronization(con)
+        );
+        return true;
+    }
+
+    private static class StatementCacheSynchronization implements TransactionSynchronization {
+
+        final Connection con;
+
+        StatementCacheSynchronization(Connection con) {
+            this.con = con;
+        }
+
+        // Invoked by the transaction thread before the connection is released by the transaction manager
+        @Override
+        public void afterCompletion(int status) {
+            PreparedStatementCache.close(con);
+        }
+    }
 }
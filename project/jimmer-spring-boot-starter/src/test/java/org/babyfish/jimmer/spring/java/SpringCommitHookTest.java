@@ -0,0 +1,130 @@
+package org.babyfish.jimmer.spring.java;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.spring.AbstractTest;
+import org.babyfish.jimmer.spring.cfg.support.SpringCommitHook;
+import org.babyfish.jimmer.spring.cfg.support.SpringConnectionManager;
+import org.babyfish.jimmer.spring.datasource.DataSources;
+import org.babyfish.jimmer.spring.java.model.Book;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.cache.Cache;
+import org.babyfish.jimmer.sql.cache.CacheEnvironment;
+import org.babyfish.jimmer.sql.cache.CacheFactory;
+import org.babyfish.jimmer.sql.cache.OutboxCacheOperator;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.event.TriggerType;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+public class SpringCommitHookTest extends AbstractTest {
+
+    private static final UUID BOOK_ID = UUID.fromString("e110c564-23cc-4811-9e81-d587a13db634");
+
+    @BeforeAll
+    public static void beforeAll() {
+        initDatabase(DataSources.create(null));
+    }
+
+    @Test
+    public void testDeleteOutboxAfterCommit() {
+        DataSource dataSource = DataSources.create(null);
+        List<Object> deletedKeys = new ArrayList<>();
+        JSqlClient sqlClient = JSqlClient
+                .newBuilder()
+                .setDialect(new H2Dialect())
+                .setConnectionManager(new SpringConnectionManager(dataSource))
+                .setTriggerType(TriggerType.TRANSACTION_ONLY)
+                .setCacheOperator(new OutboxCacheOperator(new SpringCommitHook()))
+                .setCacheFactory(new CacheFactory() {
+                    @Override
+                    public Cache<?, ?> createObjectCache(@NotNull ImmutableType type) {
+                        return new ObjectCacheImpl<>(type, deletedKeys);
+                    }
+                })
+                .build();
+        ((OutboxCacheOperator) ((JSqlClientImplementor) sqlClient).getCacheOperator()).flush();
+        deletedKeys.clear();
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        List<Integer> rowCounts = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.delete(BOOK_ID);
+            // Registered after the callback of outbox cache operator
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    rowCounts.add(outboxRowCount(dataSource));
+                }
+            });
+            Assertions.assertEquals(0, outboxRowCount(dataSource));
+        });
+
+        Assertions.assertEquals(Collections.singletonList(BOOK_ID), deletedKeys);
+        // The outbox rows have been deleted and committed before the connection
+        // of the transaction is released by the transaction manager
+        Assertions.assertEquals(Collections.singletonList(0), rowCounts);
+        Assertions.assertEquals(0, outboxRowCount(dataSource));
+    }
+
+    private static int outboxRowCount(DataSource dataSource) {
+        try (Connection con = dataSource.getConnection();
+             Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery("select count(*) from " + OutboxCacheOperator.TABLE_NAME)
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        } catch (SQLException ex) {
+            throw new AssertionError("Cannot count the rows of outbox", ex);
+        }
+    }
+
+    private static class ObjectCacheImpl<K, V> implements Cache<K, V> {
+
+        private final ImmutableType type;
+
+        private final List<Object> deletedKeys;
+
+        ObjectCacheImpl(ImmutableType type, List<Object> deletedKeys) {
+            this.type = type;
+            this.deletedKeys = deletedKeys;
+        }
+
+        @Override
+        public @NotNull ImmutableType type() {
+            return type;
+        }
+
+        @Override
+        public @Nullable ImmutableProp prop() {
+            return null;
+        }
+
+        @Override
+        public @NotNull Map<K, V> getAll(@NotNull Collection<K> keys, @NotNull CacheEnvironment<K, V> env) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteAll(@NotNull Collection<K> keys, @Nullable Object reason) {
+            deletedKeys.addAll(keys);
+        }
+    }
+}
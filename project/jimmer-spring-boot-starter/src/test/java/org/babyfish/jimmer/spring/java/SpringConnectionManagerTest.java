@@ -0,0 +1,75 @@
+package org.babyfish.jimmer.spring.java;
+
+import org.babyfish.jimmer.spring.AbstractTest;
+import org.babyfish.jimmer.spring.cfg.support.SpringConnectionManager;
+import org.babyfish.jimmer.spring.datasource.DataSources;
+import org.babyfish.jimmer.spring.java.model.Book;
+import org.babyfish.jimmer.spring.java.model.BookTable;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.babyfish.jimmer.sql.runtime.PreparedStatementCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+public class SpringConnectionManagerTest extends AbstractTest {
+
+    @BeforeAll
+    public static void beforeAll() {
+        initDatabase(DataSources.create(null));
+    }
+
+    @Test
+    public void testStatementCache() {
+        DataSource dataSource = DataSources.create(null);
+        JSqlClient sqlClient = JSqlClient
+                .newBuilder()
+                .setDialect(new H2Dialect())
+                .setConnectionManager(new SpringConnectionManager(dataSource))
+                .setPreparedStatementCacheCapacity(8)
+                .build();
+        PreparedStatementCache cache = ((JSqlClientImplementor) sqlClient).getPreparedStatementCache();
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // Without transaction, the statements are closed with the connection
+        String expected = query(sqlClient);
+        Assertions.assertEquals(expected, query(sqlClient));
+        Assertions.assertEquals(2L, cache.getMissCount());
+        Assertions.assertEquals(0L, cache.getHitCount());
+
+        // In transaction, the statements are reused until the transaction is completed
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertEquals(expected, query(sqlClient));
+            }
+        });
+        Assertions.assertEquals(3L, cache.getMissCount());
+        Assertions.assertEquals(2L, cache.getHitCount());
+
+        // Another transaction prepares its own statements
+        transactionTemplate.executeWithoutResult(status -> {
+            Assertions.assertEquals(expected, query(sqlClient));
+        });
+        Assertions.assertEquals(4L, cache.getMissCount());
+        Assertions.assertEquals(2L, cache.getHitCount());
+    }
+
+    private static String query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        List<Book> books = sqlClient
+                .createQuery(table)
+                .where(table.name().eq("GraphQL in Action"))
+                .orderBy(table.edition().asc())
+                .select(table)
+                .execute();
+        Assertions.assertEquals(3, books.size());
+        return books.toString();
+    }
+}
@@ -0,0 +1,185 @@
+package org.babyfish.jimmer.sql.kt
+
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.asExecutor
+import kotlinx.coroutines.channels.trySendBlocking
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.emitAll
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.suspendCancellableCoroutine
+import org.babyfish.jimmer.Input
+import org.babyfish.jimmer.Page
+import org.babyfish.jimmer.sql.ast.mutation.AssociatedSaveMode
+import org.babyfish.jimmer.sql.ast.mutation.SaveMode
+import org.babyfish.jimmer.sql.kt.ast.KExecutable
+import org.babyfish.jimmer.sql.kt.ast.mutation.KBatchSaveResult
+import org.babyfish.jimmer.sql.kt.ast.mutation.KSaveCommandDsl
+import org.babyfish.jimmer.sql.kt.ast.mutation.KSaveCommandPartialDsl
+import org.babyfish.jimmer.sql.kt.ast.mutation.KSimpleSaveResult
+import org.babyfish.jimmer.sql.kt.ast.query.KConfigurableRootQuery
+import org.babyfish.jimmer.sql.runtime.JdbcDispatcher
+import java.util.concurrent.CompletionException
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/*
+ * Suspend functions of KSqlClient.
+ *
+ * The blocking JDBC work is dispatched by the `JdbcDispatcher` configured by
+ * `KSqlClientDsl.setJdbcDispatcher`, which should be limited by the size of the
+ * connection pool. If it is not configured, by a shared dispatcher backed by
+ * `Dispatchers.IO` whose max concurrency is the parallelism of `Dispatchers.IO`,
+ * so that the waiting tasks never occupy its threads.
+ * Cancelling the coroutine cancels the JDBC statement being executed.
+ *
+ * Transactions: the dispatched work runs on another thread, so it cannot see
+ * the connection bound to the calling thread, for example, the transaction of
+ * spring, the shard bound by `ShardingConnectionManager.executeOn` or the route
+ * bound by `RoutingConnectionManager`; it would be executed by an independent
+ * connection out of that transaction. To avoid this, if the connection manager
+ * reports `ConnectionManager.isConnectionBoundToThread`, the work is executed
+ * inline by the calling thread which blocks it, exactly like the blocking API.
+ * These functions never accept an explicit connection, use the blocking API
+ * with `con` for that.
+ */
+
+private val DEFAULT_JDBC_DISPATCHER: JdbcDispatcher by lazy {
+    JdbcDispatcher(Dispatchers.IO.asExecutor(), ioParallelism())
+}
+
+/**
+ * The same limit as `Dispatchers.IO`, which is configured by the system property
+ * `kotlinx.coroutines.io.parallelism`
+ */
+private fun ioParallelism(): Int =
+    System.getProperty("kotlinx.coroutines.io.parallelism")
+        ?.toIntOrNull()
+        ?.takeIf { it > 0 }
+        ?: maxOf(64, Runtime.getRuntime().availableProcessors())
+
+val KSqlClient.jdbcDispatcher: JdbcDispatcher
+    get() = javaClient.jdbcDispatcher ?: DEFAULT_JDBC_DISPATCHER
+
+/**
+ * Execute any blocking operation of the sql client by the jdbc dispatcher,
+ * or inline if the connection is bound to the current thread, for example,
+ * in the transaction of spring.
+ */
+suspend fun <R> KSqlClient.await(block: KSqlClient.() -> R): R =
+    awaitJdbc { block(this) }
+
+suspend fun <R> KSqlClient.executeAwait(executable: KExecutable<R>): R =
+    awaitJdbc { executable.execute() }
+
+suspend fun <E : Any, R> KSqlClient.fetchPageAwait(
+    query: KConfigurableRootQuery<E, R>,
+    pageIndex: Int,
+    pageSize: Int
+): Page<R> =
+    awaitJdbc { query.fetchPage(pageIndex, pageSize) }
+
+suspend fun <E : Any> KSqlClient.saveAwait(
+    entity: E,
+    block: (KSaveCommandDsl.() -> Unit)? = null
+): KSimpleSaveResult<E> =
+    awaitJdbc { save(entity, block) }
+
+suspend fun <E : Any> KSqlClient.saveAwait(
+    entity: E,
+    mode: SaveMode,
+    associatedMode: AssociatedSaveMode = AssociatedSaveMode.REPLACE,
+    block: (KSaveCommandPartialDsl.() -> Unit)? = null
+): KSimpleSaveResult<E> =
+    awaitJdbc { save(entity, mode, associatedMode, block) }
+
+suspend fun <E : Any> KSqlClient.saveAwait(
+    input: Input<E>,
+    block: (KSaveCommandDsl.() -> Unit)? = null
+): KSimpleSaveResult<E> =
+    awaitJdbc { save(input, block) }
+
+suspend fun <E : Any> KSqlClient.saveEntitiesAwait(
+    entities: Iterable<E>,
+    block: (KSaveCommandDsl.() -> Unit)? = null
+): KBatchSaveResult<E> =
+    awaitJdbc { saveEntities(entities, block) }
+
+/**
+ * Emit the rows of the query by the cursor of [KConfigurableRootQuery.stream],
+ * the connection is held until the flow is completed or cancelled.
+ *
+ * If the connection is bound to the collecting thread, for example, in the
+ * transaction of spring, the rows are read by that connection inline and
+ * the jdbc dispatcher is not used.
+ *
+ * @param batchSize The fetch size and the size of object fetcher batches,
+ * non-positive value means the default batch size of the sql client.
+ */
+fun <E : Any, R> KSqlClient.flow(
+    query: KConfigurableRootQuery<E, R>,
+    batchSize: Int = 0
+): Flow<R> {
+    val forUpdate = query.isForUpdate
+    val dispatcher = jdbcDispatcher
+    return flow {
+        val connectionManager = javaClient.getSlaveConnectionManager(forUpdate)
+        if (connectionManager.isConnectionBoundToThread) {
+            // The bound connection is not released when `execute` returns
+            val con = connectionManager.execute { it }
+            val stream = query.stream(con, batchSize)
+            try {
+                val itr = stream.iterator()
+                while (itr.hasNext()) {
+                    emit(itr.next())
+                }
+            } finally {
+                stream.close()
+            }
+        } else {
+            emitAll(
+                channelFlow {
+                    dispatcher.await {
+                        connectionManager.execute { con ->
+                            val stream = query.stream(con, batchSize)
+                            try {
+                                val itr = stream.iterator()
+                                while (itr.hasNext()) {
+                                    trySendBlocking(itr.next()).getOrThrow()
+                                }
+                            } finally {
+                                stream.close()
+                            }
+                        }
+                    }
+                }
+            )
+        }
+    }
+}
+
+private suspend fun <R> KSqlClient.awaitJdbc(block: () -> R): R =
+    if (javaClient.connectionManager.isConnectionBoundToThread ||
+        javaClient.getSlaveConnectionManager(false).isConnectionBoundToThread
+    ) {
+        block()
+    } else {
+        jdbcDispatcher.await(block)
+    }
+
+private suspend fun <R> JdbcDispatcher.await(block: () -> R): R =
+    suspendCancellableCoroutine { continuation ->
+        val future = dispatch(block)
+        continuation.invokeOnCancellation {
+            future.cancel(true)
+        }
+        future.whenComplete { result, ex ->
+            if (ex !== null) {
+                continuation.resumeWithException(
+                    (ex as? CompletionException)?.cause ?: ex
+                )
+            } else {
+                continuation.resume(result)
+            }
+        }
+    }
@@ -57,6 +57,16 @@ interface KSaveCommandPartialDsl {
 
     fun setLockMode(lockMode: LockMode)
 
+    /**
+     * @see org.babyfish.jimmer.sql.ast.mutation.AbstractEntitySaveCommand.setBulkInsert
+     */
+    fun setBulkInsert(bulkInsert: Boolean = true)
+
+    /**
+     * @see org.babyfish.jimmer.sql.ast.mutation.AbstractEntitySaveCommand.setAssociationBatchMerged
+     */
+    fun setAssociationBatchMerged(merged: Boolean = true)
+
     fun setTargetTransferMode(prop: KProperty1<*, *>, mode: TargetTransferMode)
 
     fun setTargetTransferModeAll(mode: TargetTransferMode)
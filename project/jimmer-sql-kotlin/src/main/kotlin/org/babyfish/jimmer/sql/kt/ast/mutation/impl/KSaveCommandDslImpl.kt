@@ -119,6 +119,14 @@ internal class KSaveCommandDslImpl(
         javaCommand = javaCommand.setLockMode(lockMode)
     }
 
+    override fun setBulkInsert(bulkInsert: Boolean) {
+        javaCommand = javaCommand.setBulkInsert(bulkInsert)
+    }
+
+    override fun setAssociationBatchMerged(merged: Boolean) {
+        javaCommand = javaCommand.setAssociationBatchMerged(merged)
+    }
+
     override fun setTargetTransferMode(prop: KProperty1<*, *>, mode: TargetTransferMode) {
         javaCommand = javaCommand.setTargetTransferMode(prop.toImmutableProp(), mode)
     }
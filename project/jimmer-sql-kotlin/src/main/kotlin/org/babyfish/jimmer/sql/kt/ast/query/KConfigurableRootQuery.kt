@@ -4,8 +4,10 @@ import org.babyfish.jimmer.Page
 import org.babyfish.jimmer.Slice
 import org.babyfish.jimmer.lang.NewChain
 import org.babyfish.jimmer.sql.ast.query.PageFactory
+import org.babyfish.jimmer.sql.ast.query.SeekPage
 import org.babyfish.jimmer.sql.kt.ast.expression.rowCount
 import java.sql.Connection
+import java.util.stream.Stream
 
 interface KConfigurableRootQuery<E: Any, R> : KTypedRootQuery<R> {
 
@@ -45,6 +47,45 @@ interface KConfigurableRootQuery<E: Any, R> : KTypedRootQuery<R> {
         con: Connection? = null
     ) : Slice<R>
 
+    /**
+     * Keyset pagination, fetch the rows after the cursor,
+     * the rows before the cursor are skipped by the predicate
+     * derived from the `orderBy` clause rather than `offset`.
+     *
+     * @param afterCursor The [SeekPage.endCursor] of the previous page,
+     * null means the first page
+     */
+    fun fetchSeekPage(
+        afterCursor: String?,
+        size: Int,
+        con: Connection? = null
+    ): SeekPage<R>
+
+    /**
+     * Keyset pagination, fetch the rows before the cursor
+     * by reversing the sorting of the query.
+     *
+     * @param beforeCursor The [SeekPage.startCursor] of the next page,
+     * null means the last page
+     */
+    fun fetchSeekPageBefore(
+        beforeCursor: String?,
+        size: Int,
+        con: Connection? = null
+    ): SeekPage<R>
+
+    /**
+     * Execute the query by a forward-only cursor and return a lazy stream,
+     * rows are read and their associations are fetched chunk by chunk.
+     *
+     * The returned stream holds an open statement and result set,
+     * it must be closed by `use` unless it is consumed completely.
+     *
+     * @param con The explicit jdbc connection, it must remain valid until the stream is closed
+     * @param batchSize The jdbc fetch size and the chunk size, non-positive value means default batch size
+     */
+    fun stream(con: Connection, batchSize: Int = 0): Stream<R>
+
     @NewChain
     fun <X> reselect(
         block: KMutableRootQuery<E>.() -> KConfigurableRootQuery<E, X>
@@ -73,4 +114,10 @@ interface KConfigurableRootQuery<E: Any, R> : KTypedRootQuery<R> {
 
     @NewChain
     fun forUpdate(forUpdate: Boolean = true): KConfigurableRootQuery<E, R>
+
+    /**
+     * Whether the query locks the selected rows,
+     * such query must be executed by the master connection.
+     */
+    val isForUpdate: Boolean
 }
@@ -24,6 +24,7 @@ import org.babyfish.jimmer.sql.kt.filter.impl.toJavaFilter
 import org.babyfish.jimmer.sql.kt.impl.KSqlClientImpl
 import org.babyfish.jimmer.sql.meta.DatabaseNamingStrategy
 import org.babyfish.jimmer.sql.meta.IdGenerator
+import org.babyfish.jimmer.sql.metrics.SqlMetrics
 import org.babyfish.jimmer.sql.runtime.*
 import java.sql.Connection
 import java.time.ZoneId
@@ -63,6 +64,10 @@ class KSqlClientDsl constructor(
         javaBuilder.setExpandedInListPaddingEnabled(enabled)
     }
 
+    fun setInListToAnyEqualityEnabled(enabled: Boolean) {
+        javaBuilder.setInListToAnyEqualityEnabled(enabled)
+    }
+
     fun setDefaultLockMode(defaultLockMode: LockMode) {
         javaBuilder.setDefaultLockMode(defaultLockMode)
     }
@@ -129,6 +134,73 @@ class KSqlClientDsl constructor(
         javaBuilder.setSqlFormatter(fFormatter)
     }
 
+    /**
+     * Set the metrics SPI which records the latency of SQL statements,
+     * the size of batches and the fan-out of object fetchers.
+     */
+    fun setMetrics(metrics: SqlMetrics?) {
+        javaBuilder.setMetrics(metrics)
+    }
+
+    /**
+     * Load the independent sibling properties of object fetchers concurrently
+     * by this executor, it only takes effect outside transactions.
+     */
+    fun setParallelFetchingExecutor(executor: java.util.concurrent.Executor?) {
+        javaBuilder.setParallelFetchingExecutor(executor)
+    }
+
+    /**
+     * Execute the count query of `fetchPage` concurrently with the data query
+     * by this executor, it only takes effect outside transactions.
+     *
+     * At most [maxConcurrency] count queries borrow second connections at the same time,
+     * it should be less than the spare connections of the pool.
+     */
+    fun setPageCountExecutor(
+        executor: java.util.concurrent.Executor?,
+        maxConcurrency: Int = JSqlClient.Builder.DEFAULT_PAGE_COUNT_CONCURRENCY
+    ) {
+        javaBuilder.setPageCountExecutor(executor, maxConcurrency)
+    }
+
+    /**
+     * Use the row count estimated by the database planner as the total row count
+     * of `fetchPage` if the estimation is not less than this threshold.
+     */
+    fun setApproximatePageCountThreshold(threshold: Long) {
+        javaBuilder.setApproximatePageCountThreshold(threshold)
+    }
+
+    /**
+     * Coalesce the concurrent loads of object fetchers of different threads,
+     * it only takes effect outside transactions.
+     */
+    fun setLoadCoalescingWindow(window: java.time.Duration?) {
+        javaBuilder.setLoadCoalescingWindow(window)
+    }
+
+    /**
+     * The dispatcher of suspend functions such as [org.babyfish.jimmer.sql.kt.executeAwait],
+     * its max concurrency should not be greater than the size of the connection pool.
+     */
+    fun setJdbcDispatcher(jdbcDispatcher: JdbcDispatcher?) {
+        javaBuilder.setJdbcDispatcher(jdbcDispatcher)
+    }
+
+    /**
+     * Create the dispatcher of suspend functions by the [executor],
+     * for example, `Dispatchers.IO.asExecutor()`.
+     * At most [maxConcurrency] tasks are executed at the same time,
+     * it should be the size of the connection pool.
+     */
+    fun setJdbcDispatcher(
+        executor: java.util.concurrent.Executor,
+        maxConcurrency: Int
+    ) {
+        javaBuilder.setJdbcDispatcher(JdbcDispatcher(executor, maxConcurrency))
+    }
+
     fun setZoneId(zoneId: ZoneId) {
         javaBuilder.setZoneId(zoneId)
     }
@@ -220,6 +292,10 @@ class KSqlClientDsl constructor(
         javaBuilder.setTriggerType(triggerType)
     }
 
+    fun setTriggerDispatchExecutor(executor: java.util.concurrent.Executor?, maxPendingBatches: Int) {
+        javaBuilder.setTriggerDispatchExecutor(executor, maxPendingBatches)
+    }
+
     fun addFilters(vararg filters: KFilter<*>) {
         javaBuilder.addFilters(filters.map { it.toJavaFilter() })
     }
@@ -330,6 +406,22 @@ class KSqlClientDsl constructor(
         javaBuilder.setDatabaseValidationSchema(schema)
     }
 
+    /**
+     * Load the primary keys and foreign keys of tables by this count of connections concurrently
+     * during database validation.
+     */
+    fun setDatabaseValidationParallelism(parallelism: Int) {
+        javaBuilder.setDatabaseValidationParallelism(parallelism)
+    }
+
+    /**
+     * Build the lazily created metadata of all entity types by this executor
+     * after the sql client is initialized.
+     */
+    fun setMetadataWarmupExecutor(executor: java.util.concurrent.Executor?) {
+        javaBuilder.setMetadataWarmupExecutor(executor)
+    }
+
     /**
      * For RDBMS, pagination is slow if `offset` is large, especially for MySQL.
      *
@@ -357,6 +449,29 @@ class KSqlClientDsl constructor(
         javaBuilder.setOffsetOptimizingThreshold(threshold)
     }
 
+    /**
+     * Set the capacity of the prepared statement cache of each connection, 0 means disabled.
+     */
+    fun setPreparedStatementCacheCapacity(capacity: Int) {
+        javaBuilder.setPreparedStatementCacheCapacity(capacity)
+    }
+
+    /**
+     * Set the max row count investigated after a batch statement violates constraints,
+     * the error message of database is parsed instead once it is exceeded.
+     */
+    fun setMaxInvestigationRowCount(maxRowCount: Int) {
+        javaBuilder.setMaxInvestigationRowCount(maxRowCount)
+    }
+
+    /**
+     * Set the max time spent to investigate a batch statement violating constraints,
+     * null means unlimited.
+     */
+    fun setInvestigationTimeout(timeout: java.time.Duration?) {
+        javaBuilder.setInvestigationTimeout(timeout)
+    }
+
     fun setMicroServiceName(microServiceName: String) {
         javaBuilder.setMicroServiceName(microServiceName)
     }
@@ -373,11 +488,28 @@ class KSqlClientDsl constructor(
 
         private var result: Any? = null
 
+        /**
+         * Execute the jimmer operation by the connection.
+         *
+         * If the connection is in auto-commit mode, the statements cached by
+         * [PreparedStatementCache] are closed when this function returns.
+         * Otherwise, the connection belongs to a transaction so that the cached statements
+         * are kept for the following operations of that transaction, the owner of the
+         * transaction should call [PreparedStatementCache.close] before the connection
+         * is released, otherwise they are closed when the current thread uses another
+         * connection and finds this connection closed.
+         */
         fun proceed(con: Connection) {
             if (proceeded) {
                 throw IllegalStateException("ConnectionManagerDsl cannot be proceeded twice")
             }
-            result = javaBlock.apply(con)
+            try {
+                result = javaBlock.apply(con)
+            } finally {
+                if (con.autoCommit) {
+                    PreparedStatementCache.close(con)
+                }
+            }
             proceeded = true
         }
 
@@ -0,0 +1,55 @@
+package org.babyfish.jimmer.sql.kt.query
+
+import kotlinx.coroutines.flow.take
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.runBlocking
+import org.babyfish.jimmer.sql.kt.ast.expression.asc
+import org.babyfish.jimmer.sql.kt.ast.expression.desc
+import org.babyfish.jimmer.sql.kt.common.AbstractQueryTest
+import org.babyfish.jimmer.sql.kt.executeAwait
+import org.babyfish.jimmer.sql.kt.fetchPageAwait
+import org.babyfish.jimmer.sql.kt.flow
+import org.babyfish.jimmer.sql.kt.model.classic.book.*
+import org.babyfish.jimmer.sql.runtime.JdbcDispatcher
+import org.junit.Test
+import java.util.concurrent.Executors
+import kotlin.test.assertEquals
+
+class CoroutineTest : AbstractQueryTest() {
+
+    @Test
+    fun testAwaitAndFlow() {
+        val executorService = Executors.newFixedThreadPool(2)
+        try {
+            val sqlClient = sqlClient {
+                setConnectionManager(TestConnectionManager())
+                setJdbcDispatcher(JdbcDispatcher(executorService, 2))
+            }
+            val query = sqlClient.createQuery(Book::class) {
+                orderBy(table.name.asc(), table.edition.desc())
+                select(table)
+            }
+            val expected = query.execute()
+            runBlocking {
+                assertEquals(
+                    expected.toString(),
+                    sqlClient.executeAwait(query).toString()
+                )
+                assertEquals(
+                    expected.take(3).toString(),
+                    sqlClient.fetchPageAwait(query, 0, 3).rows.toString()
+                )
+                assertEquals(
+                    expected.toString(),
+                    sqlClient.flow(query, 3).toList().toString()
+                )
+                assertEquals(
+                    expected.take(2).toString(),
+                    sqlClient.flow(query, 3).take(2).toList().toString()
+                )
+            }
+        } finally {
+            executorService.shutdownNow()
+        }
+    }
+}
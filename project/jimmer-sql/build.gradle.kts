@@ -19,6 +19,8 @@ dependencies {
     compileOnly(libs.spring.data.redis)
     compileOnly(libs.quarkus.redis.client)
     compileOnly(libs.redisson)
+    compileOnly(libs.micrometer.core)
+    compileOnly(libs.reactor.core)
     compileOnly(libs.antlr) {
         exclude("com.ibm.icu", "icu4j")
     }
@@ -43,6 +45,9 @@ dependencies {
     testImplementation(libs.javax.validation.api)
     testImplementation(libs.hibernate.validation)
     testImplementation(libs.antlr)
+    testImplementation(libs.reactor.core)
+    testImplementation(libs.caffeine)
+    testImplementation(libs.micrometer.core)
     // testImplementation(files("/Users/chentao/Downloads/ojdbc8-21.9.0.0.jar"))
 }
 
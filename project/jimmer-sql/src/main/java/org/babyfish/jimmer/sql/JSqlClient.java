@@ -26,6 +26,7 @@ import org.babyfish.jimmer.sql.ast.table.Table;
 import org.babyfish.jimmer.sql.dialect.Dialect;
 import org.babyfish.jimmer.sql.meta.IdGenerator;
 import org.babyfish.jimmer.sql.meta.MetaStringResolver;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.runtime.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -1268,6 +1269,8 @@ public interface JSqlClient extends SubQueryProvider {
 
         int DEFAULT_LIST_BATCH_SIZE = 16;
 
+        int DEFAULT_PAGE_COUNT_CONCURRENCY = 4;
+
         @OldChain
         Builder setConnectionManager(ConnectionManager connectionManager);
 
@@ -1304,6 +1307,142 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setSqlFormatter(SqlFormatter formatter);
 
+        /**
+         * Set the metrics SPI which records the latency of SQL statements,
+         * the size of batches and the fan-out of object fetchers.
+         *
+         * <p>The executor is wrapped automatically, it can be used
+         * together with {@link Executor#log()}.</p>
+         *
+         * @param metrics The metrics SPI, null means disabled
+         */
+        @OldChain
+        Builder setMetrics(@Nullable SqlMetrics metrics);
+
+        /**
+         * Enable the parallel fetching mode of object fetchers.
+         *
+         * <p>By default, the associations and calculated properties of one object fetcher
+         * are loaded one by one by the current thread. If this executor is configured,
+         * the independent sibling properties of the same level are loaded concurrently
+         * by this executor, for example, {@code Executors.newVirtualThreadPerTaskExecutor()}
+         * of JDK 21+, so that the fetching latency is the maximum of the sibling
+         * round trips, not their sum.</p>
+         *
+         * <p>Each concurrent branch uses its own connection acquired from the
+         * {@link ConnectionManager} (or the slave connection manager), so this mode
+         * only takes effect when the connection of the query is in auto-commit mode,
+         * that is, outside transactions. Filters and transient resolvers are invoked by
+         * the threads of the executor in this mode, they must not depend on thread-local
+         * variables of the calling thread.</p>
+         *
+         * @param executor The executor, null means disabled
+         */
+        @OldChain
+        Builder setParallelFetchingExecutor(@Nullable java.util.concurrent.Executor executor);
+
+        /**
+         * Enable the parallel count mode of
+         * {@link org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery#fetchPage(int, int)}.
+         *
+         * <p>By default, the count query and the data query of a page are executed
+         * one after the other. If this executor is configured, the count query is executed
+         * by this executor concurrently with the data query, so that the latency of
+         * the page is the maximum of the two queries, not their sum.</p>
+         *
+         * <p>The count query uses its own connection acquired from the slave connection manager
+         * (or the {@link ConnectionManager} if the slave connection manager is not configured),
+         * so this mode only takes effect when the connection of the query is in auto-commit mode,
+         * that is, outside transactions. The optimization which queries the pages near
+         * the end by reversed sorting is not used by this mode because the total row count
+         * is unknown when the data query is started.</p>
+         *
+         * <p>It is the same as {@code setPageCountExecutor(executor, DEFAULT_PAGE_COUNT_CONCURRENCY)}</p>
+         *
+         * @param executor The executor, null means disabled
+         * @see #setPageCountExecutor(java.util.concurrent.Executor, int)
+         */
+        @OldChain
+        Builder setPageCountExecutor(@Nullable java.util.concurrent.Executor executor);
+
+        /**
+         * Enable the parallel count mode of
+         * {@link org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery#fetchPage(int, int)}
+         * and bound the connections borrowed by it.
+         *
+         * <p>Each concurrent count query borrows a second connection while the connection
+         * of the data query is held. If {@code maxConcurrency} count queries are running,
+         * the other pages are counted by their own connections after the data queries;
+         * if the executor has not started a count query when the data query is finished,
+         * that count query is executed by the connection of the data query too.
+         * So the pages can never wait for each other to exhaust the pool,
+         * {@code maxConcurrency} should be less than the spare connections of the pool.</p>
+         *
+         * @param executor The executor, null means disabled
+         * @param maxConcurrency The max count of count queries which borrow connections at the same time
+         */
+        @OldChain
+        Builder setPageCountExecutor(@Nullable java.util.concurrent.Executor executor, int maxConcurrency);
+
+        /**
+         * Enable the approximate count mode of
+         * {@link org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery#fetchPage(int, int)}.
+         *
+         * <p>If the row count estimated by the database planner, see
+         * {@link Dialect#getRowCountEstimationSql(String)}, is not less than
+         * this threshold, the estimated value is used as the total row count
+         * of the page and the exact count query is not executed.</p>
+         *
+         * <p>In this mode, the data query is executed first, if the page is not full,
+         * the exact total row count is known and the estimation is skipped.</p>
+         *
+         * <p>This mode is ignored by the dialects which do not support estimation.</p>
+         *
+         * @param threshold The threshold, {@link Long#MAX_VALUE} means disabled,
+         *                  that is the default value
+         */
+        @OldChain
+        Builder setApproximatePageCountThreshold(long threshold);
+
+        /**
+         * Coalesce the concurrent loads of associations and transient properties
+         * issued by object fetchers of different threads.
+         *
+         * <p>When many threads fetch the same association of the same parent objects,
+         * only one of them loads each parent id, others join its in-flight load.
+         * The thread which starts a load waits for the window so that the ids
+         * requested by other threads during this period can be merged into
+         * one {@code IN(...)} query or one cache {@code getAll} call.</p>
+         *
+         * <p>A load is only coalesced when the connection is in auto-commit mode,
+         * that is, outside transactions, and its result is determined by the
+         * property, the object fetcher and the parameters of global filters.
+         * So the loads using field filters of object fetchers, non-cacheable
+         * global filters, remote associations or transient resolvers without
+         * parameter map are never coalesced.</p>
+         *
+         * @param window The batching window, null means disabled, that is the default value;
+         *               {@link java.time.Duration#ZERO} means joining in-flight loads
+         *               without waiting
+         */
+        @OldChain
+        Builder setLoadCoalescingWindow(@Nullable java.time.Duration window);
+
+        /**
+         * Set the dispatcher used by the non-blocking facades, such as
+         * {@link org.babyfish.jimmer.sql.reactive.ReactiveSqlClient}
+         * and the suspend functions of the kotlin API.
+         *
+         * <p>Its max concurrency should not be greater than the size of
+         * the connection pool.</p>
+         *
+         * @param jdbcDispatcher The dispatcher, null means that the facades
+         *                       use their own default dispatcher or require
+         *                       an explicit one
+         */
+        @OldChain
+        Builder setJdbcDispatcher(@Nullable JdbcDispatcher jdbcDispatcher);
+
         @OldChain
         Builder setZoneId(@Nullable ZoneId zoneId);
 
@@ -1367,6 +1506,23 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setExpandedInListPaddingEnabled(boolean enabled);
 
+        /**
+         * If the dialect supports {@link Dialect#isAnyEqualityOfArraySupported()},
+         * in-list predicates of single column are always rendered as
+         * {@code = any(?)} with one array parameter, even if there is
+         * only one value, and the data loaders and {@code findByIds}
+         * do not use special queries for single id.
+         *
+         * <p>So the SQL text does not depend on the length of the list,
+         * database can share one execution plan and JDBC statement cache
+         * can share one prepared statement for all lengths.</p>
+         *
+         * <p>This option is ignored by the dialects which do not support arrays,
+         * it is disabled by default.</p>
+         */
+        @OldChain
+        Builder setInListToAnyEqualityEnabled(boolean enabled);
+
         /**
          * For RDBMS, pagination is slow if `offset` is large, especially for MySQL.
          *
@@ -1393,6 +1549,54 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setOffsetOptimizingThreshold(int threshold);
 
+        /**
+         * Set the capacity of the prepared statement cache of each connection.
+         *
+         * <p>By default, the {@link org.babyfish.jimmer.sql.runtime.DefaultExecutor}
+         * prepares and closes a statement for each execution. If this cache is enabled,
+         * the statements are remembered by a bounded LRU cache of each connection
+         * and reused by the later executions of the same SQL, for example, the queries
+         * of data loaders and the batch statements of save commands in one transaction.</p>
+         *
+         * <p>This is useful for the JDBC drivers without their own statement cache,
+         * or whose statement cache is disabled.</p>
+         *
+         * @param capacity The max count of remembered statements of each connection,
+         *                 0 means disabled, that is the default value.
+         * @see org.babyfish.jimmer.sql.runtime.PreparedStatementCache
+         */
+        @OldChain
+        Builder setPreparedStatementCacheCapacity(int capacity);
+
+        /**
+         * Set the max row count investigated by the save command after a batch
+         * statement violates constraints.
+         *
+         * <p>When a batch statement fails because of unique or foreign key constraints,
+         * jimmer queries the database to find the row causing the error and to raise
+         * a precise {@link org.babyfish.jimmer.sql.runtime.SaveException}. For large
+         * batches whose rows fail one by one, these queries can be expensive.
+         * Once the limit is exceeded, the investigation is stopped and the error message
+         * of database is parsed by {@link org.babyfish.jimmer.sql.dialect.Dialect#parseConstraintViolation(java.sql.SQLException)}
+         * instead, if this cannot determine the row either, the original exception is thrown.</p>
+         *
+         * @param maxRowCount The max count of investigated rows, 0 means the error message
+         *                    is always parsed without investigation queries. The default value
+         *                    is {@link Integer#MAX_VALUE}
+         */
+        @OldChain
+        Builder setMaxInvestigationRowCount(int maxRowCount);
+
+        /**
+         * Set the max time spent by the save command to investigate a batch statement
+         * violating constraints, the investigation queries are not started after this time.
+         *
+         * @param timeout The max investigation time, null means unlimited, that is the default value
+         * @see #setMaxInvestigationRowCount(int)
+         */
+        @OldChain
+        Builder setInvestigationTimeout(@Nullable java.time.Duration timeout);
+
         /**
          * Set deault lock mode of save command
          * @param lockMode
@@ -1429,6 +1633,22 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setTriggerType(TriggerType triggerType);
 
+        /**
+         * Deliver the events of binlog triggers to listeners by an executor,
+         * so that the thread which receives binlog messages is not blocked
+         * by the listeners.
+         *
+         * <p>The events of transaction triggers are always delivered
+         * synchronously because the listeners may use the current connection.</p>
+         *
+         * @param executor The executor delivers events, null means synchronous delivery.
+         * @param maxPendingBatches The max count of batches which are submitted
+         *                          to the executor but not delivered, the thread
+         *                          fires events waits when it is exceeded.
+         */
+        @OldChain
+        Builder setTriggerDispatchExecutor(java.util.concurrent.Executor executor, int maxPendingBatches);
+
         @OldChain
         Builder setLogicalDeletedBehavior(LogicalDeletedBehavior behavior);
 
@@ -1512,6 +1732,32 @@ public interface JSqlClient extends SubQueryProvider {
         @OldChain
         Builder setDatabaseValidationSchema(String schema);
 
+        /**
+         * Set the parallelism of database validation.
+         *
+         * <p>The tables and columns of each schema are always loaded by one metadata query.
+         * However, the primary keys and foreign keys can only be loaded table by table,
+         * if this parallelism is greater than 1, they are loaded by that count of other
+         * connections concurrently, so the connection pool must be able to provide
+         * them besides the connection used by validation.</p>
+         *
+         * @param parallelism The parallelism, the default value is 1
+         */
+        @OldChain
+        Builder setDatabaseValidationParallelism(int parallelism);
+
+        /**
+         * Set the executor which builds the lazily created metadata of all entity types
+         * after the sql client is initialized, such as the readers, the filters and the
+         * column definitions, so that the first requests do not pay for it.
+         *
+         * @param executor The executor, null means the metadata is created lazily,
+         *                 that is the default behavior.
+         * @see org.babyfish.jimmer.sql.runtime.MetadataWarmer
+         */
+        @OldChain
+        Builder setMetadataWarmupExecutor(@Nullable java.util.concurrent.Executor executor);
+
         @OldChain
         Builder setAopProxyProvider(AopProxyProvider provider);
 
@@ -39,16 +39,17 @@ import org.babyfish.jimmer.sql.filter.FilterConfig;
 import org.babyfish.jimmer.sql.filter.Filters;
 import org.babyfish.jimmer.sql.filter.impl.FilterManager;
 import org.babyfish.jimmer.sql.filter.impl.LogicalDeletedFilterProvider;
+import org.babyfish.jimmer.sql.loader.LoadCoalescer;
 import org.babyfish.jimmer.sql.loader.graphql.Loaders;
 import org.babyfish.jimmer.sql.loader.graphql.impl.LoadersImpl;
 import org.babyfish.jimmer.sql.meta.*;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.runtime.*;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Type;
-import java.sql.SQLException;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.locks.Lock;
@@ -85,8 +86,28 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
     private final boolean expandedInListPaddingEnabled;
 
+    private final boolean inListToAnyEqualityEnabled;
+
     private final int offsetOptimizingThreshold;
 
+    private final PreparedStatementCache preparedStatementCache;
+
+    private final int maxInvestigationRowCount;
+
+    private final java.time.Duration investigationTimeout;
+
+    private final SqlMetrics metrics;
+
+    private final java.util.concurrent.Executor parallelFetchingExecutor;
+
+    private final PageCountExecutor pageCountExecutor;
+
+    private final long approximatePageCountThreshold;
+
+    private final LoadCoalescer loadCoalescer;
+
+    private final JdbcDispatcher jdbcDispatcher;
+
     private final LockMode defaultLockMode;
 
     private final int maxCommandJoinCount;
@@ -149,7 +170,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
             int defaultListBatchSize,
             boolean inListPaddingEnabled,
             boolean expandedInListPaddingEnabled,
+            boolean inListToAnyEqualityEnabled,
             int offsetOptimizingThreshold,
+            PreparedStatementCache preparedStatementCache,
+            int maxInvestigationRowCount,
+            java.time.Duration investigationTimeout,
+            SqlMetrics metrics,
+            java.util.concurrent.Executor parallelFetchingExecutor,
+            PageCountExecutor pageCountExecutor,
+            long approximatePageCountThreshold,
+            LoadCoalescer loadCoalescer,
+            JdbcDispatcher jdbcDispatcher,
             LockMode defaultLockMode,
             int maxCommandJoinCount,
             boolean targetTransferable,
@@ -179,10 +210,14 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         ConnectionManager.EXTERNAL_ONLY;
         this.slaveConnectionManager = slaveConnectionManager;
         this.dialect = dialect;
-        this.executor =
+        Executor finalExecutor =
                 executor != null ?
                         executor :
                         DefaultExecutor.INSTANCE;
+        this.executor =
+                metrics != null ?
+                        ExecutorForMetrics.wrap(finalExecutor, metrics) :
+                        finalExecutor;
         this.executorContextPrefixes =
                 executorContextPrefixes != null ?
                         Collections.unmodifiableList(executorContextPrefixes) :
@@ -195,7 +230,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
         this.defaultListBatchSize = defaultListBatchSize;
         this.inListPaddingEnabled = inListPaddingEnabled;
         this.expandedInListPaddingEnabled = expandedInListPaddingEnabled;
+        this.inListToAnyEqualityEnabled = inListToAnyEqualityEnabled;
         this.offsetOptimizingThreshold = offsetOptimizingThreshold;
+        this.preparedStatementCache = preparedStatementCache;
+        this.maxInvestigationRowCount = maxInvestigationRowCount;
+        this.investigationTimeout = investigationTimeout;
+        this.metrics = metrics;
+        this.parallelFetchingExecutor = parallelFetchingExecutor;
+        this.pageCountExecutor = pageCountExecutor;
+        this.approximatePageCountThreshold = approximatePageCountThreshold;
+        this.loadCoalescer = loadCoalescer;
+        this.jdbcDispatcher = jdbcDispatcher;
         this.defaultLockMode = defaultLockMode;
         this.maxCommandJoinCount = maxCommandJoinCount;
         this.targetTransferable = targetTransferable;
@@ -344,11 +389,68 @@ class JSqlClientImpl implements JSqlClientImplementor {
         return expandedInListPaddingEnabled;
     }
 
+    @Override
+    public boolean isInListToAnyEqualityEnabled() {
+        return inListToAnyEqualityEnabled;
+    }
+
     @Override
     public int getOffsetOptimizingThreshold() {
         return offsetOptimizingThreshold;
     }
 
+    @Nullable
+    @Override
+    public PreparedStatementCache getPreparedStatementCache() {
+        return preparedStatementCache;
+    }
+
+    @Override
+    public int getMaxInvestigationRowCount() {
+        return maxInvestigationRowCount;
+    }
+
+    @Nullable
+    @Override
+    public java.time.Duration getInvestigationTimeout() {
+        return investigationTimeout;
+    }
+
+    @Nullable
+    @Override
+    public SqlMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Nullable
+    @Override
+    public java.util.concurrent.Executor getParallelFetchingExecutor() {
+        return parallelFetchingExecutor;
+    }
+
+    @Nullable
+    @Override
+    public PageCountExecutor getPageCountExecutor() {
+        return pageCountExecutor;
+    }
+
+    @Override
+    public long getApproximatePageCountThreshold() {
+        return approximatePageCountThreshold;
+    }
+
+    @Nullable
+    @Override
+    public LoadCoalescer getLoadCoalescer() {
+        return loadCoalescer;
+    }
+
+    @Nullable
+    @Override
+    public JdbcDispatcher getJdbcDispatcher() {
+        return jdbcDispatcher;
+    }
+
     @Override
     public LockMode getDefaultLockMode() {
         return defaultLockMode;
@@ -526,7 +628,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 defaultListBatchSize,
                 inListPaddingEnabled,
                 expandedInListPaddingEnabled,
+                inListToAnyEqualityEnabled,
                 offsetOptimizingThreshold,
+                preparedStatementCache,
+                maxInvestigationRowCount,
+                investigationTimeout,
+                metrics,
+                parallelFetchingExecutor,
+                pageCountExecutor,
+                approximatePageCountThreshold,
+                loadCoalescer,
+                jdbcDispatcher,
                 defaultLockMode,
                 maxCommandJoinCount,
                 targetTransferable,
@@ -576,7 +688,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 defaultListBatchSize,
                 inListPaddingEnabled,
                 expandedInListPaddingEnabled,
+                inListToAnyEqualityEnabled,
                 offsetOptimizingThreshold,
+                preparedStatementCache,
+                maxInvestigationRowCount,
+                investigationTimeout,
+                metrics,
+                parallelFetchingExecutor,
+                pageCountExecutor,
+                approximatePageCountThreshold,
+                loadCoalescer,
+                jdbcDispatcher,
                 defaultLockMode,
                 maxCommandJoinCount,
                 targetTransferable,
@@ -621,7 +743,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 defaultListBatchSize,
                 inListPaddingEnabled,
                 expandedInListPaddingEnabled,
+                inListToAnyEqualityEnabled,
                 offsetOptimizingThreshold,
+                preparedStatementCache,
+                maxInvestigationRowCount,
+                investigationTimeout,
+                metrics,
+                parallelFetchingExecutor,
+                pageCountExecutor,
+                approximatePageCountThreshold,
+                loadCoalescer,
+                jdbcDispatcher,
                 defaultLockMode,
                 maxCommandJoinCount,
                 targetTransferable,
@@ -669,7 +801,17 @@ class JSqlClientImpl implements JSqlClientImplementor {
                 defaultListBatchSize,
                 inListPaddingEnabled,
                 expandedInListPaddingEnabled,
+                inListToAnyEqualityEnabled,
                 offsetOptimizingThreshold,
+                preparedStatementCache,
+                maxInvestigationRowCount,
+                investigationTimeout,
+                metrics,
+                parallelFetchingExecutor,
+                pageCountExecutor,
+                approximatePageCountThreshold,
+                loadCoalescer,
+                jdbcDispatcher,
                 defaultLockMode,
                 maxCommandJoinCount,
                 targetTransferable,
@@ -818,8 +960,28 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
         private boolean expandedInListPaddingEnabled;
 
+        private boolean inListToAnyEqualityEnabled;
+
         private int offsetOptimizingThreshold = Integer.MAX_VALUE;
 
+        private int preparedStatementCacheCapacity;
+
+        private int maxInvestigationRowCount = Integer.MAX_VALUE;
+
+        private java.time.Duration investigationTimeout;
+
+        private SqlMetrics metrics;
+
+        private java.util.concurrent.Executor parallelFetchingExecutor;
+
+        private PageCountExecutor pageCountExecutor;
+
+        private long approximatePageCountThreshold = Long.MAX_VALUE;
+
+        private java.time.Duration loadCoalescingWindow;
+
+        private JdbcDispatcher jdbcDispatcher;
+
         private LockMode defaultLockMode = LockMode.OPTIMISTIC;
 
         private int maxCommandJoinCount = 2;
@@ -832,6 +994,10 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
         private TriggerType triggerType = TriggerType.BINLOG_ONLY;
 
+        private java.util.concurrent.Executor triggerDispatchExecutor;
+
+        private int maxPendingTriggerBatches;
+
         private TriggersImpl triggers;
 
         private TriggersImpl transactionTriggers;
@@ -875,6 +1041,10 @@ class JSqlClientImpl implements JSqlClientImplementor {
 
         private String databaseValidationSchema;
 
+        private int databaseValidationParallelism = 1;
+
+        private java.util.concurrent.Executor metadataWarmupExecutor;
+
         private AopProxyProvider aopProxyProvider;
 
         private String microServiceName = "";
@@ -951,6 +1121,53 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public Builder setMetrics(@Nullable SqlMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        @Override
+        public Builder setParallelFetchingExecutor(@Nullable java.util.concurrent.Executor executor) {
+            this.parallelFetchingExecutor = executor;
+            return this;
+        }
+
+        @Override
+        public Builder setPageCountExecutor(@Nullable java.util.concurrent.Executor executor) {
+            return setPageCountExecutor(executor, DEFAULT_PAGE_COUNT_CONCURRENCY);
+        }
+
+        @Override
+        public Builder setPageCountExecutor(@Nullable java.util.concurrent.Executor executor, int maxConcurrency) {
+            this.pageCountExecutor = executor != null ? new PageCountExecutor(executor, maxConcurrency) : null;
+            return this;
+        }
+
+        @Override
+        public Builder setApproximatePageCountThreshold(long threshold) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("`threshold` cannot be negative");
+            }
+            this.approximatePageCountThreshold = threshold;
+            return this;
+        }
+
+        @Override
+        public Builder setLoadCoalescingWindow(@Nullable java.time.Duration window) {
+            if (window != null && window.isNegative()) {
+                throw new IllegalArgumentException("`window` cannot be negative");
+            }
+            this.loadCoalescingWindow = window;
+            return this;
+        }
+
+        @Override
+        public Builder setJdbcDispatcher(@Nullable JdbcDispatcher jdbcDispatcher) {
+            this.jdbcDispatcher = jdbcDispatcher;
+            return this;
+        }
+
         @Override
         public JSqlClient.Builder setZoneId(@Nullable ZoneId zoneId) {
             this.zoneId = zoneId;
@@ -1189,6 +1406,12 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public JSqlClient.Builder setInListToAnyEqualityEnabled(boolean enabled) {
+            this.inListToAnyEqualityEnabled = enabled;
+            return this;
+        }
+
         @Override
         public Builder setOffsetOptimizingThreshold(int threshold) {
             if (threshold < 0) {
@@ -1198,6 +1421,33 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public Builder setPreparedStatementCacheCapacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("`capacity` cannot be negative number");
+            }
+            preparedStatementCacheCapacity = capacity;
+            return this;
+        }
+
+        @Override
+        public Builder setMaxInvestigationRowCount(int maxRowCount) {
+            if (maxRowCount < 0) {
+                throw new IllegalArgumentException("`maxRowCount` cannot be negative number");
+            }
+            this.maxInvestigationRowCount = maxRowCount;
+            return this;
+        }
+
+        @Override
+        public Builder setInvestigationTimeout(@Nullable java.time.Duration timeout) {
+            if (timeout != null && timeout.isNegative()) {
+                throw new IllegalArgumentException("`timeout` cannot be negative");
+            }
+            this.investigationTimeout = timeout;
+            return this;
+        }
+
         @Override
         public Builder setDefaultLockMode(LockMode defaultLockMode) {
             if (defaultLockMode == LockMode.AUTO) {
@@ -1262,6 +1512,16 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public Builder setTriggerDispatchExecutor(java.util.concurrent.Executor executor, int maxPendingBatches) {
+            if (executor != null && maxPendingBatches < 1) {
+                throw new IllegalArgumentException("maxPendingBatches must be positive");
+            }
+            this.triggerDispatchExecutor = executor;
+            this.maxPendingTriggerBatches = maxPendingBatches;
+            return this;
+        }
+
         @Override
         public Builder setLogicalDeletedBehavior(LogicalDeletedBehavior behavior) {
             this.logicalDeletedBehavior = behavior != null ? behavior : LogicalDeletedBehavior.DEFAULT;
@@ -1503,6 +1763,21 @@ class JSqlClientImpl implements JSqlClientImplementor {
             return this;
         }
 
+        @Override
+        public Builder setDatabaseValidationParallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("`parallelism` must be positive number");
+            }
+            this.databaseValidationParallelism = parallelism;
+            return this;
+        }
+
+        @Override
+        public Builder setMetadataWarmupExecutor(@Nullable java.util.concurrent.Executor executor) {
+            this.metadataWarmupExecutor = executor;
+            return this;
+        }
+
         @Override
         public Builder setAopProxyProvider(AopProxyProvider provider) {
             this.aopProxyProvider = aopProxyProvider;
@@ -1616,7 +1891,19 @@ class JSqlClientImpl implements JSqlClientImplementor {
                     defaultListBatchSize,
                     inListPaddingEnabled,
                     expandedInListPaddingEnabled,
+                    inListToAnyEqualityEnabled,
                     offsetOptimizingThreshold,
+                    preparedStatementCacheCapacity > 0 ?
+                            new PreparedStatementCache(preparedStatementCacheCapacity) :
+                            null,
+                    maxInvestigationRowCount,
+                    investigationTimeout,
+                    metrics,
+                    parallelFetchingExecutor,
+                    pageCountExecutor,
+                    approximatePageCountThreshold,
+                    loadCoalescingWindow != null ? new LoadCoalescer(loadCoalescingWindow) : null,
+                    jdbcDispatcher,
                     defaultLockMode,
                     maxCommandJoinCount,
                     targetTransferable,
@@ -1659,6 +1946,7 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         );
                     }
                 }
+                warmUpMetadata(sqlClient);
                 validateDatabase(metadataStrategy);
             };
             if (sqlClientInitializer != null) {
@@ -1676,11 +1964,11 @@ class JSqlClientImpl implements JSqlClientImplementor {
                         transactionTriggers = triggers = new TriggersImpl(true);
                         break;
                     case BOTH:
-                        triggers = new TriggersImpl(false);
+                        triggers = new TriggersImpl(false, triggerDispatchExecutor, maxPendingTriggerBatches);
                         transactionTriggers = new TriggersImpl(true);
                         break;
                     default:
-                        triggers = new TriggersImpl(false);
+                        triggers = new TriggersImpl(false, triggerDispatchExecutor, maxPendingTriggerBatches);
                         break;
                 }
             }
@@ -1747,24 +2035,16 @@ class JSqlClientImpl implements JSqlClientImplementor {
                             "The `connectionManager` of must be configured when `validate` is configured"
                     );
                 }
-                DatabaseValidationException validationException = cm.execute(con -> {
-                    try {
-                        return DatabaseValidators.validate(
-                                entityManager(),
-                                microServiceName,
-                                defaultDissociationActionCheckable,
-                                metadataStrategy,
-                                databaseValidationCatalog,
-                                databaseValidationSchema,
-                                con
-                        );
-                    } catch (SQLException ex) {
-                        throw new ExecutionException(
-                                "Cannot validate the database because of SQL exception",
-                                ex
-                        );
-                    }
-                });
+                DatabaseValidationException validationException = DatabaseValidators.validate(
+                        entityManager(),
+                        microServiceName,
+                        defaultDissociationActionCheckable,
+                        metadataStrategy,
+                        databaseValidationCatalog,
+                        databaseValidationSchema,
+                        cm,
+                        databaseValidationParallelism
+                );
                 if (validationException != null) {
                     if (databaseValidationMode == DatabaseValidationMode.ERROR) {
                         throw validationException;
@@ -1774,6 +2054,19 @@ class JSqlClientImpl implements JSqlClientImplementor {
             }
         }
 
+        private void warmUpMetadata(JSqlClientImplementor sqlClient) {
+            java.util.concurrent.Executor executor = metadataWarmupExecutor;
+            if (executor != null) {
+                executor.execute(() -> {
+                    try {
+                        MetadataWarmer.warmUp(sqlClient);
+                    } catch (RuntimeException | Error ex) {
+                        LOGGER.warn("Failed to warm up the metadata of sql client", ex);
+                    }
+                });
+            }
+        }
+
         private EntityManager entityManager() {
             EntityManager em = this.userEntityManager;
             if (em == null) {
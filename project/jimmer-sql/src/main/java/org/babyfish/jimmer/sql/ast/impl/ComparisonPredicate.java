@@ -28,6 +28,14 @@ abstract class ComparisonPredicate extends AbstractPredicate {
 
     protected abstract String operator();
 
+    Expression<?> getLeft() {
+        return left;
+    }
+
+    Expression<?> getRight() {
+        return right;
+    }
+
     @Override
     public void accept(@NotNull AstVisitor visitor) {
         Ast.of(left).accept(visitor);
@@ -58,6 +58,10 @@ public abstract class CompositePredicate extends AbstractPredicate {
         return creator.apply(hasVirtualPredicate, arr);
     }
 
+    Predicate[] getPredicates() {
+        return predicates;
+    }
+
     @Override
     public void accept(@NotNull AstVisitor visitor) {
         for (Predicate predicate : predicates) {
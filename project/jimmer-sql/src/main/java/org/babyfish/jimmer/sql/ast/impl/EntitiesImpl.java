@@ -338,7 +338,7 @@ public class EntitiesImpl implements Entities {
         ConfigurableRootQuery<?, E> query = Queries.createQuery(
                 sqlClient, immutableType, purpose, FilterLevel.DEFAULT, (q, table) -> {
                     Expression<Object> idProp = table.get(immutableType.getIdProp().getName());
-                    if (distinctIds.size() == 1) {
+                    if (distinctIds.size() == 1 && !isInListToAnyEquality()) {
                         q.where(idProp.eq(distinctIds.iterator().next()));
                     } else {
                         q.where(idProp.in(distinctIds));
@@ -461,7 +461,7 @@ public class EntitiesImpl implements Entities {
         ConfigurableRootQuery<?, E> query = Queries.createQuery(
                 sqlClient, immutableType, purpose, FilterLevel.DEFAULT, (q, table) -> {
                     Expression<Object> idProp = table.get(immutableType.getIdProp().getName());
-                    if (distinctIds.size() == 1) {
+                    if (distinctIds.size() == 1 && !isInListToAnyEquality()) {
                         q.where(idProp.eq(distinctIds.iterator().next()));
                     } else {
                         q.where(idProp.in(distinctIds));
@@ -676,6 +676,12 @@ public class EntitiesImpl implements Entities {
         return new DeleteCommandImpl(sqlClient, con, immutableType, ids);
     }
 
+    // If in-lists are always rendered as `= any(?)`, single id does not use `=`
+    private boolean isInListToAnyEquality() {
+        return sqlClient.isInListToAnyEqualityEnabled() &&
+                sqlClient.getDialect().isAnyEqualityOfArraySupported();
+    }
+
     @SuppressWarnings("unchecked")
     private static Set<Object> distinctIds(Iterable<?> values) {
         if (values == null) {
@@ -0,0 +1,70 @@
+package org.babyfish.jimmer.sql.ast.impl;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.ast.Expression;
+import org.babyfish.jimmer.sql.ast.Predicate;
+import org.babyfish.jimmer.sql.ast.impl.table.TableUtils;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Find the value of shard key from the predicates of a statement,
+ * so that the statement can be routed to one shard.
+ *
+ * <p>Only the top-level {@code shardKey = value} predicates of the root table,
+ * which can be nested in {@code and}, are recognized. Other predicates,
+ * for example, {@code or}, {@code in} or predicates of joined tables,
+ * cannot restrict the statement to one shard.</p>
+ */
+public class ShardKeyPredicates {
+
+    private ShardKeyPredicates() {}
+
+    /**
+     * @return The value of shard key, or null if it cannot be determined
+     */
+    @Nullable
+    public static Object findValue(List<Predicate> predicates, ImmutableProp shardKeyProp) {
+        for (Predicate predicate : predicates) {
+            Object value = findValue(predicate, shardKeyProp);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static Object findValue(Predicate predicate, ImmutableProp shardKeyProp) {
+        if (predicate instanceof CompositePredicate.And) {
+            for (Predicate subPredicate : ((CompositePredicate) predicate).getPredicates()) {
+                Object value = findValue(subPredicate, shardKeyProp);
+                if (value != null) {
+                    return value;
+                }
+            }
+        } else if (predicate instanceof ComparisonPredicate.Eq) {
+            ComparisonPredicate eq = (ComparisonPredicate) predicate;
+            Object value = literalValue(eq.getLeft(), eq.getRight(), shardKeyProp);
+            return value != null ? value : literalValue(eq.getRight(), eq.getLeft(), shardKeyProp);
+        }
+        return null;
+    }
+
+    private static Object literalValue(
+            Expression<?> propExpr,
+            Expression<?> literalExpr,
+            ImmutableProp shardKeyProp
+    ) {
+        if (!(propExpr instanceof PropExpressionImpl<?>) ||
+                !(literalExpr instanceof LiteralExpressionImplementor<?>)) {
+            return null;
+        }
+        PropExpressionImpl<?> propExpression = (PropExpressionImpl<?>) propExpr;
+        if (!propExpression.getProp().equals(shardKeyProp) ||
+                TableUtils.parent(propExpression.getTable()) != null) {
+            return null;
+        }
+        return ((LiteralExpressionImplementor<?>) literalExpr).getValue();
+    }
+}
@@ -214,6 +214,26 @@ abstract class AbstractEntitySaveCommandImpl
         }
     }
 
+    static class BulkInsertCfg extends Cfg {
+
+        final boolean bulkInsert;
+
+        public BulkInsertCfg(Cfg prev, boolean bulkInsert) {
+            super(prev);
+            this.bulkInsert = bulkInsert;
+        }
+    }
+
+    static class AssociationBatchMergedCfg extends Cfg {
+
+        final boolean merged;
+
+        public AssociationBatchMergedCfg(Cfg prev, boolean merged) {
+            super(prev);
+            this.merged = merged;
+        }
+    }
+
     static class OptimisticLockLambdaCfg extends Cfg {
 
         final MapNode<ImmutableType, UserOptimisticLock<Object, Table<Object>>> mapNode;
@@ -277,6 +297,10 @@ abstract class AbstractEntitySaveCommandImpl
 
         private final LockMode lockMode;
 
+        private final boolean bulkInsert;
+
+        private final boolean associationBatchMerged;
+
         private final Map<ImmutableType, UserOptimisticLock<Object, Table<Object>>> optimisticLockLambdaMap;
 
         private final ExceptionTranslator<Exception> exceptionTranslator;
@@ -293,6 +317,8 @@ abstract class AbstractEntitySaveCommandImpl
             DissociationActionCfg dissociationActionCfg = cfg.as(DissociationActionCfg.class);
             TargetTransferModeCfg targetTransferModeCfg = cfg.as(TargetTransferModeCfg.class);
             LockModeCfg lockModeCfg = cfg.as(LockModeCfg.class);
+            BulkInsertCfg bulkInsertCfg = cfg.as(BulkInsertCfg.class);
+            AssociationBatchMergedCfg associationBatchMergedCfg = cfg.as(AssociationBatchMergedCfg.class);
             OptimisticLockLambdaCfg optimisticLockLambdaCfg = cfg.as(OptimisticLockLambdaCfg.class);
             ExceptionTranslatorCfg exceptionTranslatorCfg = cfg.as(ExceptionTranslatorCfg.class);
 
@@ -321,6 +347,8 @@ abstract class AbstractEntitySaveCommandImpl
             this.lockMode = lockModeCfg != null ?
                     lockModeCfg.lockMode :
                     LockMode.AUTO;
+            this.bulkInsert = bulkInsertCfg != null && bulkInsertCfg.bulkInsert;
+            this.associationBatchMerged = associationBatchMergedCfg != null && associationBatchMergedCfg.merged;
             this.optimisticLockLambdaMap = MapNode.toMap(optimisticLockLambdaCfg, it -> it.mapNode);
             if (exceptionTranslatorCfg != null) {
                 ExceptionTranslator<Exception> defaultTranslator = sqlClient.getExceptionTranslator();
@@ -440,6 +468,16 @@ abstract class AbstractEntitySaveCommandImpl
                     sqlClient.getDefaultLockMode();
         }
 
+        @Override
+        public boolean isBulkInsert() {
+            return bulkInsert;
+        }
+
+        @Override
+        public boolean isAssociationBatchMerged() {
+            return associationBatchMerged;
+        }
+
         @Override
         public UserOptimisticLock<Object, Table<Object>> getUserOptimisticLock(ImmutableType type) {
             return optimisticLockLambdaMap.get(type);
@@ -465,7 +503,9 @@ abstract class AbstractEntitySaveCommandImpl
                     autoCheckingAll,
                     autoCheckingMap,
                     dissociateActionMap,
-                    lockMode
+                    lockMode,
+                    bulkInsert,
+                    associationBatchMerged
             );
         }
 
@@ -478,6 +518,8 @@ abstract class AbstractEntitySaveCommandImpl
                     autoCheckingAll == other.autoCheckingAll &&
                     associatedMode == other.associatedMode &&
                     lockMode == other.lockMode &&
+                    bulkInsert == other.bulkInsert &&
+                    associationBatchMerged == other.associationBatchMerged &&
                     mode == other.mode &&
                     deleteMode == other.deleteMode &&
                     Objects.equals(argument, other.argument) &&
@@ -503,6 +545,8 @@ abstract class AbstractEntitySaveCommandImpl
                     ", autoCheckingMap=" + autoCheckingMap +
                     ", dissociateActionMap=" + dissociateActionMap +
                     ", lockMode=" + lockMode +
+                    ", bulkInsert=" + bulkInsert +
+                    ", associationBatchMerged=" + associationBatchMerged +
                     ", optimisticLockLambdaMap=" + optimisticLockLambdaMap +
                     '}';
         }
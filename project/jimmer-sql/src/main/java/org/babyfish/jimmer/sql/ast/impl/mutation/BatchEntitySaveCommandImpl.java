@@ -142,6 +142,16 @@ public class BatchEntitySaveCommandImpl<E>
         return new BatchEntitySaveCommandImpl<>(new LockModeCfg(cfg, lockMode));
     }
 
+    @Override
+    public BatchEntitySaveCommand<E> setBulkInsert(boolean bulkInsert) {
+        return new BatchEntitySaveCommandImpl<>(new BulkInsertCfg(cfg, bulkInsert));
+    }
+
+    @Override
+    public BatchEntitySaveCommand<E> setAssociationBatchMerged(boolean merged) {
+        return new BatchEntitySaveCommandImpl<>(new AssociationBatchMergedCfg(cfg, merged));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T extends Table<E>> BatchEntitySaveCommand<E> setOptimisticLock(
@@ -0,0 +1,420 @@
+package org.babyfish.jimmer.sql.ast.impl.mutation;
+
+import org.babyfish.jimmer.runtime.DraftSpi;
+import org.babyfish.jimmer.sql.ast.impl.render.BatchSqlBuilder;
+import org.babyfish.jimmer.sql.ast.impl.value.PropertyGetter;
+import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.babyfish.jimmer.sql.runtime.DbLiteral;
+import org.babyfish.jimmer.sql.runtime.ExceptionTranslator;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inserts the objects of one shape by bulk statements,
+ * see {@link org.babyfish.jimmer.sql.ast.mutation.AbstractEntitySaveCommand#setBulkInsert(boolean)}
+ */
+class BulkInserter {
+
+    // Larger statements hardly make insertion faster,
+    // and SQL Server does not accept more than 1000 rows in one `values` clause
+    private static final int MAX_VALUES_ROW_COUNT = 1000;
+
+    private static final int MAX_COPY_ROW_COUNT = 10000;
+
+    private static final int RESERVED_PACKET_SIZE = 1024;
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    // JDBC URL -> max_allowed_packet
+    private static final Map<String, Long> MAX_PACKET_SIZE_MAP = new ConcurrentHashMap<>();
+
+    private final SaveContext ctx;
+
+    private final Shape shape;
+
+    private final JSqlClientImplementor sqlClient;
+
+    private final String tableSql;
+
+    private final String rowSql;
+
+    private final BatchSqlBuilder.VariableMapper mapper;
+
+    BulkInserter(SaveContext ctx, Shape shape, List<PropertyGetter> defaultGetters) {
+        this.ctx = ctx;
+        this.shape = shape;
+        this.sqlClient = ctx.options.getSqlClient();
+        BatchSqlBuilder tableBuilder = new BatchSqlBuilder(sqlClient);
+        tableBuilder
+                .sql(ctx.path.getType().getTableName(sqlClient.getMetadataStrategy()))
+                .enter(BatchSqlBuilder.ScopeType.TUPLE);
+        for (PropertyGetter getter : shape.getGetters()) {
+            tableBuilder.separator().sql(getter);
+        }
+        for (PropertyGetter defaultGetter : defaultGetters) {
+            tableBuilder.separator().sql(defaultGetter);
+        }
+        tableBuilder.leave();
+        BatchSqlBuilder rowBuilder = new BatchSqlBuilder(sqlClient);
+        rowBuilder.enter(BatchSqlBuilder.ScopeType.TUPLE);
+        for (PropertyGetter getter : shape.getGetters()) {
+            rowBuilder.separator().variable(getter);
+        }
+        for (PropertyGetter defaultGetter : defaultGetters) {
+            rowBuilder.separator().defaultVariable(defaultGetter);
+        }
+        rowBuilder.leave();
+        Tuple2<String, BatchSqlBuilder.VariableMapper> rowTuple = rowBuilder.build();
+        this.tableSql = tableBuilder.build().get_1();
+        this.rowSql = rowTuple.get_1();
+        this.mapper = rowTuple.get_2();
+    }
+
+    public int insert(Collection<DraftSpi> entities) {
+        List<DraftSpi> drafts = entities instanceof List<?> ?
+                (List<DraftSpi>) entities :
+                new ArrayList<>(entities);
+        List<List<Object>> rows = new ArrayList<>(drafts.size());
+        for (DraftSpi draft : drafts) {
+            rows.add(mapper.variables(draft));
+        }
+        Dialect dialect = sqlClient.getDialect();
+        int rowCount = 0;
+        int index = 0;
+        if (dialect.isCopyInSupported()) {
+            while (index < rows.size()) {
+                int end = Math.min(index + MAX_COPY_ROW_COUNT, rows.size());
+                String text = copyText(rows.subList(index, end));
+                if (text == null) {
+                    // Some values cannot be written as text, use `values` for the rest rows
+                    break;
+                }
+                rowCount += copy(text, drafts.subList(index, end));
+                index = end;
+            }
+        }
+        if (index < rows.size()) {
+            rowCount += insertByValues(rows.subList(index, rows.size()), drafts.subList(index, rows.size()));
+        }
+        return rowCount;
+    }
+
+    private int copy(String text, List<DraftSpi> drafts) {
+        String sql = "copy " + tableSql + " from stdin";
+        // The rows are not sent by prepared statement, but the copy is still executed
+        // by the executor so that it is logged, measured and intercepted like other
+        // statements. The statement factory creates no statement, and the statement
+        // cache is not used because the factory is specified.
+        Executor.Args<Integer> args = new Executor.Args<>(
+                sqlClient,
+                ctx.con,
+                sql,
+                Collections.emptyList(),
+                null,
+                ExecutionPurpose.command(QueryReason.NONE),
+                (c, s) -> null,
+                stmt -> {
+                    Savepoint savepoint = savepoint();
+                    try {
+                        long rowCount = sqlClient.getDialect().copyIn(ctx.con, sql, new StringReader(text));
+                        releaseSavepoint(savepoint);
+                        return (int) rowCount;
+                    } catch (SQLException ex) {
+                        throw new TranslatedException(translateException(ex, savepoint, drafts, null));
+                    }
+                }
+        );
+        try {
+            return sqlClient.getExecutor().execute(args);
+        } catch (TranslatedException ex) {
+            Exception translated = convertFinalException(ex.getCause(), args);
+            if (translated instanceof RuntimeException) {
+                throw (RuntimeException) translated;
+            }
+            throw new ExecutionException("Cannot copy rows into the table: " + tableSql, translated);
+        }
+    }
+
+    private int insertByValues(List<List<Object>> rows, List<DraftSpi> drafts) {
+        Dialect dialect = sqlClient.getDialect();
+        int variableCount = rows.get(0).size();
+        int maxRowCount = Math.min(
+                Math.max(dialect.getMaxVariableCount() / Math.max(variableCount, 1), 1),
+                MAX_VALUES_ROW_COUNT
+        );
+        String headerSql = "insert into " + tableSql + " values";
+        long maxSize = maxPacketSize() - RESERVED_PACKET_SIZE - headerSql.length();
+        int rowCount = 0;
+        List<Object> variables = new ArrayList<>();
+        int chunkStart = 0;
+        int chunkRowCount = 0;
+        long chunkSize = 0;
+        for (List<Object> row : rows) {
+            long rowSize = rowSize(row);
+            if (chunkRowCount != 0 && (chunkRowCount == maxRowCount || chunkSize + rowSize > maxSize)) {
+                rowCount += executeValues(
+                        headerSql,
+                        variables,
+                        drafts.subList(chunkStart, chunkStart + chunkRowCount)
+                );
+                variables = new ArrayList<>();
+                chunkStart += chunkRowCount;
+                chunkRowCount = 0;
+                chunkSize = 0;
+            }
+            variables.addAll(row);
+            chunkRowCount++;
+            chunkSize += rowSize;
+        }
+        if (chunkRowCount != 0) {
+            rowCount += executeValues(
+                    headerSql,
+                    variables,
+                    drafts.subList(chunkStart, chunkStart + chunkRowCount)
+            );
+        }
+        return rowCount;
+    }
+
+    private int executeValues(String headerSql, List<Object> variables, List<DraftSpi> drafts) {
+        int rowCount = drafts.size();
+        StringBuilder builder = new StringBuilder(headerSql.length() + (rowSql.length() + 2) * rowCount);
+        builder.append(headerSql);
+        for (int i = 0; i < rowCount; i++) {
+            if (i != 0) {
+                builder.append(", ");
+            }
+            builder.append(rowSql);
+        }
+        Executor.Args<Integer> args = new Executor.Args<>(
+                sqlClient,
+                ctx.con,
+                builder.toString(),
+                variables,
+                null,
+                ExecutionPurpose.command(QueryReason.NONE),
+                null,
+                stmt -> {
+                    Savepoint savepoint = savepoint();
+                    try {
+                        int updatedCount = stmt.executeUpdate();
+                        releaseSavepoint(savepoint);
+                        return updatedCount;
+                    } catch (SQLException ex) {
+                        throw new TranslatedException(translateException(ex, savepoint, drafts, null));
+                    }
+                }
+        );
+        try {
+            return sqlClient.getExecutor().execute(args);
+        } catch (TranslatedException ex) {
+            Exception translated = convertFinalException(ex.getCause(), args);
+            if (translated instanceof RuntimeException) {
+                throw (RuntimeException) translated;
+            }
+            throw new ExecutionException("Cannot execute SQL statement: " + args.sql, translated);
+        }
+    }
+
+    /**
+     * Investigates the failed bulk statement like the batch statement of {@link Operator},
+     * the bulk statement does not report the update count of each row,
+     * so all the rows of the statement are investigated.
+     */
+    private Exception translateException(
+            SQLException ex,
+            @Nullable Savepoint savepoint,
+            List<DraftSpi> drafts,
+            @Nullable ExceptionTranslator.Args args
+    ) {
+        if (savepoint != null) {
+            try {
+                ctx.con.rollback(savepoint);
+            } catch (SQLException innerEx) {
+                return innerEx;
+            }
+        }
+        String state = ex.getSQLState();
+        Exception investigatedEx = state != null && state.startsWith("23") ?
+                new EntityInvestigator(ex, ctx, shape, drafts, false).investigate() :
+                ex;
+        return args != null ? convertFinalException(investigatedEx, args) : investigatedEx;
+    }
+
+    private Exception convertFinalException(Exception ex, ExceptionTranslator.Args args) {
+        ExceptionTranslator<Exception> translator = ctx.options.getExceptionTranslator();
+        if (translator == null) {
+            return ex;
+        }
+        Exception translated = translator.translate(ex, args);
+        return translated != null ? translated : ex;
+    }
+
+    @Nullable
+    private Savepoint savepoint() throws SQLException {
+        if (!sqlClient.getDialect().isTransactionAbortedByError() || ctx.con.getAutoCommit()) {
+            return null;
+        }
+        return ctx.con.setSavepoint();
+    }
+
+    private void releaseSavepoint(@Nullable Savepoint savepoint) throws SQLException {
+        if (savepoint != null) {
+            ctx.con.releaseSavepoint(savepoint);
+        }
+    }
+
+    // The server variable is stable, query it once for each database
+    private long maxPacketSize() {
+        String sql = sqlClient.getDialect().getMaxPacketSizeSql();
+        if (sql == null) {
+            return Long.MAX_VALUE;
+        }
+        String url;
+        try {
+            url = ctx.con.getMetaData().getURL();
+        } catch (SQLException ex) {
+            url = null;
+        }
+        if (url != null) {
+            Long size = MAX_PACKET_SIZE_MAP.get(url);
+            if (size != null) {
+                return size;
+            }
+        }
+        long size = sqlClient.getExecutor().execute(
+                new Executor.Args<>(
+                        sqlClient,
+                        ctx.con,
+                        sql,
+                        Collections.emptyList(),
+                        null,
+                        ExecutionPurpose.QUERY,
+                        null,
+                        stmt -> {
+                            try (ResultSet rs = stmt.executeQuery()) {
+                                return rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+                            }
+                        }
+                )
+        );
+        if (url != null) {
+            MAX_PACKET_SIZE_MAP.put(url, size);
+        }
+        return size;
+    }
+
+    // The estimated size of the row when it is sent as text,
+    // the exact size depends on the driver and the charset
+    private long rowSize(List<Object> row) {
+        long size = rowSql.length() + 2;
+        for (Object value : row) {
+            if (value instanceof String) {
+                size += ((String) value).length() * 3L + 2;
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length * 2L + 10;
+            } else {
+                size += 64;
+            }
+        }
+        return size;
+    }
+
+    // Carries the translated exception through the executor
+    // so that it is not translated again
+    private static class TranslatedException extends RuntimeException {
+
+        TranslatedException(Exception cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized Exception getCause() {
+            return (Exception) super.getCause();
+        }
+    }
+
+    private static String copyText(List<List<Object>> rows) {
+        StringBuilder builder = new StringBuilder();
+        for (List<Object> row : rows) {
+            boolean addTab = false;
+            for (Object value : row) {
+                if (addTab) {
+                    builder.append('\t');
+                } else {
+                    addTab = true;
+                }
+                if (!appendCopyValue(builder, value)) {
+                    return null;
+                }
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static boolean appendCopyValue(StringBuilder builder, Object value) {
+        if (value == null || value instanceof DbLiteral.DbNull) {
+            builder.append("\\N");
+        } else if (value instanceof String || value instanceof Character) {
+            String str = value.toString();
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                switch (c) {
+                    case '\\':
+                        builder.append("\\\\");
+                        break;
+                    case '\t':
+                        builder.append("\\t");
+                        break;
+                    case '\n':
+                        builder.append("\\n");
+                        break;
+                    case '\r':
+                        builder.append("\\r");
+                        break;
+                    default:
+                        builder.append(c);
+                        break;
+                }
+            }
+        } else if (value instanceof BigDecimal) {
+            builder.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number ||
+                value instanceof Boolean ||
+                value instanceof UUID ||
+                value instanceof LocalDate ||
+                value instanceof LocalTime ||
+                value instanceof LocalDateTime ||
+                value instanceof OffsetDateTime ||
+                value instanceof java.sql.Date) {
+            builder.append(value);
+        } else if (value instanceof byte[]) {
+            builder.append("\\\\x");
+            for (byte b : (byte[]) value) {
+                builder.append(HEX_CHARS[(b >> 4) & 0xF]).append(HEX_CHARS[b & 0xF]);
+            }
+        } else {
+            // The text of other values may depend on the session,
+            // such as time zone, or cannot be known without the driver
+            return false;
+        }
+        return true;
+    }
+}
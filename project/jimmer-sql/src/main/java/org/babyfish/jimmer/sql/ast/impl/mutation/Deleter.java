@@ -13,6 +13,7 @@ import org.babyfish.jimmer.sql.ast.impl.AstContext;
 import org.babyfish.jimmer.sql.ast.impl.query.FilterLevel;
 import org.babyfish.jimmer.sql.ast.impl.query.MutableRootQueryImpl;
 import org.babyfish.jimmer.sql.ast.impl.render.ComparisonPredicates;
+import org.babyfish.jimmer.sql.ast.impl.util.IdCollections;
 import org.babyfish.jimmer.sql.ast.impl.value.ValueGetter;
 import org.babyfish.jimmer.sql.ast.mutation.*;
 import org.babyfish.jimmer.sql.ast.table.Table;
@@ -61,7 +62,7 @@ public class Deleter {
         }
         Set<Object> set = this.ids;
         if (set == null) {
-            this.ids = set = new LinkedHashSet<>((ids.size() * 4 + 2) / 3);
+            this.ids = set = IdCollections.newIdSet(ctx.path.getType(), ids.size());
         }
         Class<?> boxedIdType = Classes.boxTypeOf(ctx.path.getType().getIdProp().getReturnClass());
         for (Object id : ids) {
@@ -362,6 +363,16 @@ public class Deleter {
                 return LockMode.AUTO;
             }
 
+            @Override
+            public boolean isBulkInsert() {
+                return false;
+            }
+
+            @Override
+            public boolean isAssociationBatchMerged() {
+                return false;
+            }
+
             @Override
             public UserOptimisticLock<?, ?> getUserOptimisticLock(ImmutableType type) {
                 return null;
@@ -5,16 +5,22 @@ import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.PropId;
 import org.babyfish.jimmer.meta.TargetLevel;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.sql.dialect.ConstraintViolation;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.IdOnlyFetchType;
 import org.babyfish.jimmer.sql.fetcher.impl.FetcherImpl;
+import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.sql.BatchUpdateException;
+import java.sql.SQLException;
 import java.util.*;
 
 class EntityInvestigator {
 
-    private final BatchUpdateException ex;
+    // BatchUpdateException of batch statement,
+    // or SQLException of the bulk statement which inserts all the entities
+    private final SQLException ex;
 
     private final SaveContext ctx;
 
@@ -34,7 +40,7 @@ class EntityInvestigator {
     private Fetcher<ImmutableSpi> keyFetcher;
 
     EntityInvestigator(
-            BatchUpdateException ex,
+            SQLException ex,
             SaveContext ctx,
             Shape shape,
             Collection<? extends ImmutableSpi> entities,
@@ -50,17 +56,25 @@ class EntityInvestigator {
     }
 
     public Exception investigate() {
-        if (ctx.options.getSqlClient().getDialect().isBatchUpdateExceptionUnreliable()) {
-            Exception translated = translateAll();
-            if (translated != null) {
-                return translated;
+        JSqlClientImplementor sqlClient = ctx.options.getSqlClient();
+        Investigators.Limit limit = new Investigators.Limit(sqlClient);
+        if (!(ex instanceof BatchUpdateException) ||
+                sqlClient.getDialect().isBatchUpdateExceptionUnreliable()) {
+            if (limit.tryInvestigate(entities.size())) {
+                Exception translated = translateAll();
+                if (translated != null) {
+                    return translated;
+                }
             }
         } else {
-            int[] rowCounts = ex.getUpdateCounts();
+            int[] rowCounts = ((BatchUpdateException) ex).getUpdateCounts();
             int index = 0;
             for (ImmutableSpi entity : entities) {
                 int rowCount = rowCounts[index++];
                 if (rowCount < 0) {
+                    if (!limit.tryInvestigate(1)) {
+                        break;
+                    }
                     Exception translated = translateOne(entity);
                     if (translated != null) {
                         return translated;
@@ -68,6 +82,10 @@ class EntityInvestigator {
                 }
             }
         }
+        Exception translated = translateByMessage();
+        if (translated != null) {
+            return translated;
+        }
         return ex;
     }
 
@@ -232,6 +250,138 @@ class EntityInvestigator {
         return null;
     }
 
+    private Exception translateByMessage() {
+        JSqlClientImplementor sqlClient = ctx.options.getSqlClient();
+        ConstraintViolation violation = Investigators.parseConstraintViolation(
+                sqlClient.getDialect(),
+                ex
+        );
+        if (violation == null) {
+            return null;
+        }
+        PropId idPropId = idProp.getId();
+        if (violation.getKind() == ConstraintViolation.Kind.FOREIGN_KEY) {
+            return translateForeignKeyByMessage(violation);
+        }
+        if (!updatable && matches(violation, Collections.singletonList(idProp), true)) {
+            for (ImmutableSpi entity : entities) {
+                if (entity.__isLoaded(idPropId) &&
+                        matches(violation, entity, Collections.singletonList(idProp))) {
+                    return ctx.createConflictId(idProp, entity.__get(idPropId));
+                }
+            }
+        }
+        if (!keyProps.isEmpty() &&
+                shape.getGetterMap().keySet().containsAll(keyProps) &&
+                matches(violation, keyProps, false)) {
+            for (ImmutableSpi entity : entities) {
+                if (matches(violation, entity, keyProps)) {
+                    return ctx.createConflictKey(keyProps, Keys.keyOf(entity, keyProps));
+                }
+            }
+        }
+        return null;
+    }
+
+    private Exception translateForeignKeyByMessage(ConstraintViolation violation) {
+        if (violation.getColumnNames().size() != 1) {
+            return null;
+        }
+        JSqlClientImplementor sqlClient = ctx.options.getSqlClient();
+        String columnName = DatabaseIdentifiers.comparableIdentifier(violation.getColumnNames().get(0));
+        for (ImmutableProp prop : ctx.path.getType().getProps().values()) {
+            if (!prop.isColumnDefinition() ||
+                    !prop.isTargetForeignKeyReal(sqlClient.getMetadataStrategy()) ||
+                    !prop.isReference(TargetLevel.PERSISTENT) ||
+                    prop.isRemote() ||
+                    ctx.options.isAutoCheckingProp(prop) ||
+                    !columnName.equals(Investigators.columnName(prop, sqlClient))) {
+                continue;
+            }
+            PropId propId = prop.getId();
+            PropId targetIdPropId = prop.getTargetType().getIdProp().getId();
+            Set<Object> associatedIds = new LinkedHashSet<>();
+            for (ImmutableSpi entity : entities) {
+                if (!entity.__isLoaded(propId)) {
+                    continue;
+                }
+                Object associatedObject = entity.__get(propId);
+                if (associatedObject == null) {
+                    continue;
+                }
+                Object associatedId = ((ImmutableSpi)associatedObject).__get(targetIdPropId);
+                if (violation.getValues().isEmpty() ||
+                        Investigators.text(associatedId).equals(violation.getValues().get(0))) {
+                    associatedIds.add(associatedId);
+                }
+            }
+            // Without the reported value, the illegal id can only be determined
+            // when all the rows reference the same object
+            if (associatedIds.size() == 1) {
+                return ctx.prop(prop).createIllegalTargetId(associatedIds);
+            }
+            return null;
+        }
+        return null;
+    }
+
+    private boolean matches(ConstraintViolation violation, Collection<ImmutableProp> props, boolean isId) {
+        if (violation.getColumnNames().isEmpty()) {
+            // MySQL only reports the key name, the primary key is always named "PRIMARY"
+            return "PRIMARY".equalsIgnoreCase(violation.getConstraintName()) == isId;
+        }
+        JSqlClientImplementor sqlClient = ctx.options.getSqlClient();
+        Set<String> columnNames = new HashSet<>();
+        for (ImmutableProp prop : props) {
+            String columnName = Investigators.columnName(prop, sqlClient);
+            if (columnName == null) {
+                return false;
+            }
+            columnNames.add(columnName);
+        }
+        Set<String> violatedColumnNames = new HashSet<>();
+        for (String columnName : violation.getColumnNames()) {
+            violatedColumnNames.add(DatabaseIdentifiers.comparableIdentifier(columnName));
+        }
+        return columnNames.equals(violatedColumnNames);
+    }
+
+    private boolean matches(ConstraintViolation violation, ImmutableSpi entity, Collection<ImmutableProp> props) {
+        List<String> values = violation.getValues();
+        if (values.isEmpty()) {
+            return false;
+        }
+        if (violation.getColumnNames().isEmpty()) {
+            StringBuilder builder = new StringBuilder();
+            for (ImmutableProp prop : props) {
+                if (!entity.__isLoaded(prop.getId())) {
+                    return false;
+                }
+                if (builder.length() != 0) {
+                    builder.append('-');
+                }
+                builder.append(Investigators.text(entity.__get(prop.getId())));
+            }
+            return builder.toString().equals(values.get(0));
+        }
+        JSqlClientImplementor sqlClient = ctx.options.getSqlClient();
+        Map<String, String> valueMap = new HashMap<>();
+        int index = 0;
+        for (String columnName : violation.getColumnNames()) {
+            valueMap.put(DatabaseIdentifiers.comparableIdentifier(columnName), values.get(index++));
+        }
+        for (ImmutableProp prop : props) {
+            if (!entity.__isLoaded(prop.getId())) {
+                return false;
+            }
+            String text = Investigators.text(entity.__get(prop.getId()));
+            if (!text.equals(valueMap.get(Investigators.columnName(prop, sqlClient)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     private Fetcher<ImmutableSpi> idFetcher(ImmutableType type) {
         return idFetcherMap.computeIfAbsent(type, t -> {
@@ -1,10 +1,22 @@
 package org.babyfish.jimmer.sql.ast.impl.mutation;
 
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.sql.dialect.ConstraintViolation;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.meta.SingleColumn;
+import org.babyfish.jimmer.sql.meta.Storage;
+import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
 import org.babyfish.jimmer.sql.runtime.AbstractExecutorProxy;
 import org.babyfish.jimmer.sql.runtime.Executor;
 import org.babyfish.jimmer.sql.runtime.ExecutorForLog;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 class Investigators {
 
     private Investigators() {}
@@ -26,4 +38,83 @@ class Investigators {
                 ExecutorForLog.wrap(sqlClient.getExecutor(), investigatorLogger)
         );
     }
+
+    /**
+     * Parse the exception and its next exceptions, because some drivers,
+     * such as the driver of Postgres, put the detail of the failed row
+     * into the next exception of {@link java.sql.BatchUpdateException}
+     */
+    public static ConstraintViolation parseConstraintViolation(Dialect dialect, SQLException ex) {
+        Map<SQLException, Object> visited = new IdentityHashMap<>();
+        for (SQLException e = ex; e != null && visited.put(e, e) == null; e = e.getNextException()) {
+            ConstraintViolation violation = dialect.parseConstraintViolation(e);
+            if (violation != null) {
+                return violation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The comparable name of the single column of the property,
+     * or null if the property is not based on single column.
+     */
+    public static String columnName(ImmutableProp prop, JSqlClientImplementor sqlClient) {
+        Storage storage = prop.getStorage(sqlClient.getMetadataStrategy());
+        if (!(storage instanceof SingleColumn)) {
+            return null;
+        }
+        return DatabaseIdentifiers.comparableIdentifier(((SingleColumn) storage).getName());
+    }
+
+    /**
+     * @return The text of value which can be compared with
+     * the value reported by the error message of database
+     */
+    public static String text(Object value) {
+        if (value instanceof ImmutableSpi) {
+            ImmutableSpi spi = (ImmutableSpi) value;
+            value = spi.__get(spi.__type().getIdProp().getId());
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * The limits of investigation queries, see
+     * {@link JSqlClientImplementor#getMaxInvestigationRowCount()} and
+     * {@link JSqlClientImplementor#getInvestigationTimeout()}
+     */
+    static class Limit {
+
+        private final int maxRowCount;
+
+        private final long deadlineNanos;
+
+        private final boolean timed;
+
+        private int rowCount;
+
+        Limit(JSqlClientImplementor sqlClient) {
+            Duration timeout = sqlClient.getInvestigationTimeout();
+            this.maxRowCount = sqlClient.getMaxInvestigationRowCount();
+            this.timed = timeout != null;
+            this.deadlineNanos = timeout != null ?
+                    System.nanoTime() + Math.min(timeout.toMillis(), Long.MAX_VALUE / 2_000_000L) * 1_000_000L :
+                    0L;
+        }
+
+        /**
+         * @return Whether the rows can be investigated, if true, they are counted
+         */
+        boolean tryInvestigate(int rowCount) {
+            if (rowCount > maxRowCount - this.rowCount) {
+                return false;
+            }
+            if (timed && System.nanoTime() - deadlineNanos >= 0) {
+                return false;
+            }
+            this.rowCount += rowCount;
+            return true;
+        }
+    }
 }
@@ -4,8 +4,11 @@ import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.PropId;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
+import org.babyfish.jimmer.sql.dialect.ConstraintViolation;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.impl.FetcherImpl;
+import org.babyfish.jimmer.sql.meta.ColumnDefinition;
+import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.babyfish.jimmer.sql.runtime.MutationPath;
 
@@ -23,6 +26,8 @@ class MiddleTableInvestigator {
 
     private final MutationPath path;
 
+    private final ColumnDefinition targetColumnDefinition;
+
     private final ImmutableType targetType;
 
     private final Collection<Tuple2<Object, Object>> idTuples;
@@ -35,27 +40,35 @@ class MiddleTableInvestigator {
             JSqlClientImplementor sqlClient,
             Connection con,
             MutationPath path,
+            ColumnDefinition targetColumnDefinition,
             Collection<Tuple2<Object, Object>> idTuples) {
         this.ex = ex;
         this.sqlClient = sqlClient;
         this.con = con;
         this.path = path;
+        this.targetColumnDefinition = targetColumnDefinition;
         this.targetType = path.getProp().getTargetType();
         this.idTuples = idTuples;
         this.targetIdFetcher = new FetcherImpl<>((Class<ImmutableSpi>)targetType.getJavaClass());
     }
 
     public Exception investigate() {
+        Investigators.Limit limit = new Investigators.Limit(sqlClient);
         if (sqlClient.getDialect().isBatchUpdateExceptionUnreliable()) {
-            Exception translated = translateAll();
-            if (translated != null) {
-                return translated;
+            if (limit.tryInvestigate(idTuples.size())) {
+                Exception translated = translateAll();
+                if (translated != null) {
+                    return translated;
+                }
             }
         } else {
             int[] rowCounts = ex.getUpdateCounts();
             int index = 0;
             for (Tuple2<Object, Object> idTuple : idTuples) {
                 if (rowCounts[index++] < 0) {
+                    if (!limit.tryInvestigate(1)) {
+                        break;
+                    }
                     Exception translated = translateOne(idTuple);
                     if (translated != null) {
                         return translated;
@@ -63,6 +76,10 @@ class MiddleTableInvestigator {
                 }
             }
         }
+        Exception translated = translateByMessage();
+        if (translated != null) {
+            return translated;
+        }
         return ex;
     }
 
@@ -83,6 +100,36 @@ class MiddleTableInvestigator {
         return null;
     }
 
+    private Exception translateByMessage() {
+        ConstraintViolation violation = Investigators.parseConstraintViolation(
+                sqlClient.getDialect(),
+                ex
+        );
+        if (violation == null ||
+                violation.getKind() != ConstraintViolation.Kind.FOREIGN_KEY ||
+                violation.getColumnNames().size() != 1 ||
+                targetColumnDefinition.size() != 1) {
+            return null;
+        }
+        String columnName = DatabaseIdentifiers.comparableIdentifier(violation.getColumnNames().get(0));
+        if (!columnName.equals(DatabaseIdentifiers.comparableIdentifier(targetColumnDefinition.name(0)))) {
+            return null;
+        }
+        Set<Object> targetIds = new LinkedHashSet<>();
+        for (Tuple2<Object, Object> idTuple : idTuples) {
+            if (violation.getValues().isEmpty() ||
+                    Investigators.text(idTuple.get_2()).equals(violation.getValues().get(0))) {
+                targetIds.add(idTuple.get_2());
+            }
+        }
+        // Without the reported value, the illegal id can only be determined
+        // when all the rows reference the same object
+        if (targetIds.size() == 1) {
+            return MutationContext.createIllegalTargetId(path, targetIds);
+        }
+        return null;
+    }
+
     private Exception translateAll() {
         Collection<Object> targetIds = Tuple2.projection2(idTuples);
         List<ImmutableSpi> existingTargets = Rows.findRows(
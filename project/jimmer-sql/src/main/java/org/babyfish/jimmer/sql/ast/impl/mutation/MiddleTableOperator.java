@@ -8,6 +8,7 @@ import org.babyfish.jimmer.sql.ast.impl.TupleImplementor;
 import org.babyfish.jimmer.sql.ast.impl.render.AbstractSqlBuilder;
 import org.babyfish.jimmer.sql.ast.impl.render.BatchSqlBuilder;
 import org.babyfish.jimmer.sql.ast.impl.render.ComparisonPredicates;
+import org.babyfish.jimmer.sql.ast.impl.util.IdCollections;
 import org.babyfish.jimmer.sql.ast.impl.value.GetterMetadata;
 import org.babyfish.jimmer.sql.ast.impl.value.ValueGetter;
 import org.babyfish.jimmer.sql.ast.mutation.AffectedTable;
@@ -238,7 +239,10 @@ class MiddleTableOperator extends AbstractAssociationOperator {
         if (!(idTuples instanceof Set<?>)) {
             idTuples = new LinkedHashSet<>(idTuples);
         }
-        Set<Object> sourceIds = new LinkedHashSet<>();
+        Set<Object> sourceIds = IdCollections.newIdSet(
+                path.getProp().getDeclaringType(),
+                idPairs.entries().size()
+        );
         for (Tuple2<Object, Collection<Object>> tuple : idPairs.entries()) {
             sourceIds.add(tuple.get_1());
         }
@@ -994,6 +998,7 @@ class MiddleTableOperator extends AbstractAssociationOperator {
                 Investigators.toInvestigatorSqlClient(sqlClient, ctx),
                 con,
                 path,
+                middleTable.getTargetColumnDefinition(),
                 idTuples
         );
         Exception translated = investigator.investigate();
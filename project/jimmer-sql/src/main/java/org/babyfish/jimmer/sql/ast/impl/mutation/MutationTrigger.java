@@ -53,26 +53,28 @@ public class MutationTrigger {
     public void submit(JSqlClient sqlClient, Connection con) {
         if (!changedList.isEmpty()) {
             Triggers triggers = sqlClient.getTriggers(true);
-            for (MutationTrigger.ChangedData changedData : this.changedList) {
-                if (changedData instanceof MutationTrigger.EntityChangedData) {
-                    MutationTrigger.EntityChangedData data = (MutationTrigger.EntityChangedData) changedData;
-                    Internal.requiresNewDraftContext(ctx -> {
-                        triggers.fireEntityTableChange(
-                                toLonely((ImmutableSpi) data.oldEntity),
-                                toLonely((ImmutableSpi) data.newEntity),
-                                con
-                        );
-                        return null;
-                    });
-                } else {
-                    MutationTrigger.AssociationChangedData data = (MutationTrigger.AssociationChangedData) changedData;
-                    if (data.detachedTargetId == null) {
-                        triggers.fireMiddleTableInsert(data.prop, data.sourceId, data.attachedTargetId, con);
+            triggers.batch(() -> {
+                for (MutationTrigger.ChangedData changedData : this.changedList) {
+                    if (changedData instanceof MutationTrigger.EntityChangedData) {
+                        MutationTrigger.EntityChangedData data = (MutationTrigger.EntityChangedData) changedData;
+                        Internal.requiresNewDraftContext(ctx -> {
+                            triggers.fireEntityTableChange(
+                                    toLonely((ImmutableSpi) data.oldEntity),
+                                    toLonely((ImmutableSpi) data.newEntity),
+                                    con
+                            );
+                            return null;
+                        });
                     } else {
-                        triggers.fireMiddleTableDelete(data.prop, data.sourceId, data.detachedTargetId, con);
+                        MutationTrigger.AssociationChangedData data = (MutationTrigger.AssociationChangedData) changedData;
+                        if (data.detachedTargetId == null) {
+                            triggers.fireMiddleTableInsert(data.prop, data.sourceId, data.attachedTargetId, con);
+                        } else {
+                            triggers.fireMiddleTableDelete(data.prop, data.sourceId, data.detachedTargetId, con);
+                        }
                     }
                 }
-            }
+            });
         }
     }
 
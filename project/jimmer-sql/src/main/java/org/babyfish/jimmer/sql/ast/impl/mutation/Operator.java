@@ -92,6 +92,21 @@ class Operator {
             }
         }
 
+        MutationTrigger trigger = ctx.trigger;
+        if (trigger != null) {
+            for (DraftSpi draft : batch.entities()) {
+                trigger.modifyEntityTable(null, draft);
+            }
+        }
+
+        if (ctx.options.isBulkInsert() &&
+                !batch.shape().getIdGetters().isEmpty() &&
+                sqlClient.getDialect().isMultiInsertionSupported()) {
+            int rowCount = new BulkInserter(ctx, batch.shape(), defaultGetters).insert(batch.entities());
+            AffectedRows.add(ctx.affectedRowCountMap, ctx.path.getType(), rowCount);
+            return;
+        }
+
         MetadataStrategy strategy = sqlClient.getMetadataStrategy();
         BatchSqlBuilder builder = new BatchSqlBuilder(sqlClient);
         builder.sql("insert into ")
@@ -138,12 +153,6 @@ class Operator {
                     );
         }
 
-        MutationTrigger trigger = ctx.trigger;
-        if (trigger != null) {
-            for (DraftSpi draft : batch.entities()) {
-                trigger.modifyEntityTable(null, draft);
-            }
-        }
         int rowCount = execute(builder, batch, false);
         AffectedRows.add(ctx.affectedRowCountMap, ctx.path.getType(), rowCount);
     }
@@ -34,6 +34,10 @@ public interface SaveOptions {
 
     LockMode getLockMode();
 
+    boolean isBulkInsert();
+
+    boolean isAssociationBatchMerged();
+
     UserOptimisticLock<?, ?> getUserOptimisticLock(ImmutableType type);
 
     boolean isAutoCheckingProp(ImmutableProp prop);
@@ -116,6 +120,16 @@ abstract class AbstractSaveOptionsWrapper implements SaveOptions {
         return raw.getLockMode();
     }
 
+    @Override
+    public boolean isBulkInsert() {
+        return raw.isBulkInsert();
+    }
+
+    @Override
+    public boolean isAssociationBatchMerged() {
+        return raw.isAssociationBatchMerged();
+    }
+
     @Override
     public UserOptimisticLock<?, ?> getUserOptimisticLock(ImmutableType type) {
         return raw.getUserOptimisticLock(type);
@@ -106,6 +106,10 @@ public class Saver {
 
         boolean detach = saveSelf(preHandler);
 
+        if (ctx.options.isAssociationBatchMerged()) {
+            saveMergedPostAssociations(preHandler.associationBatches(), detach);
+            return;
+        }
         for (Batch<DraftSpi> batch : preHandler.associationBatches()) {
             for (ImmutableProp prop : batch.shape().getGetterMap().keySet()) {
                 if (prop.isAssociation(TargetLevel.ENTITY)) {
@@ -113,10 +117,36 @@ public class Saver {
                         clearAssociations(batch.entities(), prop);
                     }
                     setBackReference(prop, batch);
-                    savePostAssociation(prop, batch, detach);
+                    savePostAssociation(prop, batch.entities(), detach);
+                }
+            }
+        }
+    }
+
+    /*
+     * Group the entities of all association batches by properties before saving,
+     * so that the associated objects of each property are saved and connected
+     * by one round of statements, no matter how many shapes the parent objects have.
+     */
+    private void saveMergedPostAssociations(Iterable<Batch<DraftSpi>> batches, boolean detach) {
+        Map<ImmutableProp, List<DraftSpi>> entitiesMap = new LinkedHashMap<>();
+        for (Batch<DraftSpi> batch : batches) {
+            for (ImmutableProp prop : batch.shape().getGetterMap().keySet()) {
+                if (prop.isAssociation(TargetLevel.ENTITY)) {
+                    setBackReference(prop, batch);
+                    entitiesMap
+                            .computeIfAbsent(prop, it -> new ArrayList<>())
+                            .addAll(batch.entities());
                 }
             }
         }
+        for (Map.Entry<ImmutableProp, List<DraftSpi>> e : entitiesMap.entrySet()) {
+            ImmutableProp prop = e.getKey();
+            if (ctx.options.getAssociatedMode(prop) == AssociatedSaveMode.VIOLENTLY_REPLACE) {
+                clearAssociations(e.getValue(), prop);
+            }
+            savePostAssociation(prop, e.getValue(), detach);
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -165,7 +195,7 @@ public class Saver {
     @SuppressWarnings("unchecked")
     private void savePostAssociation(
             ImmutableProp prop,
-            Batch<DraftSpi> batch,
+            Collection<DraftSpi> entities,
             boolean detachOtherSiblings
     ) {
         Saver targetSaver = new Saver(ctx.prop(prop));
@@ -180,9 +210,9 @@ public class Saver {
             targetSaver.ctx.throwUnstructuredAssociation();
         }
 
-        List<DraftSpi> targets = new ArrayList<>(batch.entities().size());
+        List<DraftSpi> targets = new ArrayList<>(entities.size());
         PropId targetPropId = prop.getId();
-        for (DraftSpi draft : batch.entities()) {
+        for (DraftSpi draft : entities) {
             Object value = draft.__get(targetPropId);
             if (value instanceof List<?>) {
                 targets.addAll((List<DraftSpi>) value);
@@ -196,7 +226,7 @@ public class Saver {
             targetSaver.saveAllImpl(targets);
         }
 
-        updateAssociations(batch, prop, detachOtherSiblings);
+        updateAssociations(entities, prop, detachOtherSiblings);
     }
 
     private boolean saveSelf(PreHandler preHandler) {
@@ -268,7 +298,7 @@ public class Saver {
         }
     }
 
-    private void updateAssociations(Batch<DraftSpi> batch, ImmutableProp prop, boolean detach) {
+    private void updateAssociations(Collection<DraftSpi> entities, ImmutableProp prop, boolean detach) {
         ChildTableOperator subOperator = null;
         MiddleTableOperator middleTableOperator = null;
         if (prop.isMiddleTableDefinition()) {
@@ -300,7 +330,7 @@ public class Saver {
         if (subOperator == null && middleTableOperator == null) {
             return;
         }
-        IdPairs.Retain retainedIdPairs = IdPairs.retain(batch.entities(), prop);
+        IdPairs.Retain retainedIdPairs = IdPairs.retain(entities, prop);
         if (subOperator != null && detach && ctx.options.getAssociatedMode(prop) == AssociatedSaveMode.REPLACE) {
             subOperator.disconnectExcept(retainedIdPairs);
         }
@@ -124,6 +124,16 @@ public class SimpleEntitySaveCommandImpl<E>
         return new SimpleEntitySaveCommandImpl<>(new LockModeCfg(cfg, lockMode));
     }
 
+    @Override
+    public SimpleEntitySaveCommand<E> setBulkInsert(boolean bulkInsert) {
+        return new SimpleEntitySaveCommandImpl<>(new BulkInsertCfg(cfg, bulkInsert));
+    }
+
+    @Override
+    public SimpleEntitySaveCommand<E> setAssociationBatchMerged(boolean merged) {
+        return new SimpleEntitySaveCommandImpl<>(new AssociationBatchMergedCfg(cfg, merged));
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <T extends Table<E>> SimpleEntitySaveCommand<E> setOptimisticLock(
@@ -13,7 +13,7 @@ import java.util.Arrays;
 import java.util.Objects;
 import java.util.function.BiFunction;
 
-class Tuples {
+public class Tuples {
 
     public static TupleImplementor valueOf(Object[] arr) {
         switch (arr.length) {
@@ -155,7 +155,12 @@ abstract class AbstractConfigurableTypedQueryImpl implements TypedQueryImplement
             }
         }
         builder.leave();
-        baseQuery.renderTo(builder, data.withoutSortingAndPaging, data.reverseSorting);
+        baseQuery.renderTo(
+                builder,
+                data.withoutSortingAndPaging,
+                data.reverseSorting,
+                data.seekValues
+        );
     }
 
     private PropExpressionImplementor<?> idOnlyPropExprByOffset() {
@@ -211,8 +211,20 @@ public abstract class AbstractMutableQueryImpl
     }
 
     void renderTo(SqlBuilder builder, boolean withoutSortingAndPaging, boolean reverseOrder) {
+        renderTo(builder, withoutSortingAndPaging, reverseOrder, null);
+    }
+
+    void renderTo(
+            SqlBuilder builder,
+            boolean withoutSortingAndPaging,
+            boolean reverseOrder,
+            List<Object> seekValues
+    ) {
 
         Predicate predicate = getPredicate(builder.getAstContext());
+        if (seekValues != null) {
+            predicate = Predicate.and(predicate, new SeekPredicate(orders, seekValues, reverseOrder));
+        }
         Predicate havingPredicate = getHavingPredicate(builder.getAstContext());
 
         TableImplementor<?> tableImplementor = getTableImplementor();
@@ -1,32 +1,62 @@
 package org.babyfish.jimmer.sql.ast.impl.query;
 
 import org.babyfish.jimmer.Slice;
+import org.babyfish.jimmer.impl.util.Classes;
 import org.babyfish.jimmer.sql.ast.Expression;
 import org.babyfish.jimmer.sql.ast.Selection;
 import org.babyfish.jimmer.sql.ast.impl.Ast;
 import org.babyfish.jimmer.sql.ast.impl.AstContext;
 import org.babyfish.jimmer.sql.ast.impl.AstVisitor;
+import org.babyfish.jimmer.sql.ast.impl.ExpressionImplementor;
+import org.babyfish.jimmer.sql.ast.impl.TupleImplementor;
+import org.babyfish.jimmer.sql.ast.impl.mutation.Tuples;
+import org.babyfish.jimmer.sql.ast.impl.table.TableImplementor;
 import org.babyfish.jimmer.sql.ast.query.*;
 import org.babyfish.jimmer.sql.ast.table.Table;
+import org.babyfish.jimmer.sql.ast.table.spi.PropExpressionImplementor;
+import org.babyfish.jimmer.sql.ast.table.spi.TableProxy;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.babyfish.jimmer.sql.runtime.Executor;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.babyfish.jimmer.sql.runtime.PageCountExecutor;
+import org.babyfish.jimmer.sql.runtime.ScalarProvider;
 import org.babyfish.jimmer.sql.runtime.Selectors;
+import org.babyfish.jimmer.sql.runtime.ShardingConnectionManager;
 import org.babyfish.jimmer.sql.runtime.SqlBuilder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.temporal.Temporal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         extends AbstractConfigurableTypedQueryImpl
         implements ConfigurableRootQuery<T, R>, TypedRootQueryImplementor<R> {
 
+    // The rendered result of this query object after its AST is frozen.
+    //
+    // It is only reused by this query object, other query objects with the same shape
+    // are still rendered because their variables can only be collected by rendering.
+    private volatile RenderedPlan renderedPlan;
+
     ConfigurableRootQueryImpl(
             TypedQueryData data,
             MutableRootQueryImpl<T> baseQuery
@@ -62,7 +92,42 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         if (offset > Long.MAX_VALUE - pageSize) {
             throw new IllegalArgumentException("offset is too big");
         }
-        long total = fetchUnlimitedCount(con);
+        if (scatteringConnectionManager(con) != null) {
+            long total = fetchUnlimitedCount(con);
+            List<R> rows = offset >= total ?
+                    Collections.emptyList() :
+                    limit(pageSize, offset).execute(con);
+            return pageFactory.create(
+                    rows,
+                    total,
+                    PageSource.of(pageIndex, pageSize, getBaseQuery())
+            );
+        }
+        JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
+        if (sqlClient.getApproximatePageCountThreshold() != Long.MAX_VALUE &&
+                sqlClient.getDialect().isRowCountEstimationSupported()) {
+            return fetchApproximatePage(pageIndex, pageSize, offset, con, pageFactory);
+        }
+        PageCountExecutor countExecutor = sqlClient.getPageCountExecutor();
+        if (countExecutor != null && !getData().forUpdate) {
+            return connectionManager(false).execute(con, c -> {
+                if (!isAutoCommit(c)) {
+                    return fetchPage(pageIndex, pageSize, offset, fetchUnlimitedCount(c), c, pageFactory);
+                }
+                return fetchPageConcurrently(pageIndex, pageSize, offset, c, countExecutor, pageFactory);
+            });
+        }
+        return fetchPage(pageIndex, pageSize, offset, fetchUnlimitedCount(con), con, pageFactory);
+    }
+
+    private <P> P fetchPage(
+            int pageIndex,
+            int pageSize,
+            long offset,
+            long total,
+            Connection con,
+            PageFactory<R, P> pageFactory
+    ) {
         if (offset >= total) {
             return pageFactory.create(
                     Collections.emptyList(),
@@ -100,6 +165,165 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         );
     }
 
+    /**
+     * The data query is executed first, the row count estimation is skipped
+     * if the data query has already determined the exact total row count,
+     * that is, the page is not full, or the first page is empty.
+     */
+    private <P> P fetchApproximatePage(
+            int pageIndex,
+            int pageSize,
+            long offset,
+            Connection con,
+            PageFactory<R, P> pageFactory
+    ) {
+        List<R> rows = limit(pageSize, offset).execute(con);
+        long total;
+        if ((!rows.isEmpty() || offset == 0) && rows.size() < pageSize) {
+            total = offset + rows.size();
+        } else {
+            long estimatedTotal = estimateUnlimitedCount(con);
+            if (estimatedTotal != -1) {
+                total = Math.max(estimatedTotal, offset + rows.size());
+            } else {
+                total = fetchUnlimitedCount(con);
+            }
+        }
+        return pageFactory.create(
+                offset >= total ? Collections.emptyList() : rows,
+                total,
+                PageSource.of(pageIndex, pageSize, getBaseQuery())
+        );
+    }
+
+    /**
+     * The count query is executed by the executor with another connection,
+     * the data query is executed by the current thread at the same time.
+     *
+     * <p>The count of borrowed connections is bounded by {@link PageCountExecutor},
+     * and if the executor has not started the count query when the data query is finished,
+     * the current thread takes the count query over and executes it by its own connection,
+     * so that it never waits for a queued task while holding a connection.</p>
+     */
+    private <P> P fetchPageConcurrently(
+            int pageIndex,
+            int pageSize,
+            long offset,
+            Connection con,
+            PageCountExecutor countExecutor,
+            PageFactory<R, P> pageFactory
+    ) {
+        if (!countExecutor.tryAcquire()) {
+            return fetchPage(pageIndex, pageSize, offset, fetchUnlimitedCount(con), con, pageFactory);
+        }
+        ConnectionManager connectionManager = getBaseQuery().getSqlClient().getSlaveConnectionManager(false);
+        AtomicBoolean countStarted = new AtomicBoolean();
+        CompletableFuture<Long> countFuture;
+        try {
+            countFuture = CompletableFuture.supplyAsync(
+                    () -> {
+                        if (!countStarted.compareAndSet(false, true)) {
+                            // Taken over by the thread of the data query
+                            return -1L;
+                        }
+                        try {
+                            return connectionManager.executeBranch(con, this::fetchUnlimitedCount);
+                        } finally {
+                            countExecutor.release();
+                        }
+                    },
+                    countExecutor.getExecutor()
+            );
+        } catch (RejectedExecutionException ex) {
+            countExecutor.release();
+            return fetchPage(pageIndex, pageSize, offset, fetchUnlimitedCount(con), con, pageFactory);
+        }
+        List<R> rows;
+        try {
+            rows = limit(pageSize, offset).execute(con);
+        } catch (RuntimeException | Error ex) {
+            if (countStarted.compareAndSet(false, true)) {
+                countExecutor.release();
+            }
+            throw ex;
+        }
+        if (countStarted.compareAndSet(false, true)) {
+            countExecutor.release();
+            long total = fetchUnlimitedCount(con);
+            return pageFactory.create(
+                    offset >= total ? Collections.emptyList() : rows,
+                    total,
+                    PageSource.of(pageIndex, pageSize, getBaseQuery())
+            );
+        }
+        long total;
+        try {
+            total = countFuture.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExecutionException("Failed to count the rows of the page", cause);
+        }
+        return pageFactory.create(
+                offset >= total ? Collections.emptyList() : rows,
+                total,
+                PageSource.of(pageIndex, pageSize, getBaseQuery())
+        );
+    }
+
+    /**
+     * @return The row count estimated by the database planner if it is not less than
+     * {@link JSqlClientImplementor#getApproximatePageCountThreshold()}, otherwise -1.
+     */
+    private long estimateUnlimitedCount(Connection con) {
+        JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
+        long threshold = sqlClient.getApproximatePageCountThreshold();
+        if (threshold == Long.MAX_VALUE) {
+            return -1;
+        }
+        Dialect dialect = sqlClient.getDialect();
+        ConfigurableRootQueryImpl<T, R> unlimitedQuery =
+                (ConfigurableRootQueryImpl<T, R>) withoutSortingAndPaging();
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = unlimitedQuery.preExecute(sqlClient);
+        String sql = dialect.getRowCountEstimationSql(sqlResult.get_1());
+        if (sql == null) {
+            return -1;
+        }
+        long estimated = connectionManager(getData().forUpdate)
+                .execute(con, c ->
+                        sqlClient.getExecutor().execute(
+                                new Executor.Args<>(
+                                        sqlClient,
+                                        c,
+                                        sql,
+                                        sqlResult.get_2(),
+                                        null,
+                                        getBaseQuery().getPurpose(),
+                                        null,
+                                        stmt -> {
+                                            try (ResultSet rs = stmt.executeQuery()) {
+                                                return dialect.readRowCountEstimation(rs);
+                                            }
+                                        }
+                                )
+                        )
+                );
+        return estimated >= threshold ? estimated : -1;
+    }
+
+    private static boolean isAutoCommit(Connection con) {
+        try {
+            return con.getAutoCommit();
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot get the auto-commit mode of the connection", ex);
+        }
+    }
+
     @Override
     public Slice<R> fetchSlice(int limit, int offset, @Nullable Connection con) {
         if (limit < 1) {
@@ -115,6 +339,110 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         return new Slice<>(rows.subList(0, rows.size() - 1), offset == 0, false);
     }
 
+    @Override
+    public SeekPage<R> fetchSeekPage(@Nullable String afterCursor, int size, @Nullable Connection con) {
+        return fetchSeekPageImpl(afterCursor, size, false, con);
+    }
+
+    @Override
+    public SeekPage<R> fetchSeekPageBefore(@Nullable String beforeCursor, int size, @Nullable Connection con) {
+        return fetchSeekPageImpl(beforeCursor, size, true, con);
+    }
+
+    @SuppressWarnings("unchecked")
+    private SeekPage<R> fetchSeekPageImpl(
+            @Nullable String cursor,
+            int size,
+            boolean backward,
+            @Nullable Connection con
+    ) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size cannot be less than 1");
+        }
+        TypedQueryData data = getData();
+        List<Order> orders = getBaseQuery().getOrders();
+        if (orders.isEmpty()) {
+            throw new IllegalStateException(
+                    "The keyset pagination requires the query to have `order by` clause"
+            );
+        }
+        for (Order order : orders) {
+            if (order.getNullOrderMode() == NullOrderMode.UNSPECIFIED && !isNonNullRootProp(order.getExpression())) {
+                throw new IllegalStateException(
+                        "The keyset pagination requires the order expression \"" +
+                                order.getExpression() +
+                                "\" which may be null to specify `nullsFirst()` or `nullsLast()`, " +
+                                "because the default null order is decided by database"
+                );
+            }
+        }
+        int selectionCount = data.selections.size();
+        if (selectionCount + orders.size() > 9) {
+            throw new IllegalStateException(
+                    "The keyset pagination selects the order expressions with the original selections, " +
+                            "the total count of them cannot be greater than 9"
+            );
+        }
+        List<Selection<?>> selections = new ArrayList<>(selectionCount + orders.size());
+        selections.addAll(data.selections);
+        for (Order order : orders) {
+            selections.add(order.getExpression());
+        }
+        List<Object> seekValues = cursor != null ? SeekCursors.decode(cursor, orders) : null;
+        List<TupleImplementor> tuples = (List<TupleImplementor>) (List<?>) new ConfigurableRootQueryImpl<T, Object>(
+                data.seek(selections, seekValues, data.reverseSorting != backward, size + 1),
+                getBaseQuery()
+        ).execute(con);
+        boolean hasMore = tuples.size() > size;
+        if (hasMore) {
+            tuples = tuples.subList(0, size);
+        }
+        if (backward) {
+            tuples = new ArrayList<>(tuples);
+            Collections.reverse(tuples);
+        }
+        List<R> rows = rows(tuples, selectionCount);
+        String startCursor = null;
+        String endCursor = null;
+        if (!tuples.isEmpty()) {
+            startCursor = SeekCursors.encode(orderValues(tuples.get(0), selectionCount));
+            endCursor = SeekCursors.encode(orderValues(tuples.get(tuples.size() - 1), selectionCount));
+        }
+        return new SeekPage<>(
+                Collections.unmodifiableList(rows),
+                startCursor,
+                endCursor,
+                backward ? hasMore : cursor != null,
+                backward ? cursor != null : hasMore
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> rows(List<TupleImplementor> tuples, int selectionCount) {
+        List<E> rows = new ArrayList<>(tuples.size());
+        for (TupleImplementor tuple : tuples) {
+            if (selectionCount == 1) {
+                rows.add((E) tuple.get(0));
+            } else {
+                Object[] arr = new Object[selectionCount];
+                for (int i = 0; i < selectionCount; i++) {
+                    arr[i] = tuple.get(i);
+                }
+                rows.add((E) Tuples.valueOf(arr));
+            }
+        }
+        return rows;
+    }
+
+    private static List<Object> orderValues(TupleImplementor tuple, int selectionCount) {
+        int size = tuple.size();
+        List<Object> values = new ArrayList<>(size - selectionCount);
+        for (int i = selectionCount; i < size; i++) {
+            values.add(tuple.get(i));
+        }
+        return values;
+    }
+
     @Override
     public <X> ConfigurableRootQuery<T, X> reselect(
             BiFunction<MutableRootQuery<T>, T, ConfigurableRootQuery<T, X>> block
@@ -240,10 +568,317 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
 
     @Override
     public List<R> execute(Connection con) {
-        return getBaseQuery()
-                .getSqlClient()
-                .getSlaveConnectionManager(getData().forUpdate)
-                .execute(con, this::executeImpl);
+        ShardingConnectionManager sharding = scatteringConnectionManager(con);
+        if (sharding != null) {
+            return executeScattered(sharding);
+        }
+        return connectionManager(getData().forUpdate).execute(con, this::executeImpl);
+    }
+
+    @Override
+    public long fetchUnlimitedCount(Connection con) {
+        ShardingConnectionManager sharding = scatteringConnectionManager(con);
+        if (sharding == null) {
+            return ConfigurableRootQuery.super.fetchUnlimitedCount(con);
+        }
+        if (getData().distinct) {
+            throw cannotScatter("distinct");
+        }
+        // Each scattered execution is bound to its shard, so it is not scattered again
+        Long total = ShardingConnectionManager.combine(
+                sharding.scatter(() -> ConfigurableRootQuery.super.fetchUnlimitedCount(null)),
+                Long::sum
+        );
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * @return The sharding connection manager if this query cannot be routed to one shard
+     * and must be scattered to all the shards, otherwise null.
+     */
+    @Nullable
+    private ShardingConnectionManager scatteringConnectionManager(@Nullable Connection con) {
+        if (con != null) {
+            return null;
+        }
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        ConnectionManager connectionManager = baseQuery.getSqlClient().getSlaveConnectionManager(getData().forUpdate);
+        if (!(connectionManager instanceof ShardingConnectionManager)) {
+            return null;
+        }
+        ShardingConnectionManager sharding = (ShardingConnectionManager) connectionManager;
+        if (!sharding.isScatterRequired(
+                baseQuery.getTableImplementor().getImmutableType(),
+                baseQuery.getPredicates()
+        )) {
+            return null;
+        }
+        return sharding;
+    }
+
+    /**
+     * Each shard executes the query with {@code limit(offset + limit, 0)},
+     * the rows of shards are merged by the {@code orderBy} of the query,
+     * so the order expressions are selected with the original selections.
+     *
+     * <p>The rows are merged in memory, so the order expressions are validated
+     * by {@link #orderValueComparators(List, ShardingConnectionManager)} before scattering.</p>
+     */
+    @SuppressWarnings("unchecked")
+    private List<R> executeScattered(ShardingConnectionManager sharding) {
+        TypedQueryData data = getData();
+        if (data.limit == 0) {
+            return Collections.emptyList();
+        }
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        if (data.distinct) {
+            throw cannotScatter("distinct");
+        }
+        if (baseQuery.isGroupByClauseUsed()) {
+            throw cannotScatter("group by");
+        }
+        if (isAggregated()) {
+            throw cannotScatter("aggregation");
+        }
+        if (data.offset > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The offset of the query scattered to shards cannot be greater than " + Integer.MAX_VALUE
+            );
+        }
+        int offset = (int) data.offset;
+        long end = offset + (long) data.limit;
+        int shardLimit = data.limit == Integer.MAX_VALUE || end > Integer.MAX_VALUE ?
+                Integer.MAX_VALUE :
+                (int) end;
+        List<Order> orders = baseQuery.getOrders();
+        if (orders.isEmpty() || data.withoutSortingAndPaging) {
+            ConfigurableRootQuery<T, R> shardQuery = data.withoutSortingAndPaging ?
+                    this :
+                    limit(shardLimit, 0L);
+            List<R> rows = new ArrayList<>();
+            for (List<R> shardRows : sharding.scatter(() -> shardQuery.execute())) {
+                rows.addAll(shardRows);
+            }
+            if (data.withoutSortingAndPaging || (offset == 0 && rows.size() <= data.limit)) {
+                return rows;
+            }
+            return new ArrayList<>(
+                    rows.subList(Math.min(offset, rows.size()), (int) Math.min(end, rows.size()))
+            );
+        }
+        int selectionCount = data.selections.size();
+        if (selectionCount + orders.size() > 9) {
+            throw new IllegalStateException(
+                    "The query scattered to shards selects the order expressions with the original selections, " +
+                            "the total count of them cannot be greater than 9"
+            );
+        }
+        List<Comparator<Object>> valueComparators = orderValueComparators(orders, sharding);
+        List<Selection<?>> selections = new ArrayList<>(selectionCount + orders.size());
+        selections.addAll(data.selections);
+        for (Order order : orders) {
+            selections.add(order.getExpression());
+        }
+        ConfigurableRootQueryImpl<T, Object> shardQuery = new ConfigurableRootQueryImpl<>(
+                data.seek(selections, null, data.reverseSorting, shardLimit),
+                baseQuery
+        );
+        List<List<TupleImplementor>> results = sharding.scatter(
+                () -> (List<TupleImplementor>) (List<?>) shardQuery.execute()
+        );
+        List<TupleImplementor> tuples = ShardingConnectionManager.mergeSorted(
+                results,
+                tupleComparator(orders, valueComparators, selectionCount, data.reverseSorting),
+                data.limit,
+                offset
+        );
+        return rows(tuples, selectionCount);
+    }
+
+    private boolean isAggregated() {
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        AstContext astContext = new AstContext(baseQuery.getSqlClient());
+        AggregationFinder finder = new AggregationFinder(astContext);
+        astContext.pushStatement(baseQuery);
+        try {
+            for (Selection<?> selection : getData().selections) {
+                Ast.from(selection, astContext).accept(finder);
+            }
+        } finally {
+            astContext.popStatement();
+        }
+        return finder.found;
+    }
+
+    /**
+     * The comparators of the order values, which must compare them like the database.
+     *
+     * <p>The collation of strings and the default null order are decided by the database,
+     * so the query is rejected before scattering unless each order expression is</p>
+     * <ul>
+     *     <li>a non-null property of the root table, or ordered with explicit
+     *     {@link Order#nullsFirst()} or {@link Order#nullsLast()}</li>
+     *     <li>a number, boolean or date/time value without scalar provider, or a string
+     *     when {@link ShardingConnectionManager.Builder#setStringComparator(Comparator)}
+     *     is configured</li>
+     * </ul>
+     * <p>Other queries should be executed by {@link ShardingConnectionManager#scatter(Supplier)}
+     * and merged by the caller.</p>
+     */
+    @SuppressWarnings("unchecked")
+    private List<Comparator<Object>> orderValueComparators(
+            List<Order> orders,
+            ShardingConnectionManager sharding
+    ) {
+        JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
+        List<Comparator<Object>> comparators = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            Expression<?> expression = order.getExpression();
+            if (order.getNullOrderMode() == NullOrderMode.UNSPECIFIED && !isNonNullRootProp(expression)) {
+                throw cannotMergeOrder(
+                        order,
+                        "it may be null but its null order is not specified, " +
+                                "please specify it by `nullsFirst()` or `nullsLast()`"
+                );
+            }
+            Class<?> type = Classes.boxTypeOf(((ExpressionImplementor<?>) expression).getType());
+            ScalarProvider<?, ?> scalarProvider = expression instanceof PropExpressionImplementor<?> ?
+                    sqlClient.getScalarProvider(((PropExpressionImplementor<?>) expression).getProp()) :
+                    sqlClient.getScalarProvider(type);
+            if (scalarProvider != null) {
+                throw cannotMergeOrder(order, "its values are converted by scalar provider");
+            }
+            if (type == String.class) {
+                Comparator<? super String> stringComparator = sharding.getStringComparator();
+                if (stringComparator == null) {
+                    throw cannotMergeOrder(
+                            order,
+                            "the collation of string is decided by database, " +
+                                    "please configure the string comparator of \"" +
+                                    ShardingConnectionManager.class.getName() +
+                                    "\""
+                    );
+                }
+                comparators.add((Comparator<Object>) (Comparator<?>) stringComparator);
+            } else if (isMergeableType(type)) {
+                comparators.add((x, y) -> ((Comparable<Object>) x).compareTo(y));
+            } else {
+                throw cannotMergeOrder(
+                        order,
+                        "its type \"" + type.getName() + "\" cannot be compared like database"
+                );
+            }
+        }
+        return comparators;
+    }
+
+    private static boolean isNonNullRootProp(Expression<?> expression) {
+        if (!(expression instanceof PropExpressionImplementor<?>)) {
+            return false;
+        }
+        PropExpressionImplementor<?> propExpression = (PropExpressionImplementor<?>) expression;
+        for (PropExpressionImplementor<?> pe = propExpression; pe != null; pe = pe.getBase()) {
+            if (pe.getProp().isNullable()) {
+                return false;
+            }
+        }
+        Table<?> table = propExpression.getTable();
+        if (table instanceof TableProxy<?>) {
+            return ((TableProxy<?>) table).__parent() == null;
+        }
+        return ((TableImplementor<?>) table).getParent() == null;
+    }
+
+    private static boolean isMergeableType(Class<?> type) {
+        if (!Comparable.class.isAssignableFrom(type)) {
+            return false;
+        }
+        return Number.class.isAssignableFrom(type) ||
+                type == Boolean.class ||
+                java.util.Date.class.isAssignableFrom(type) ||
+                Temporal.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Compares the order values selected after the original selections
+     * by the comparators validated by {@link #orderValueComparators(List, ShardingConnectionManager)}.
+     */
+    private static Comparator<TupleImplementor> tupleComparator(
+            List<Order> orders,
+            List<Comparator<Object>> valueComparators,
+            int selectionCount,
+            boolean reverseSorting
+    ) {
+        Comparator<TupleImplementor> comparator = (a, b) -> {
+            for (int i = 0; i < orders.size(); i++) {
+                Order order = orders.get(i);
+                Object x = a.get(selectionCount + i);
+                Object y = b.get(selectionCount + i);
+                int cmp;
+                if (x == null || y == null) {
+                    if (x == y) {
+                        continue;
+                    }
+                    cmp = (x == null) == (order.getNullOrderMode() == NullOrderMode.NULLS_FIRST) ? -1 : 1;
+                } else {
+                    cmp = valueComparators.get(i).compare(x, y);
+                    if (order.getOrderMode() == OrderMode.DESC) {
+                        cmp = -cmp;
+                    }
+                }
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        };
+        return reverseSorting ? comparator.reversed() : comparator;
+    }
+
+    private IllegalStateException cannotMergeOrder(Order order, String reason) {
+        return new IllegalStateException(
+                "Cannot determine the shard of the root query of \"" +
+                        getBaseQuery().getTableImplementor().getImmutableType() +
+                        "\", and it cannot be scattered to all the shards automatically " +
+                        "because the rows of shards cannot be merged by the order \"" +
+                        order +
+                        "\", " +
+                        reason +
+                        "; or specify the `shardKey = value` predicate, " +
+                        "or execute it by `executeOn` or `scatter` of \"" +
+                        ShardingConnectionManager.class.getName() +
+                        "\" and merge the results"
+        );
+    }
+
+    private IllegalStateException cannotScatter(String feature) {
+        return new IllegalStateException(
+                "Cannot determine the shard of the root query of \"" +
+                        getBaseQuery().getTableImplementor().getImmutableType() +
+                        "\", and it cannot be scattered to all the shards automatically " +
+                        "because it uses " +
+                        feature +
+                        ", please specify the `shardKey = value` predicate, " +
+                        "or execute it by `executeOn` or `scatter` of \"" +
+                        ShardingConnectionManager.class.getName() +
+                        "\" and merge the results"
+        );
+    }
+
+    /**
+     * The connection manager of this query, sharding connection manager
+     * routes the query by the shard key predicate of the base query.
+     */
+    private ConnectionManager connectionManager(boolean forUpdate) {
+        MutableRootQueryImpl<T> baseQuery = getBaseQuery();
+        ConnectionManager connectionManager = baseQuery.getSqlClient().getSlaveConnectionManager(forUpdate);
+        if (connectionManager instanceof ShardingConnectionManager) {
+            return ((ShardingConnectionManager) connectionManager).forStatement(
+                    baseQuery.getTableImplementor().getImmutableType(),
+                    baseQuery.getPredicates()
+            );
+        }
+        return connectionManager;
     }
 
     private List<R> executeImpl(Connection con) {
@@ -252,7 +887,7 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
             return Collections.emptyList();
         }
         JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
-        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(new SqlBuilder(new AstContext(sqlClient)));
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
         return Selectors.select(
                 sqlClient,
                 con,
@@ -282,7 +917,7 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         }
         JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
         int finalBatchSize = batchSize > 0 ? batchSize : sqlClient.getDefaultBatchSize();
-        sqlClient.getSlaveConnectionManager(getData().forUpdate).execute(con, newConn -> {
+        connectionManager(getData().forUpdate).execute(con, newConn -> {
             forEachImpl(newConn, finalBatchSize, consumer);
             return (Void) null;
         });
@@ -290,7 +925,7 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
 
     private void forEachImpl(Connection con, int batchSize, Consumer<R> consumer) {
         JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
-        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(new SqlBuilder(new AstContext(sqlClient)));
+        Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
         Selectors.forEach(
                 sqlClient,
                 con,
@@ -304,6 +939,51 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         );
     }
 
+    @Override
+    public Stream<R> stream(Connection con, int batchSize) {
+        if (con == null) {
+            throw new IllegalArgumentException(
+                    "The streaming query requires an explicit connection " +
+                            "because the stream is consumed after the execution returns"
+            );
+        }
+        TypedQueryData data = getData();
+        if (data.limit == 0) {
+            return Stream.empty();
+        }
+        JSqlClientImplementor sqlClient = getBaseQuery().getSqlClient();
+        int finalBatchSize = batchSize > 0 ? batchSize : sqlClient.getDefaultBatchSize();
+        return connectionManager(data.forUpdate).execute(con, newConn -> {
+            Tuple3<String, List<Object>, List<Integer>> sqlResult = preExecute(sqlClient);
+            return Selectors.stream(
+                    sqlClient,
+                    newConn,
+                    sqlResult.get_1(),
+                    sqlResult.get_2(),
+                    sqlResult.get_3(),
+                    data.selections,
+                    getBaseQuery().getPurpose(),
+                    finalBatchSize
+            );
+        });
+    }
+
+    private Tuple3<String, List<Object>, List<Integer>> preExecute(JSqlClientImplementor sqlClient) {
+        RenderedPlan renderedPlan = this.renderedPlan;
+        if (renderedPlan != null) {
+            return renderedPlan.sqlResult;
+        }
+        // The first execution freezes the base query, the AST of a frozen query
+        // can never be changed so that its rendered result can be reused
+        boolean frozen = getBaseQuery().isFrozen();
+        Tuple3<String, List<Object>, List<Integer>> sqlResult =
+                preExecute(new SqlBuilder(new AstContext(sqlClient)));
+        if (frozen) {
+            this.renderedPlan = new RenderedPlan(sqlResult);
+        }
+        return sqlResult;
+    }
+
     private Tuple3<String, List<Object>, List<Integer>> preExecute(SqlBuilder builder) {
         if (!getBaseQuery().isFrozen()) {
             getBaseQuery().applyVirtualPredicates(builder.getAstContext());
@@ -339,6 +1019,34 @@ public class ConfigurableRootQueryImpl<T extends Table<?>, R>
         return getData().forUpdate;
     }
 
+    private static class RenderedPlan {
+
+        final Tuple3<String, List<Object>, List<Integer>> sqlResult;
+
+        RenderedPlan(Tuple3<String, List<Object>, List<Integer>> sqlResult) {
+            this.sqlResult = sqlResult;
+        }
+    }
+
+    private static class AggregationFinder extends AstVisitor {
+
+        boolean found;
+
+        AggregationFinder(AstContext astContext) {
+            super(astContext);
+        }
+
+        @Override
+        public boolean visitSubQuery(TypedSubQuery<?> subQuery) {
+            return false;
+        }
+
+        @Override
+        public void visitAggregation(String functionName, Expression<?> expression, String prefix) {
+            found = true;
+        }
+    }
+
     private static class ReselectValidator extends AstVisitor {
 
         ReselectValidator(AstContext astContext) {
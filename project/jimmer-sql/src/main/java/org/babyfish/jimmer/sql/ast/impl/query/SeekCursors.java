@@ -0,0 +1,81 @@
+package org.babyfish.jimmer.sql.ast.impl.query;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.babyfish.jimmer.impl.util.Classes;
+import org.babyfish.jimmer.sql.ast.impl.ExpressionImplementor;
+import org.babyfish.jimmer.sql.ast.query.Order;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The cursor of keyset pagination is the url-safe base64 text
+ * of the json array which contains the values of order expressions.
+ */
+class SeekCursors {
+
+    private static final ObjectMapper MAPPER =
+            new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private SeekCursors() {}
+
+    static String encode(List<Object> values) {
+        byte[] bytes;
+        try {
+            bytes = MAPPER.writeValueAsBytes(values);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException(
+                    "Cannot serialize the order values " + values + " as seek cursor",
+                    ex
+            );
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    static List<Object> decode(String cursor, List<Order> orders) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException | IOException ex) {
+            throw new IllegalArgumentException("Illegal seek cursor \"" + cursor + "\"", ex);
+        }
+        if (!(node instanceof ArrayNode) || node.size() != orders.size()) {
+            throw new IllegalArgumentException(
+                    "Illegal seek cursor \"" +
+                            cursor +
+                            "\", it does not match the " +
+                            orders.size() +
+                            " order(s) of the query"
+            );
+        }
+        List<Object> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Class<?> type = Classes.boxTypeOf(
+                    ((ExpressionImplementor<?>) orders.get(i).getExpression()).getType()
+            );
+            try {
+                values.add(MAPPER.treeToValue(node.get(i), type));
+            } catch (JsonProcessingException | IllegalArgumentException ex) {
+                throw new IllegalArgumentException(
+                        "Illegal seek cursor \"" +
+                                cursor +
+                                "\", its value at index " +
+                                i +
+                                " cannot be converted to \"" +
+                                type.getName() +
+                                "\"",
+                        ex
+                );
+            }
+        }
+        return Collections.unmodifiableList(values);
+    }
+}
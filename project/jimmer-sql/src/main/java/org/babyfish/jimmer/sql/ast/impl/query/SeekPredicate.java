@@ -0,0 +1,211 @@
+package org.babyfish.jimmer.sql.ast.impl.query;
+
+import org.babyfish.jimmer.sql.ast.Expression;
+import org.babyfish.jimmer.sql.ast.Predicate;
+import org.babyfish.jimmer.sql.ast.impl.*;
+import org.babyfish.jimmer.sql.ast.impl.render.AbstractSqlBuilder;
+import org.babyfish.jimmer.sql.ast.impl.render.ComparisonPredicates;
+import org.babyfish.jimmer.sql.ast.query.NullOrderMode;
+import org.babyfish.jimmer.sql.ast.query.Order;
+import org.babyfish.jimmer.sql.ast.query.OrderMode;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The keyset predicate which skips the rows before the cursor,
+ * for example, if the query is ordered by `a asc, b asc`, it is
+ * <ul>
+ *     <li>`(a, b) &gt; (?, ?)` if the tuple comparison is supported by dialect</li>
+ *     <li>`a &gt; ? or a = ? and b &gt; ?` otherwise</li>
+ * </ul>
+ *
+ * <p>The order expressions whose null order is not specified must be non-null.
+ * The nullable ones must specify {@link NullOrderMode#NULLS_FIRST} or
+ * {@link NullOrderMode#NULLS_LAST}, so that they are compared with
+ * `is null` and `is not null`, for example, `a asc nulls last` is
+ * `a &gt; ? or a is null` if the value of cursor is not null, otherwise
+ * nothing is after the cursor in this column.
+ * This predicate is never unknown, so that it can be negated.</p>
+ */
+class SeekPredicate extends AbstractPredicate {
+
+    private final List<Order> orders;
+
+    private final List<Object> values;
+
+    private final boolean reverse;
+
+    SeekPredicate(List<Order> orders, List<Object> values, boolean reverse) {
+        if (orders.size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "The seek cursor has " +
+                            values.size() +
+                            " value(s) but the query has " +
+                            orders.size() +
+                            " order(s)"
+            );
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) == null && orders.get(i).getNullOrderMode() == NullOrderMode.UNSPECIFIED) {
+                throw new IllegalArgumentException(
+                        "The seek cursor has null value of the order expression \"" +
+                                orders.get(i).getExpression() +
+                                "\" whose null order is not specified"
+                );
+            }
+        }
+        this.orders = orders;
+        this.values = values;
+        this.reverse = reverse;
+    }
+
+    @Override
+    public void accept(@NotNull AstVisitor visitor) {
+        for (Order order : orders) {
+            Ast.of(order.getExpression()).accept(visitor);
+        }
+    }
+
+    @Override
+    public void renderTo(@NotNull AbstractSqlBuilder<?> builder) {
+        if (isTupleComparison(builder)) {
+            builder.enter(AbstractSqlBuilder.ScopeType.TUPLE);
+            for (Order order : orders) {
+                builder.separator();
+                ((Ast) order.getExpression()).renderTo(builder);
+            }
+            builder.leave();
+            builder.sql(" ").sql(operator(orders.get(0))).sql(" ");
+            builder.enter(AbstractSqlBuilder.ScopeType.TUPLE);
+            for (int i = 0; i < orders.size(); i++) {
+                builder.separator();
+                ((Ast) literal(i)).renderTo(builder);
+            }
+            builder.leave();
+            return;
+        }
+        builder.enter(AbstractSqlBuilder.ScopeType.OR);
+        boolean rendered = false;
+        for (int i = 0; i < orders.size(); i++) {
+            if (values.get(i) == null && isNullAfter(orders.get(i))) {
+                // Nothing is after the null value in this column
+                continue;
+            }
+            builder.separator();
+            builder.enter(AbstractSqlBuilder.ScopeType.AND);
+            for (int ii = 0; ii < i; ii++) {
+                builder.separator();
+                renderEq(ii, builder);
+            }
+            builder.separator();
+            renderAfter(i, builder);
+            builder.leave();
+            rendered = true;
+        }
+        if (!rendered) {
+            builder.separator();
+            builder.sql("1 = 0");
+        }
+        builder.leave();
+    }
+
+    private void renderEq(int index, AbstractSqlBuilder<?> builder) {
+        Order order = orders.get(index);
+        if (values.get(index) == null) {
+            renderNullity(order, false, builder);
+        } else if (order.getNullOrderMode() == NullOrderMode.UNSPECIFIED) {
+            ComparisonPredicates.renderCmp("=", order.getExpression(), literal(index), builder);
+        } else {
+            // `is not null` makes it false rather than unknown for null
+            builder.enter(AbstractSqlBuilder.ScopeType.AND);
+            builder.separator();
+            renderNullity(order, true, builder);
+            builder.separator();
+            ComparisonPredicates.renderCmp("=", order.getExpression(), literal(index), builder);
+            builder.leave();
+        }
+    }
+
+    private void renderAfter(int index, AbstractSqlBuilder<?> builder) {
+        Order order = orders.get(index);
+        if (values.get(index) == null) {
+            // The nulls are before other values
+            renderNullity(order, true, builder);
+        } else if (order.getNullOrderMode() == NullOrderMode.UNSPECIFIED) {
+            ComparisonPredicates.renderCmp(operator(order), order.getExpression(), literal(index), builder);
+        } else if (isNullAfter(order)) {
+            builder.enter(AbstractSqlBuilder.ScopeType.SMART_OR);
+            builder.separator();
+            ComparisonPredicates.renderCmp(operator(order), order.getExpression(), literal(index), builder);
+            builder.separator();
+            renderNullity(order, false, builder);
+            builder.leave();
+        } else {
+            builder.enter(AbstractSqlBuilder.ScopeType.AND);
+            builder.separator();
+            renderNullity(order, true, builder);
+            builder.separator();
+            ComparisonPredicates.renderCmp(operator(order), order.getExpression(), literal(index), builder);
+            builder.leave();
+        }
+    }
+
+    private void renderNullity(Order order, boolean negative, AbstractSqlBuilder<?> builder) {
+        renderChild((Ast) order.getExpression(), builder);
+        builder.sql(negative ? " is not null" : " is null");
+    }
+
+    @Override
+    public int precedence() {
+        return orders.size() == 1 && orders.get(0).getNullOrderMode() == NullOrderMode.UNSPECIFIED ?
+                ExpressionPrecedences.COMPARISON :
+                ExpressionPrecedences.OR;
+    }
+
+    @Override
+    protected boolean determineHasVirtualPredicate() {
+        return false;
+    }
+
+    @Override
+    protected Ast onResolveVirtualPredicate(AstContext ctx) {
+        return this;
+    }
+
+    @Override
+    public Predicate not() {
+        return new NotPredicate(this);
+    }
+
+    private boolean isTupleComparison(AbstractSqlBuilder<?> builder) {
+        if (orders.size() < 2 || !builder.sqlClient().getDialect().isTupleComparisonSupported()) {
+            return false;
+        }
+        String operator = operator(orders.get(0));
+        for (Order order : orders) {
+            if (!operator.equals(operator(order)) || order.getNullOrderMode() != NullOrderMode.UNSPECIFIED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the nulls of the order expression are after other values
+     * in the direction of this predicate
+     */
+    private boolean isNullAfter(Order order) {
+        return (order.getNullOrderMode() == NullOrderMode.NULLS_LAST) != reverse;
+    }
+
+    private String operator(Order order) {
+        return (order.getOrderMode() == OrderMode.ASC) != reverse ? ">" : "<";
+    }
+
+    private Expression<?> literal(int index) {
+        Expression<?> literal = Literals.any(values.get(index));
+        Literals.bind(literal, orders.get(index).getExpression());
+        return literal;
+    }
+}
@@ -34,6 +34,8 @@ class TypedQueryData {
 
     final boolean forUpdate;
 
+    final List<Object> seekValues;
+
     private PropExpressionImplementor<?> idOnlyExpression;
 
     private boolean idOnlyExpressionResolved;
@@ -47,6 +49,7 @@ class TypedQueryData {
         withoutSortingAndPaging = false;
         reverseSorting = false;
         forUpdate = false;
+        seekValues = null;
     }
 
     private TypedQueryData(
@@ -57,7 +60,8 @@ class TypedQueryData {
             long offset,
             boolean withoutSortingAndPaging,
             boolean reverseSorting,
-            boolean forUpdate
+            boolean forUpdate,
+            List<Object> seekValues
     ) {
         this.selections = selections;
         this.oldSelections = oldSelections;
@@ -67,6 +71,7 @@ class TypedQueryData {
         this.withoutSortingAndPaging = withoutSortingAndPaging;
         this.reverseSorting = reverseSorting;
         this.forUpdate = forUpdate;
+        this.seekValues = seekValues;
     }
 
     public TypedQueryData reselect(List<Selection<?>> selections) {
@@ -78,7 +83,8 @@ class TypedQueryData {
                 offset,
                 withoutSortingAndPaging,
                 reverseSorting,
-                forUpdate
+                forUpdate,
+                seekValues
         );
     }
 
@@ -91,7 +97,8 @@ class TypedQueryData {
                 offset,
                 withoutSortingAndPaging,
                 reverseSorting,
-                forUpdate
+                forUpdate,
+                seekValues
         );
     }
 
@@ -104,7 +111,8 @@ class TypedQueryData {
                 offset,
                 withoutSortingAndPaging,
                 reverseSorting,
-                forUpdate
+                forUpdate,
+                seekValues
         );
     }
 
@@ -117,7 +125,8 @@ class TypedQueryData {
                 offset,
                 true,
                 reverseSorting,
-                forUpdate
+                forUpdate,
+                seekValues
         );
     }
 
@@ -130,7 +139,8 @@ class TypedQueryData {
                 offset,
                 withoutSortingAndPaging,
                 true,
-                forUpdate
+                forUpdate,
+                seekValues
         );
     }
 
@@ -143,7 +153,27 @@ class TypedQueryData {
                 offset,
                 withoutSortingAndPaging,
                 reverseSorting,
-                true
+                true,
+                seekValues
+        );
+    }
+
+    public TypedQueryData seek(
+            List<Selection<?>> selections,
+            List<Object> seekValues,
+            boolean reverseSorting,
+            int limit
+    ) {
+        return new TypedQueryData(
+                processSelections(selections),
+                oldSelections,
+                distinct,
+                limit,
+                0,
+                withoutSortingAndPaging,
+                reverseSorting,
+                forUpdate,
+                seekValues
         );
     }
 
@@ -299,7 +299,8 @@ public class ComparisonPredicates {
             builder.leave();
             return;
         }
-        if (values.size() == 1) {
+        boolean anyEquality = getters.size() == 1 && dialect.isAnyEqualityOfArraySupported();
+        if (values.size() == 1 && !(anyEquality && sqlClient.isInListToAnyEqualityEnabled())) {
             Object value = values instanceof List<?> ?
                     ((List<?>) values).get(0) :
                     values.iterator().next();
@@ -323,7 +324,7 @@ public class ComparisonPredicates {
             builder.leave();
             return;
         }
-        if (getters.size() == 1 && dialect.isAnyEqualityOfArraySupported()) {
+        if (anyEquality) {
             ValueGetter getter = getters.get(0);
             String sqlType = getter.metadata().getSqlTypeName();
             Object[] arr = new Object[values.size()];
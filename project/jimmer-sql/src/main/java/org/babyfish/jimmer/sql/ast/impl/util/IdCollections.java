@@ -0,0 +1,51 @@
+package org.babyfish.jimmer.sql.ast.impl.util;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Create insertion-ordered id collections, the primitive-specialized
+ * {@link IntegralIdSet} and {@link IntegralIdMap} are selected automatically
+ * if the id type of entity is `long` or `int` (primitive or boxed).
+ */
+public class IdCollections {
+
+    private IdCollections() {}
+
+    public static Set<Object> newIdSet(ImmutableType type, int expectedSize) {
+        Boolean intKeys = intKeys(type);
+        if (intKeys == null) {
+            return new LinkedHashSet<>((expectedSize * 4 + 2) / 3);
+        }
+        return new IntegralIdSet(intKeys, expectedSize);
+    }
+
+    public static <V> Map<Object, V> newIdMap(ImmutableType type, int expectedSize) {
+        Boolean intKeys = intKeys(type);
+        if (intKeys == null) {
+            return new LinkedHashMap<>((expectedSize * 4 + 2) / 3);
+        }
+        return new IntegralIdMap<>(intKeys, expectedSize);
+    }
+
+    /**
+     * @return True for `int`, false for `long`, null for other types
+     */
+    private static Boolean intKeys(ImmutableType type) {
+        if (type.getIdProp() == null) {
+            return null;
+        }
+        Class<?> idClass = type.getIdProp().getReturnClass();
+        if (idClass == long.class || idClass == Long.class) {
+            return false;
+        }
+        if (idClass == int.class || idClass == Integer.class) {
+            return true;
+        }
+        return null;
+    }
+}
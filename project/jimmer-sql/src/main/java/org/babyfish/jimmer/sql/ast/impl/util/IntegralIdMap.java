@@ -0,0 +1,365 @@
+package org.babyfish.jimmer.sql.ast.impl.util;
+
+import java.util.*;
+
+/**
+ * Insertion-ordered map whose keys are `long` or `int` ids.
+ *
+ * <p>Unlike {@link LinkedHashMap}, it neither creates entry objects nor
+ * holds boxed keys, keys are stored in a primitive array in insertion order
+ * and the hash table is an open-addressing {@code int[]} of array indices.
+ * Keys are boxed again only when they are iterated.</p>
+ *
+ * <p>Removed slots of the key array are reused when the array is full,
+ * so removing entries from the head, which is the typical usage of
+ * pending queues, does not make it grow.</p>
+ *
+ * <p>Keys whose type is not the id type of this map are rejected by
+ * {@link #put(Object, Object)} and never contained by this map.</p>
+ */
+public class IntegralIdMap<V> extends AbstractMap<Object, V> {
+
+    private static final Object REMOVED = new Object();
+
+    private static final int MIN_CAPACITY = 8;
+
+    private final boolean intKeys;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    // 0 means empty slot, otherwise it is the index of `keys` + 1
+    private int[] table;
+
+    // The used length of `keys`, including removed slots
+    private int count;
+
+    private int size;
+
+    private int modCount;
+
+    private EntrySet entrySet;
+
+    /**
+     * @param intKeys true for `int` ids, false for `long` ids
+     * @param expectedSize The expected size
+     */
+    public IntegralIdMap(boolean intKeys, int expectedSize) {
+        this.intKeys = intKeys;
+        int capacity = Math.max(MIN_CAPACITY, expectedSize);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.table = new int[tableCapacity(capacity)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return isKey(key) && find(toLong(key)) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        if (!isKey(key)) {
+            return null;
+        }
+        int pos = find(toLong(key));
+        return pos >= 0 ? (V) values[table[pos] - 1] : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(Object key, V value) {
+        if (!isKey(key)) {
+            throw new IllegalArgumentException(
+                    "The key \"" +
+                            key +
+                            "\" is not \"" +
+                            (intKeys ? Integer.class : Long.class).getName() +
+                            "\""
+            );
+        }
+        long k = toLong(key);
+        int pos = find(k);
+        if (pos >= 0) {
+            int index = table[pos] - 1;
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        if (count == keys.length) {
+            reserve();
+            pos = find(k);
+        }
+        keys[count] = k;
+        values[count] = value;
+        table[-pos - 1] = ++count;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(Object key) {
+        if (!isKey(key)) {
+            return null;
+        }
+        int pos = find(toLong(key));
+        if (pos < 0) {
+            return null;
+        }
+        V oldValue = (V) values[table[pos] - 1];
+        removeAt(pos);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        if (count != 0) {
+            Arrays.fill(values, 0, count, null);
+            Arrays.fill(table, 0);
+            count = 0;
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Entry<Object, V>> entrySet() {
+        EntrySet es = entrySet;
+        if (es == null) {
+            entrySet = es = new EntrySet();
+        }
+        return es;
+    }
+
+    private boolean isKey(Object key) {
+        return intKeys ? key instanceof Integer : key instanceof Long;
+    }
+
+    private static long toLong(Object key) {
+        return ((Number) key).longValue();
+    }
+
+    private Object box(long key) {
+        return intKeys ? (Object) (int) key : (Object) key;
+    }
+
+    /**
+     * @return The position of table if the key exists,
+     * otherwise, `-(insertion position) - 1`
+     */
+    private int find(long key) {
+        int[] tab = table;
+        int mask = tab.length - 1;
+        for (int pos = hash(key) & mask; ; pos = (pos + 1) & mask) {
+            int slot = tab[pos];
+            if (slot == 0) {
+                return -pos - 1;
+            }
+            if (keys[slot - 1] == key) {
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * Backward shift deletion of linear probing, so that no tombstone is required.
+     */
+    private void removeAt(int pos) {
+        int[] tab = table;
+        int mask = tab.length - 1;
+        values[tab[pos] - 1] = REMOVED;
+        int hole = pos;
+        for (int cur = (pos + 1) & mask; tab[cur] != 0; cur = (cur + 1) & mask) {
+            int home = hash(keys[tab[cur] - 1]) & mask;
+            boolean reachable = hole <= cur ?
+                    hole < home && home <= cur :
+                    hole < home || home <= cur;
+            if (!reachable) {
+                tab[hole] = tab[cur];
+                hole = cur;
+            }
+        }
+        tab[hole] = 0;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * Make room for one more key, reuse the removed slots
+     * if they are at least half of the array, otherwise, grow the array.
+     */
+    private void reserve() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = size <= count / 2 ? oldKeys.length : oldKeys.length * 2;
+        long[] newKeys = capacity == oldKeys.length ? oldKeys : new long[capacity];
+        Object[] newValues = capacity == oldKeys.length ? oldValues : new Object[capacity];
+        int newCount = 0;
+        for (int i = 0; i < count; i++) {
+            Object value = oldValues[i];
+            if (value != REMOVED) {
+                newKeys[newCount] = oldKeys[i];
+                newValues[newCount++] = value;
+            }
+        }
+        Arrays.fill(newValues, newCount, count, null);
+        keys = newKeys;
+        values = newValues;
+        count = newCount;
+        int[] tab = new int[tableCapacity(capacity)];
+        int mask = tab.length - 1;
+        for (int i = 0; i < newCount; i++) {
+            int pos = hash(newKeys[i]) & mask;
+            while (tab[pos] != 0) {
+                pos = (pos + 1) & mask;
+            }
+            tab[pos] = i + 1;
+        }
+        table = tab;
+        modCount++;
+    }
+
+    // Load factor of the table is never greater than 0.5
+    private static int tableCapacity(int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) << 1;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private class EntrySet extends AbstractSet<Entry<Object, V>> {
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntegralIdMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Entry<Object, V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<Object, V>> {
+
+        private int index = skipRemoved(0);
+
+        private int lastIndex = -1;
+
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public Entry<Object, V> next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= count) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = index;
+            index = skipRemoved(index + 1);
+            return new EntryImpl(lastIndex);
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex == -1) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(find(keys[lastIndex]));
+            lastIndex = -1;
+            expectedModCount = modCount;
+        }
+
+        private int skipRemoved(int index) {
+            while (index < count && values[index] == REMOVED) {
+                index++;
+            }
+            return index;
+        }
+    }
+
+    private class EntryImpl implements Entry<Object, V> {
+
+        private final int index;
+
+        private final Object key;
+
+        EntryImpl(int index) {
+            this.index = index;
+            this.key = box(keys[index]);
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V getValue() {
+            Object value = values[index];
+            if (value == REMOVED) {
+                throw new IllegalStateException("The entry has been removed");
+            }
+            return (V) value;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V setValue(V value) {
+            Object oldValue = values[index];
+            if (oldValue == REMOVED) {
+                throw new IllegalStateException("The entry has been removed");
+            }
+            values[index] = value;
+            return (V) oldValue;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Entry<?, ?>)) {
+                return false;
+            }
+            Entry<?, ?> other = (Entry<?, ?>) o;
+            return key.equals(other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.babyfish.jimmer.sql.ast.impl.util;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+/**
+ * Insertion-ordered set of `long` or `int` ids, see {@link IntegralIdMap}.
+ */
+public class IntegralIdSet extends AbstractSet<Object> {
+
+    private final IntegralIdMap<Boolean> map;
+
+    /**
+     * @param intKeys true for `int` ids, false for `long` ids
+     * @param expectedSize The expected size
+     */
+    public IntegralIdSet(boolean intKeys, int expectedSize) {
+        this.map = new IntegralIdMap<>(intKeys, expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return map.containsKey(o);
+    }
+
+    @Override
+    public boolean add(Object o) {
+        return map.put(o, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return map.remove(o) != null;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return map.keySet().iterator();
+    }
+}
@@ -96,6 +96,39 @@ public interface AbstractEntitySaveCommand {
     @NewChain
     AbstractEntitySaveCommand setLockMode(LockMode lockMode);
 
+    /**
+     * Insert new rows by bulk statements instead of JDBC batch,
+     * it is designed for importing a large number of objects.
+     *
+     * <ul>
+     *     <li>PostgreSQL: {@code copy ... from stdin}</li>
+     *     <li>Other databases: multi-row {@code insert ... values},
+     *     split by the parameter limit and the packet size of the database</li>
+     * </ul>
+     *
+     * <p>Only the objects whose ids are specified or generated by
+     * {@link org.babyfish.jimmer.sql.meta.UserIdGenerator} can be inserted
+     * by bulk statements, others are still inserted by JDBC batch.
+     * When a bulk statement fails, the error cannot be located to
+     * the object which causes it.</p>
+     */
+    @NewChain
+    AbstractEntitySaveCommand setBulkInsert(boolean bulkInsert);
+
+    /**
+     * Save the associated objects of the same property together even if
+     * their parent objects have different shapes.
+     *
+     * <p>By default, the parent objects are grouped by the loaded associations,
+     * and the associated objects of each group are saved by their own statements,
+     * so the count of statements of a deep aggregate grows with the groups of
+     * every level. If this option is enabled, the associated objects of
+     * all groups are saved and connected by one round of statements per
+     * property, the count of statements only grows with the levels.</p>
+     */
+    @NewChain
+    AbstractEntitySaveCommand setAssociationBatchMerged(boolean merged);
+
     @NewChain
     AbstractEntitySaveCommand addExceptionTranslator(ExceptionTranslator<?> translator);
 }
@@ -139,6 +139,14 @@ public interface BatchEntitySaveCommand<E>
     @Override
     BatchEntitySaveCommand<E> setLockMode(LockMode lockMode);
 
+    @NewChain
+    @Override
+    BatchEntitySaveCommand<E> setBulkInsert(boolean bulkInsert);
+
+    @NewChain
+    @Override
+    BatchEntitySaveCommand<E> setAssociationBatchMerged(boolean merged);
+
     /**
      * Example: <pre>{@code
      *  sqlClient
@@ -137,6 +137,14 @@ public interface SimpleEntitySaveCommand<E>
     @Override
     SimpleEntitySaveCommand<E> setLockMode(LockMode lockMode);
 
+    @NewChain
+    @Override
+    SimpleEntitySaveCommand<E> setBulkInsert(boolean bulkInsert);
+
+    @NewChain
+    @Override
+    SimpleEntitySaveCommand<E> setAssociationBatchMerged(boolean merged);
+
     /**
      * Example: <pre>{@code
      *  sqlClient
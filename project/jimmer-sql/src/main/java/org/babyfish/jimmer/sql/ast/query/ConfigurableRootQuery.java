@@ -13,6 +13,7 @@ import org.jetbrains.annotations.Nullable;
 import java.sql.Connection;
 import java.util.List;
 import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 public interface ConfigurableRootQuery<T extends Table<?>, R> extends TypedRootQuery<R> {
 
@@ -83,6 +84,81 @@ public interface ConfigurableRootQuery<T extends Table<?>, R> extends TypedRootQ
         return fetchSlice(limit, offset, null);
     }
 
+    /**
+     * Keyset pagination, fetch the rows after the cursor.
+     *
+     * <p>Unlike {@link #fetchPage(int, int)} and {@link #fetchSlice(int, int)},
+     * there is no `offset`, the rows before the cursor are skipped by the
+     * predicate derived from the `order by` clause of current query,
+     * so the cost does not grow with the depth of the page.</p>
+     *
+     * <p>The `order by` clause is required and it should be unique,
+     * for example, ends with the id, otherwise, rows with the same
+     * order values may be skipped.</p>
+     *
+     * @param afterCursor The {@link SeekPage#getEndCursor()} of the previous page,
+     *                    null means the first page
+     * @param size The max row count of the page
+     * @param con The JDBC connection, null means the connection managed by jimmer
+     */
+    SeekPage<R> fetchSeekPage(@Nullable String afterCursor, int size, @Nullable Connection con);
+
+    default SeekPage<R> fetchSeekPage(@Nullable String afterCursor, int size) {
+        return fetchSeekPage(afterCursor, size, null);
+    }
+
+    /**
+     * Keyset pagination, fetch the rows before the cursor.
+     *
+     * <p>It is implemented by {@link #reverseSorting()},
+     * however, the rows of the returned page are still in the original order.</p>
+     *
+     * @param beforeCursor The {@link SeekPage#getStartCursor()} of the next page,
+     *                    null means the last page
+     * @param size The max row count of the page
+     * @param con The JDBC connection, null means the connection managed by jimmer
+     */
+    SeekPage<R> fetchSeekPageBefore(@Nullable String beforeCursor, int size, @Nullable Connection con);
+
+    default SeekPage<R> fetchSeekPageBefore(@Nullable String beforeCursor, int size) {
+        return fetchSeekPageBefore(beforeCursor, size, null);
+    }
+
+    /**
+     * Execute the query by a forward-only cursor and return a lazy stream.
+     *
+     * <p>Unlike {@link #execute(Connection)}, the rows are not loaded into memory
+     * at once, they are read from the JDBC result set chunk by chunk,
+     * and the associations specified by object fetchers are
+     * loaded for each chunk before its rows are emitted.</p>
+     *
+     * <p>The returned stream holds an open statement and result set,
+     * so it must be closed, for example, by try-with-resources,
+     * unless it is consumed completely. The connection must remain
+     * valid until the stream is closed, that is why it cannot be null.</p>
+     *
+     * <p>Whether the rows are really read by cursor depends on the JDBC driver,
+     * the dialect decides the fetch size and the constraints:</p>
+     * <ul>
+     *     <li>PostgreSQL only reads the rows by cursor when the auto-commit is disabled,
+     *     so the query must be executed in transaction, otherwise it is rejected</li>
+     *     <li>MySQL streams the rows with the fetch size {@link Integer#MIN_VALUE}, the
+     *     connection cannot execute other statements until the stream is closed,
+     *     so the query is rejected if its object fetchers need to load associated objects,
+     *     and the caller must not use the connection before the stream is closed</li>
+     * </ul>
+     *
+     * @param con The JDBC connection, cannot be null
+     * @param batchSize The JDBC fetch size and the chunk size of association loading,
+     *                  non-positive value means {@link org.babyfish.jimmer.sql.JSqlClient#getDefaultBatchSize()}
+     * @return A lazy stream which must be closed
+     */
+    Stream<R> stream(Connection con, int batchSize);
+
+    default Stream<R> stream(Connection con) {
+        return stream(con, -1);
+    }
+
     @Override
     @NotNull
     default R fetchOne(Connection con) {
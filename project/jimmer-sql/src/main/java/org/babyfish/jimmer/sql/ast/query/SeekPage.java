@@ -0,0 +1,108 @@
+package org.babyfish.jimmer.sql.ast.query;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The result of keyset pagination, unlike {@link org.babyfish.jimmer.Page}
+ * and {@link org.babyfish.jimmer.Slice}, its cost does not depend on the
+ * depth of the page.
+ *
+ * @param <T> The row type
+ *
+ * @see ConfigurableRootQuery#fetchSeekPage(String, int)
+ * @see ConfigurableRootQuery#fetchSeekPageBefore(String, int)
+ */
+public class SeekPage<T> {
+
+    @NotNull
+    private final List<T> rows;
+
+    @Nullable
+    private final String startCursor;
+
+    @Nullable
+    private final String endCursor;
+
+    private final boolean hasPrevious;
+
+    private final boolean hasNext;
+
+    public SeekPage(
+            @NotNull List<T> rows,
+            @Nullable String startCursor,
+            @Nullable String endCursor,
+            boolean hasPrevious,
+            boolean hasNext
+    ) {
+        this.rows = rows;
+        this.startCursor = startCursor;
+        this.endCursor = endCursor;
+        this.hasPrevious = hasPrevious;
+        this.hasNext = hasNext;
+    }
+
+    @NotNull
+    public List<T> getRows() {
+        return rows;
+    }
+
+    /**
+     * @return The cursor of the first row which can be passed to
+     * {@link ConfigurableRootQuery#fetchSeekPageBefore(String, int)},
+     * or null if there is no row
+     */
+    @Nullable
+    public String getStartCursor() {
+        return startCursor;
+    }
+
+    /**
+     * @return The cursor of the last row which can be passed to
+     * {@link ConfigurableRootQuery#fetchSeekPage(String, int)},
+     * or null if there is no row
+     */
+    @Nullable
+    public String getEndCursor() {
+        return endCursor;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SeekPage<?> seekPage = (SeekPage<?>) o;
+        return hasPrevious == seekPage.hasPrevious &&
+                hasNext == seekPage.hasNext &&
+                rows.equals(seekPage.rows) &&
+                Objects.equals(startCursor, seekPage.startCursor) &&
+                Objects.equals(endCursor, seekPage.endCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, startCursor, endCursor, hasPrevious, hasNext);
+    }
+
+    @Override
+    public String toString() {
+        return "SeekPage{" +
+                "rows=" + rows +
+                ", startCursor=" + startCursor +
+                ", endCursor=" + endCursor +
+                ", hasPrevious=" + hasPrevious +
+                ", hasNext=" + hasNext +
+                '}';
+    }
+}
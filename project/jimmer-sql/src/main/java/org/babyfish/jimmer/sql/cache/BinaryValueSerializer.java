@@ -0,0 +1,569 @@
+package org.babyfish.jimmer.sql.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.PropId;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.runtime.DraftSpi;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.runtime.Internal;
+import org.babyfish.jimmer.sql.exception.SerializationException;
+import org.jetbrains.annotations.NotNull;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Binary implementation of {@link ValueSerializer} for remote caches.
+ *
+ * <p>Objects are encoded by the metadata of {@link ImmutableType}, properties are
+ * positional by their {@link PropId} instead of names, integers are varints,
+ * and each payload starts with a fingerprint of the schema of the cached type.
+ * A payload whose fingerprint does not match the current schema, for example,
+ * written by another version of the application, is treated as cache miss.</p>
+ *
+ * <p>Values which cannot be encoded by this format, such as scalar properties
+ * of custom types, are serialized as JSON by the super class, JSON payloads are
+ * always readable so that caches written before switching to this format can
+ * still be used.</p>
+ */
+public class BinaryValueSerializer<T> extends ValueSerializer<T> {
+
+    private static final byte MAGIC = (byte) 0xB1;
+
+    private static final byte VERSION = 1;
+
+    private static final int HEADER_SIZE = 6;
+
+    private static final Map<ImmutableType, ImmutableProp[]> PROPS_CACHE = new ConcurrentHashMap<>();
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_TRUE = 1;
+    private static final int TAG_FALSE = 2;
+    private static final int TAG_BYTE = 3;
+    private static final int TAG_SHORT = 4;
+    private static final int TAG_INT = 5;
+    private static final int TAG_LONG = 6;
+    private static final int TAG_FLOAT = 7;
+    private static final int TAG_DOUBLE = 8;
+    private static final int TAG_CHAR = 9;
+    private static final int TAG_STRING = 10;
+    private static final int TAG_BIG_DECIMAL = 11;
+    private static final int TAG_BIG_INTEGER = 12;
+    private static final int TAG_UUID = 13;
+    private static final int TAG_ENUM = 14;
+    private static final int TAG_BYTES = 15;
+    private static final int TAG_LOCAL_DATE = 16;
+    private static final int TAG_LOCAL_TIME = 17;
+    private static final int TAG_LOCAL_DATE_TIME = 18;
+    private static final int TAG_INSTANT = 19;
+    private static final int TAG_DATE = 20;
+    private static final int TAG_LIST = 21;
+    private static final int TAG_SET = 22;
+    private static final int TAG_MAP = 23;
+    private static final int TAG_OBJECT = 24;
+
+    private final ImmutableType type;
+
+    private final ImmutableProp prop;
+
+    private final int fingerprint;
+
+    public BinaryValueSerializer(@NotNull ImmutableType type) {
+        this(type, null);
+    }
+
+    public BinaryValueSerializer(@NotNull ImmutableProp prop) {
+        this(prop, null);
+    }
+
+    public BinaryValueSerializer(@NotNull ImmutableType type, ObjectMapper mapper) {
+        super(type, mapper);
+        this.type = type;
+        this.prop = null;
+        this.fingerprint = fingerprint(type, null);
+    }
+
+    public BinaryValueSerializer(@NotNull ImmutableProp prop, ObjectMapper mapper) {
+        super(prop, mapper);
+        this.type = null;
+        this.prop = prop;
+        this.fingerprint = fingerprint(null, prop);
+    }
+
+    public int getFingerprint() {
+        return fingerprint;
+    }
+
+    @NotNull
+    @Override
+    public byte[] serialize(T value) {
+        Output out = new Output();
+        out.write(MAGIC);
+        out.write(VERSION);
+        out.writeInt(fingerprint);
+        try {
+            if (type != null) {
+                writeValue(out, value, type.getJavaClass(), type);
+            } else {
+                writeValue(out, value, prop.getElementClass(), prop.getTargetType());
+            }
+        } catch (UnsupportedValueException ex) {
+            return super.serialize(value);
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public T deserialize(byte[] value) {
+        if (!isBinary(value)) {
+            return super.deserialize(value);
+        }
+        if (!isDeserializable(value)) {
+            throw new SerializationException(
+                    "The schema fingerprint of the serialized value does not match the " +
+                            (type != null ? "type \"" + type + "\"" : "property \"" + prop + "\"")
+            );
+        }
+        Input in = new Input(value, HEADER_SIZE);
+        try {
+            if (type != null) {
+                return (T) readValue(in, type.getJavaClass(), type);
+            }
+            return (T) readValue(in, prop.getElementClass(), prop.getTargetType());
+        } catch (RuntimeException ex) {
+            throw new SerializationException(ex);
+        }
+    }
+
+    @Override
+    protected boolean isDeserializable(byte[] value) {
+        return !isBinary(value) || intAt(value, 2) == fingerprint;
+    }
+
+    private static boolean isBinary(byte[] value) {
+        return value != null &&
+                value.length >= HEADER_SIZE &&
+                value[0] == MAGIC &&
+                value[1] == VERSION;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeValue(
+            Output out,
+            Object value,
+            Class<?> expectedClass,
+            ImmutableType expectedType
+    ) {
+        if (value == null) {
+            out.write(TAG_NULL);
+            return;
+        }
+        Class<?> valueClass = value.getClass();
+        if (valueClass == Boolean.class) {
+            out.write((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (valueClass == Byte.class) {
+            out.write(TAG_BYTE);
+            out.write((Byte) value);
+        } else if (valueClass == Short.class) {
+            out.write(TAG_SHORT);
+            out.writeVarLong(zigzag((Short) value));
+        } else if (valueClass == Integer.class) {
+            out.write(TAG_INT);
+            out.writeVarLong(zigzag((Integer) value));
+        } else if (valueClass == Long.class) {
+            out.write(TAG_LONG);
+            out.writeVarLong(zigzag((Long) value));
+        } else if (valueClass == Float.class) {
+            out.write(TAG_FLOAT);
+            out.writeInt(Float.floatToIntBits((Float) value));
+        } else if (valueClass == Double.class) {
+            out.write(TAG_DOUBLE);
+            out.writeLong(Double.doubleToLongBits((Double) value));
+        } else if (valueClass == Character.class) {
+            out.write(TAG_CHAR);
+            out.writeVarLong((Character) value);
+        } else if (valueClass == String.class) {
+            out.write(TAG_STRING);
+            out.writeString((String) value);
+        } else if (valueClass == BigDecimal.class) {
+            BigDecimal decimal = (BigDecimal) value;
+            out.write(TAG_BIG_DECIMAL);
+            out.writeVarLong(zigzag(decimal.scale()));
+            out.writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (valueClass == BigInteger.class) {
+            out.write(TAG_BIG_INTEGER);
+            out.writeBytes(((BigInteger) value).toByteArray());
+        } else if (valueClass == UUID.class) {
+            UUID uuid = (UUID) value;
+            out.write(TAG_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else if (value instanceof Enum<?>) {
+            if (((Enum<?>) value).getDeclaringClass() != expectedClass) {
+                throw UnsupportedValueException.INSTANCE;
+            }
+            out.write(TAG_ENUM);
+            out.writeString(((Enum<?>) value).name());
+        } else if (valueClass == byte[].class) {
+            out.write(TAG_BYTES);
+            out.writeBytes((byte[]) value);
+        } else if (valueClass == LocalDate.class) {
+            out.write(TAG_LOCAL_DATE);
+            out.writeVarLong(zigzag(((LocalDate) value).toEpochDay()));
+        } else if (valueClass == LocalTime.class) {
+            out.write(TAG_LOCAL_TIME);
+            out.writeVarLong(((LocalTime) value).toNanoOfDay());
+        } else if (valueClass == LocalDateTime.class) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            out.write(TAG_LOCAL_DATE_TIME);
+            out.writeVarLong(zigzag(dateTime.toLocalDate().toEpochDay()));
+            out.writeVarLong(dateTime.toLocalTime().toNanoOfDay());
+        } else if (valueClass == Instant.class) {
+            Instant instant = (Instant) value;
+            out.write(TAG_INSTANT);
+            out.writeVarLong(zigzag(instant.getEpochSecond()));
+            out.writeVarLong(instant.getNano());
+        } else if (valueClass == Date.class) {
+            out.write(TAG_DATE);
+            out.writeVarLong(zigzag(((Date) value).getTime()));
+        } else if (value instanceof ImmutableSpi) {
+            ImmutableSpi spi = (ImmutableSpi) value;
+            if (spi.__type() != expectedType) {
+                throw UnsupportedValueException.INSTANCE;
+            }
+            out.write(TAG_OBJECT);
+            writeObject(out, spi);
+        } else if (value instanceof List<?> || value instanceof Set<?>) {
+            Collection<Object> collection = (Collection<Object>) value;
+            out.write(value instanceof List<?> ? TAG_LIST : TAG_SET);
+            out.writeVarLong(collection.size());
+            for (Object e : collection) {
+                writeValue(out, e, expectedClass, expectedType);
+            }
+        } else if (value instanceof Map<?, ?>) {
+            Map<Object, Object> map = (Map<Object, Object>) value;
+            out.write(TAG_MAP);
+            out.writeVarLong(map.size());
+            for (Map.Entry<Object, Object> e : map.entrySet()) {
+                writeValue(out, e.getKey(), null, null);
+                writeValue(out, e.getValue(), null, null);
+            }
+        } else {
+            throw UnsupportedValueException.INSTANCE;
+        }
+    }
+
+    private static void writeObject(Output out, ImmutableSpi spi) {
+        for (ImmutableProp prop : props(spi.__type())) {
+            PropId propId = prop.getId();
+            if (!spi.__isLoaded(propId) || !spi.__isVisible(propId)) {
+                out.write(0);
+            } else {
+                out.write(1);
+                writeValue(out, spi.__get(propId), prop.getElementClass(), prop.getTargetType());
+            }
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readValue(
+            Input in,
+            Class<?> expectedClass,
+            ImmutableType expectedType
+    ) {
+        int tag = in.read();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return true;
+            case TAG_FALSE:
+                return false;
+            case TAG_BYTE:
+                return (byte) in.read();
+            case TAG_SHORT:
+                return (short) unzigzag(in.readVarLong());
+            case TAG_INT:
+                return (int) unzigzag(in.readVarLong());
+            case TAG_LONG:
+                return unzigzag(in.readVarLong());
+            case TAG_FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case TAG_CHAR:
+                return (char) in.readVarLong();
+            case TAG_STRING:
+                return in.readString();
+            case TAG_BIG_DECIMAL: {
+                int scale = (int) unzigzag(in.readVarLong());
+                return new BigDecimal(new BigInteger(in.readBytes()), scale);
+            }
+            case TAG_BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case TAG_UUID:
+                return new UUID(in.readLong(), in.readLong());
+            case TAG_ENUM:
+                return Enum.valueOf((Class<Enum>) expectedClass, in.readString());
+            case TAG_BYTES:
+                return in.readBytes();
+            case TAG_LOCAL_DATE:
+                return LocalDate.ofEpochDay(unzigzag(in.readVarLong()));
+            case TAG_LOCAL_TIME:
+                return LocalTime.ofNanoOfDay(in.readVarLong());
+            case TAG_LOCAL_DATE_TIME: {
+                LocalDate date = LocalDate.ofEpochDay(unzigzag(in.readVarLong()));
+                return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readVarLong()));
+            }
+            case TAG_INSTANT: {
+                long seconds = unzigzag(in.readVarLong());
+                return Instant.ofEpochSecond(seconds, in.readVarLong());
+            }
+            case TAG_DATE:
+                return new Date(unzigzag(in.readVarLong()));
+            case TAG_LIST:
+            case TAG_SET: {
+                int size = (int) in.readVarLong();
+                Collection<Object> collection = tag == TAG_LIST ?
+                        new ArrayList<>(size) :
+                        new LinkedHashSet<>((size * 4 + 2) / 3);
+                for (int i = 0; i < size; i++) {
+                    collection.add(readValue(in, expectedClass, expectedType));
+                }
+                return collection;
+            }
+            case TAG_MAP: {
+                int size = (int) in.readVarLong();
+                Map<Object, Object> map = new LinkedHashMap<>((size * 4 + 2) / 3);
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(in, null, null);
+                    map.put(key, readValue(in, null, null));
+                }
+                return map;
+            }
+            case TAG_OBJECT:
+                return readObject(in, expectedType);
+            default:
+                throw new IllegalArgumentException("Illegal tag " + tag + " of binary cache value");
+        }
+    }
+
+    private static Object readObject(Input in, ImmutableType type) {
+        return Internal.produce(type, null, draft -> {
+            DraftSpi spi = (DraftSpi) draft;
+            for (ImmutableProp prop : props(type)) {
+                if (in.read() != 0) {
+                    spi.__set(
+                            prop.getId(),
+                            readValue(in, prop.getElementClass(), prop.getTargetType())
+                    );
+                }
+            }
+        });
+    }
+
+    private static ImmutableProp[] props(ImmutableType type) {
+        ImmutableProp[] props = PROPS_CACHE.get(type);
+        if (props == null) {
+            List<ImmutableProp> list = new ArrayList<>();
+            for (ImmutableProp prop : type.getProps().values()) {
+                if (!prop.isView() && prop.isMutable()) {
+                    list.add(prop);
+                }
+            }
+            list.sort(Comparator.comparingInt(it -> it.getId().asIndex()));
+            props = list.toArray(new ImmutableProp[0]);
+            ImmutableProp[] oldProps = PROPS_CACHE.putIfAbsent(type, props);
+            if (oldProps != null) {
+                props = oldProps;
+            }
+        }
+        return props;
+    }
+
+    private static int fingerprint(ImmutableType type, ImmutableProp prop) {
+        StringBuilder builder = new StringBuilder();
+        Set<ImmutableType> visitedTypes = new HashSet<>();
+        if (type != null) {
+            describe(type, builder, visitedTypes);
+        } else {
+            builder.append(prop.getDeclaringType()).append('.').append(prop.getName());
+            builder.append(':').append(prop.getElementClass().getName());
+            if (prop.isAssociation(TargetLevel.ENTITY)) {
+                builder.append("->").append(prop.getTargetType().getIdProp().getElementClass().getName());
+            } else if (prop.getTargetType() != null) {
+                describe(prop.getTargetType(), builder, visitedTypes);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    private static void describe(ImmutableType type, StringBuilder builder, Set<ImmutableType> visitedTypes) {
+        if (!visitedTypes.add(type)) {
+            return;
+        }
+        builder.append(type).append('{');
+        List<ImmutableType> targetTypes = new ArrayList<>();
+        for (ImmutableProp prop : props(type)) {
+            builder
+                    .append(prop.getId().asIndex())
+                    .append(':')
+                    .append(prop.getName())
+                    .append(':')
+                    .append(prop.getElementClass().getName())
+                    .append(prop.isReferenceList(TargetLevel.OBJECT) || prop.isScalarList() ? "[]" : "")
+                    .append(';');
+            if (prop.getTargetType() != null) {
+                targetTypes.add(prop.getTargetType());
+            }
+        }
+        builder.append('}');
+        for (ImmutableType targetType : targetTypes) {
+            describe(targetType, builder, visitedTypes);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int intAt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 |
+                (bytes[offset + 1] & 0xFF) << 16 |
+                (bytes[offset + 2] & 0xFF) << 8 |
+                (bytes[offset + 3] & 0xFF);
+    }
+
+    private static class Output {
+
+        private byte[] buf = new byte[64];
+
+        private int size;
+
+        void write(int b) {
+            ensureCapacity(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            buf[size++] = (byte) (value >>> 24);
+            buf[size++] = (byte) (value >>> 16);
+            buf[size++] = (byte) (value >>> 8);
+            buf[size++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[size++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        private void ensureCapacity(int n) {
+            if (size + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length << 1, size + n));
+            }
+        }
+    }
+
+    private static class Input {
+
+        private final byte[] buf;
+
+        private int pos;
+
+        Input(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        int read() {
+            return buf[pos++] & 0xFF;
+        }
+
+        int readInt() {
+            int value = intAt(buf, pos);
+            pos += 4;
+            return value;
+        }
+
+        long readLong() {
+            long high = readInt();
+            return high << 32 | (readInt() & 0xFFFFFFFFL);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        byte[] readBytes() {
+            int len = (int) readVarLong();
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + len);
+            pos += len;
+            return bytes;
+        }
+
+        String readString() {
+            int len = (int) readVarLong();
+            String value = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return value;
+        }
+    }
+
+    private static class UnsupportedValueException extends RuntimeException {
+
+        static final UnsupportedValueException INSTANCE = new UnsupportedValueException();
+
+        private UnsupportedValueException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -131,6 +131,19 @@ public interface CacheCreator {
             @Nullable Duration remoteDuration
     );
 
+    /**
+     * Serialize the values of remote caches by
+     * {@link BinaryValueSerializer} instead of JSON.
+     *
+     * <p>This method does not modify the current object, but creates a new object.</p>
+     *
+     * @param binary Whether binary serialization is used
+     * @return The created new object
+     */
+    @NewChain
+    @NotNull
+    CacheCreator withBinarySerialization(boolean binary);
+
     <K, V> Cache<K, V> createForObject(ImmutableType type);
 
     <K, V> Cache<K, V> createForProp(ImmutableProp prop, boolean multiView);
@@ -4,7 +4,11 @@ import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.meta.TargetLevel;
 import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.event.AssociationEvent;
+import org.babyfish.jimmer.sql.event.AssociationListener;
 import org.babyfish.jimmer.sql.event.DatabaseEvent;
+import org.babyfish.jimmer.sql.event.EntityEvent;
+import org.babyfish.jimmer.sql.event.EntityListener;
 import org.babyfish.jimmer.sql.filter.impl.FilterManager;
 import org.babyfish.jimmer.sql.runtime.EntityManager;
 import org.babyfish.jimmer.sql.event.Triggers;
@@ -125,10 +129,24 @@ public class CachesImpl implements Caches {
                 (Cache<Object, Object>) cache,
                 operator
         );
-        triggers.addEntityListener(wrapper.type(), e -> {
-            if (isAffectedBy(e)) {
-                Object id = e.getId();
-                wrapper.delete(id, e.getReason());
+        triggers.addEntityListener(wrapper.type(), new EntityListener<Object>() {
+            @Override
+            public void onChange(EntityEvent<Object> e) {
+                if (isAffectedBy(e)) {
+                    Object id = e.getId();
+                    wrapper.delete(id, e.getReason());
+                }
+            }
+            @Override
+            public void onChanges(List<EntityEvent<Object>> events) {
+                // Reason -> Ids
+                Map<Object, Set<Object>> idMultiMap = new LinkedHashMap<>();
+                for (EntityEvent<Object> e : events) {
+                    if (isAffectedBy(e)) {
+                        idMultiMap.computeIfAbsent(e.getReason(), it -> new LinkedHashSet<>()).add(e.getId());
+                    }
+                }
+                deleteAll(wrapper, idMultiMap);
             }
         });
         return wrapper;
@@ -155,16 +173,36 @@ public class CachesImpl implements Caches {
                 operator
         );
         if (prop.isAssociation(TargetLevel.PERSISTENT)) {
-            triggers.addAssociationListener(prop, e -> {
-                if (isAffectedBy(e)) {
-                    Object id = e.getSourceId();
-                    wrapper.delete(id, e.getReason());
+            triggers.addAssociationListener(prop, new AssociationListener() {
+                @Override
+                public void onChange(AssociationEvent e) {
+                    if (isAffectedBy(e)) {
+                        Object id = e.getSourceId();
+                        wrapper.delete(id, e.getReason());
+                    }
+                }
+                @Override
+                public void onChanges(List<AssociationEvent> events) {
+                    // Reason -> Ids
+                    Map<Object, Set<Object>> idMultiMap = new LinkedHashMap<>();
+                    for (AssociationEvent e : events) {
+                        if (isAffectedBy(e)) {
+                            idMultiMap.computeIfAbsent(e.getReason(), it -> new LinkedHashSet<>()).add(e.getSourceId());
+                        }
+                    }
+                    deleteAll(wrapper, idMultiMap);
                 }
             });
         }
         return wrapper;
     }
 
+    private static void deleteAll(UsedCache<Object, ?> wrapper, Map<Object, Set<Object>> idMultiMap) {
+        for (Map.Entry<Object, Set<Object>> e : idMultiMap.entrySet()) {
+            wrapper.deleteAll(e.getValue(), e.getKey());
+        }
+    }
+
     public CacheOperator getOperator() {
         return operator;
     }
@@ -0,0 +1,59 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+
+import java.sql.Connection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds callbacks to the current transaction,
+ * it is used by {@link OutboxCacheOperator}.
+ */
+public interface CommitHook {
+
+    /**
+     * Hook which never finds transaction,
+     * so that the cache deletions are always executed immediately
+     */
+    CommitHook NONE = new CommitHook() {
+        @Override
+        public <C extends Callback> C callback(Object key, Supplier<C> creator) {
+            return null;
+        }
+    };
+
+    /**
+     * Get the callback bound to the transaction of current thread by the key,
+     * if it does not exist, create it by the creator and register it to that transaction.
+     *
+     * <p>The callback is a resource of the transaction, not of the thread,
+     * an independent nested transaction (for example, {@code REQUIRES_NEW} of spring)
+     * must not see the callbacks of the suspended outer transaction.</p>
+     *
+     * @return The callback of current transaction,
+     * or null if there is no transaction so that the callback cannot be registered.
+     */
+    <C extends Callback> C callback(Object key, Supplier<C> creator);
+
+    /**
+     * Execute the block by a connection which is not bound to the completed
+     * transaction and commit it, it is used by {@link Callback#afterCommit()}.
+     *
+     * <p>By default, the block is executed by the connection manager,
+     * this is only right when the connection manager does not bind connections
+     * to transactions, or the bound connection has been released.</p>
+     */
+    default <R> R executeAfterCompletion(ConnectionManager connectionManager, Function<Connection, R> block) {
+        return connectionManager.execute(block);
+    }
+
+    interface Callback {
+
+        void beforeCommit();
+
+        void afterCommit();
+
+        void afterRollback();
+    }
+}
@@ -0,0 +1,75 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+
+/**
+ * Key-scoped invalidation for near caches.
+ *
+ * <p>Unlike {@link CacheTracker} which broadcasts every invalidation to all
+ * the nodes, each subscriber of this tracker only subscribes the keys which are
+ * resident in it, so an invalidation is only delivered to the nodes which
+ * hold the invalidated keys.</p>
+ *
+ * @see KeyTracker#local()
+ * @see org.babyfish.jimmer.sql.cache.caffeine.CaffeineNearBinder
+ */
+public interface KeyTracker {
+
+    /**
+     * Start receiving the invalidations of keys.
+     *
+     * <p>The subscriptions are reference counted by subscriber and key,
+     * a key is received until it has been unsubscribed as many times as
+     * it has been subscribed, so that callers need not serialize
+     * the subscribing and unsubscribing of the same key.</p>
+     */
+    void subscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys);
+
+    /**
+     * Release one subscription of each key,
+     * unsubscribing a key which has not been subscribed by the subscriber is ignored.
+     */
+    void unsubscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys);
+
+    /**
+     * Deliver the invalidation to the subscribers of the ids of the event,
+     * except the publisher itself which has applied it.
+     */
+    void publish(@NotNull Subscriber publisher, @NotNull CacheTracker.InvalidateEvent event);
+
+    /**
+     * Key tracker of current JVM,
+     * it is the stand-in of server-assisted tracker for single node application and tests.
+     */
+    static KeyTracker local() {
+        return new LocalKeyTracker();
+    }
+
+    interface Subscriber {
+
+        /**
+         * @return The type of object cache or null for property cache
+         */
+        @Nullable
+        ImmutableType type();
+
+        /**
+         * @return The property of property cache or null for object cache
+         */
+        @Nullable
+        ImmutableProp prop();
+
+        void onInvalidate(@NotNull Collection<?> keys);
+
+        /**
+         * Invalidations may be lost, for example, the connection
+         * to the server has been reconnected, all keys should be invalidated.
+         */
+        void onReconnect();
+    }
+}
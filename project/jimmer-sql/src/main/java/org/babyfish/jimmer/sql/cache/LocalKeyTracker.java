@@ -0,0 +1,84 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+class LocalKeyTracker implements KeyTracker {
+
+    // Region(ImmutableType or ImmutableProp) -> Key -> Subscriber -> Subscription count
+    private final Map<Object, Map<Object, Map<Subscriber, Integer>>> regionMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void subscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys) {
+        Map<Object, Map<Subscriber, Integer>> keyMap = regionMap.computeIfAbsent(
+                region(subscriber),
+                it -> new ConcurrentHashMap<>()
+        );
+        for (Object key : keys) {
+            keyMap.compute(key, (k, countMap) -> {
+                if (countMap == null) {
+                    return Collections.singletonMap(subscriber, 1);
+                }
+                Map<Subscriber, Integer> newCountMap = new HashMap<>(countMap);
+                newCountMap.merge(subscriber, 1, Integer::sum);
+                return Collections.unmodifiableMap(newCountMap);
+            });
+        }
+    }
+
+    @Override
+    public void unsubscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys) {
+        Map<Object, Map<Subscriber, Integer>> keyMap = regionMap.get(region(subscriber));
+        if (keyMap == null) {
+            return;
+        }
+        for (Object key : keys) {
+            keyMap.computeIfPresent(key, (k, countMap) -> {
+                Integer count = countMap.get(subscriber);
+                if (count == null) {
+                    return countMap;
+                }
+                if (count == 1 && countMap.size() == 1) {
+                    return null;
+                }
+                Map<Subscriber, Integer> newCountMap = new HashMap<>(countMap);
+                if (count == 1) {
+                    newCountMap.remove(subscriber);
+                } else {
+                    newCountMap.put(subscriber, count - 1);
+                }
+                return Collections.unmodifiableMap(newCountMap);
+            });
+        }
+    }
+
+    @Override
+    public void publish(@NotNull Subscriber publisher, @NotNull CacheTracker.InvalidateEvent event) {
+        Map<Object, Map<Subscriber, Integer>> keyMap = regionMap.get(
+                event.getProp() != null ? event.getProp() : event.getType()
+        );
+        if (keyMap == null) {
+            return;
+        }
+        Map<Subscriber, List<Object>> keysMap = new LinkedHashMap<>();
+        for (Object id : event.getIds()) {
+            Map<Subscriber, Integer> countMap = keyMap.get(id);
+            if (countMap != null) {
+                for (Subscriber subscriber : countMap.keySet()) {
+                    if (subscriber != publisher) {
+                        keysMap.computeIfAbsent(subscriber, it -> new ArrayList<>()).add(id);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<Subscriber, List<Object>> e : keysMap.entrySet()) {
+            e.getKey().onInvalidate(e.getValue());
+        }
+    }
+
+    private static Object region(Subscriber subscriber) {
+        return subscriber.prop() != null ? subscriber.prop() : subscriber.type();
+    }
+}
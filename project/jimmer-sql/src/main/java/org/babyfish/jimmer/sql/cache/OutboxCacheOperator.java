@@ -0,0 +1,413 @@
+package org.babyfish.jimmer.sql.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.babyfish.jimmer.jackson.ImmutableModule;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.TransactionCacheOperator.MergedKey;
+import org.babyfish.jimmer.sql.cache.spi.AbstractCacheOperator;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Alternative of {@link TransactionCacheOperator} with less database overhead.
+ *
+ * <p>The cache deletions of a transaction are merged in memory, before commit,
+ * one row is inserted into the table {@code JIMMER_CACHE_OUTBOX} for each
+ * cache and reason, its keys are saved as a json array. After commit, the caches
+ * are deleted directly and the rows of the transaction are deleted by one
+ * statement, so the table does not need to be polled frequently.</p>
+ *
+ * <p>The transaction is recognized by {@link CommitHook} and the pending deletions
+ * are a resource of that transaction, so an independent nested transaction
+ * has its own outbox. If there is no transaction, the caches are deleted
+ * immediately, the rows are only inserted when that deletion fails so that
+ * {@link #flush()} can retry them. {@link #flush()} also executes the rows
+ * left by the applications which crashed after commit, so it should still be
+ * called periodically, but it can be called with a long interval.</p>
+ */
+public class OutboxCacheOperator extends AbstractCacheOperator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxCacheOperator.class);
+
+    public static final String TABLE_NAME = "JIMMER_CACHE_OUTBOX";
+
+    private static final String ID = "ID";
+
+    private static final String TX_ID = "TX_ID";
+
+    private static final String IMMUTABLE_TYPE = "IMMUTABLE_TYPE";
+
+    private static final String IMMUTABLE_PROP = "IMMUTABLE_PROP";
+
+    private static final String REASON = "REASON";
+
+    private static final String CACHE_KEYS = "CACHE_KEYS";
+
+    private static final String INSERT =
+            "insert into " +
+                    TABLE_NAME + "(" +
+                    TX_ID +
+                    ", " +
+                    IMMUTABLE_TYPE +
+                    ", " +
+                    IMMUTABLE_PROP +
+                    ", " +
+                    REASON +
+                    ", " +
+                    CACHE_KEYS +
+                    ") values(?, ?, ?, ?, ?)";
+
+    private static final String DELETE_BY_TX_ID =
+            "delete from " +
+                    TABLE_NAME +
+                    " where " +
+                    TX_ID +
+                    " = ?";
+
+    private static final String SELECT_ID_PREFIX =
+            "select " +
+                    ID +
+                    " from " +
+                    TABLE_NAME +
+                    " order by " +
+                    ID +
+                    " limit ";
+
+    private static final String SELECT_PREFIX =
+            "select " +
+                    IMMUTABLE_TYPE +
+                    ", " +
+                    IMMUTABLE_PROP +
+                    ", " +
+                    REASON +
+                    ", " +
+                    CACHE_KEYS +
+                    " from " +
+                    TABLE_NAME +
+                    " where " +
+                    ID +
+                    " in";
+
+    private static final String DELETE_PREFIX =
+            "delete from " +
+                    TABLE_NAME +
+                    " where " +
+                    ID +
+                    " in";
+
+    private final CommitHook commitHook;
+
+    private final ObjectMapper mapper;
+
+    private final int batchSize;
+
+    public OutboxCacheOperator(CommitHook commitHook) {
+        this(commitHook, null, 32);
+    }
+
+    public OutboxCacheOperator(CommitHook commitHook, ObjectMapper mapper) {
+        this(commitHook, mapper, 32);
+    }
+
+    public OutboxCacheOperator(CommitHook commitHook, ObjectMapper mapper, int batchSize) {
+        if (commitHook == null) {
+            throw new IllegalArgumentException("`commitHook` cannot be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("`batchSize` cannot be less than 1");
+        }
+        this.commitHook = commitHook;
+        this.mapper = mapper != null ?
+                mapper :
+                new ObjectMapper()
+                        .registerModule(new JavaTimeModule())
+                        .registerModule(new ImmutableModule());
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    protected void onInitialize(JSqlClientImplementor sqlClient) {
+        ConnectionManager connectionManager = sqlClient.getConnectionManager();
+        if (connectionManager == null) {
+            throw new IllegalArgumentException("The `sqlClient` must support connection manager");
+        }
+        connectionManager.execute(con -> {
+            try {
+                for (String tableName : new String[] { TABLE_NAME, TABLE_NAME.toLowerCase() }) {
+                    try (ResultSet rs = con.getMetaData().getTables(null, null, tableName, null)) {
+                        if (rs.next()) {
+                            return null;
+                        }
+                    }
+                }
+                String indexDDL = sqlClient.getDialect().cacheOutboxIndexDDL();
+                try (Statement statement = con.createStatement()) {
+                    statement.execute(sqlClient.getDialect().cacheOutboxTableDDL());
+                    if (indexDDL != null) {
+                        statement.execute(indexDDL);
+                    }
+                }
+                return null;
+            } catch (SQLException ex) {
+                throw new ExecutionException(
+                        "Cannot create table `" +
+                                TABLE_NAME +
+                                "`",
+                        ex
+                );
+            }
+        });
+    }
+
+    @Override
+    public void delete(UsedCache<Object, ?> cache, Object key, Object reason) {
+        deleteAll(cache, Collections.singleton(key), reason);
+    }
+
+    @Override
+    public void deleteAll(UsedCache<Object, ?> cache, Collection<Object> keys, Object reason) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (reason != null && !(reason instanceof String)) {
+            throw new IllegalArgumentException(
+                    "The cache deletion reason can only be null or string when trigger type is `TRANSACTION_ONLY`"
+            );
+        }
+        MergedKey mergedKey = new MergedKey(cache.type(), cache.prop(), (String) reason);
+        Outbox outbox = commitHook.callback(this, Outbox::new);
+        if (outbox != null) {
+            outbox.add(mergedKey, keys);
+            return;
+        }
+        // No transaction, delete the caches immediately,
+        // the outbox table is only used to retry the failed deletions
+        Map<MergedKey, Set<Object>> keyMap =
+                Collections.singletonMap(mergedKey, new LinkedHashSet<>(keys));
+        try {
+            CacheOperator.suspending(() -> {
+                executeOperations(keyMap);
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to delete caches, they will be deleted by flush", ex);
+            save(UUID.randomUUID().toString(), keyMap);
+        }
+    }
+
+    /**
+     * Execute the cache deletions whose transactions have been committed
+     * but the after-commit callbacks have not been executed, for example,
+     * the application crashed after commit.
+     */
+    public void flush() {
+        for (int i = 0; i < 10; i++) {
+            if (sqlClient().getConnectionManager().execute(this::flush) < batchSize) {
+                break;
+            }
+        }
+    }
+
+    private int flush(Connection con) {
+        List<Long> ids = selectOperationIds(con);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<MergedKey, Set<Object>> keyMap = getAndLockOperationKeyMap(ids, con);
+        CacheOperator.suspending(() -> {
+            executeOperations(keyMap);
+        });
+        deleteOperations(ids, con);
+        return ids.size();
+    }
+
+    private void save(String txId, Map<MergedKey, Set<Object>> keyMap) {
+        sqlClient().getConnectionManager().execute(con -> {
+            try {
+                try (PreparedStatement stmt = con.prepareStatement(INSERT)) {
+                    for (Map.Entry<MergedKey, Set<Object>> e : keyMap.entrySet()) {
+                        MergedKey mergedKey = e.getKey();
+                        stmt.setString(1, txId);
+                        stmt.setString(2, mergedKey.type != null ? mergedKey.type.toString() : null);
+                        stmt.setString(3, mergedKey.prop != null ? mergedKey.prop.toString() : null);
+                        stmt.setString(4, mergedKey.reason);
+                        stmt.setString(5, mapper.writeValueAsString(e.getValue()));
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+            } catch (SQLException | JsonProcessingException ex) {
+                throw new ExecutionException("Failed to save delayed cache deletion", ex);
+            }
+            return null;
+        });
+    }
+
+    private void deleteByTxId(String txId) {
+        try {
+            // The transaction has been completed, its connection cannot be used any more
+            commitHook.executeAfterCompletion(sqlClient().getConnectionManager(), con -> {
+                try (PreparedStatement stmt = con.prepareStatement(DELETE_BY_TX_ID)) {
+                    stmt.setString(1, txId);
+                    stmt.executeUpdate();
+                } catch (SQLException ex) {
+                    throw new ExecutionException("Failed to delete the executed cache deletions", ex);
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Failed to delete the executed cache deletions, they will be executed again by flush", ex);
+        }
+    }
+
+    private List<Long> selectOperationIds(Connection con) {
+        String sql = SELECT_ID_PREFIX + batchSize;
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement stmt = con.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        } catch (SQLException ex) {
+            LOGGER.warn("Failed to flush outbox cache operator", ex);
+        }
+        return ids;
+    }
+
+    private Map<MergedKey, Set<Object>> getAndLockOperationKeyMap(Collection<Long> ids, Connection con) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(SELECT_PREFIX).append('(');
+        for (int i = ids.size(); i > 0; --i) {
+            builder.append('?');
+            if (i > 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append(") for update");
+        Map<MergedKey, Set<Object>> keyMap = new LinkedHashMap<>();
+        try (PreparedStatement stmt = con.prepareStatement(builder.toString())) {
+            int index = 0;
+            for (Long id : ids) {
+                stmt.setLong(++index, id);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ImmutableType type = TransactionCacheOperator.typeFromString(rs.getString(1));
+                    ImmutableProp prop = TransactionCacheOperator.propFromString(rs.getString(2));
+                    String reason = rs.getString(3);
+                    Class<?> keyClass = type != null ?
+                            type.getIdProp().getElementClass() :
+                            prop.getDeclaringType().getIdProp().getElementClass();
+                    JavaType keysType = mapper.getTypeFactory().constructCollectionType(List.class, keyClass);
+                    List<Object> keys = mapper.readValue(rs.getString(4), keysType);
+                    keyMap
+                            .computeIfAbsent(new MergedKey(type, prop, reason), it -> new LinkedHashSet<>())
+                            .addAll(keys);
+                }
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("Failed to flush outbox cache operator", ex);
+        }
+        return keyMap;
+    }
+
+    private void executeOperations(Map<MergedKey, Set<Object>> keyMap) {
+        for (Map.Entry<MergedKey, Set<Object>> e : keyMap.entrySet()) {
+            Cache<Object, ?> cache;
+            ImmutableProp prop = e.getKey().prop;
+            if (prop == null) {
+                cache = sqlClient().getCaches().getObjectCache(e.getKey().type);
+            } else {
+                cache = sqlClient().getCaches().getPropertyCache(prop);
+            }
+            if (cache == null) {
+                continue;
+            }
+            Object reason = e.getKey().reason;
+            Set<Object> keys = e.getValue();
+            if (keys.size() == 1) {
+                cache.delete(keys.iterator().next(), reason);
+            } else {
+                cache.deleteAll(keys, reason);
+            }
+        }
+    }
+
+    private void deleteOperations(Collection<Long> ids, Connection con) {
+        StringBuilder builder = new StringBuilder();
+        builder.append(DELETE_PREFIX).append('(');
+        for (int i = ids.size(); i > 0; --i) {
+            builder.append('?');
+            if (i > 1) {
+                builder.append(", ");
+            }
+        }
+        builder.append(')');
+        try (PreparedStatement stmt = con.prepareStatement(builder.toString())) {
+            int index = 0;
+            for (Long id : ids) {
+                stmt.setLong(++index, id);
+            }
+            stmt.executeUpdate();
+        } catch (Exception ex) {
+            LOGGER.warn("Failed to delete outbox cache operations", ex);
+        }
+    }
+
+    private class Outbox implements CommitHook.Callback {
+
+        private final String txId = UUID.randomUUID().toString();
+
+        private final Map<MergedKey, Set<Object>> keyMap = new LinkedHashMap<>();
+
+        private boolean saved;
+
+        void add(MergedKey mergedKey, Collection<Object> keys) {
+            if (saved) {
+                // Deleted by other before-commit callbacks,
+                // save them now because this callback has been executed
+                Map<MergedKey, Set<Object>> addedKeyMap =
+                        Collections.singletonMap(mergedKey, new LinkedHashSet<>(keys));
+                save(txId, addedKeyMap);
+            }
+            keyMap.computeIfAbsent(mergedKey, it -> new LinkedHashSet<>()).addAll(keys);
+        }
+
+        @Override
+        public void beforeCommit() {
+            if (!saved && !keyMap.isEmpty()) {
+                save(txId, keyMap);
+            }
+            saved = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (keyMap.isEmpty()) {
+                return;
+            }
+            try {
+                CacheOperator.suspending(() -> {
+                    executeOperations(keyMap);
+                });
+            } catch (RuntimeException ex) {
+                LOGGER.warn("Failed to delete caches after commit, they will be deleted by flush", ex);
+                return;
+            }
+            deleteByTxId(txId);
+        }
+
+        @Override
+        public void afterRollback() {}
+    }
+}
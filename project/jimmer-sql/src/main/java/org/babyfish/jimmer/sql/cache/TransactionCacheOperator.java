@@ -315,7 +315,7 @@ public class TransactionCacheOperator extends AbstractCacheOperator {
         }
     }
 
-    private static ImmutableType typeFromString(String typeName) throws Exception {
+    static ImmutableType typeFromString(String typeName) throws Exception {
         if (typeName == null) {
             return null;
         }
@@ -323,7 +323,7 @@ public class TransactionCacheOperator extends AbstractCacheOperator {
         return ImmutableType.get(javaClass);
     }
 
-    private static ImmutableProp propFromString(String propPath) throws Exception {
+    static ImmutableProp propFromString(String propPath) throws Exception {
         if (propPath == null) {
             return null;
         }
@@ -339,12 +339,12 @@ public class TransactionCacheOperator extends AbstractCacheOperator {
                 .getProp(propPath.substring(lastDotIndex + 1));
     }
 
-    private static class MergedKey {
+    static class MergedKey {
         final ImmutableType type;
         final ImmutableProp prop;
         final String reason;
 
-        private MergedKey(ImmutableType type, ImmutableProp prop, String reason) {
+        MergedKey(ImmutableType type, ImmutableProp prop, String reason) {
             this.type = type;
             this.prop = prop;
             this.reason = reason;
@@ -119,7 +119,9 @@ public class ValueSerializer<T> {
     public <K> Map<K, T> deserialize(@NotNull Map<K, byte[]> map) {
         Map<K, T> deserializedMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
         for (Map.Entry<K, byte[]> e : map.entrySet()) {
-            deserializedMap.put(e.getKey(), deserialize(e.getValue()));
+            if (isDeserializable(e.getValue())) {
+                deserializedMap.put(e.getKey(), deserialize(e.getValue()));
+            }
         }
         return deserializedMap;
     }
@@ -128,7 +130,9 @@ public class ValueSerializer<T> {
     public <K1, K2> Map<K2, T> deserialize(@NotNull Map<K1, byte[]> map, @NotNull Function<K1, K2> keyMapper) {
         Map<K2, T> deserializedMap = new LinkedHashMap<>((map.size() * 4 + 2) / 3);
         for (Map.Entry<K1, byte[]> e : map.entrySet()) {
-            deserializedMap.put(keyMapper.apply(e.getKey()), deserialize(e.getValue()));
+            if (isDeserializable(e.getValue())) {
+                deserializedMap.put(keyMapper.apply(e.getKey()), deserialize(e.getValue()));
+            }
         }
         return deserializedMap;
     }
@@ -141,10 +145,20 @@ public class ValueSerializer<T> {
         while (keyItr.hasNext() && byteArrItr.hasNext()) {
             K key = keyItr.next();
             byte[] byteArr = byteArrItr.next();
-            if (byteArr != null) {
+            if (byteArr != null && isDeserializable(byteArr)) {
                 deserializedMap.put(key, deserialize(byteArr));
             }
         }
         return deserializedMap;
     }
+
+    /**
+     * Values which cannot be deserialized, for example,
+     * written by an incompatible version of the serializer,
+     * are ignored by the methods which deserialize multiple values
+     * so that they are treated as cache miss.
+     */
+    protected boolean isDeserializable(byte[] value) {
+        return true;
+    }
 }
@@ -0,0 +1,284 @@
+package org.babyfish.jimmer.sql.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.babyfish.jimmer.lang.Ref;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.CacheTracker;
+import org.babyfish.jimmer.sql.cache.KeyTracker;
+import org.babyfish.jimmer.sql.cache.chain.CacheChain;
+import org.babyfish.jimmer.sql.cache.chain.LoadingBinder;
+import org.babyfish.jimmer.sql.cache.spi.AbstractBinder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Local cache whose invalidation is scoped to the keys resident in it.
+ *
+ * <p>Each key is subscribed to the {@link KeyTracker} when it is loaded and
+ * unsubscribed when it is removed from the local cache by invalidation,
+ * expiration or eviction, so that the invalidations caused by other nodes are
+ * only delivered to this node when it holds the invalidated keys. Deleting keys
+ * from this binder publishes the invalidation by the tracker too.</p>
+ *
+ * <p>Every key has a version which is increased by invalidation,
+ * the value loaded from the next level of the cache chain is only kept when
+ * the version of its key is not changed during loading, so that a value which
+ * has been invalidated while it is being loaded cannot re-populate this cache.</p>
+ *
+ * <p>It is designed to be the first binder of the chain whose other binders do
+ * not use {@link CacheTracker}, for example,</p>
+ * <pre>{@code
+ * new ChainCacheBuilder<K, V>()
+ *     .add(CaffeineNearBinder.<K, V>forObject(type).keyTracker(keyTracker).build())
+ *     .add(RedisValueBinder.<K, V>forObject(type).redis(connectionFactory).build())
+ *     .build()
+ * }</pre>
+ */
+public class CaffeineNearBinder<K, V> extends AbstractBinder<K> implements LoadingBinder<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CaffeineNearBinder.class);
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final KeyTracker keyTracker;
+
+    private final int maximumSize;
+
+    private final Duration duration;
+
+    private final SubscriberImpl subscriber = new SubscriberImpl();
+
+    // Different keys may share a version, that only makes some loaded values
+    // not be cached, but it keeps the memory bounded.
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private CacheChain<K, V> chain;
+
+    // Caffeine does not support null value, use `Ref` as a wrapper
+    private Cache<K, Ref<V>> cache;
+
+    protected CaffeineNearBinder(
+            @Nullable ImmutableType type,
+            @Nullable ImmutableProp prop,
+            @NotNull KeyTracker keyTracker,
+            int maximumSize,
+            @NotNull Duration duration
+    ) {
+        super(type, prop);
+        this.keyTracker = Objects.requireNonNull(keyTracker, "keyTracker cannot be null");
+        this.maximumSize = maximumSize;
+        this.duration = duration;
+    }
+
+    @Override
+    public void initialize(CacheChain<K, V> chain) {
+        this.chain = chain;
+        this.cache = Caffeine
+                .newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(duration)
+                .executor(Runnable::run)
+                .<K, Ref<V>>removalListener(this::onRemoval)
+                .build();
+    }
+
+    @Override
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, Ref<V>> refMap = cache.getAllPresent(keys);
+        Map<K, V> resultMap = new HashMap<>((keys.size() * 4 + 2) / 3);
+        for (Map.Entry<K, Ref<V>> e : refMap.entrySet()) {
+            resultMap.put(e.getKey(), e.getValue().getValue());
+        }
+        if (refMap.size() < keys.size()) {
+            Set<K> missedKeys = new LinkedHashSet<>();
+            for (K key : keys) {
+                if (!refMap.containsKey(key)) {
+                    missedKeys.add(key);
+                }
+            }
+            if (!missedKeys.isEmpty()) {
+                resultMap.putAll(load(missedKeys));
+            }
+        }
+        return resultMap;
+    }
+
+    private Map<K, V> load(Set<K> keys) {
+        // Subscribe before loading so that invalidations during loading are received
+        acquireAll(keys);
+        try {
+            Map<K, Long> versionMap = new HashMap<>((keys.size() * 4 + 2) / 3);
+            for (K key : keys) {
+                versionMap.put(key, versions.get(stripe(key)));
+            }
+            Map<K, V> loadedMap = chain.loadAll(keys);
+            for (Map.Entry<K, V> e : loadedMap.entrySet()) {
+                K key = e.getKey();
+                Long version = versionMap.get(key);
+                if (version == null || version != versions.get(stripe(key))) {
+                    continue;
+                }
+                Ref<V> ref = Ref.of(e.getValue());
+                acquire(key);
+                if (cache.asMap().putIfAbsent(key, ref) != null) {
+                    release(key);
+                } else if (version != versions.get(stripe(key))) {
+                    // Invalidated after the version checking but before putting
+                    cache.asMap().remove(key, ref);
+                }
+            }
+            return loadedMap;
+        } finally {
+            releaseAll(keys);
+        }
+    }
+
+    @Override
+    protected void deleteAllImpl(Collection<K> keys) {
+        invalidate(keys);
+        if (prop != null) {
+            keyTracker.publish(subscriber, new CacheTracker.InvalidateEvent(prop, keys));
+        } else {
+            keyTracker.publish(subscriber, new CacheTracker.InvalidateEvent(type, keys));
+        }
+    }
+
+    private void invalidate(Collection<K> keys) {
+        for (K key : keys) {
+            versions.incrementAndGet(stripe(key));
+        }
+        cache.invalidateAll(keys);
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    @Override
+    protected boolean matched(@Nullable Object reason) {
+        return "caffeine".equals(reason);
+    }
+
+    private void onRemoval(@Nullable K key, @Nullable Ref<V> value, RemovalCause cause) {
+        if (key != null && cause != RemovalCause.REPLACED) {
+            release(key);
+        }
+    }
+
+    // A key is referenced by its resident value and each loading which is in progress,
+    // the key tracker counts the references so that no lock is held here while
+    // it talks to the server
+    private void acquireAll(Collection<K> keys) {
+        keyTracker.subscribe(subscriber, keys);
+    }
+
+    private void releaseAll(Collection<K> keys) {
+        keyTracker.unsubscribe(subscriber, keys);
+    }
+
+    private void acquire(K key) {
+        keyTracker.subscribe(subscriber, Collections.singleton(key));
+    }
+
+    private void release(K key) {
+        keyTracker.unsubscribe(subscriber, Collections.singleton(key));
+    }
+
+    private static int stripe(Object key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    @NotNull
+    public static <K, V> Builder<K, V> forObject(ImmutableType type) {
+        return new Builder<>(type, null);
+    }
+
+    @NotNull
+    public static <K, V> Builder<K, V> forProp(ImmutableProp prop) {
+        return new Builder<>(null, prop);
+    }
+
+    private class SubscriberImpl implements KeyTracker.Subscriber {
+
+        @Override
+        public @Nullable ImmutableType type() {
+            return type;
+        }
+
+        @Override
+        public @Nullable ImmutableProp prop() {
+            return prop;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void onInvalidate(@NotNull Collection<?> keys) {
+            if (LOGGER.isInfoEnabled()) {
+                logDeletedKeys(keys);
+            }
+            invalidate((Collection<K>) keys);
+        }
+
+        @Override
+        public void onReconnect() {
+            if (LOGGER.isInfoEnabled()) {
+                LOGGER.info("Cache.DeleteAll > {}", CaffeineNearBinder.this.toString(true));
+            }
+            invalidateAll();
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final ImmutableType type;
+        private final ImmutableProp prop;
+        private KeyTracker keyTracker;
+        private int maximumSize = 100;
+        private Duration duration = Duration.ofMinutes(1);
+
+        public Builder(ImmutableType type, ImmutableProp prop) {
+            this.type = type;
+            this.prop = prop;
+        }
+
+        public Builder<K, V> keyTracker(KeyTracker keyTracker) {
+            this.keyTracker = keyTracker;
+            return this;
+        }
+
+        public Builder<K, V> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> duration(Duration duration) {
+            this.duration = duration;
+            return this;
+        }
+
+        public CaffeineNearBinder<K, V> build() {
+            if (keyTracker == null) {
+                throw new IllegalStateException("The key tracker has not been specified");
+            }
+            return new CaffeineNearBinder<>(
+                    type,
+                    prop,
+                    keyTracker,
+                    maximumSize,
+                    duration
+            );
+        }
+    }
+}
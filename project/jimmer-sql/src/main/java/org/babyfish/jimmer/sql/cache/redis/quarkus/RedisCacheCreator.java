@@ -113,6 +113,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.duration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.redisDataSource)
                 .build()
                 .lock(args.locker, args.lockWaitDuration, args.lockLeaseDuration);
@@ -127,6 +128,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.duration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.redisDataSource)
                 .build()
                 .lock(args.locker, args.lockWaitDuration, args.lockLeaseDuration);
@@ -141,6 +143,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.multiVewDuration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.redisDataSource)
                 .build()
                 .lock(args.locker, args.lockWaitDuration, args.lockLeaseDuration);
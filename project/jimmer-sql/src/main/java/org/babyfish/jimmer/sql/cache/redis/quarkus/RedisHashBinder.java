@@ -37,8 +37,9 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
             @Nullable ObjectMapper objectMapper,
             @NotNull Duration duration,
             int randomPercent,
+            boolean binarySerialization,
             @NotNull RedisDataSource redisDataSource) {
-        super(type, prop, tracker, objectMapper, duration, randomPercent);
+        super(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization);
         this.hashCommands = redisDataSource.hash(byte[].class);
         this.valueCommands = redisDataSource.value(byte[].class);
     }
@@ -101,7 +102,7 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
             if (null == redisDataSource) {
                 throw new IllegalStateException("RedisDataSource has not been specified");
             }
-            return new RedisHashBinder<>(type, prop, tracker, objectMapper, duration, randomPercent, redisDataSource);
+            return new RedisHashBinder<>(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization, redisDataSource);
         }
     }
 }
@@ -31,8 +31,9 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
             @Nullable ObjectMapper objectMapper,
             @NotNull Duration duration,
             int randomPercent,
+            boolean binarySerialization,
             @NotNull RedisDataSource redisDataSource) {
-        super(type, prop, tracker, objectMapper, duration, randomPercent);
+        super(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization);
         this.operations = redisDataSource.value(byte[].class);
     }
 
@@ -98,7 +99,7 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
             if (null == redisDataSource) {
                 throw new IllegalStateException("RedisDataSource has not been specified");
             }
-            return new RedisValueBinder<>(type, prop, tracker, objectMapper, duration, randomPercent, redisDataSource);
+            return new RedisValueBinder<>(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization, redisDataSource);
         }
     }
 }
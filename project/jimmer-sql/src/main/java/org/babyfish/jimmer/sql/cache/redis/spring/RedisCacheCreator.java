@@ -119,6 +119,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.duration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.connectionFactory)
                 .build()
                 .lock(
@@ -137,6 +138,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.duration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.connectionFactory)
                 .build()
                 .lock(
@@ -155,6 +157,7 @@ public class RedisCacheCreator extends AbstractCacheCreator {
                 .objectMapper(args.objectMapper)
                 .duration(args.multiVewDuration)
                 .randomPercent(args.randomDurationPercent)
+                .binarySerialization(args.binarySerialization)
                 .redis(args.connectionFactory)
                 .build()
                 .lock(
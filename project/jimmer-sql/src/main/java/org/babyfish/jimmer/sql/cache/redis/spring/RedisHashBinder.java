@@ -29,6 +29,7 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
             @Nullable ObjectMapper objectMapper,
             @NotNull Duration duration,
             int randomPercent,
+            boolean binarySerialization,
             @NotNull RedisOperations<String, byte[]> operations
     ) {
         super(
@@ -37,7 +38,8 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
                 tracker,
                 objectMapper,
                 duration,
-                randomPercent
+                randomPercent,
+                binarySerialization
         );
         this.operations = operations;
     }
@@ -127,6 +129,7 @@ public class RedisHashBinder<K, V> extends AbstractRemoteHashBinder<K, V> {
                     objectMapper,
                     duration,
                     randomPercent,
+                    binarySerialization,
                     operations
             );
         }
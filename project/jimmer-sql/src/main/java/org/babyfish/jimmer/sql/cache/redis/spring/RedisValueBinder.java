@@ -27,6 +27,7 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
             @Nullable ObjectMapper objectMapper,
             @NotNull Duration duration,
             int randomPercent,
+            boolean binarySerialization,
             @NotNull RedisOperations<String, byte[]> operations
     ) {
         super(
@@ -35,7 +36,8 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
                 tracker,
                 objectMapper,
                 duration,
-                randomPercent
+                randomPercent,
+                binarySerialization
         );
         this.operations = operations;
     }
@@ -118,6 +120,7 @@ public class RedisValueBinder<K, V> extends AbstractRemoteValueBinder<K, V> {
                     objectMapper,
                     duration,
                     randomPercent,
+                    binarySerialization,
                     operations
             );
         }
@@ -0,0 +1,275 @@
+package org.babyfish.jimmer.sql.cache.redisson;
+
+import org.babyfish.jimmer.sql.cache.CacheTracker;
+import org.babyfish.jimmer.sql.cache.KeyTracker;
+import org.jetbrains.annotations.NotNull;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.BaseStatusListener;
+import org.redisson.api.listener.MessageListener;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Key tracker based on Redis pub/sub.
+ *
+ * <p>The keys of each type or property are hashed into buckets and each bucket
+ * has its own channel. A node only subscribes the channels of buckets which
+ * contain its resident keys, and an invalidation is only published to the
+ * channels of the invalidated keys, so the Redis server only delivers it to
+ * the nodes which may hold those keys.</p>
+ *
+ * <p>Redis 6 client-side caching tracks keys by connections, but the connections
+ * of cache binders are pooled and shared, so this tracker uses channels instead.</p>
+ *
+ * <p>The listeners of a channel are added to the server when its first key is
+ * subscribed and removed when its last key is unsubscribed, that happens
+ * outside of any map lock, so a subscriber never blocks others by network I/O.</p>
+ */
+public class RedissonKeyTracker implements KeyTracker {
+
+    private static final String CHANNEL_PREFIX = "_jimmer_:invalidate:";
+
+    private static final int DEFAULT_BUCKET_COUNT = 256;
+
+    private final RedissonClient redissonClient;
+
+    private final int bucketCount;
+
+    private final Map<String, Channel> channelMap = new ConcurrentHashMap<>();
+
+    private final Map<Subscriber, UUID> subscriberIdMap = new WeakHashMap<>();
+
+    public RedissonKeyTracker(RedissonClient redissonClient) {
+        this(redissonClient, DEFAULT_BUCKET_COUNT);
+    }
+
+    /**
+     * @param bucketCount The bucket count of each type or property,
+     *                    larger value means more precise delivery but more channels.
+     */
+    public RedissonKeyTracker(RedissonClient redissonClient, int bucketCount) {
+        if (bucketCount < 1) {
+            throw new IllegalArgumentException("bucketCount must be positive");
+        }
+        this.redissonClient = redissonClient;
+        this.bucketCount = bucketCount;
+    }
+
+    @Override
+    public void subscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys) {
+        for (Object key : keys) {
+            String name = channelName(subscriber, key);
+            while (true) {
+                // Creating channel is local, the server is only accessed by `listen()`
+                Channel channel = channelMap.computeIfAbsent(name, Channel::new);
+                if (channel.subscribe(subscriber, key)) {
+                    channel.listen();
+                    break;
+                }
+                // The channel has been closed by the last unsubscription, retry with a new one
+                channelMap.remove(name, channel);
+            }
+        }
+    }
+
+    @Override
+    public void unsubscribe(@NotNull Subscriber subscriber, @NotNull Collection<?> keys) {
+        for (Object key : keys) {
+            String name = channelName(subscriber, key);
+            Channel channel = channelMap.get(name);
+            if (channel != null && channel.unsubscribe(subscriber, key)) {
+                channelMap.remove(name, channel);
+                channel.close();
+            }
+        }
+    }
+
+    @Override
+    public void publish(@NotNull Subscriber publisher, @NotNull CacheTracker.InvalidateEvent event) {
+        String region = region(event.getType().toString(), event.getProp() != null ? event.getProp().getName() : null);
+        Map<String, List<Object>> idsMap = new LinkedHashMap<>();
+        for (Object id : event.getIds()) {
+            idsMap.computeIfAbsent(channelName(region, id), it -> new ArrayList<>()).add(id);
+        }
+        UUID publisherId = subscriberId(publisher);
+        for (Map.Entry<String, List<Object>> e : idsMap.entrySet()) {
+            CacheTracker.InvalidateEvent bucketEvent = event.getProp() != null ?
+                    new CacheTracker.InvalidateEvent(event.getProp(), e.getValue()) :
+                    new CacheTracker.InvalidateEvent(event.getType(), e.getValue());
+            redissonClient
+                    .getTopic(e.getKey())
+                    .publish(new InvalidateMessage(publisherId, bucketEvent));
+        }
+    }
+
+    // The `trackerId` of message is the id of the publishing subscriber,
+    // so that the other subscribers of the same JVM still receive it
+    private UUID subscriberId(Subscriber subscriber) {
+        synchronized (subscriberIdMap) {
+            return subscriberIdMap.computeIfAbsent(subscriber, it -> UUID.randomUUID());
+        }
+    }
+
+    private String channelName(Subscriber subscriber, Object key) {
+        String region = subscriber.prop() != null ?
+                region(subscriber.prop().getDeclaringType().toString(), subscriber.prop().getName()) :
+                region(Objects.requireNonNull(subscriber.type()).toString(), null);
+        return channelName(region, key);
+    }
+
+    private String channelName(String region, Object key) {
+        int h = key.hashCode();
+        return region + ':' + Math.floorMod(h ^ (h >>> 16), bucketCount);
+    }
+
+    private static String region(String typeName, String propName) {
+        return propName != null ?
+                CHANNEL_PREFIX + typeName + '.' + propName :
+                CHANNEL_PREFIX + typeName;
+    }
+
+    private class Channel {
+
+        private final String name;
+
+        private final RTopic topic;
+
+        // Key -> Subscriber -> Subscription count, copy on write so that
+        // the message listener can read it without lock
+        private final Map<Object, Map<Subscriber, Integer>> subscriberMap = new ConcurrentHashMap<>();
+
+        private final CompletableFuture<int[]> listenerIdsFuture = new CompletableFuture<>();
+
+        private final AtomicBoolean listening = new AtomicBoolean();
+
+        private boolean closed;
+
+        private volatile boolean subscribed;
+
+        Channel(String name) {
+            this.name = name;
+            this.topic = redissonClient.getTopic(name);
+        }
+
+        /**
+         * @return false if this channel has been closed
+         */
+        synchronized boolean subscribe(Subscriber subscriber, Object key) {
+            if (closed) {
+                return false;
+            }
+            subscriberMap.compute(key, (k, countMap) -> {
+                Map<Subscriber, Integer> newCountMap =
+                        countMap != null ? new HashMap<>(countMap) : new HashMap<>();
+                newCountMap.merge(subscriber, 1, Integer::sum);
+                return newCountMap;
+            });
+            return true;
+        }
+
+        /**
+         * @return true if this channel becomes empty and has been closed
+         */
+        synchronized boolean unsubscribe(Subscriber subscriber, Object key) {
+            if (closed) {
+                return false;
+            }
+            subscriberMap.computeIfPresent(key, (k, countMap) -> {
+                Integer count = countMap.get(subscriber);
+                if (count == null) {
+                    return countMap;
+                }
+                Map<Subscriber, Integer> newCountMap = new HashMap<>(countMap);
+                if (count == 1) {
+                    newCountMap.remove(subscriber);
+                } else {
+                    newCountMap.put(subscriber, count - 1);
+                }
+                return newCountMap.isEmpty() ? null : newCountMap;
+            });
+            if (subscriberMap.isEmpty()) {
+                closed = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Adds the listeners to the server once, the other callers
+         * wait for it so that no invalidation is missed after subscribing.
+         */
+        void listen() {
+            if (!listening.compareAndSet(false, true)) {
+                listenerIdsFuture.join();
+                return;
+            }
+            Integer messageListenerId = null;
+            try {
+                messageListenerId = topic.addListener(InvalidateMessage.class, new MessageListener<InvalidateMessage>() {
+                    @Override
+                    public void onMessage(CharSequence channel, InvalidateMessage msg) {
+                        onInvalidate(msg.toEvent().getIds(), msg.trackerId);
+                    }
+                });
+                int statusListenerId = topic.addListener(new BaseStatusListener() {
+                    @Override
+                    public void onSubscribe(String channel) {
+                        if (subscribed) {
+                            onReconnect();
+                        } else {
+                            subscribed = true;
+                        }
+                    }
+                });
+                listenerIdsFuture.complete(new int[] { messageListenerId, statusListenerId });
+            } catch (RuntimeException | Error ex) {
+                synchronized (this) {
+                    closed = true;
+                }
+                channelMap.remove(name, this);
+                if (messageListenerId != null) {
+                    topic.removeListener(messageListenerId);
+                }
+                listenerIdsFuture.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        void close() {
+            int[] listenerIds;
+            try {
+                listenerIds = listenerIdsFuture.join();
+            } catch (CompletionException ex) {
+                return; // Never listened
+            }
+            topic.removeListener(listenerIds[0], listenerIds[1]);
+        }
+
+        private void onInvalidate(Collection<?> ids, UUID publisherId) {
+            Map<Subscriber, List<Object>> keysMap = new LinkedHashMap<>();
+            for (Object id : ids) {
+                Map<Subscriber, Integer> countMap = subscriberMap.get(id);
+                if (countMap != null) {
+                    for (Subscriber subscriber : countMap.keySet()) {
+                        keysMap.computeIfAbsent(subscriber, it -> new ArrayList<>()).add(id);
+                    }
+                }
+            }
+            for (Map.Entry<Subscriber, List<Object>> e : keysMap.entrySet()) {
+                if (publisherId == null || !publisherId.equals(subscriberId(e.getKey()))) {
+                    e.getKey().onInvalidate(e.getValue());
+                }
+            }
+        }
+
+        // Messages may be lost during reconnection, invalidate all keys of this channel
+        private void onReconnect() {
+            onInvalidate(new ArrayList<>(subscriberMap.keySet()), null);
+        }
+    }
+}
@@ -80,6 +80,15 @@ public abstract class AbstractCacheCreator implements CacheCreator {
         );
     }
 
+    @NewChain
+    @NotNull
+    @Override
+    public CacheCreator withBinarySerialization(boolean binary) {
+        return newCacheCreator(
+                new Serialization(cfg, binary)
+        );
+    }
+
     @SuppressWarnings("unchecked")
     protected final <A extends Args> A args() {
         Args args = this.args;
@@ -222,6 +231,16 @@ public abstract class AbstractCacheCreator implements CacheCreator {
         }
     }
 
+    private static class Serialization extends Cfg {
+
+        final boolean binary;
+
+        Serialization(Cfg prev, boolean binary) {
+            super(prev);
+            this.binary = binary;
+        }
+    }
+
     protected static class Args {
 
         public final Duration duration;
@@ -243,6 +262,8 @@ public abstract class AbstractCacheCreator implements CacheCreator {
         public final int multiViewLocalCacheMaximumSize;
         public final Duration multiViewLocalCacheDuration;
 
+        public final boolean binarySerialization;
+
         protected Args(Cfg cfg) {
 
             RemoteDuration remoteDuration = cfg.as(RemoteDuration.class);
@@ -304,6 +325,9 @@ public abstract class AbstractCacheCreator implements CacheCreator {
                                 multiViewProperties.localDuration :
                                 this.localCacheDuration;
             }
+
+            Serialization serialization = cfg.as(Serialization.class);
+            this.binarySerialization = serialization != null && serialization.binary;
         }
     }
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.babyfish.jimmer.jackson.ImmutableModule;
 import org.babyfish.jimmer.meta.ImmutableProp;
 import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.BinaryValueSerializer;
 import org.babyfish.jimmer.sql.cache.CacheTracker;
 import org.babyfish.jimmer.sql.cache.ValueSerializer;
 import org.babyfish.jimmer.sql.cache.chain.LockableBinder;
@@ -35,6 +36,18 @@ abstract class AbstractRemoteBinder<K, V> extends AbstractTrackingProducerBinder
             @Nullable ObjectMapper objectMapper,
             Duration duration,
             int randomPercent
+    ) {
+        this(type, prop, tracker, objectMapper, duration, randomPercent, false);
+    }
+
+    AbstractRemoteBinder(
+            @Nullable ImmutableType type,
+            @Nullable ImmutableProp prop,
+            @Nullable CacheTracker tracker,
+            @Nullable ObjectMapper objectMapper,
+            Duration duration,
+            int randomPercent,
+            boolean binarySerialization
     ) {
         super(type, prop, tracker);
         if (objectMapper != null) {
@@ -61,7 +74,13 @@ abstract class AbstractRemoteBinder<K, V> extends AbstractTrackingProducerBinder
         long millis = duration.toMillis();
         minMills = millis - randomPercent * millis / 100;
         maxMillis = millis + randomPercent * millis / 100;
-        if (type != null) {
+        if (binarySerialization) {
+            if (type != null) {
+                valueSerializer = new BinaryValueSerializer<>(type, objectMapper);
+            } else {
+                valueSerializer = new BinaryValueSerializer<>(prop, objectMapper);
+            }
+        } else if (type != null) {
             valueSerializer = new ValueSerializer<>(type, objectMapper);
         } else {
             valueSerializer = new ValueSerializer<>(prop, objectMapper);
@@ -111,6 +130,7 @@ abstract class AbstractRemoteBinder<K, V> extends AbstractTrackingProducerBinder
         protected ObjectMapper objectMapper;
         protected Duration duration = Duration.ofMinutes(30);
         protected int randomPercent = 30;
+        protected boolean binarySerialization;
 
         protected AbstractBuilder(ImmutableType type, ImmutableProp prop) {
             this.type = type;
@@ -129,6 +149,15 @@ abstract class AbstractRemoteBinder<K, V> extends AbstractTrackingProducerBinder
             return (B)this;
         }
 
+        /**
+         * Serialize cached values by {@link BinaryValueSerializer} instead of JSON.
+         */
+        @SuppressWarnings("unchecked")
+        public B binarySerialization(boolean binarySerialization) {
+            this.binarySerialization = binarySerialization;
+            return (B)this;
+        }
+
         @SuppressWarnings("unchecked")
         public B duration(Duration duration) {
             this.duration = duration;
@@ -28,6 +28,18 @@ public abstract class AbstractRemoteHashBinder<K, V>
         super(type, prop, tracker, objectMapper, duration, randomPercent);
     }
 
+    protected AbstractRemoteHashBinder(
+            @Nullable ImmutableType type,
+            @Nullable ImmutableProp prop,
+            @Nullable CacheTracker tracker,
+            @Nullable ObjectMapper objectMapper,
+            Duration duration,
+            int randomPercent,
+            boolean binarySerialization
+    ) {
+        super(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization);
+    }
+
     @Override
     public final Map<K, V> getAll(Collection<K> keys) {
         return getAll(keys, Collections.emptySortedMap());
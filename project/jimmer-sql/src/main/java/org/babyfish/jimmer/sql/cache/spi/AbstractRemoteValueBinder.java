@@ -25,6 +25,18 @@ public abstract class AbstractRemoteValueBinder<K, V>
         super(type, prop, tracker, objectMapper, duration, randomPercent);
     }
 
+    protected AbstractRemoteValueBinder(
+            @Nullable ImmutableType type,
+            @Nullable ImmutableProp prop,
+            @Nullable CacheTracker tracker,
+            @Nullable ObjectMapper objectMapper,
+            Duration duration,
+            int randomPercent,
+            boolean binarySerialization
+    ) {
+        super(type, prop, tracker, objectMapper, duration, randomPercent, binarySerialization);
+    }
+
     @Override
     public final Map<K, V> getAll(Collection<K> keys) {
         Collection<String> redisKeys = serializedKeys(keys);
@@ -23,8 +23,10 @@ import org.babyfish.jimmer.sql.event.binlog.BinLog;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.filter.FilterConfig;
 import org.babyfish.jimmer.sql.filter.Filters;
+import org.babyfish.jimmer.sql.loader.LoadCoalescer;
 import org.babyfish.jimmer.sql.loader.graphql.Loaders;
 import org.babyfish.jimmer.sql.meta.*;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.runtime.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -404,10 +406,64 @@ public abstract class AbstractJSqlClientDelegate implements JSqlClientImplemento
         return sqlClient().isExpandedInListPaddingEnabled();
     }
 
+    @Override
+    public boolean isInListToAnyEqualityEnabled() {
+        return sqlClient().isInListToAnyEqualityEnabled();
+    }
+
     public int getOffsetOptimizingThreshold() {
         return sqlClient().getOffsetOptimizingThreshold();
     }
 
+    @Override
+    public @Nullable PreparedStatementCache getPreparedStatementCache() {
+        return sqlClient().getPreparedStatementCache();
+    }
+
+    @Override
+    public int getMaxInvestigationRowCount() {
+        return sqlClient().getMaxInvestigationRowCount();
+    }
+
+    @Override
+    public @Nullable java.time.Duration getInvestigationTimeout() {
+        return sqlClient().getInvestigationTimeout();
+    }
+
+    @Override
+    public @Nullable SqlMetrics getMetrics() {
+        return sqlClient().getMetrics();
+    }
+
+    @Nullable
+    @Override
+    public java.util.concurrent.Executor getParallelFetchingExecutor() {
+        return sqlClient().getParallelFetchingExecutor();
+    }
+
+    @Nullable
+    @Override
+    public PageCountExecutor getPageCountExecutor() {
+        return sqlClient().getPageCountExecutor();
+    }
+
+    @Override
+    public long getApproximatePageCountThreshold() {
+        return sqlClient().getApproximatePageCountThreshold();
+    }
+
+    @Nullable
+    @Override
+    public LoadCoalescer getLoadCoalescer() {
+        return sqlClient().getLoadCoalescer();
+    }
+
+    @Nullable
+    @Override
+    public JdbcDispatcher getJdbcDispatcher() {
+        return sqlClient().getJdbcDispatcher();
+    }
+
     @Override
     public LockMode getDefaultLockMode() {
         return sqlClient().getDefaultLockMode();
@@ -0,0 +1,80 @@
+package org.babyfish.jimmer.sql.dialect;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The constraint violation parsed from the error message of database,
+ * see {@link Dialect#parseConstraintViolation(java.sql.SQLException)}.
+ */
+public final class ConstraintViolation {
+
+    private final Kind kind;
+
+    private final String constraintName;
+
+    private final List<String> columnNames;
+
+    private final List<String> values;
+
+    /**
+     * @param kind The kind of the violated constraint
+     * @param constraintName The name of the violated constraint, null if it is unknown
+     * @param columnNames The columns of the violated constraint, empty if they are unknown
+     * @param values The text of the violating values. If the columns are known,
+     *               it matches the columns one by one; otherwise, it contains one
+     *               element which is the text of all values joined by '-',
+     *               as reported by MySQL. Empty if the values are unknown.
+     */
+    public ConstraintViolation(
+            Kind kind,
+            @Nullable String constraintName,
+            List<String> columnNames,
+            List<String> values
+    ) {
+        if (!columnNames.isEmpty() && !values.isEmpty() && columnNames.size() != values.size()) {
+            throw new IllegalArgumentException(
+                    "The size of `values` must be equal to the size of `columnNames`"
+            );
+        }
+        this.kind = Objects.requireNonNull(kind, "`kind` cannot be null");
+        this.constraintName = constraintName;
+        this.columnNames = Collections.unmodifiableList(columnNames);
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    @Nullable
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "ConstraintViolation{" +
+                "kind=" + kind +
+                ", constraintName='" + constraintName + '\'' +
+                ", columnNames=" + columnNames +
+                ", values=" + values +
+                '}';
+    }
+
+    public enum Kind {
+        UNIQUE,
+        FOREIGN_KEY
+    }
+}
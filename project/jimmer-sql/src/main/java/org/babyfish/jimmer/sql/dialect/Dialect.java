@@ -7,6 +7,7 @@ import org.babyfish.jimmer.sql.exception.ExecutionException;
 import org.babyfish.jimmer.sql.runtime.Reader;
 import org.jetbrains.annotations.Nullable;
 
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
@@ -102,10 +103,127 @@ public interface Dialect extends SqlTypeStrategy {
         );
     }
 
+    default String cacheOutboxTableDDL() {
+        throw new UnsupportedOperationException(
+                "The current dialect \"" +
+                        getClass().getName() +
+                        "\" does not know how to create table `JIMMER_CACHE_OUTBOX`"
+        );
+    }
+
+    /**
+     * The DDL to create the index on {@code JIMMER_CACHE_OUTBOX.TX_ID},
+     * every committed transaction deletes its rows by that column.
+     *
+     * @return The DDL, or null if the index has been created by
+     * {@link #cacheOutboxTableDDL()}
+     */
+    @Nullable
+    default String cacheOutboxIndexDDL() {
+        return null;
+    }
+
     default int getMaxInListSize() {
         return 1000;
     }
 
+    /**
+     * The max count of the JDBC parameters of one statement,
+     * it limits the row count of a multi-row insert statement.
+     */
+    default int getMaxVariableCount() {
+        return 32767;
+    }
+
+    /**
+     * The SQL to query the max size of the packet accepted by the server,
+     * or null if the size of statement is not limited by packet.
+     */
+    @Nullable
+    default String getMaxPacketSizeSql() {
+        return null;
+    }
+
+    /**
+     * The SQL which asks the planner to estimate the row count of a query
+     * without executing it, or null if the estimation is not supported.
+     *
+     * @param sql The query to be estimated, the JDBC parameters of it
+     *            must be kept by the returned SQL
+     * @see #readRowCountEstimation(ResultSet)
+     */
+    @Nullable
+    default String getRowCountEstimationSql(String sql) {
+        return null;
+    }
+
+    /**
+     * Whether {@link #getRowCountEstimationSql(String)} is supported,
+     * it is checked before the query to be estimated is rendered.
+     */
+    default boolean isRowCountEstimationSupported() {
+        return getRowCountEstimationSql("select 1") != null;
+    }
+
+    /**
+     * Read the estimated row count from the result of {@link #getRowCountEstimationSql(String)}
+     */
+    default long readRowCountEstimation(ResultSet rs) throws SQLException {
+        throw new UnsupportedOperationException(
+                "The current dialect \"" +
+                        getClass().getName() +
+                        "\" does not support row count estimation"
+        );
+    }
+
+    /**
+     * The JDBC fetch size of the statements of streaming queries,
+     * it must make the JDBC driver read the rows by cursor
+     * instead of loading all of them into memory.
+     *
+     * @param batchSize The chunk size of the streaming query
+     */
+    default int getStreamingFetchSize(int batchSize) {
+        return batchSize;
+    }
+
+    /**
+     * Whether the JDBC driver reads the rows of streaming queries by cursor
+     * only when the auto-commit of the connection is disabled.
+     */
+    default boolean isStreamingAutoCommitForbidden() {
+        return false;
+    }
+
+    /**
+     * Whether the connection of a streaming query cannot execute other statements,
+     * such as the queries of object fetchers, until the stream is closed.
+     */
+    default boolean isStreamingConnectionExclusive() {
+        return false;
+    }
+
+    /**
+     * Whether rows can be streamed into a table by {@link #copyIn(Connection, String, java.io.Reader)}
+     */
+    default boolean isCopyInSupported() {
+        return false;
+    }
+
+    /**
+     * Stream rows of the text format into a table.
+     *
+     * @param sql The statement such as {@code copy table(columns) from stdin}
+     * @return The inserted row count
+     */
+    default long copyIn(Connection con, String sql, java.io.Reader reader) throws SQLException {
+        throw new UnsupportedOperationException(
+                "The current dialect \"" +
+                        getClass().getName() +
+                        "\" does not support copy in"
+        );
+    }
+
     @Override
     default String arrayTypeSuffix() {
         return "[]";
@@ -143,6 +261,20 @@ public interface Dialect extends SqlTypeStrategy {
         return false;
     }
 
+    /**
+     * Parse the error message of a constraint violation. It is used by save commands
+     * when the investigation queries of a failed batch statement exceed the limits
+     * of {@link org.babyfish.jimmer.sql.JSqlClient.Builder#setMaxInvestigationRowCount(int)}
+     * and {@link org.babyfish.jimmer.sql.JSqlClient.Builder#setInvestigationTimeout(java.time.Duration)}.
+     *
+     * @param ex The exception raised by database, or one of its next exceptions
+     * @return The parsed constraint violation, or null if the message is not supported
+     */
+    @Nullable
+    default ConstraintViolation parseConstraintViolation(SQLException ex) {
+        return null;
+    }
+
     void update(UpdateContext ctx);
 
     void upsert(UpsertContext ctx);
@@ -115,6 +115,23 @@ public class H2Dialect extends DefaultDialect {
                 ")";
     }
 
+    @Override
+    public String cacheOutboxTableDDL() {
+        return "create table JIMMER_CACHE_OUTBOX(" +
+                "ID identity not null primary key," +
+                "TX_ID varchar(36) not null," +
+                "IMMUTABLE_TYPE varchar," +
+                "IMMUTABLE_PROP varchar," +
+                "REASON varchar," +
+                "CACHE_KEYS clob not null" +
+                ")";
+    }
+
+    @Override
+    public String cacheOutboxIndexDDL() {
+        return "create index IDX_JIMMER_CACHE_OUTBOX_TX_ID on JIMMER_CACHE_OUTBOX(TX_ID)";
+    }
+
     @Override
     public boolean isIdFetchableByKeyUpdate() {
         return true;
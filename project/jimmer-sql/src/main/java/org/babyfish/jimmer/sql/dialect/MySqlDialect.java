@@ -1,16 +1,33 @@
 package org.babyfish.jimmer.sql.dialect;
 
 import org.babyfish.jimmer.sql.ast.impl.render.AbstractSqlBuilder;
+import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
+import org.jetbrains.annotations.Nullable;
 
 import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * For MySQL or TiDB
  */
 public class MySqlDialect extends DefaultDialect {
 
+    private static final Pattern DUPLICATE_ENTRY_PATTERN = Pattern.compile(
+            "Duplicate entry '(.*)' for key '([^']+)'"
+    );
+
+    private static final Pattern FOREIGN_KEY_PATTERN = Pattern.compile(
+            "CONSTRAINT `([^`]+)` FOREIGN KEY \\(([^)]+)\\)"
+    );
+
     @Override
     public void paginate(PaginationContext ctx) {
         ctx
@@ -165,6 +182,75 @@ public class MySqlDialect extends DefaultDialect {
         }
     }
 
+    /**
+     * Without {@code useCursorFetch=true}, MySQL driver streams the rows
+     * only when the fetch size is {@link Integer#MIN_VALUE}
+     */
+    @Override
+    public int getStreamingFetchSize(int batchSize) {
+        return Integer.MIN_VALUE;
+    }
+
+    @Override
+    public boolean isStreamingConnectionExclusive() {
+        return true;
+    }
+
+    @Override
+    public int getMaxVariableCount() {
+        return 65535;
+    }
+
+    /**
+     * Parse the error message of duplicate entry(1062), such as
+     * {@code Duplicate entry 'GraphQL in Action-1' for key 'book.business_key'},
+     * or the error message of foreign key(1452) which does not contain the value.
+     */
+    @Nullable
+    @Override
+    public ConstraintViolation parseConstraintViolation(SQLException ex) {
+        String message = ex.getMessage();
+        if (message == null) {
+            return null;
+        }
+        if (ex.getErrorCode() == 1062) {
+            Matcher matcher = DUPLICATE_ENTRY_PATTERN.matcher(message);
+            if (!matcher.find()) {
+                return null;
+            }
+            String keyName = matcher.group(2);
+            return new ConstraintViolation(
+                    ConstraintViolation.Kind.UNIQUE,
+                    // MySQL 8 reports the key name with the table name
+                    keyName.substring(keyName.lastIndexOf('.') + 1),
+                    Collections.emptyList(),
+                    Collections.singletonList(matcher.group(1))
+            );
+        }
+        if (ex.getErrorCode() == 1452) {
+            Matcher matcher = FOREIGN_KEY_PATTERN.matcher(message);
+            if (!matcher.find()) {
+                return null;
+            }
+            List<String> columnNames = new ArrayList<>();
+            for (String columnName : matcher.group(2).split(",")) {
+                columnNames.add(DatabaseIdentifiers.rawIdentifier(columnName.trim()));
+            }
+            return new ConstraintViolation(
+                    ConstraintViolation.Kind.FOREIGN_KEY,
+                    matcher.group(1),
+                    columnNames,
+                    Collections.emptyList()
+            );
+        }
+        return null;
+    }
+
+    @Override
+    public String getMaxPacketSizeSql() {
+        return "select @@max_allowed_packet";
+    }
+
     @Override
     public String transCacheOperatorTableDDL() {
         return "create table JIMMER_TRANS_CACHE_OPERATOR(\n" +
@@ -175,4 +261,38 @@ public class MySqlDialect extends DefaultDialect {
                 "\tREASON varchar(32)\n" +
                 ") engine=innodb";
     }
+
+    @Override
+    public String getRowCountEstimationSql(String sql) {
+        return "explain " + sql;
+    }
+
+    @Override
+    public long readRowCountEstimation(ResultSet rs) throws SQLException {
+        // The rows of the outermost select are joined, multiply their estimations
+        double estimation = 0;
+        boolean first = true;
+        while (rs.next()) {
+            if (rs.getLong("id") != 1L || rs.wasNull()) {
+                continue;
+            }
+            double rows = rs.getLong("rows") * rs.getDouble("filtered") / 100;
+            estimation = first ? rows : estimation * rows;
+            first = false;
+        }
+        return (long) estimation;
+    }
+
+    @Override
+    public String cacheOutboxTableDDL() {
+        return "create table JIMMER_CACHE_OUTBOX(\n" +
+                "\tID bigint unsigned not null auto_increment primary key,\n" +
+                "\tTX_ID char(36) not null,\n" +
+                "\tIMMUTABLE_TYPE varchar(128),\n" +
+                "\tIMMUTABLE_PROP varchar(128),\n" +
+                "\tREASON varchar(32),\n" +
+                "\tCACHE_KEYS longtext not null,\n" +
+                "\tindex IDX_JIMMER_CACHE_OUTBOX_TX_ID(TX_ID)\n" +
+                ") engine=innodb";
+    }
 }
@@ -131,4 +131,21 @@ public class OracleDialect extends DefaultDialect {
                 "\tREASON varchar2(32)\n" +
                 ")";
     }
+
+    @Override
+    public String cacheOutboxTableDDL() {
+        return "create table JIMMER_CACHE_OUTBOX(\n" +
+                "\tID number generated always as identity primary key,\n" +
+                "\tTX_ID char(36) not null,\n" +
+                "\tIMMUTABLE_TYPE varchar2(128),\n" +
+                "\tIMMUTABLE_PROP varchar2(128),\n" +
+                "\tREASON varchar2(32),\n" +
+                "\tCACHE_KEYS clob not null\n" +
+                ")";
+    }
+
+    @Override
+    public String cacheOutboxIndexDDL() {
+        return "create index IDX_JIMMER_CACHE_OUTBOX_TX_ID on JIMMER_CACHE_OUTBOX(TX_ID)";
+    }
 }
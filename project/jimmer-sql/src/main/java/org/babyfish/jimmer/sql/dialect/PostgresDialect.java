@@ -3,18 +3,33 @@ package org.babyfish.jimmer.sql.dialect;
 import org.babyfish.jimmer.impl.util.Classes;
 import org.babyfish.jimmer.sql.ast.impl.render.AbstractSqlBuilder;
 import org.babyfish.jimmer.sql.ast.impl.value.ValueGetter;
+import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
 import org.babyfish.jimmer.sql.runtime.Reader;
 import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
 import org.postgresql.util.PGobject;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class PostgresDialect extends DefaultDialect {
 
+    private static final Pattern PLAN_ROWS_PATTERN = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+    private static final Pattern CONSTRAINT_VIOLATION_PATTERN = Pattern.compile(
+            "violates (unique|foreign key) constraint \"([^\"]+)\"" +
+                    "(?s:.*?)Key \\((.+?)\\)=\\((.*?)\\) (?:already exists|is not present)"
+    );
+
     private static final Reader<PGobject> PG_OBJECT_READER = new Reader<PGobject>() {
         @Override
         public PGobject read(ResultSet rs, Context ctx) throws SQLException {
@@ -183,6 +198,69 @@ public class PostgresDialect extends DefaultDialect {
         return true;
     }
 
+    /**
+     * Parse the "Detail" of error message, such as
+     * {@code Key (name, edition)=(GraphQL in Action, 1) already exists}
+     */
+    @Nullable
+    @Override
+    public ConstraintViolation parseConstraintViolation(SQLException ex) {
+        String message = ex.getMessage();
+        if (message == null) {
+            return null;
+        }
+        Matcher matcher = CONSTRAINT_VIOLATION_PATTERN.matcher(message);
+        if (!matcher.find()) {
+            return null;
+        }
+        List<String> columnNames = new ArrayList<>();
+        for (String columnName : matcher.group(3).split(",")) {
+            columnNames.add(DatabaseIdentifiers.rawIdentifier(columnName.trim()));
+        }
+        List<String> values;
+        if (columnNames.size() == 1) {
+            values = Collections.singletonList(matcher.group(4));
+        } else {
+            values = Arrays.asList(matcher.group(4).split(", ", -1));
+            if (values.size() != columnNames.size()) {
+                // Some values contain ", ", they cannot be split
+                values = Collections.emptyList();
+            }
+        }
+        return new ConstraintViolation(
+                matcher.group(1).equals("unique") ?
+                        ConstraintViolation.Kind.UNIQUE :
+                        ConstraintViolation.Kind.FOREIGN_KEY,
+                matcher.group(2),
+                columnNames,
+                values
+        );
+    }
+
+    @Override
+    public int getMaxVariableCount() {
+        return 65535;
+    }
+
+    @Override
+    public boolean isStreamingAutoCommitForbidden() {
+        return true;
+    }
+
+    @Override
+    public boolean isCopyInSupported() {
+        return true;
+    }
+
+    @Override
+    public long copyIn(Connection con, String sql, java.io.Reader reader) throws SQLException {
+        try {
+            return con.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, reader);
+        } catch (IOException ex) {
+            throw new SQLException("Cannot copy rows into database", ex);
+        }
+    }
+
     @Override
     public void update(UpdateContext ctx) {
         if (!ctx.isUpdatedByKey()) {
@@ -258,4 +336,36 @@ public class PostgresDialect extends DefaultDialect {
                "\tREASON text\n" +
                ")";
     }
+
+    @Override
+    public String getRowCountEstimationSql(String sql) {
+        return "explain (format json) " + sql;
+    }
+
+    @Override
+    public long readRowCountEstimation(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return 0L;
+        }
+        // The first "Plan Rows" belongs to the root plan node
+        Matcher matcher = PLAN_ROWS_PATTERN.matcher(rs.getString(1));
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    @Override
+    public String cacheOutboxTableDDL() {
+        return "create table JIMMER_CACHE_OUTBOX(\n" +
+               "\tID bigint generated always as identity primary key,\n" +
+               "\tTX_ID text not null,\n" +
+               "\tIMMUTABLE_TYPE text,\n" +
+               "\tIMMUTABLE_PROP text,\n" +
+               "\tREASON text,\n" +
+               "\tCACHE_KEYS text not null\n" +
+               ")";
+    }
+
+    @Override
+    public String cacheOutboxIndexDDL() {
+        return "create index IDX_JIMMER_CACHE_OUTBOX_TX_ID on JIMMER_CACHE_OUTBOX(TX_ID)";
+    }
 }
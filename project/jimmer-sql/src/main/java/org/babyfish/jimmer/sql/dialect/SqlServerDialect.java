@@ -74,4 +74,9 @@ public class SqlServerDialect extends DefaultDialect {
                 .variable(ctx.getLimit())
                 .sql(" rows only");
     }
+
+    @Override
+    public int getMaxVariableCount() {
+        return 2000;
+    }
 }
@@ -1,7 +1,22 @@
 package org.babyfish.jimmer.sql.event;
 
+import java.util.List;
+
 @FunctionalInterface
 public interface AssociationListener {
 
     void onChange(AssociationEvent e);
+
+    /**
+     * Receives the events fired together, for example,
+     * the events of one save command.
+     *
+     * <p>By default, each event is passed to {@link #onChange(AssociationEvent)},
+     * override it to handle the events in batch.</p>
+     */
+    default void onChanges(List<AssociationEvent> events) {
+        for (AssociationEvent e : events) {
+            onChange(e);
+        }
+    }
 }
@@ -1,7 +1,22 @@
 package org.babyfish.jimmer.sql.event;
 
+import java.util.List;
+
 @FunctionalInterface
 public interface EntityListener<E> {
 
     void onChange(EntityEvent<E> e);
+
+    /**
+     * Receives the events fired together, for example,
+     * the events of one save command.
+     *
+     * <p>By default, each event is passed to {@link #onChange(EntityEvent)},
+     * override it to handle the events in batch.</p>
+     */
+    default void onChanges(List<EntityEvent<E>> events) {
+        for (EntityEvent<E> e : events) {
+            onChange(e);
+        }
+    }
 }
@@ -74,4 +74,13 @@ public interface Triggers {
     void fireAssociationEvict(ImmutableProp prop, Object sourceId, Connection con, Object reason);
 
     boolean isTransaction();
+
+    /**
+     * Events fired by the block are not delivered immediately,
+     * each listener receives them by one {@code onChanges} call
+     * after the block is executed.
+     */
+    default void batch(Runnable block) {
+        block.run();
+    }
 }
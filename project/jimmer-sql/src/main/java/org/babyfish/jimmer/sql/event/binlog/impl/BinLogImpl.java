@@ -3,6 +3,7 @@ package org.babyfish.jimmer.sql.event.binlog.impl;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.sql.association.meta.AssociationType;
+import org.babyfish.jimmer.sql.cache.OutboxCacheOperator;
 import org.babyfish.jimmer.sql.cache.TransactionCacheOperator;
 import org.babyfish.jimmer.sql.event.Triggers;
 import org.babyfish.jimmer.sql.event.binlog.BinLog;
@@ -21,7 +22,8 @@ public class BinLogImpl implements BinLog {
 
     private static final Set<String> EXCLUDED_TABLE_NAMES =
             standardTableNames(
-                    TransactionCacheOperator.TABLE_NAME
+                    TransactionCacheOperator.TABLE_NAME,
+                    OutboxCacheOperator.TABLE_NAME
             );
 
     private final EntityManager entityManager;
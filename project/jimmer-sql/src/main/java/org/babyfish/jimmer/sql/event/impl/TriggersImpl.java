@@ -10,17 +10,31 @@ import org.babyfish.jimmer.sql.event.*;
 import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
 
 public class TriggersImpl implements Triggers {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(TriggersImpl.class);
+
     private final boolean transaction;
 
+    private final java.util.concurrent.Executor dispatchExecutor;
+
+    private final Semaphore pendingBatchPermits;
+
+    private final ThreadLocal<Dispatch> dispatchLocal = new ThreadLocal<>();
+
+    private final ThreadLocal<Boolean> asyncDeliveringLocal = new ThreadLocal<>();
+
     private JSqlClientImplementor sqlClient;
 
     private final CopyOnWriteArrayList<EntityListener<ImmutableSpi>> globalEntityListeners =
@@ -36,7 +50,30 @@ public class TriggersImpl implements Triggers {
             new ConcurrentHashMap<>();
 
     public TriggersImpl(boolean transaction) {
+        this(transaction, null, 0);
+    }
+
+    /**
+     * @param dispatchExecutor If it is not null, the events without connection
+     *                         are delivered to listeners by this executor.
+     *                         The events of transaction triggers are always
+     *                         delivered by the current thread because the
+     *                         listeners may use the connection.
+     * @param maxPendingBatches The max count of the batches which are submitted
+     *                          to the executor but not delivered, the thread fires
+     *                          events is blocked if it is exceeded.
+     */
+    public TriggersImpl(
+            boolean transaction,
+            @Nullable java.util.concurrent.Executor dispatchExecutor,
+            int maxPendingBatches
+    ) {
+        if (dispatchExecutor != null && maxPendingBatches < 1) {
+            throw new IllegalArgumentException("maxPendingBatches must be positive");
+        }
         this.transaction = transaction;
+        this.dispatchExecutor = transaction ? null : dispatchExecutor;
+        this.pendingBatchPermits = this.dispatchExecutor != null ? new Semaphore(maxPendingBatches) : null;
     }
 
     public void initialize(JSqlClientImplementor sqlClient) {
@@ -152,26 +189,13 @@ public class TriggersImpl implements Triggers {
             throw new IllegalArgumentException("newRow must be immutable");
         }
         EntityEvent<ImmutableSpi> event = new EntityEvent<>((ImmutableSpi)oldRow, (ImmutableSpi) newRow, con, reason);
-        List<EntityListener<ImmutableSpi>> listeners = entityListeners(event.getImmutableType());
-        Throwable throwable = null;
-        if (!listeners.isEmpty()) {
-            for (EntityListener<ImmutableSpi> listener : listeners) {
-                try {
-                    listener.onChange(event);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable =ex;
-                    }
-                }
+        batch(() -> {
+            Dispatch dispatch = dispatchLocal.get();
+            for (EntityListener<ImmutableSpi> listener : entityListeners(event.getImmutableType())) {
+                dispatch.add(listener, event);
             }
-        }
-        throwable = fireAssociationEventByEntityEvent(event, throwable);
-        if (throwable instanceof RuntimeException) {
-            throw (RuntimeException)throwable;
-        }
-        if (throwable != null) {
-            throw (Error)throwable;
-        }
+            addAssociationEventByEntityEvent(event);
+        });
     }
 
     @Override
@@ -188,37 +212,24 @@ public class TriggersImpl implements Triggers {
         ImmutableProp inverseProp = prop.getOpposite();
         List<AssociationListener> listeners = associationListeners(prop);
         List<AssociationListener> inverseListeners = associationListeners(inverseProp);
-        Throwable throwable = null;
-        if (!listeners.isEmpty()) {
-            AssociationEvent e = new AssociationEvent(prop, sourceId, targetId, null, con, reason);
-            for (AssociationListener listener : listeners) {
-                try {
-                    listener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
+        if (listeners.isEmpty() && inverseListeners.isEmpty()) {
+            return;
+        }
+        batch(() -> {
+            Dispatch dispatch = dispatchLocal.get();
+            if (!listeners.isEmpty()) {
+                AssociationEvent e = new AssociationEvent(prop, sourceId, targetId, null, con, reason);
+                for (AssociationListener listener : listeners) {
+                    dispatch.add(listener, e);
                 }
             }
-        }
-        if (!inverseListeners.isEmpty()) {
-            AssociationEvent e = new AssociationEvent(inverseProp, targetId, sourceId, null, con, reason);
-            for (AssociationListener inverseListener : inverseListeners) {
-                try {
-                    inverseListener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
+            if (!inverseListeners.isEmpty()) {
+                AssociationEvent e = new AssociationEvent(inverseProp, targetId, sourceId, null, con, reason);
+                for (AssociationListener inverseListener : inverseListeners) {
+                    dispatch.add(inverseListener, e);
                 }
             }
-        }
-        if (throwable instanceof RuntimeException) {
-            throw (RuntimeException)throwable;
-        }
-        if (throwable != null) {
-            throw (Error)throwable;
-        }
+        });
     }
 
     @Override
@@ -235,37 +246,24 @@ public class TriggersImpl implements Triggers {
         ImmutableProp inverseProp = prop.getOpposite();
         List<AssociationListener> listeners = associationListeners(prop);
         List<AssociationListener> inverseListeners = associationListeners(inverseProp);
-        Throwable throwable = null;
-        if (!listeners.isEmpty()) {
-            AssociationEvent e = new AssociationEvent(prop, sourceId, null, targetId, con, reason);
-            for (AssociationListener listener : listeners) {
-                try {
-                    listener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
+        if (listeners.isEmpty() && inverseListeners.isEmpty()) {
+            return;
+        }
+        batch(() -> {
+            Dispatch dispatch = dispatchLocal.get();
+            if (!listeners.isEmpty()) {
+                AssociationEvent e = new AssociationEvent(prop, sourceId, null, targetId, con, reason);
+                for (AssociationListener listener : listeners) {
+                    dispatch.add(listener, e);
                 }
             }
-        }
-        if (!inverseListeners.isEmpty()) {
-            AssociationEvent e = new AssociationEvent(inverseProp, targetId, null, sourceId, con, reason);
-            for (AssociationListener inverseListener : inverseListeners) {
-                try {
-                    inverseListener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
+            if (!inverseListeners.isEmpty()) {
+                AssociationEvent e = new AssociationEvent(inverseProp, targetId, null, sourceId, con, reason);
+                for (AssociationListener inverseListener : inverseListeners) {
+                    dispatch.add(inverseListener, e);
                 }
             }
-        }
-        if (throwable instanceof RuntimeException) {
-            throw (RuntimeException)throwable;
-        }
-        if (throwable != null) {
-            throw (Error)throwable;
-        }
+        });
     }
 
     @Override
@@ -276,24 +274,14 @@ public class TriggersImpl implements Triggers {
         }
         List<EntityListener<ImmutableSpi>> listeners = entityListeners(type);
         if (!listeners.isEmpty()) {
-            Throwable throwable = null;
             EntityEvent<ImmutableSpi> e = EntityEvent.evict(type, sourceId, con, reason);
-            for (EntityListener<ImmutableSpi> listener : listeners) {
-                try {
-                    listener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
+            batch(() -> {
+                Dispatch dispatch = dispatchLocal.get();
+                for (EntityListener<ImmutableSpi> listener : listeners) {
+                    dispatch.add(listener, e);
                 }
-            }
-            throwable = fireAssociationEventByEntityEvent(e, throwable);
-            if (throwable instanceof RuntimeException) {
-                throw (RuntimeException)throwable;
-            }
-            if (throwable != null) {
-                throw (Error)throwable;
-            }
+                addAssociationEventByEntityEvent(e);
+            });
         }
     }
 
@@ -305,23 +293,70 @@ public class TriggersImpl implements Triggers {
         }
         List<AssociationListener> listeners = associationListeners(prop);
         if (!listeners.isEmpty()) {
-            Throwable throwable = null;
             AssociationEvent e = new AssociationEvent(prop, sourceId, con, reason);
-            for (AssociationListener listener : listeners) {
+            batch(() -> {
+                Dispatch dispatch = dispatchLocal.get();
+                for (AssociationListener listener : listeners) {
+                    dispatch.add(listener, e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void batch(Runnable block) {
+        if (dispatchLocal.get() != null) {
+            block.run();
+            return;
+        }
+        Dispatch dispatch = new Dispatch();
+        dispatchLocal.set(dispatch);
+        try {
+            block.run();
+        } finally {
+            dispatchLocal.remove();
+        }
+        if (dispatch.isEmpty()) {
+            return;
+        }
+        if (dispatchExecutor != null && asyncDeliveringLocal.get() == null) {
+            deliverAsync(dispatch);
+            return;
+        }
+        Throwable throwable = dispatch.deliver();
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException)throwable;
+        }
+        if (throwable != null) {
+            throw (Error)throwable;
+        }
+    }
+
+    private void deliverAsync(Dispatch dispatch) {
+        try {
+            pendingBatchPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted when waiting for the delivery of pending events", ex);
+        }
+        try {
+            dispatchExecutor.execute(() -> {
+                // Events fired by listeners are delivered by this thread,
+                // otherwise the pending batches may wait for each other
+                asyncDeliveringLocal.set(Boolean.TRUE);
                 try {
-                    listener.onChange(e);
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
+                    Throwable throwable = dispatch.deliver();
+                    if (throwable != null) {
+                        LOGGER.error("Failed to deliver events to listeners", throwable);
                     }
+                } finally {
+                    asyncDeliveringLocal.remove();
+                    pendingBatchPermits.release();
                 }
-            }
-            if (throwable instanceof RuntimeException) {
-                throw (RuntimeException)throwable;
-            }
-            if (throwable != null) {
-                throw (Error)throwable;
-            }
+            });
+        } catch (RuntimeException | Error ex) {
+            pendingBatchPermits.release();
+            throw ex;
         }
     }
 
@@ -355,7 +390,8 @@ public class TriggersImpl implements Triggers {
         return transaction;
     }
 
-    private Throwable fireAssociationEventByEntityEvent(EntityEvent<?> event, Throwable throwable) {
+    private void addAssociationEventByEntityEvent(EntityEvent<?> event) {
+        Dispatch dispatch = dispatchLocal.get();
         ImmutableType type = event.getImmutableType();
         if (!event.isEvict()) {
             for (ImmutableProp prop : type.getProps().values()) {
@@ -374,38 +410,20 @@ public class TriggersImpl implements Triggers {
                         if (!listeners.isEmpty()) {
                             AssociationEvent e = new AssociationEvent(prop, childId, oldFk, newFk, con, reason);
                             for (AssociationListener listener : listeners) {
-                                try {
-                                    listener.onChange(e);
-                                } catch (RuntimeException | Error ex) {
-                                    if (throwable == null) {
-                                        throwable = ex;
-                                    }
-                                }
+                                dispatch.add(listener, e);
                             }
                         }
                         if (!inverseListeners.isEmpty()) {
                             if (oldFk != null) {
                                 AssociationEvent e = new AssociationEvent(inverseProp, oldFk, childId, null, con, reason);
                                 for (AssociationListener inverseListener : inverseListeners) {
-                                    try {
-                                        inverseListener.onChange(e);
-                                    } catch (RuntimeException | Error ex) {
-                                        if (throwable == null) {
-                                            throwable = ex;
-                                        }
-                                    }
+                                    dispatch.add(inverseListener, e);
                                 }
                             }
                             if (newFk != null) {
                                 AssociationEvent e = new AssociationEvent(inverseProp, newFk, null, childId, con, reason);
                                 for (AssociationListener inverseListener : inverseListeners) {
-                                    try {
-                                        inverseListener.onChange(e);
-                                    } catch (RuntimeException | Error ex) {
-                                        if (throwable == null) {
-                                            throwable = ex;
-                                        }
-                                    }
+                                    dispatch.add(inverseListener, e);
                                 }
                             }
                         }
@@ -434,16 +452,9 @@ public class TriggersImpl implements Triggers {
             }
             List<?> backRefIds = BackRefIds.findBackRefIds(sqlClient, backProp, event.getId(), event.getConnection());
             for (Object backRefId : backRefIds) {
-                try {
-                    fireAssociationEvict(backProp, backRefId, event.getConnection());
-                } catch (RuntimeException | Error ex) {
-                    if (throwable == null) {
-                        throwable = ex;
-                    }
-                }
+                fireAssociationEvict(backProp, backRefId, event.getConnection());
             }
         }
-        return throwable;
     }
 
     private JSqlClientImplementor sqlClient() {
@@ -456,4 +467,51 @@ public class TriggersImpl implements Triggers {
         }
         return sqlClient;
     }
+
+    /**
+     * Events collected by a batch, grouped by listeners
+     */
+    private static class Dispatch {
+
+        private final Map<EntityListener<ImmutableSpi>, List<EntityEvent<ImmutableSpi>>> entityEventMap =
+                new LinkedHashMap<>();
+
+        private final Map<AssociationListener, List<AssociationEvent>> associationEventMap =
+                new LinkedHashMap<>();
+
+        void add(EntityListener<ImmutableSpi> listener, EntityEvent<ImmutableSpi> e) {
+            entityEventMap.computeIfAbsent(listener, it -> new ArrayList<>()).add(e);
+        }
+
+        void add(AssociationListener listener, AssociationEvent e) {
+            associationEventMap.computeIfAbsent(listener, it -> new ArrayList<>()).add(e);
+        }
+
+        boolean isEmpty() {
+            return entityEventMap.isEmpty() && associationEventMap.isEmpty();
+        }
+
+        Throwable deliver() {
+            Throwable throwable = null;
+            for (Map.Entry<EntityListener<ImmutableSpi>, List<EntityEvent<ImmutableSpi>>> e : entityEventMap.entrySet()) {
+                try {
+                    e.getKey().onChanges(Collections.unmodifiableList(e.getValue()));
+                } catch (RuntimeException | Error ex) {
+                    if (throwable == null) {
+                        throwable = ex;
+                    }
+                }
+            }
+            for (Map.Entry<AssociationListener, List<AssociationEvent>> e : associationEventMap.entrySet()) {
+                try {
+                    e.getKey().onChanges(Collections.unmodifiableList(e.getValue()));
+                } catch (RuntimeException | Error ex) {
+                    if (throwable == null) {
+                        throwable = ex;
+                    }
+                }
+            }
+            return throwable;
+        }
+    }
 }
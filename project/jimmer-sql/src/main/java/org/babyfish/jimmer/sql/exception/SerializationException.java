@@ -2,6 +2,10 @@ package org.babyfish.jimmer.sql.exception;
 
 public class SerializationException extends RuntimeException {
 
+    public SerializationException(String message) {
+        super(message);
+    }
+
     public SerializationException(Throwable cause) {
         super(cause);
     }
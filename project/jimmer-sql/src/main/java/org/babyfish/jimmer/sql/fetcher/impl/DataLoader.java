@@ -2,6 +2,7 @@ package org.babyfish.jimmer.sql.fetcher.impl;
 
 import org.babyfish.jimmer.sql.loader.AbstractDataLoader;
 import org.babyfish.jimmer.sql.fetcher.Field;
+import org.babyfish.jimmer.sql.loader.LoaderStrategy;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.sql.Connection;
@@ -9,12 +10,23 @@ import java.sql.Connection;
 public class DataLoader extends AbstractDataLoader {
 
     public DataLoader(JSqlClientImplementor sqlClient, Connection con, FetchPath path, Field field) {
+        this(sqlClient, con, path, field, null);
+    }
+
+    public DataLoader(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            FetchPath path,
+            Field field,
+            LoaderStrategy strategy
+    ) {
         super(
                 sqlClient,
                 con,
                 field.getEntityType(),
                 path,
                 field.getProp(),
+                strategy,
                 field.getChildFetcher(true),
                 field.getRecursionStrategy(),
                 field.getFilter(),
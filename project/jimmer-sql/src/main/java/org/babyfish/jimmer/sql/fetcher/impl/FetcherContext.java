@@ -2,20 +2,30 @@ package org.babyfish.jimmer.sql.fetcher.impl;
 
 import org.babyfish.jimmer.meta.*;
 import org.babyfish.jimmer.runtime.DraftSpi;
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.Field;
 import org.babyfish.jimmer.sql.fetcher.RecursionStrategy;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 
 class FetcherContext {
 
     private static final ThreadLocal<FetcherContext> FETCHER_CONTEXT_LOCAL = new ThreadLocal<>();
 
+    // Nested fetching of a parallel branch is executed by the branch thread itself
+    private static final ThreadLocal<Boolean> PARALLEL_BRANCH_LOCAL = new ThreadLocal<>();
+
     private final JSqlClientImplementor sqlClient;
 
     private final Connection con;
@@ -49,46 +59,48 @@ class FetcherContext {
     }
 
     public void addAll(FetchPath path, Fetcher<?> fetcher, Collection<@Nullable DraftSpi> drafts) {
+        FetcherImplementor<?> fetcherImplementor = (FetcherImplementor<?>) fetcher;
+        FetcherPlan plan = fetcherImplementor.__plan(sqlClient);
         for (DraftSpi draft : drafts) {
             if (draft != null) {
-                add(path, fetcher, draft);
+                add(path, fetcherImplementor, plan, draft);
             }
         }
     }
 
     @SuppressWarnings("unchecked")
-    private void add(FetchPath path, Fetcher<?> fetcher, DraftSpi draft) {
-        FetcherImplementor<?> fetcherImplementor = (FetcherImplementor<?>) fetcher;
-        setVisibility(draft, (FetcherImplementor<?>) fetcher);
-        for (Field field : fetcherImplementor.__unresolvedFieldMap().values()) {
-            if (!field.isSimpleField() ||
-                    (!field.isRawId() &&
-                    sqlClient.getFilters().getFilter(field.getProp().getTargetType()) != null)
+    private void add(FetchPath path, FetcherImplementor<?> fetcher, FetcherPlan plan, DraftSpi draft) {
+        setVisibility(draft, fetcher);
+        for (FetcherPlan.FieldPlan fieldPlan : plan.getFieldPlans()) {
+            Field field = fieldPlan.getField();
+            RecursionStrategy<?> recursionStrategy = field.getRecursionStrategy();
+            if (recursionStrategy != null &&
+                    !((RecursionStrategy<Object>) recursionStrategy).isRecursive(
+                            new RecursionStrategy.Args<>(draft, 0)
+                    )
             ) {
-                RecursionStrategy<?> recursionStrategy = field.getRecursionStrategy();
-                if (recursionStrategy != null &&
-                        !((RecursionStrategy<Object>) recursionStrategy).isRecursive(
-                                new RecursionStrategy.Args<>(draft, 0)
-                        )
-                ) {
-                    return;
-                }
-                FetcherTask task = taskMap.computeIfAbsent(new FetchedField(path, field), it ->
-                        new FetcherTask(
-                                cache,
-                                sqlClient,
-                                con,
-                                path,
-                                field
-                        )
-                );
-                task.add(draft);
+                return;
             }
+            FetcherTask task = taskMap.computeIfAbsent(new FetchedField(path, field), it ->
+                    new FetcherTask(
+                            cache,
+                            sqlClient,
+                            con,
+                            path,
+                            fieldPlan
+                    )
+            );
+            task.add(draft);
         }
     }
 
     public void execute() {
+        Executor parallelExecutor = parallelExecutor();
         while (!taskMap.isEmpty()) {
+            if (parallelExecutor != null && taskMap.size() > 1) {
+                executeConcurrently(parallelExecutor);
+                continue;
+            }
             Iterator<Map.Entry<FetchedField, FetcherTask>> itr = taskMap.entrySet().iterator();
             Map.Entry<FetchedField, FetcherTask> e = itr.next();
             if (e.getValue().execute()) {
@@ -97,6 +109,94 @@ class FetcherContext {
         }
     }
 
+    @Nullable
+    private Executor parallelExecutor() {
+        Executor executor = sqlClient.getParallelFetchingExecutor();
+        if (executor == null || PARALLEL_BRANCH_LOCAL.get() != null) {
+            return null;
+        }
+        try {
+            if (!con.getAutoCommit()) {
+                return null;
+            }
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot get the auto-commit mode of the connection", ex);
+        }
+        return executor;
+    }
+
+    /**
+     * Execute one round of all tasks, the drafts are only accessed by the current thread,
+     * only the data loading of the tasks is executed by the parallel executor.
+     *
+     * <p>Drafts cannot be read by other threads, because reading an association of a draft
+     * modifies its draft context. So the branches only receive the frozen ids and foreign keys
+     * taken by the current thread, the loaded values are applied by the current thread after
+     * all branches are finished.</p>
+     */
+    private void executeConcurrently(Executor executor) {
+        List<FetcherTask.Round> rounds = new ArrayList<>(taskMap.size());
+        List<FetcherTask.Round> loadRounds = new ArrayList<>(taskMap.size());
+        for (FetcherTask task : taskMap.values()) {
+            FetcherTask.Round round = task.prepare();
+            if (round != null) {
+                rounds.add(round);
+                if (round.isLoadRequired()) {
+                    loadRounds.add(round);
+                }
+            }
+        }
+        Map<FetcherTask.Round, Map<ImmutableSpi, ?>> loadedMaps = new IdentityHashMap<>();
+        if (loadRounds.size() == 1) {
+            FetcherTask.Round round = loadRounds.get(0);
+            loadedMaps.put(round, round.load(null));
+        } else if (!loadRounds.isEmpty()) {
+            ConnectionManager connectionManager = sqlClient.getSlaveConnectionManager(false);
+            List<CompletableFuture<Map<ImmutableSpi, ?>>> futures = new ArrayList<>(loadRounds.size());
+            for (FetcherTask.Round round : loadRounds) {
+                round.detach();
+            }
+            for (FetcherTask.Round round : loadRounds) {
+                futures.add(
+                        CompletableFuture.supplyAsync(
+                                () -> connectionManager.executeBranch(con, branchCon -> {
+                                    PARALLEL_BRANCH_LOCAL.set(Boolean.TRUE);
+                                    try {
+                                        return round.load(branchCon);
+                                    } finally {
+                                        PARALLEL_BRANCH_LOCAL.remove();
+                                    }
+                                }),
+                                executor
+                        )
+                );
+            }
+            Throwable throwable = null;
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    loadedMaps.put(loadRounds.get(i), futures.get(i).join());
+                } catch (CompletionException ex) {
+                    if (throwable == null) {
+                        throwable = ex.getCause() != null ? ex.getCause() : ex;
+                    }
+                }
+            }
+            if (throwable instanceof RuntimeException) {
+                throw (RuntimeException) throwable;
+            }
+            if (throwable instanceof Error) {
+                throw (Error) throwable;
+            }
+            if (throwable != null) {
+                throw new ExecutionException("Failed to fetch associations concurrently", throwable);
+            }
+        }
+        for (FetcherTask.Round round : rounds) {
+            round.complete(loadedMaps.get(round));
+        }
+        taskMap.values().removeIf(FetcherTask::isDone);
+    }
+
     static void setVisibility(DraftSpi draft, FetcherImplementor<?> fetcher) {
         for (PropId shownPropId : fetcher.__shownPropIds()) {
             draft.__show(shownPropId, true);
@@ -7,6 +7,7 @@ import org.babyfish.jimmer.sql.fetcher.FieldFilter;
 import org.babyfish.jimmer.sql.ast.table.Table;
 import org.babyfish.jimmer.sql.fetcher.*;
 import org.babyfish.jimmer.sql.meta.FormulaTemplate;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.util.*;
 import java.util.function.Consumer;
@@ -16,6 +17,8 @@ import static java.util.stream.Collectors.toList;
 
 public class FetcherImpl<E> implements FetcherImplementor<E> {
 
+    private static final int MAX_PLAN_COUNT = 8;
+
     final FetcherImpl<E> prev;
 
     private final ImmutableType immutableType;
@@ -50,6 +53,8 @@ public class FetcherImpl<E> implements FetcherImplementor<E> {
 
     private Boolean isSimpleFetcher;
 
+    private transient volatile Map<FetcherPlan.Key, FetcherPlan> planMap = Collections.emptyMap();
+
     private transient int hash;
 
     public FetcherImpl(Class<E> javaClass) {
@@ -635,6 +640,32 @@ public class FetcherImpl<E> implements FetcherImplementor<E> {
         return isSimple;
     }
 
+    @Override
+    public FetcherPlan __plan(JSqlClientImplementor sqlClient) {
+        FetcherPlan.Key key = new FetcherPlan.Key(sqlClient);
+        Map<FetcherPlan.Key, FetcherPlan> planMap = this.planMap;
+        if (planMap == null) { // Deserialized fetcher
+            planMap = Collections.emptyMap();
+        }
+        FetcherPlan plan = planMap.get(key);
+        if (plan == null) {
+            plan = new FetcherPlan(this, sqlClient, key);
+            // Copy on write, the plans are rarely created.
+            // Few filter states are used by one application,
+            // but `filters(...)` can be called for each request,
+            // so the oldest plan is discarded when the map is full
+            Map<FetcherPlan.Key, FetcherPlan> newPlanMap = new LinkedHashMap<>(planMap);
+            if (newPlanMap.size() >= MAX_PLAN_COUNT) {
+                Iterator<FetcherPlan.Key> itr = newPlanMap.keySet().iterator();
+                itr.next();
+                itr.remove();
+            }
+            newPlanMap.put(key, plan);
+            this.planMap = newPlanMap;
+        }
+        return plan;
+    }
+
     protected FetcherImpl<E> createFetcher(ImmutableProp prop, boolean negative, IdOnlyFetchType idOnlyFetchType) {
         return new FetcherImpl<>(this, prop, negative, idOnlyFetchType);
     }
@@ -7,6 +7,7 @@ import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.Field;
 import org.babyfish.jimmer.sql.fetcher.FieldConfig;
 import org.babyfish.jimmer.sql.fetcher.IdOnlyFetchType;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
 
 import java.util.List;
 import java.util.Map;
@@ -65,4 +66,10 @@ public interface FetcherImplementor<E> extends Fetcher<E> {
     List<PropId> __shownPropIds();
 
     List<PropId> __hiddenPropIds();
+
+    /**
+     * Get the compiled plan of this fetcher for the filter state of the sql client,
+     * it is created only once and reused by later executions.
+     */
+    FetcherPlan __plan(JSqlClientImplementor sqlClient);
 }
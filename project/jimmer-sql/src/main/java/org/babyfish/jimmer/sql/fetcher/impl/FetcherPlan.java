@@ -0,0 +1,227 @@
+package org.babyfish.jimmer.sql.fetcher.impl;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.sql.cache.Caches;
+import org.babyfish.jimmer.sql.fetcher.Field;
+import org.babyfish.jimmer.sql.filter.Filters;
+import org.babyfish.jimmer.sql.loader.LoaderStrategy;
+import org.babyfish.jimmer.sql.meta.MetadataStrategy;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The compiled form of one fetcher node.
+ *
+ * <p>Everything which can be derived from the fetcher and the filter state of sql client
+ * is calculated only once, so that it is not derived again for each execution,
+ * each object and each round of {@link FetcherContext}.</p>
+ *
+ * <p>Fetcher is immutable and filters of sql client are immutable too
+ * (methods such as {@code filters(...)} create new sql clients),
+ * so the plans are remembered by the fetcher, keyed by the {@link Key}
+ * which describes the filter state of sql client,
+ * a fetcher shared by sql clients with different filters keeps one plan for each of them.
+ * The plans of child fetchers are remembered by the child fetchers.</p>
+ */
+public final class FetcherPlan {
+
+    private final Key key;
+
+    private final Filters filters;
+
+    private final int defaultBatchSize;
+
+    private final int defaultListBatchSize;
+
+    private final boolean fetchRequired;
+
+    private final List<FieldPlan> fieldPlans;
+
+    FetcherPlan(FetcherImplementor<?> fetcher, JSqlClientImplementor sqlClient, Key key) {
+        Filters filters = sqlClient.getFilters();
+        this.key = key;
+        this.filters = filters;
+        this.defaultBatchSize = sqlClient.getDefaultBatchSize();
+        this.defaultListBatchSize = sqlClient.getDefaultListBatchSize();
+        this.fetchRequired = !fetcher.__isSimpleFetcher() ||
+                hasReferenceFilter(fetcher.getImmutableType(), filters);
+        List<FieldPlan> fieldPlans = new ArrayList<>();
+        for (Field field : fetcher.__unresolvedFieldMap().values()) {
+            if (!field.isSimpleField()) {
+                fieldPlans.add(new FieldPlan(this, field, sqlClient));
+            } else if (!field.isRawId() && filters.getFilter(field.getProp().getTargetType()) != null) {
+                fieldPlans.add(new FieldPlan(this, field, sqlClient));
+            }
+        }
+        this.fieldPlans = fieldPlans.isEmpty() ?
+                Collections.emptyList() :
+                Collections.unmodifiableList(fieldPlans);
+    }
+
+    Key getKey() {
+        return key;
+    }
+
+    /**
+     * @return Whether the objects of this fetcher need to be handled by {@link FetcherContext},
+     * it is false if all fields are simple and no reference is affected by filters
+     */
+    public boolean isFetchRequired() {
+        return fetchRequired;
+    }
+
+    /**
+     * @return The fields loaded by {@link FetcherTask}
+     */
+    public List<FieldPlan> getFieldPlans() {
+        return fieldPlans;
+    }
+
+    @Override
+    public String toString() {
+        return "FetcherPlan{" +
+                "fetchRequired=" + fetchRequired +
+                ", fieldPlans=" + fieldPlans +
+                '}';
+    }
+
+    private static boolean hasReferenceFilter(ImmutableType type, Filters filters) {
+        for (ImmutableProp prop : type.getSelectableReferenceProps().values()) {
+            if (filters.getTargetFilter(prop) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static final class FieldPlan {
+
+        private final Field field;
+
+        private final int batchSize;
+
+        private final boolean targetFiltered;
+
+        private final LoaderStrategy loaderStrategy;
+
+        private FieldPlan(FetcherPlan parent, Field field, JSqlClientImplementor sqlClient) {
+            ImmutableProp prop = field.getProp();
+            this.field = field;
+            int size = field.getBatchSize();
+            if (size == 0) {
+                size = prop.isReferenceList(TargetLevel.PERSISTENT) ?
+                        parent.defaultListBatchSize :
+                        parent.defaultBatchSize;
+            }
+            this.batchSize = size;
+            this.targetFiltered = prop.getTargetType() != null &&
+                    parent.filters.getFilter(prop.getTargetType()) != null;
+            this.loaderStrategy =
+                    prop.getDependencies().isEmpty() &&
+                            (prop.isAssociation(TargetLevel.PERSISTENT) || prop.hasTransientResolver()) ?
+                    LoaderStrategy.of(sqlClient, prop) :
+                    null;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * @return Whether the loaded associated objects must be reloaded
+         * because they may be not filtered
+         */
+        public boolean isTargetFiltered() {
+            return targetFiltered;
+        }
+
+        /**
+         * @return The storage, global filter, transient resolver and property cache
+         * used by the data loader of this field,
+         * or null if the field cannot be loaded by data loader
+         */
+        @Nullable
+        public LoaderStrategy getLoaderStrategy() {
+            return loaderStrategy;
+        }
+
+        @Override
+        public String toString() {
+            return "FieldPlan{" +
+                    "field=" + field +
+                    ", batchSize=" + batchSize +
+                    ", targetFiltered=" + targetFiltered +
+                    ", loaderStrategy=" + loaderStrategy +
+                    '}';
+        }
+    }
+
+    /**
+     * The state of sql client which affects the plan.
+     *
+     * <p>Filters, caches and resolvers are compared by identity,
+     * they are immutable and shared by the sql clients created by same builder,
+     * until they are changed by methods such as {@code filters(...)} and {@code caches(...)}.</p>
+     */
+    static final class Key {
+
+        private final Filters filters;
+
+        private final Caches caches;
+
+        private final MetadataStrategy metadataStrategy;
+
+        private final Object transientResolverProvider;
+
+        private final int defaultBatchSize;
+
+        private final int defaultListBatchSize;
+
+        Key(JSqlClientImplementor sqlClient) {
+            this.filters = sqlClient.getFilters();
+            this.caches = sqlClient.getCaches();
+            this.metadataStrategy = sqlClient.getMetadataStrategy();
+            this.transientResolverProvider = sqlClient.getTransientResolverProvider();
+            this.defaultBatchSize = sqlClient.getDefaultBatchSize();
+            this.defaultListBatchSize = sqlClient.getDefaultListBatchSize();
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(filters);
+            result = 31 * result + System.identityHashCode(caches);
+            result = 31 * result + System.identityHashCode(metadataStrategy);
+            result = 31 * result + System.identityHashCode(transientResolverProvider);
+            result = 31 * result + defaultBatchSize;
+            result = 31 * result + defaultListBatchSize;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return filters == other.filters &&
+                    caches == other.caches &&
+                    metadataStrategy == other.metadataStrategy &&
+                    transientResolverProvider == other.transientResolverProvider &&
+                    defaultBatchSize == other.defaultBatchSize &&
+                    defaultListBatchSize == other.defaultListBatchSize;
+        }
+    }
+}
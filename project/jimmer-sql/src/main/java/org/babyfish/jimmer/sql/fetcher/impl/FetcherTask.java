@@ -1,17 +1,19 @@
 package org.babyfish.jimmer.sql.fetcher.impl;
 
-import org.babyfish.jimmer.meta.EmbeddedLevel;
-import org.babyfish.jimmer.meta.ImmutableProp;
-import org.babyfish.jimmer.meta.PropId;
-import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.ImmutableObjects;
+import org.babyfish.jimmer.meta.*;
 import org.babyfish.jimmer.runtime.DraftContext;
 import org.babyfish.jimmer.runtime.DraftSpi;
 import org.babyfish.jimmer.runtime.ImmutableSpi;
 import org.babyfish.jimmer.runtime.Internal;
+import org.babyfish.jimmer.sql.ast.impl.util.IdCollections;
 import org.babyfish.jimmer.sql.fetcher.Fetcher;
 import org.babyfish.jimmer.sql.fetcher.Field;
 import org.babyfish.jimmer.sql.fetcher.RecursionStrategy;
+import org.babyfish.jimmer.sql.loader.LoaderStrategy;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.util.*;
@@ -27,22 +29,38 @@ class FetcherTask {
 
     private final int batchSize;
 
+    private final boolean targetFiltered;
+
+    private final LoaderStrategy loaderStrategy;
+
     private final DataLoader dataLoader;
 
-    private Map<Object, TaskData> pendingMap = new LinkedHashMap<>();
+    private final FetchPath parentPath;
+
+    private final FetchPath path;
+
+    private Map<Object, TaskData> pendingMap;
+
+    private int round;
 
     public FetcherTask(
             FetchingCache cache,
             JSqlClientImplementor sqlClient,
             Connection con,
             FetchPath path,
-            Field field
+            FetcherPlan.FieldPlan fieldPlan
     ) {
+        Field field = fieldPlan.getField();
         this.cache = cache;
         this.sqlClient = sqlClient;
         this.field = field;
-        this.batchSize = determineBatchSize();
-        this.dataLoader = new DataLoader(sqlClient, con, path, field);
+        this.batchSize = fieldPlan.getBatchSize();
+        this.targetFiltered = fieldPlan.isTargetFiltered();
+        this.loaderStrategy = fieldPlan.getLoaderStrategy();
+        this.pendingMap = createPendingMap();
+        this.dataLoader = new DataLoader(sqlClient, con, path, field, loaderStrategy);
+        this.parentPath = path;
+        this.path = FetchPath.of(path, field.getProp());
     }
 
     public void add(DraftSpi draft) {
@@ -66,9 +84,32 @@ class FetcherTask {
     }
 
     public boolean execute() {
+        Round round = prepare();
+        if (round != null) {
+            round.complete(round.isLoadRequired() ? round.load(null) : null);
+        }
+        return pendingMap.isEmpty();
+    }
+
+    public boolean isDone() {
+        return pendingMap.isEmpty();
+    }
+
+    /**
+     * Take the next batch of pending keys and apply the values of fetching cache.
+     *
+     * <p>This method, {@link Round#detach()} and {@link Round#complete(Map)} access drafts,
+     * so they must be invoked by the thread which owns the drafts, even reading a draft
+     * is not thread-safe because it may convert associated objects to drafts.
+     * Only {@link Round#load(Connection)} of a detached round can be invoked by other threads.</p>
+     */
+    @Nullable
+    Round prepare() {
         if (pendingMap.isEmpty()) {
-            return true;
+            return null;
         }
+        SqlMetrics metrics = sqlClient.getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0L;
         Map<Object, TaskData> handledMap;
         if (pendingMap.size() > batchSize) {
             Iterator<Map.Entry<Object, TaskData>> itr =
@@ -87,7 +128,14 @@ class FetcherTask {
             }
         } else {
             handledMap = this.pendingMap;
-            pendingMap = new LinkedHashMap<>();
+            pendingMap = createPendingMap();
+        }
+        int keyCount = handledMap.size();
+        int depth = 1;
+        if (metrics != null) {
+            for (TaskData taskData : handledMap.values()) {
+                depth = Math.max(depth, taskData.getDepth());
+            }
         }
         Iterator<Map.Entry<Object, TaskData>> handledEntryItr =
                 handledMap.entrySet().iterator();
@@ -102,21 +150,26 @@ class FetcherTask {
                 handledEntryItr.remove();
             }
         }
-        if (!handledMap.isEmpty()) {
-            Map<ImmutableSpi, ?> loadedMap = dataLoader.load(
-                    handledMap
-                            .values()
-                            .stream()
-                            .map(it -> it.getDrafts().get(0))
-                            .collect(Collectors.toList())
-            );
-            for (Map.Entry<Object, TaskData> e : handledMap.entrySet()) {
-                TaskData taskData = e.getValue();
-                Object value = loadedMap.get(taskData.getDrafts().get(0));
-                afterLoad(taskData, value, true);
-            }
+        return new Round(
+                handledMap,
+                handledMap
+                        .values()
+                        .stream()
+                        .map(it -> it.getDrafts().get(0))
+                        .collect(Collectors.toList()),
+                keyCount,
+                depth,
+                start
+        );
+    }
+
+    // Keys are foreign keys for the properties based on foreign key, otherwise, ids
+    private Map<Object, TaskData> createPendingMap() {
+        ImmutableProp prop = field.getProp();
+        if (prop.isColumnDefinition()) {
+            return new LinkedHashMap<>();
         }
-        return pendingMap.isEmpty();
+        return IdCollections.newIdMap(prop.getDeclaringType(), 0);
     }
 
     private boolean isLoaded(DraftSpi draft) {
@@ -126,7 +179,7 @@ class FetcherTask {
         Fetcher<?> childFetcher = field.getChildFetcher(true);
         Object childValue = draft.__get(field.getProp().getId());
         if (childFetcher != null && childValue != null) {
-            if (sqlClient.getFilters().getFilter(field.getProp().getTargetType()) != null) {
+            if (targetFiltered) {
                 return false;
             }
             for (Field childField : childFetcher.getFieldMap().values()) {
@@ -188,17 +241,6 @@ class FetcherTask {
         }
     }
 
-    private int determineBatchSize() {
-        int size = field.getBatchSize();
-        if (size == 0) {
-            if (field.getProp().isReferenceList(TargetLevel.PERSISTENT)) {
-                return sqlClient.getDefaultListBatchSize();
-            }
-            return sqlClient.getDefaultBatchSize();
-        }
-        return size;
-    }
-
     private void setDraftProp(DraftSpi draft, Object value, Field field) {
         PropId propId = field.getProp().getId();
         if (value == null && field.getProp().isReferenceList(TargetLevel.ENTITY)) {
@@ -232,6 +274,104 @@ class FetcherTask {
         }
     }
 
+    class Round {
+
+        private final Map<Object, TaskData> handledMap;
+
+        private final List<ImmutableSpi> sources;
+
+        private final int keyCount;
+
+        private final int depth;
+
+        private final long start;
+
+        private List<ImmutableSpi> loadedSources;
+
+        private Round(
+                Map<Object, TaskData> handledMap,
+                List<ImmutableSpi> sources,
+                int keyCount,
+                int depth,
+                long start
+        ) {
+            this.handledMap = handledMap;
+            this.sources = sources;
+            this.keyCount = keyCount;
+            this.depth = depth;
+            this.start = start;
+            this.loadedSources = sources;
+        }
+
+        boolean isLoadRequired() {
+            return !handledMap.isEmpty();
+        }
+
+        /**
+         * Replace the draft sources by frozen objects which only contain what
+         * the data loader reads: the id and the foreign key of the fetched property.
+         *
+         * <p>It must be invoked by the thread which owns the drafts
+         * before {@link #load(Connection)} is invoked by another thread.</p>
+         */
+        void detach() {
+            ImmutableProp prop = field.getProp();
+            ImmutableType type = prop.getDeclaringType();
+            PropId idPropId = type.getIdProp().getId();
+            PropId fkPropId = prop.isColumnDefinition() && prop.isReference(TargetLevel.PERSISTENT) ?
+                    prop.getId() :
+                    null;
+            ImmutableType targetType = prop.getTargetType();
+            loadedSources = Internal.requiresNewDraftContext(ctx -> {
+                List<ImmutableSpi> detachedSources = new ArrayList<>(sources.size());
+                for (ImmutableSpi source : sources) {
+                    DraftSpi draft = (DraftSpi) Internal.createDraft(ctx, type, null);
+                    draft.__set(idPropId, source.__get(idPropId));
+                    if (fkPropId != null && source.__isLoaded(fkPropId)) {
+                        ImmutableSpi target = (ImmutableSpi) source.__get(fkPropId);
+                        draft.__set(
+                                fkPropId,
+                                target != null ?
+                                        ImmutableObjects.makeIdOnly(
+                                                targetType,
+                                                target.__get(targetType.getIdProp().getId())
+                                        ) :
+                                        null
+                        );
+                    }
+                    detachedSources.add(ctx.resolveObject(draft));
+                }
+                return Collections.unmodifiableList(detachedSources);
+            });
+        }
+
+        /**
+         * @param con The connection of other thread,
+         *            null means the connection of this task
+         */
+        Map<ImmutableSpi, ?> load(@Nullable Connection con) {
+            DataLoader loader = con != null ?
+                    new DataLoader(sqlClient, con, parentPath, field, loaderStrategy) :
+                    dataLoader;
+            return loader.load(loadedSources);
+        }
+
+        void complete(@Nullable Map<ImmutableSpi, ?> loadedMap) {
+            if (loadedMap != null) {
+                // `loadedSources` is created by the `values()` of `handledMap`, with the same order
+                Iterator<ImmutableSpi> sourceItr = loadedSources.iterator();
+                for (TaskData taskData : handledMap.values()) {
+                    Object value = loadedMap.get(sourceItr.next());
+                    afterLoad(taskData, value, true);
+                }
+            }
+            SqlMetrics metrics = sqlClient.getMetrics();
+            if (metrics != null) {
+                metrics.recordFetch(path, ++round, depth, keyCount, System.nanoTime() - start);
+            }
+        }
+    }
+
     private static class TaskData {
 
         private final Object key;
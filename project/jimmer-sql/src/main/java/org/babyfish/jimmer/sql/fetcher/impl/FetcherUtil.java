@@ -1,7 +1,5 @@
 package org.babyfish.jimmer.sql.fetcher.impl;
 
-import org.babyfish.jimmer.meta.ImmutableProp;
-import org.babyfish.jimmer.meta.ImmutableType;
 import org.babyfish.jimmer.runtime.DraftSpi;
 import org.babyfish.jimmer.runtime.Internal;
 import org.babyfish.jimmer.sql.ast.Selection;
@@ -17,6 +15,22 @@ public class FetcherUtil {
 
     private FetcherUtil() {}
 
+    /**
+     * Whether {@link #fetch(JSqlClientImplementor, Connection, List, List)}
+     * executes other statements to load the selected objects.
+     */
+    public static boolean isFetchRequired(JSqlClientImplementor sqlClient, List<Selection<?>> selections) {
+        for (Selection<?> selection : selections) {
+            if (selection instanceof FetcherSelection<?>) {
+                Fetcher<?> fetcher = ((FetcherSelection<?>) selection).getFetcher();
+                if (((FetcherImplementor<?>)fetcher).__plan(sqlClient).isFetchRequired()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     public static void fetch(
             JSqlClientImplementor sqlClient,
@@ -35,8 +49,7 @@ public class FetcherUtil {
             if (selection instanceof FetcherSelection<?>) {
                 FetcherSelection<?> fetcherSelection = (FetcherSelection<?>) selection;
                 Fetcher<?> fetcher = fetcherSelection.getFetcher();
-                if (!((FetcherImplementor<?>)fetcher).__isSimpleFetcher() ||
-                        hasReferenceFilter(fetcher.getImmutableType(), sqlClient) ||
+                if (((FetcherImplementor<?>)fetcher).__plan(sqlClient).isFetchRequired() ||
                         fetcherSelection.getConverter() != null) {
                     columnMap.put(i, new ArrayList<>());
                 }
@@ -59,7 +72,7 @@ public class FetcherUtil {
             List<Object> fetchedList = e.getValue();
             FetcherSelection<?> selection = (FetcherSelection<?>) selections.get(columnIndex);
             Fetcher<?> fetcher = selection.getFetcher();
-            if (!((FetcherImplementor<?>)fetcher).__isSimpleFetcher() || hasReferenceFilter(fetcher.getImmutableType(), sqlClient)) {
+            if (((FetcherImplementor<?>)fetcher).__plan(sqlClient).isFetchRequired()) {
                 fetchedList = Internal.produceList(
                         selection.getFetcher().getImmutableType(),
                         fetchedList,
@@ -113,13 +126,4 @@ public class FetcherUtil {
             }
         });
     }
-
-    private static boolean hasReferenceFilter(ImmutableType type, JSqlClientImplementor sqlClient) {
-        for (ImmutableProp prop : type.getSelectableReferenceProps().values()) {
-            if (sqlClient.getFilters().getTargetFilter(prop) != null) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
\ No newline at end of file
@@ -105,6 +105,14 @@ public class FilterManager implements Filters {
         return cache.get(type);
     }
 
+    /**
+     * @return Whether the filter of the type has been resolved,
+     * it never resolves the filter.
+     */
+    public boolean isCached(ImmutableType type, boolean shardingOnly) {
+        return shardingOnly ? shardingOnlyCache.isCached(type) : cache.isCached(type);
+    }
+
     @Override
     public Filter<Props> getTargetFilter(TypedProp.Association<?, ?> prop, boolean shardingOnly) {
         return getTargetFilter(prop.unwrap(), shardingOnly);
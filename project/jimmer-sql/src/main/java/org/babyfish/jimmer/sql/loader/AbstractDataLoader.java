@@ -17,6 +17,7 @@ import org.babyfish.jimmer.sql.ast.impl.query.MergedTypedRootQueryImpl;
 import org.babyfish.jimmer.sql.ast.impl.query.Queries;
 import org.babyfish.jimmer.sql.ast.impl.table.FetcherSelectionImpl;
 import org.babyfish.jimmer.sql.ast.impl.table.TableImplementor;
+import org.babyfish.jimmer.sql.ast.impl.util.IdCollections;
 import org.babyfish.jimmer.sql.ast.query.MutableQuery;
 import org.babyfish.jimmer.sql.ast.query.Sortable;
 import org.babyfish.jimmer.sql.ast.query.TypedRootQuery;
@@ -35,11 +36,16 @@ import org.babyfish.jimmer.sql.filter.CacheableFilter;
 import org.babyfish.jimmer.sql.filter.Filter;
 import org.babyfish.jimmer.sql.meta.ColumnDefinition;
 import org.babyfish.jimmer.sql.meta.Storage;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.babyfish.jimmer.sql.runtime.ConnectionManager;
 import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
 import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.babyfish.jimmer.sql.runtime.RoutingConnectionManager;
+import org.babyfish.jimmer.sql.runtime.ShardingConnectionManager;
 
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -58,6 +64,8 @@ public abstract class AbstractDataLoader {
 
     private final ImmutableProp prop;
 
+    private final LoaderStrategy strategy;
+
     private final Storage storage;
 
     private final boolean remote;
@@ -80,6 +88,39 @@ public abstract class AbstractDataLoader {
 
     private final FetcherImplementor<ImmutableSpi> fetcher;
 
+    protected AbstractDataLoader(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            ImmutableType entityType,
+            FetchPath path,
+            ImmutableProp prop,
+            Fetcher<?> fetcher,
+            RecursionStrategy<?> parentRecursionStrategy,
+            FieldFilter<?> propFilter,
+            int limit,
+            int offset,
+            boolean rawValue
+    ) {
+        this(
+                sqlClient,
+                con,
+                entityType,
+                path,
+                prop,
+                null,
+                fetcher,
+                parentRecursionStrategy,
+                propFilter,
+                limit,
+                offset,
+                rawValue
+        );
+    }
+
+    /**
+     * @param strategy The strategy remembered by the compiled plan of sql client,
+     *                 or null if it should be derived by this loader.
+     */
     @SuppressWarnings("unchecked")
     protected AbstractDataLoader(
             JSqlClientImplementor sqlClient,
@@ -87,6 +128,7 @@ public abstract class AbstractDataLoader {
             ImmutableType entityType,
             FetchPath path,
             ImmutableProp prop,
+            LoaderStrategy strategy,
             Fetcher<?> fetcher,
             RecursionStrategy<?> parentRecursionStrategy,
             FieldFilter<?> propFilter,
@@ -156,15 +198,15 @@ public abstract class AbstractDataLoader {
         this.con = con;
         this.path = FetchPath.of(path, prop);
         this.prop = prop;
-        this.storage = prop.getStorage(sqlClient.getMetadataStrategy());
+        if (strategy == null) {
+            strategy = LoaderStrategy.of(sqlClient, prop);
+        }
+        this.strategy = strategy;
+        this.storage = strategy.getStorage();
         this.remote = prop.isRemote();
         this.sourceIdProp = prop.getDeclaringType().getIdProp();
         this.targetIdProp = prop.getTargetType() != null ? prop.getTargetType().getIdProp() : null;
-        if (prop.isAssociation(TargetLevel.PERSISTENT)) {
-            globalFiler = sqlClient.getFilters().getTargetFilter(prop);
-        } else {
-            globalFiler = null;
-        }
+        globalFiler = strategy.getGlobalFilter();
         this.propFilter = (FieldFilter<Table<ImmutableSpi>>) propFilter;
         if (propFilter != null && prop.isReference(TargetLevel.ENTITY) && !prop.isNullable()) {
             throw new ExecutionException(
@@ -182,7 +224,7 @@ public abstract class AbstractDataLoader {
                     (FetcherImplementor<ImmutableSpi>) fetcher :
                     new FetcherImpl<>((Class<ImmutableSpi>) prop.getTargetType().getJavaClass());
         } else {
-            this.resolver = sqlClient.getResolver(prop);
+            this.resolver = strategy.getResolver();
             if (prop.isAssociation(TargetLevel.ENTITY)) {
                 this.fetcher = fetcher != null ?
                         (FetcherImplementor<ImmutableSpi>) fetcher :
@@ -193,11 +235,97 @@ public abstract class AbstractDataLoader {
         }
     }
 
-    @SuppressWarnings("unchecked")
     public Map<ImmutableSpi, Object> load(Collection<ImmutableSpi> sources) {
         if (sources.isEmpty()) {
             return Collections.emptyMap();
         }
+        SqlMetrics metrics = sqlClient.getMetrics();
+        if (metrics == null) {
+            return coalescedLoad(sources);
+        }
+        long start = System.nanoTime();
+        Map<ImmutableSpi, Object> map = coalescedLoad(sources);
+        metrics.recordLoad(path, sources.size(), System.nanoTime() - start);
+        return map;
+    }
+
+    private Map<ImmutableSpi, Object> coalescedLoad(Collection<ImmutableSpi> sources) {
+        LoadCoalescer coalescer = sqlClient.getLoadCoalescer();
+        Object key = coalescer != null ? coalescingKey() : null;
+        if (key == null) {
+            return loadImpl(sources);
+        }
+        Map<Object, ImmutableSpi> sourceMap = IdCollections.newIdMap(prop.getDeclaringType(), sources.size());
+        for (ImmutableSpi source : sources) {
+            sourceMap.putIfAbsent(toSourceId(source), source);
+        }
+        Map<Object, Object> valueMap = coalescer.load(key, sourceMap, batchSources -> {
+            Map<ImmutableSpi, Object> map = loadImpl(batchSources);
+            Map<Object, Object> idValueMap = new HashMap<>((map.size() * 4 + 2) / 3);
+            for (Map.Entry<ImmutableSpi, Object> e : map.entrySet()) {
+                idValueMap.put(toSourceId(e.getKey()), e.getValue());
+            }
+            return idValueMap;
+        });
+        return Utils.joinCollectionAndMap(sources, this::toSourceId, valueMap);
+    }
+
+    /**
+     * Loads can only be shared by other threads when their results are
+     * determined by the key and the visibility of data is not affected
+     * by the transaction of current connection.
+     *
+     * <p>The database of the connection is part of the key, so the loads
+     * of explicit connections to different databases are never shared.
+     * Loads routed by {@link RoutingConnectionManager} or {@link ShardingConnectionManager}
+     * are never coalesced, because a replica may lag behind the primary database
+     * and the shards of one database may have the same URL.</p>
+     *
+     * @return The key of {@link LoadCoalescer} or null if current load cannot be coalesced
+     */
+    private Object coalescingKey() {
+        if (remote || propFilter != null || LoadCoalescer.isLoading()) {
+            return null;
+        }
+        if (isRouted(sqlClient.getConnectionManager()) ||
+                isRouted(sqlClient.getSlaveConnectionManager(false))) {
+            return null;
+        }
+        SortedMap<String, Object> parameters;
+        if (resolver != null) {
+            Ref<SortedMap<String, Object>> parameterMapRef = resolver.getParameterMapRef();
+            if (parameterMapRef == null) {
+                return null;
+            }
+            parameters = standardParameterMap(parameterMapRef.getValue());
+        } else {
+            parameters = getParameters();
+            if (parameters == ILLEGAL_PARAMETERS) {
+                return null;
+            }
+        }
+        String url;
+        try {
+            if (!con.getAutoCommit()) {
+                return null;
+            }
+            url = con.getMetaData().getURL();
+        } catch (SQLException ex) {
+            throw new ExecutionException("Cannot get the auto-commit mode and the URL of the connection", ex);
+        }
+        if (url == null) {
+            return null;
+        }
+        return new CoalescingKey(url, prop, fetcher, globalFiler, parameters, limit, offset, rawValue);
+    }
+
+    private static boolean isRouted(ConnectionManager connectionManager) {
+        return connectionManager instanceof RoutingConnectionManager ||
+                connectionManager instanceof ShardingConnectionManager;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<ImmutableSpi, Object> loadImpl(Collection<ImmutableSpi> sources) {
         if (resolver != null) {
             return loadTransients(sources);
         }
@@ -216,7 +344,7 @@ public abstract class AbstractDataLoader {
         Set<Object> sourceIds = toSourceIds(sources);
         TransientResolver<Object, Object> resolver =
                 ((TransientResolver<Object, Object>) this.resolver);
-        Cache<Object, Object> cache = sqlClient.getCaches().getPropertyCache(prop);
+        Cache<Object, Object> cache = propertyCache();
         Ref<SortedMap<String, Object>> parameterMapRef = resolver.getParameterMapRef();
         SortedMap<String, Object> parameterMap = parameterMapRef != null ?
                 standardParameterMap(parameterMapRef.getValue()) :
@@ -288,7 +416,7 @@ public abstract class AbstractDataLoader {
     }
 
     private Map<ImmutableSpi, ImmutableSpi> loadParents(Collection<ImmutableSpi> sources) {
-        Cache<Object, Object> fkCache = sqlClient.getCaches().getPropertyCache(prop);
+        Cache<Object, Object> fkCache = propertyCache();
         SortedMap<String, Object> parameters = getParameters();
         if (!remote && !useCache(fkCache, parameters)) {
             return loadParentsDirectly(sources);
@@ -402,7 +530,7 @@ public abstract class AbstractDataLoader {
     }
 
     private Map<ImmutableSpi, ImmutableSpi> loadTargetMap(Collection<ImmutableSpi> sources) {
-        Cache<Object, Object> cache = sqlClient.getCaches().getPropertyCache(prop);
+        Cache<Object, Object> cache = propertyCache();
         SortedMap<String, Object> parameters = getParameters();
         if (!remote && !useCache(cache, parameters)) {
             return loadTargetMapDirectly(sources);
@@ -481,7 +609,7 @@ public abstract class AbstractDataLoader {
     }
 
     private Map<ImmutableSpi, List<ImmutableSpi>> loadTargetMultiMap(Collection<ImmutableSpi> sources) {
-        Cache<Object, List<Object>> cache = sqlClient.getCaches().getPropertyCache(prop);
+        Cache<Object, List<Object>> cache = propertyCache();
         SortedMap<String, Object> parameters = getParameters();
         if (!remote && !useCache(cache, parameters)) {
             return loadTargetMultiMapDirectly(sources);
@@ -571,7 +699,7 @@ public abstract class AbstractDataLoader {
 
     private Map<Object, Object> queryForeignKeyMap(Collection<Object> sourceIds) {
 
-        if (sourceIds.size() == 1) {
+        if (isSingleIdQuery(sourceIds)) {
             Object sourceId = CollectionUtils.first(sourceIds);
             List<Object> targetIds = Queries.createQuery(sqlClient, prop.getDeclaringType(), ExecutionPurpose.LOAD, FilterLevel.IGNORE_ALL, (q, source) -> {
                 Expression<Object> pkExpr = source.get(sourceIdProp);
@@ -603,7 +731,7 @@ public abstract class AbstractDataLoader {
 
     private List<Tuple2<Object, Object>> querySourceTargetIdPairs(Collection<Object> sourceIds) {
         if (propFilter == null && prop.getReal().isMiddleTableDefinition()) {
-            if (sourceIds.size() == 1) {
+            if (isSingleIdQuery(sourceIds)) {
                 Object sourceId = CollectionUtils.first(sourceIds);
                 List<Object> targetIds = Queries.createAssociationQuery(sqlClient, AssociationType.of(prop), ExecutionPurpose.LOAD, (q, association) -> {
                     Expression<Object> sourceIdExpr = association.sourceId();
@@ -672,7 +800,7 @@ public abstract class AbstractDataLoader {
             Collection<Object> sourceIds,
             Function<Table<ImmutableSpi>, Selection<?>> valueExpressionGetter
     ) {
-        if (sourceIds.size() == 1) {
+        if (isSingleIdQuery(sourceIds)) {
             Object sourceId = CollectionUtils.first(sourceIds);
             List<R> results = Queries.createQuery(sqlClient, prop.getTargetType(), ExecutionPurpose.LOAD, FilterLevel.IGNORE_ALL, (q, target) -> {
                 Expression<Object> sourceIdExpr = target.inverseGetAssociatedId(prop);
@@ -766,12 +894,28 @@ public abstract class AbstractDataLoader {
         }
     }
 
+    /**
+     * Single id is queried by `=` without the source id in the select list,
+     * unless in-lists are always rendered as `= any(?)`, whose SQL text does
+     * not depend on the count of ids.
+     */
+    private boolean isSingleIdQuery(Collection<Object> sourceIds) {
+        if (sourceIds.size() != 1) {
+            return false;
+        }
+        if (limit != Integer.MAX_VALUE || offset != 0) {
+            return true;
+        }
+        return !sqlClient.isInListToAnyEqualityEnabled() ||
+                !sqlClient.getDialect().isAnyEqualityOfArraySupported();
+    }
+
     private Object toSourceId(ImmutableSpi source) {
         return source.__get(sourceIdProp.getId());
     }
 
     private Set<Object> toSourceIds(Collection<ImmutableSpi> sources) {
-        Set<Object> sourceIds = new LinkedHashSet<>((sources.size() * 4 + 2) / 3);
+        Set<Object> sourceIds = IdCollections.newIdSet(prop.getDeclaringType(), sources.size());
         for (ImmutableSpi source : sources) {
             sourceIds.add(toSourceId(source));
         }
@@ -849,6 +993,11 @@ public abstract class AbstractDataLoader {
         return null;
     }
 
+    @SuppressWarnings("unchecked")
+    private <K, V> Cache<K, V> propertyCache() {
+        return (Cache<K, V>) strategy.getCache();
+    }
+
     private boolean useCache(Cache<?, ?> cache, Map<String, Object> parameters) {
         if (cache == null) {
             return false;
@@ -1042,4 +1191,75 @@ public abstract class AbstractDataLoader {
         }
         return withoutNullValueMap;
     }
+
+    private static class CoalescingKey {
+
+        private final String url;
+
+        private final ImmutableProp prop;
+
+        private final Fetcher<?> fetcher;
+
+        private final Filter<?> globalFilter;
+
+        private final Map<String, Object> parameters;
+
+        private final int limit;
+
+        private final long offset;
+
+        private final boolean rawValue;
+
+        CoalescingKey(
+                String url,
+                ImmutableProp prop,
+                Fetcher<?> fetcher,
+                Filter<?> globalFilter,
+                Map<String, Object> parameters,
+                int limit,
+                long offset,
+                boolean rawValue
+        ) {
+            this.url = url;
+            this.prop = prop;
+            this.fetcher = fetcher;
+            this.globalFilter = globalFilter;
+            this.parameters = parameters;
+            this.limit = limit;
+            this.offset = offset;
+            this.rawValue = rawValue;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = url.hashCode();
+            h = h * 31 + prop.hashCode();
+            h = h * 31 + Objects.hashCode(fetcher);
+            h = h * 31 + Objects.hashCode(globalFilter);
+            h = h * 31 + Objects.hashCode(parameters);
+            h = h * 31 + limit;
+            h = h * 31 + Long.hashCode(offset);
+            h = h * 31 + Boolean.hashCode(rawValue);
+            return h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || this.getClass() != o.getClass()) {
+                return false;
+            }
+            CoalescingKey other = (CoalescingKey) o;
+            return url.equals(other.url) &&
+                    prop.equals(other.prop) &&
+                    Objects.equals(fetcher, other.fetcher) &&
+                    Objects.equals(globalFilter, other.globalFilter) &&
+                    Objects.equals(parameters, other.parameters) &&
+                    limit == other.limit &&
+                    offset == other.offset &&
+                    rawValue == other.rawValue;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package org.babyfish.jimmer.sql.loader;
+
+import org.babyfish.jimmer.runtime.ImmutableSpi;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Coalesces the concurrent association/transient loads of different threads.
+ *
+ * <p>Loads are grouped by a key which determines their result,
+ * for example, the property, the object fetcher of the associated objects
+ * and the parameters of the global filter. In a group,</p>
+ * <ul>
+ *     <li>If the id of a source object is being loaded by another thread,
+ *     the current thread joins that in-flight load instead of loading it again</li>
+ *     <li>Otherwise, the id is added to the open batch of the group,
+ *     the thread which opened the batch waits for the window, so that
+ *     the ids of other threads can be merged into it, and then loads the
+ *     whole batch by its own connection</li>
+ * </ul>
+ *
+ * <p>The loads issued by a thread while it is loading a batch
+ * are never coalesced, so threads cannot wait for each other circularly.</p>
+ *
+ * <p>It is shared by all sql clients derived from the same builder.</p>
+ */
+public class LoadCoalescer {
+
+    private static final ThreadLocal<Boolean> LOADING_LOCAL = new ThreadLocal<>();
+
+    private final Duration window;
+
+    private final long windowNanos;
+
+    private final ConcurrentMap<Object, Group> groupMap = new ConcurrentHashMap<>();
+
+    public LoadCoalescer(Duration window) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("`window` cannot be negative");
+        }
+        this.window = window;
+        this.windowNanos = window.toNanos();
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    static boolean isLoading() {
+        return LOADING_LOCAL.get() != null;
+    }
+
+    /**
+     * @param key The key of group, loads with equal keys must have the same result
+     * @param sourceMap The source objects of the current thread, grouped by ids
+     * @param loader Load the values of some source objects, returns the map whose keys are source ids,
+     *               it may be invoked by another thread which loads the values for the current thread
+     * @return The map whose keys are source ids, the ids without value are absent
+     */
+    Map<Object, Object> load(
+            Object key,
+            Map<Object, ImmutableSpi> sourceMap,
+            Function<Collection<ImmutableSpi>, Map<Object, Object>> loader
+    ) {
+        Map<Object, Batch> idBatchMap = new LinkedHashMap<>((sourceMap.size() * 4 + 2) / 3);
+        Group group;
+        Batch ownBatch = null;
+        while (true) {
+            group = groupMap.computeIfAbsent(key, it -> new Group());
+            synchronized (group) {
+                if (group.removed) {
+                    continue;
+                }
+                for (Map.Entry<Object, ImmutableSpi> e : sourceMap.entrySet()) {
+                    Object id = e.getKey();
+                    Batch batch = group.batchMap.get(id);
+                    if (batch == null) {
+                        batch = group.openBatch;
+                        if (batch == null) {
+                            batch = new Batch();
+                            group.openBatch = batch;
+                            ownBatch = batch;
+                        }
+                        batch.sourceMap.put(id, e.getValue());
+                        group.batchMap.put(id, batch);
+                    }
+                    idBatchMap.put(id, batch);
+                }
+            }
+            break;
+        }
+        if (ownBatch != null) {
+            execute(key, group, ownBatch, loader);
+        }
+        Map<Object, Object> resultMap = new LinkedHashMap<>((idBatchMap.size() * 4 + 2) / 3);
+        for (Map.Entry<Object, Batch> e : idBatchMap.entrySet()) {
+            Object value = join(e.getValue()).get(e.getKey());
+            if (value != null) {
+                resultMap.put(e.getKey(), value);
+            }
+        }
+        return resultMap;
+    }
+
+    private void execute(
+            Object key,
+            Group group,
+            Batch batch,
+            Function<Collection<ImmutableSpi>, Map<Object, Object>> loader
+    ) {
+        if (windowNanos > 0) {
+            long deadline = System.nanoTime() + windowNanos;
+            long nanos = windowNanos;
+            while (nanos > 0 && !Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(this, nanos);
+                nanos = deadline - System.nanoTime();
+            }
+        }
+        List<ImmutableSpi> sources;
+        synchronized (group) {
+            if (group.openBatch == batch) {
+                group.openBatch = null;
+            }
+            sources = new ArrayList<>(batch.sourceMap.values());
+        }
+        LOADING_LOCAL.set(Boolean.TRUE);
+        try {
+            batch.future.complete(loader.apply(sources));
+        } catch (Throwable ex) {
+            batch.future.completeExceptionally(ex);
+        } finally {
+            LOADING_LOCAL.remove();
+            synchronized (group) {
+                for (Object id : batch.sourceMap.keySet()) {
+                    group.batchMap.remove(id, batch);
+                }
+                if (group.batchMap.isEmpty() && group.openBatch == null) {
+                    group.removed = true;
+                    groupMap.remove(key, group);
+                }
+            }
+        }
+    }
+
+    private static Map<Object, Object> join(Batch batch) {
+        try {
+            return batch.future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static class Group {
+
+        // Ids of both open batch and in-flight batches
+        final Map<Object, Batch> batchMap = new HashMap<>();
+
+        Batch openBatch;
+
+        boolean removed;
+    }
+
+    private static class Batch {
+
+        final Map<Object, ImmutableSpi> sourceMap = new LinkedHashMap<>();
+
+        final CompletableFuture<Map<Object, Object>> future = new CompletableFuture<>();
+    }
+}
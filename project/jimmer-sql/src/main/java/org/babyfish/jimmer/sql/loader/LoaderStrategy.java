@@ -0,0 +1,96 @@
+package org.babyfish.jimmer.sql.loader;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.sql.TransientResolver;
+import org.babyfish.jimmer.sql.ast.table.Props;
+import org.babyfish.jimmer.sql.cache.Cache;
+import org.babyfish.jimmer.sql.filter.Filter;
+import org.babyfish.jimmer.sql.meta.Storage;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The decisions of {@link AbstractDataLoader} which are determined by
+ * the property and the configuration of sql client only,
+ * they can be remembered by the compiled fetcher plans instead of
+ * being derived again by each data loader.
+ */
+public final class LoaderStrategy {
+
+    private final Storage storage;
+
+    private final Filter<Props> globalFilter;
+
+    private final TransientResolver<?, ?> resolver;
+
+    private final Cache<?, ?> cache;
+
+    private LoaderStrategy(
+            Storage storage,
+            Filter<Props> globalFilter,
+            TransientResolver<?, ?> resolver,
+            Cache<?, ?> cache
+    ) {
+        this.storage = storage;
+        this.globalFilter = globalFilter;
+        this.resolver = resolver;
+        this.cache = cache;
+    }
+
+    public static LoaderStrategy of(JSqlClientImplementor sqlClient, ImmutableProp prop) {
+        if (prop.isAssociation(TargetLevel.PERSISTENT)) {
+            return new LoaderStrategy(
+                    prop.getStorage(sqlClient.getMetadataStrategy()),
+                    sqlClient.getFilters().getTargetFilter(prop),
+                    null,
+                    sqlClient.getCaches().getPropertyCache(prop)
+            );
+        }
+        return new LoaderStrategy(
+                prop.getStorage(sqlClient.getMetadataStrategy()),
+                null,
+                sqlClient.getResolver(prop),
+                sqlClient.getCaches().getPropertyCache(prop)
+        );
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return The global filter of the target type, always null for transient property
+     */
+    @Nullable
+    public Filter<Props> getGlobalFilter() {
+        return globalFilter;
+    }
+
+    /**
+     * @return The resolver of transient property, always null for persistent association
+     */
+    @Nullable
+    public TransientResolver<?, ?> getResolver() {
+        return resolver;
+    }
+
+    /**
+     * @return The property cache, or null if the property is not cached
+     * or the caches of sql client are disabled
+     */
+    @Nullable
+    public Cache<?, ?> getCache() {
+        return cache;
+    }
+
+    @Override
+    public String toString() {
+        return "LoaderStrategy{" +
+                "storage=" + storage +
+                ", globalFilter=" + globalFilter +
+                ", resolver=" + resolver +
+                ", cache=" + cache +
+                '}';
+    }
+}
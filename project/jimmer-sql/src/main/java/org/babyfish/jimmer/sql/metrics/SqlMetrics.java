@@ -0,0 +1,95 @@
+package org.babyfish.jimmer.sql.metrics;
+
+import org.babyfish.jimmer.sql.fetcher.impl.FetchPath;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+
+/**
+ * Metrics SPI of jimmer.
+ *
+ * <p>Unlike the SQL log of {@link org.babyfish.jimmer.sql.runtime.Executor#log()},
+ * this SPI only receives primitive measurements, nothing is formatted,
+ * so it is cheap enough to be enabled in production.</p>
+ *
+ * <p>All methods are invoked synchronously by the thread executing SQL,
+ * so implementations should be non-blocking. All methods have empty
+ * default implementations, so that implementations can only care about
+ * what they need.</p>
+ *
+ * @see org.babyfish.jimmer.sql.JSqlClient.Builder#setMetrics(SqlMetrics)
+ * @see org.babyfish.jimmer.sql.metrics.micrometer.MicrometerSqlMetrics
+ * @see org.babyfish.jimmer.sql.metrics.jfr.JfrSqlMetrics
+ */
+public interface SqlMetrics {
+
+    /**
+     * Invoked after {@link org.babyfish.jimmer.sql.runtime.Executor#execute} returns or throws.
+     *
+     * @param purpose The execution purpose
+     * @param elapsedNanos The elapsed time in nanoseconds
+     * @param rowCount The count of rows read by the statement,
+     *                 or -1 if the statement does not return a list,
+     *                 for example, `Query.forEach` or DML statements
+     * @param succeeded Whether the execution succeeded
+     */
+    default void recordExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int rowCount,
+            boolean succeeded
+    ) {}
+
+    /**
+     * Invoked after the batch created by
+     * {@link org.babyfish.jimmer.sql.runtime.Executor#executeBatch}
+     * is executed.
+     *
+     * @param purpose The execution purpose
+     * @param elapsedNanos The elapsed time of the batch execution in nanoseconds
+     * @param batchSize The count of parameter groups added into the batch
+     * @param succeeded Whether the execution succeeded
+     */
+    default void recordBatchExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int batchSize,
+            boolean succeeded
+    ) {}
+
+    /**
+     * Invoked after one round of the object fetcher loads an association
+     * or a calculated property for a batch of parent objects.
+     *
+     * <p>The {@code round} grows when the parent objects of one
+     * property cannot be loaded by one batch, it is the N+1 fan-out
+     * of that property.</p>
+     *
+     * @param path The fetched path
+     * @param round The 1-based round of the path in the current fetching
+     * @param depth The max recursion depth of the parent objects,
+     *              it is always 1 for non-recursive properties
+     * @param keyCount The count of distinct parent keys in this round
+     * @param elapsedNanos The elapsed time in nanoseconds
+     */
+    default void recordFetch(
+            FetchPath path,
+            int round,
+            int depth,
+            int keyCount,
+            long elapsedNanos
+    ) {}
+
+    /**
+     * Invoked after {@link org.babyfish.jimmer.sql.loader.AbstractDataLoader#load}
+     * returns, which is used by both object fetchers and
+     * {@link org.babyfish.jimmer.sql.loader.graphql.Loaders}.
+     *
+     * @param path The loaded path
+     * @param sourceCount The count of source objects
+     * @param elapsedNanos The elapsed time in nanoseconds
+     */
+    default void recordLoad(
+            FetchPath path,
+            int sourceCount,
+            long elapsedNanos
+    ) {}
+}
@@ -0,0 +1,29 @@
+package org.babyfish.jimmer.sql.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("org.babyfish.jimmer.Fetch")
+@Label("Object Fetching Round")
+@Description("One round of the object fetcher for a property")
+@Category("Jimmer")
+@StackTrace(false)
+class FetchEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Round")
+    @Description("The N+1 fan-out of the path")
+    int round;
+
+    @Label("Depth")
+    @Description("The max recursion depth of parent objects")
+    int depth;
+
+    @Label("Key Count")
+    int keyCount;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,87 @@
+package org.babyfish.jimmer.sql.metrics.jfr;
+
+import org.babyfish.jimmer.sql.fetcher.impl.FetchPath;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+
+/**
+ * Java Flight Recorder implementation of {@link SqlMetrics}.
+ *
+ * <p>Each measurement is committed as a JFR event of the category
+ * {@code Jimmer}, events are only created when they are enabled
+ * by the current recording, so this implementation costs almost
+ * nothing when no recording is running.</p>
+ *
+ * <p>It requires a JVM with the {@code jdk.jfr} module,
+ * that is, JDK 11+ or OpenJDK 8u262+.</p>
+ */
+public class JfrSqlMetrics implements SqlMetrics {
+
+    public static final JfrSqlMetrics INSTANCE = new JfrSqlMetrics();
+
+    private JfrSqlMetrics() {}
+
+    @Override
+    public void recordExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int rowCount,
+            boolean succeeded
+    ) {
+        SqlExecutionEvent event = new SqlExecutionEvent();
+        if (event.isEnabled()) {
+            event.purpose = purpose.toString();
+            event.elapsed = elapsedNanos;
+            event.rowCount = rowCount;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void recordBatchExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int batchSize,
+            boolean succeeded
+    ) {
+        SqlBatchExecutionEvent event = new SqlBatchExecutionEvent();
+        if (event.isEnabled()) {
+            event.purpose = purpose.toString();
+            event.elapsed = elapsedNanos;
+            event.batchSize = batchSize;
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void recordFetch(
+            FetchPath path,
+            int round,
+            int depth,
+            int keyCount,
+            long elapsedNanos
+    ) {
+        FetchEvent event = new FetchEvent();
+        if (event.isEnabled()) {
+            event.path = path.toString();
+            event.round = round;
+            event.depth = depth;
+            event.keyCount = keyCount;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void recordLoad(FetchPath path, int sourceCount, long elapsedNanos) {
+        LoadEvent event = new LoadEvent();
+        if (event.isEnabled()) {
+            event.path = path.toString();
+            event.sourceCount = sourceCount;
+            event.elapsed = elapsedNanos;
+            event.commit();
+        }
+    }
+}
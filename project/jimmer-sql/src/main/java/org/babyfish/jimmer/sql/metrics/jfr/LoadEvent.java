@@ -0,0 +1,21 @@
+package org.babyfish.jimmer.sql.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("org.babyfish.jimmer.Load")
+@Label("Data Loading")
+@Description("Loading of a property by data loader")
+@Category("Jimmer")
+@StackTrace(false)
+class LoadEvent extends Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Source Count")
+    int sourceCount;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
@@ -0,0 +1,24 @@
+package org.babyfish.jimmer.sql.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("org.babyfish.jimmer.SqlBatchExecution")
+@Label("SQL Batch Execution")
+@Description("Execution of one JDBC batch")
+@Category("Jimmer")
+@StackTrace(false)
+class SqlBatchExecutionEvent extends Event {
+
+    @Label("Purpose")
+    String purpose;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,25 @@
+package org.babyfish.jimmer.sql.metrics.jfr;
+
+import jdk.jfr.*;
+
+@Name("org.babyfish.jimmer.SqlExecution")
+@Label("SQL Execution")
+@Description("Execution of one SQL statement")
+@Category("Jimmer")
+@StackTrace(false)
+class SqlExecutionEvent extends Event {
+
+    @Label("Purpose")
+    String purpose;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+
+    @Label("Row Count")
+    @Description("Rows read by the statement, -1 means unknown")
+    int rowCount;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,191 @@
+package org.babyfish.jimmer.sql.metrics.micrometer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.babyfish.jimmer.sql.fetcher.impl.FetchPath;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer implementation of {@link SqlMetrics}.
+ *
+ * <p>All meters are kept by this object after they are registered,
+ * so that recording a measurement never looks up the registry again.</p>
+ *
+ * <ul>
+ *     <li>{@code jimmer.sql.execution}: Timer, tags: {@code purpose}, {@code outcome}</li>
+ *     <li>{@code jimmer.sql.rows}: Summary of rows read by each statement, tags: {@code purpose}</li>
+ *     <li>{@code jimmer.sql.batch.execution}: Timer, tags: {@code purpose}, {@code outcome}</li>
+ *     <li>{@code jimmer.sql.batch.size}: Summary of batch sizes, tags: {@code purpose}</li>
+ *     <li>{@code jimmer.fetch}: Timer of each fetching round, tags: {@code path}</li>
+ *     <li>{@code jimmer.fetch.round}: Summary of the N+1 fan-out, tags: {@code path}</li>
+ *     <li>{@code jimmer.fetch.depth}: Summary of recursion depth, tags: {@code path}</li>
+ *     <li>{@code jimmer.fetch.keys}: Summary of keys loaded by each round, tags: {@code path}</li>
+ *     <li>{@code jimmer.load}: Timer of data loaders, tags: {@code path}</li>
+ * </ul>
+ *
+ * <p>The tag {@code path} looks like {@code Book.store.books}, its cardinality
+ * is limited by the entity model, not by data.</p>
+ */
+public class MicrometerSqlMetrics implements SqlMetrics {
+
+    private static final ExecutionPurpose.Type[] PURPOSE_TYPES = ExecutionPurpose.Type.values();
+
+    private final MeterRegistry registry;
+
+    private final String prefix;
+
+    private final Timer[] executionTimers;
+
+    private final DistributionSummary[] rowSummaries;
+
+    private final Timer[] batchTimers;
+
+    private final DistributionSummary[] batchSizeSummaries;
+
+    private final Map<FetchPath, PathMeters> pathMetersMap = new ConcurrentHashMap<>();
+
+    public MicrometerSqlMetrics(@NotNull MeterRegistry registry) {
+        this(registry, "jimmer");
+    }
+
+    public MicrometerSqlMetrics(@NotNull MeterRegistry registry, @NotNull String prefix) {
+        this.registry = registry;
+        this.prefix = prefix;
+        int size = PURPOSE_TYPES.length;
+        executionTimers = new Timer[size * 2];
+        rowSummaries = new DistributionSummary[size];
+        batchTimers = new Timer[size * 2];
+        batchSizeSummaries = new DistributionSummary[size];
+        for (ExecutionPurpose.Type type : PURPOSE_TYPES) {
+            String purpose = type.name();
+            int index = type.ordinal();
+            executionTimers[index * 2] = timer(prefix + ".sql.execution", purpose, "failure");
+            executionTimers[index * 2 + 1] = timer(prefix + ".sql.execution", purpose, "success");
+            rowSummaries[index] = DistributionSummary
+                    .builder(prefix + ".sql.rows")
+                    .tag("purpose", purpose)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            batchTimers[index * 2] = timer(prefix + ".sql.batch.execution", purpose, "failure");
+            batchTimers[index * 2 + 1] = timer(prefix + ".sql.batch.execution", purpose, "success");
+            batchSizeSummaries[index] = DistributionSummary
+                    .builder(prefix + ".sql.batch.size")
+                    .tag("purpose", purpose)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void recordExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int rowCount,
+            boolean succeeded
+    ) {
+        int index = purpose.getType().ordinal();
+        executionTimers[index * 2 + (succeeded ? 1 : 0)].record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (rowCount >= 0) {
+            rowSummaries[index].record(rowCount);
+        }
+    }
+
+    @Override
+    public void recordBatchExecution(
+            ExecutionPurpose purpose,
+            long elapsedNanos,
+            int batchSize,
+            boolean succeeded
+    ) {
+        int index = purpose.getType().ordinal();
+        batchTimers[index * 2 + (succeeded ? 1 : 0)].record(elapsedNanos, TimeUnit.NANOSECONDS);
+        batchSizeSummaries[index].record(batchSize);
+    }
+
+    @Override
+    public void recordFetch(
+            FetchPath path,
+            int round,
+            int depth,
+            int keyCount,
+            long elapsedNanos
+    ) {
+        PathMeters meters = pathMeters(path);
+        meters.fetchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meters.roundSummary.record(round);
+        meters.depthSummary.record(depth);
+        meters.keySummary.record(keyCount);
+    }
+
+    @Override
+    public void recordLoad(FetchPath path, int sourceCount, long elapsedNanos) {
+        pathMeters(path).loadTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String name, String purpose, String outcome) {
+        return Timer
+                .builder(name)
+                .tag("purpose", purpose)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private PathMeters pathMeters(FetchPath path) {
+        PathMeters meters = pathMetersMap.get(path);
+        if (meters == null) {
+            meters = pathMetersMap.computeIfAbsent(path, PathMeters::new);
+        }
+        return meters;
+    }
+
+    private class PathMeters {
+
+        final Timer fetchTimer;
+
+        final DistributionSummary roundSummary;
+
+        final DistributionSummary depthSummary;
+
+        final DistributionSummary keySummary;
+
+        final Timer loadTimer;
+
+        PathMeters(FetchPath path) {
+            FetchPath root = path;
+            while (root.getParent() != null) {
+                root = root.getParent();
+            }
+            String tag = root.getProp().getDeclaringType().getJavaClass().getSimpleName() + '.' + path;
+            fetchTimer = Timer
+                    .builder(prefix + ".fetch")
+                    .tag("path", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            roundSummary = DistributionSummary
+                    .builder(prefix + ".fetch.round")
+                    .tag("path", tag)
+                    .register(registry);
+            depthSummary = DistributionSummary
+                    .builder(prefix + ".fetch.depth")
+                    .tag("path", tag)
+                    .register(registry);
+            keySummary = DistributionSummary
+                    .builder(prefix + ".fetch.keys")
+                    .tag("path", tag)
+                    .register(registry);
+            loadTimer = Timer
+                    .builder(prefix + ".load")
+                    .tag("path", tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
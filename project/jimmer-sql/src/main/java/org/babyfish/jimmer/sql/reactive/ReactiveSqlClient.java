@@ -0,0 +1,311 @@
+package org.babyfish.jimmer.sql.reactive;
+
+import org.babyfish.jimmer.Page;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.Executable;
+import org.babyfish.jimmer.sql.ast.impl.query.TypedRootQueryImplementor;
+import org.babyfish.jimmer.sql.ast.mutation.BatchSaveResult;
+import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
+import org.babyfish.jimmer.sql.ast.mutation.SimpleSaveResult;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.babyfish.jimmer.sql.runtime.JdbcDispatcher;
+import org.jetbrains.annotations.NotNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Project Reactor facade of {@link JSqlClient}.
+ *
+ * <p>SQL rendering, object materialization and object fetchers are exactly
+ * the same as the blocking API, only the JDBC work is dispatched by a
+ * {@link JdbcDispatcher} whose concurrency is bounded by the connection pool,
+ * so that no event loop thread is blocked and no thread is blocked while
+ * waiting for a connection.</p>
+ *
+ * <p>Cancelling a subscription cancels the executing JDBC statement,
+ * the subscriber receives nothing, the task fails with an untranslated
+ * {@link java.util.concurrent.CancellationException}.
+ * The statement is registered by {@link org.babyfish.jimmer.sql.runtime.DefaultExecutor},
+ * so the statements of a custom {@link org.babyfish.jimmer.sql.runtime.Executor}
+ * which does not delegate to it are not cancelled, the task only stops
+ * before its next statement.</p>
+ *
+ * <p>Each {@link Mono} uses its own connection, so it is executed in a
+ * transaction only if the {@link org.babyfish.jimmer.sql.runtime.ConnectionManager}
+ * of the sql client starts one.</p>
+ */
+public class ReactiveSqlClient {
+
+    private final JSqlClientImplementor sqlClient;
+
+    private final JdbcDispatcher dispatcher;
+
+    /**
+     * Create the facade by the dispatcher configured by
+     * {@link JSqlClient.Builder#setJdbcDispatcher(JdbcDispatcher)}
+     */
+    public ReactiveSqlClient(@NotNull JSqlClient sqlClient) {
+        this(sqlClient, requiredDispatcher(sqlClient));
+    }
+
+    public ReactiveSqlClient(@NotNull JSqlClient sqlClient, @NotNull JdbcDispatcher dispatcher) {
+        this.sqlClient = (JSqlClientImplementor) sqlClient;
+        this.dispatcher = dispatcher;
+    }
+
+    public JSqlClient getSqlClient() {
+        return sqlClient;
+    }
+
+    public JdbcDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Execute any blocking operation of the sql client.
+     */
+    public <R> Mono<R> mono(@NotNull Function<JSqlClient, R> block) {
+        return Mono.create(sink -> {
+            CompletableFuture<R> future = dispatcher.dispatch(() -> block.apply(sqlClient));
+            sink.onCancel(() -> future.cancel(true));
+            future.whenComplete((result, ex) -> {
+                if (ex != null) {
+                    sink.error(unwrap(ex));
+                } else {
+                    sink.success(result);
+                }
+            });
+        });
+    }
+
+    /**
+     * Execute query, DML statement or anything else which is {@link Executable}
+     */
+    public <R> Mono<R> execute(@NotNull Executable<R> executable) {
+        return mono(sqlClient -> executable.execute());
+    }
+
+    public <R> Mono<Page<R>> fetchPage(
+            @NotNull ConfigurableRootQuery<?, R> query,
+            int pageIndex,
+            int pageSize
+    ) {
+        return mono(sqlClient -> query.fetchPage(pageIndex, pageSize));
+    }
+
+    public <E> Mono<SimpleSaveResult<E>> save(@NotNull E entity) {
+        return mono(sqlClient -> sqlClient.save(entity));
+    }
+
+    public <E> Mono<SimpleSaveResult<E>> save(@NotNull E entity, @NotNull SaveMode mode) {
+        return mono(sqlClient -> sqlClient.save(entity, mode));
+    }
+
+    public <E> Mono<BatchSaveResult<E>> saveEntities(@NotNull Iterable<E> entities) {
+        return mono(sqlClient -> sqlClient.saveEntities(entities));
+    }
+
+    public <E> Mono<BatchSaveResult<E>> saveEntities(@NotNull Iterable<E> entities, @NotNull SaveMode mode) {
+        return mono(sqlClient -> sqlClient.saveEntities(entities, mode));
+    }
+
+    public <R> Flux<R> stream(@NotNull ConfigurableRootQuery<?, R> query) {
+        return stream(query, 0);
+    }
+
+    /**
+     * Emit the rows of the query by the cursor of
+     * {@link ConfigurableRootQuery#stream(java.sql.Connection, int)}.
+     *
+     * <p>The cursor is read ahead into a buffer bounded by the batch size,
+     * rows are emitted from that buffer when they are requested by the subscriber,
+     * so the dispatched task never waits for the requests of the subscriber row by row,
+     * it only pauses when the whole buffer has not been consumed.</p>
+     *
+     * <p>A JDBC cursor can only be read in the scope of the connection,
+     * so the connection and a slot of the dispatcher are held
+     * until the flux is completed or cancelled.</p>
+     *
+     * @param batchSize The fetch size, the size of object fetcher batches and the capacity
+     *                  of the prefetching buffer, non-positive value means the default
+     *                  batch size of the sql client.
+     */
+    public <R> Flux<R> stream(@NotNull ConfigurableRootQuery<?, R> query, int batchSize) {
+        boolean forUpdate = ((TypedRootQueryImplementor<?>) query).isForUpdate();
+        int prefetch = batchSize > 0 ? batchSize : sqlClient.getDefaultBatchSize();
+        return Flux.create(sink -> {
+            PrefetchBuffer<R> buffer = new PrefetchBuffer<>(sink, prefetch);
+            sink.onRequest(buffer::request);
+            CompletableFuture<Void> future = dispatcher.dispatch(() ->
+                sqlClient.getSlaveConnectionManager(forUpdate).execute(con -> {
+                    try (Stream<R> stream = query.stream(con, batchSize)) {
+                        Iterator<R> itr = stream.iterator();
+                        while (itr.hasNext() && buffer.offer(itr.next())) {
+                            // Continue reading ahead
+                        }
+                    }
+                    return null;
+                })
+            );
+            sink.onDispose(() -> {
+                buffer.cancel();
+                future.cancel(true);
+            });
+            future.whenComplete((result, ex) -> buffer.complete(ex != null ? unwrap(ex) : null));
+        });
+    }
+
+    private static JdbcDispatcher requiredDispatcher(JSqlClient sqlClient) {
+        JdbcDispatcher dispatcher = ((JSqlClientImplementor) sqlClient).getJdbcDispatcher();
+        if (dispatcher == null) {
+            throw new IllegalArgumentException(
+                    "The jdbc dispatcher of the sql client is not configured, " +
+                            "please call `JSqlClient.Builder.setJdbcDispatcher` " +
+                            "or specify the dispatcher explicitly"
+            );
+        }
+        return dispatcher;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        if (ex instanceof CompletionException && ex.getCause() != null) {
+            return ex.getCause();
+        }
+        return ex;
+    }
+
+    /**
+     * Rows read ahead by the dispatched task, they are emitted by the thread
+     * which offers a row, requests rows or completes the buffer, one thread at a time.
+     */
+    private static class PrefetchBuffer<R> {
+
+        private final FluxSink<R> sink;
+
+        private final int capacity;
+
+        // All the fields below are guarded by `this`
+
+        private final Deque<R> rows = new ArrayDeque<>();
+
+        private long requested;
+
+        private boolean done;
+
+        private Throwable error;
+
+        private boolean cancelled;
+
+        private boolean emitting;
+
+        PrefetchBuffer(FluxSink<R> sink, int capacity) {
+            this.sink = sink;
+            this.capacity = capacity;
+        }
+
+        /**
+         * Called by the dispatched task, pauses only when the buffer is full.
+         *
+         * @return Whether the task should continue reading
+         */
+        boolean offer(R row) {
+            synchronized (this) {
+                while (rows.size() >= capacity && !cancelled) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                if (cancelled) {
+                    return false;
+                }
+                rows.add(row);
+            }
+            drain();
+            return true;
+        }
+
+        void request(long n) {
+            synchronized (this) {
+                long sum = requested + n;
+                requested = sum < 0 ? Long.MAX_VALUE : sum;
+            }
+            drain();
+        }
+
+        void complete(Throwable ex) {
+            synchronized (this) {
+                done = true;
+                error = ex;
+            }
+            drain();
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            rows.clear();
+            notifyAll();
+        }
+
+        private void drain() {
+            synchronized (this) {
+                if (emitting) {
+                    // The emitting thread sees the changed state in its next round
+                    return;
+                }
+                emitting = true;
+            }
+            while (true) {
+                R row = null;
+                Throwable ex;
+                synchronized (this) {
+                    if (cancelled) {
+                        emitting = false;
+                        return;
+                    }
+                    if (!rows.isEmpty()) {
+                        if (requested == 0) {
+                            emitting = false;
+                            return;
+                        }
+                        row = rows.poll();
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                        notifyAll();
+                        ex = null;
+                    } else if (done) {
+                        // Terminated, `emitting` is never reset
+                        cancelled = true;
+                        ex = error;
+                    } else {
+                        emitting = false;
+                        return;
+                    }
+                }
+                if (row != null) {
+                    sink.next(row);
+                } else {
+                    if (ex != null) {
+                        sink.error(ex);
+                    } else {
+                        sink.complete();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.ast.Selection;
+import org.babyfish.jimmer.sql.ast.tuple.*;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serializable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Result list of queries whose selections are all scalars.
+ *
+ * <p>The rows are read without draft context and stored column by column,
+ * {@code long}, {@code int}, {@code double} and {@code boolean} columns are
+ * stored by primitive arrays, and the arrays are trimmed to the row count after
+ * reading, so no per-row object is retained. Tuples and boxed values are not
+ * retained either, they are created each time the rows are accessed, so
+ * {@link #get(int)} returns equal but not identical objects for the same row.</p>
+ *
+ * <p>This list is not modified after reading unless it is modified by the caller,
+ * so, like {@link ArrayList}, it can be read by multiple threads after being
+ * published safely.</p>
+ *
+ * <p>Any modification converts this list to an {@link ArrayList} internally,
+ * so it behaves like the list of other queries.</p>
+ */
+class ColumnarList<R> extends AbstractList<R> implements RandomAccess, Serializable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Column[] columns;
+
+    private int size;
+
+    private List<R> inflatedList;
+
+    private ColumnarList(Column[] columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * @return The readers of selections or null if any selection is not scalar.
+     */
+    @Nullable
+    static List<Reader<?>> scalarReaders(JSqlClientImplementor sqlClient, List<Selection<?>> selections) {
+        if (selections.isEmpty() || selections.size() > 9) {
+            return null;
+        }
+        List<Reader<?>> readers = new ArrayList<>(selections.size());
+        for (Selection<?> selection : selections) {
+            Reader<?> reader = Readers.createSingleReader(sqlClient, selection);
+            if (reader == null || !ReaderManager.isScalarReader(reader)) {
+                return null;
+            }
+            readers.add(reader);
+        }
+        return readers;
+    }
+
+    static <R> List<R> read(ResultSet rs, List<Reader<?>> readers, Reader.Context ctx) throws SQLException {
+        Column[] columns = new Column[readers.size()];
+        for (int i = 0; i < columns.length; i++) {
+            Reader<?> reader = readers.get(i);
+            Class<?> primitiveType = ReaderManager.primitiveType(reader);
+            if (primitiveType == long.class) {
+                columns[i] = new LongColumn();
+            } else if (primitiveType == int.class) {
+                columns[i] = new IntColumn();
+            } else if (primitiveType == double.class) {
+                columns[i] = new DoubleColumn();
+            } else if (primitiveType == boolean.class) {
+                columns[i] = new BooleanColumn();
+            } else {
+                columns[i] = new ObjectColumn(reader);
+            }
+        }
+        ColumnarList<R> list = new ColumnarList<>(columns);
+        int capacity = 0;
+        int size = 0;
+        while (rs.next()) {
+            if (size == capacity) {
+                capacity = capacity == 0 ? INITIAL_CAPACITY : capacity + (capacity >> 1);
+                for (Column column : columns) {
+                    column.grow(capacity);
+                }
+            }
+            for (Column column : columns) {
+                column.read(rs, ctx, size);
+            }
+            ctx.resetCol();
+            size++;
+        }
+        if (size != capacity) {
+            for (Column column : columns) {
+                column.trim(size);
+            }
+        }
+        list.size = size;
+        return list;
+    }
+
+    @Override
+    public int size() {
+        List<R> inflated = inflatedList;
+        return inflated != null ? inflated.size() : size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public R get(int index) {
+        List<R> inflated = inflatedList;
+        if (inflated != null) {
+            return inflated.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (R) createRow(index);
+    }
+
+    private Object createRow(int index) {
+        Column[] c = columns;
+        switch (c.length) {
+            case 1:
+                return c[0].get(index);
+            case 2:
+                return new Tuple2<>(c[0].get(index), c[1].get(index));
+            case 3:
+                return new Tuple3<>(c[0].get(index), c[1].get(index), c[2].get(index));
+            case 4:
+                return new Tuple4<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index)
+                );
+            case 5:
+                return new Tuple5<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index),
+                        c[4].get(index)
+                );
+            case 6:
+                return new Tuple6<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index),
+                        c[4].get(index), c[5].get(index)
+                );
+            case 7:
+                return new Tuple7<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index),
+                        c[4].get(index), c[5].get(index), c[6].get(index)
+                );
+            case 8:
+                return new Tuple8<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index),
+                        c[4].get(index), c[5].get(index), c[6].get(index), c[7].get(index)
+                );
+            default:
+                return new Tuple9<>(
+                        c[0].get(index), c[1].get(index), c[2].get(index), c[3].get(index),
+                        c[4].get(index), c[5].get(index), c[6].get(index), c[7].get(index),
+                        c[8].get(index)
+                );
+        }
+    }
+
+    @Override
+    public R set(int index, R element) {
+        return inflate().set(index, element);
+    }
+
+    @Override
+    public void add(int index, R element) {
+        inflate().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public R remove(int index) {
+        R removed = inflate().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    private List<R> inflate() {
+        List<R> inflated = inflatedList;
+        if (inflated == null) {
+            inflated = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                inflated.add(get(i));
+            }
+            inflatedList = inflated;
+            columns = null;
+        }
+        return inflated;
+    }
+
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+
+    private static abstract class Column {
+
+        abstract void grow(int capacity);
+
+        abstract void trim(int size);
+
+        abstract void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException;
+
+        abstract Object get(int row);
+    }
+
+    private static abstract class PrimitiveColumn extends Column {
+
+        private BitSet nulls;
+
+        final void setNull(int row) {
+            BitSet nulls = this.nulls;
+            if (nulls == null) {
+                this.nulls = nulls = new BitSet();
+            }
+            nulls.set(row);
+        }
+
+        final boolean isNull(int row) {
+            BitSet nulls = this.nulls;
+            return nulls != null && nulls.get(row);
+        }
+    }
+
+    private static class LongColumn extends PrimitiveColumn {
+
+        private long[] values = new long[0];
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException {
+            long value = rs.getLong(ctx.col());
+            if (value == 0 && rs.wasNull()) {
+                setNull(row);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    private static class IntColumn extends PrimitiveColumn {
+
+        private int[] values = new int[0];
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException {
+            int value = rs.getInt(ctx.col());
+            if (value == 0 && rs.wasNull()) {
+                setNull(row);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    private static class DoubleColumn extends PrimitiveColumn {
+
+        private double[] values = new double[0];
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException {
+            double value = rs.getDouble(ctx.col());
+            if (value == 0 && rs.wasNull()) {
+                setNull(row);
+            }
+            values[row] = value;
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values[row];
+        }
+    }
+
+    private static class BooleanColumn extends PrimitiveColumn {
+
+        private final BitSet values = new BitSet();
+
+        @Override
+        void grow(int capacity) {}
+
+        @Override
+        void trim(int size) {}
+
+        @Override
+        void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException {
+            boolean value = rs.getBoolean(ctx.col());
+            if (!value && rs.wasNull()) {
+                setNull(row);
+            }
+            values.set(row, value);
+        }
+
+        @Override
+        Object get(int row) {
+            return isNull(row) ? null : values.get(row);
+        }
+    }
+
+    private static class ObjectColumn extends Column {
+
+        private final Reader<?> reader;
+
+        private Object[] values = new Object[0];
+
+        ObjectColumn(Reader<?> reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        void grow(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void trim(int size) {
+            values = Arrays.copyOf(values, size);
+        }
+
+        @Override
+        void read(ResultSet rs, Reader.Context ctx, int row) throws SQLException {
+            values[row] = reader.read(rs, ctx);
+        }
+
+        @Override
+        Object get(int row) {
+            return values[row];
+        }
+    }
+}
@@ -37,6 +37,11 @@ public interface ConnectionManager {
 
             private final ThreadLocal<Connection> local = new ThreadLocal<>();
 
+            @Override
+            public boolean isConnectionBoundToThread() {
+                return local.get() != null;
+            }
+
             @Override
             public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
                 if (con == null) {
@@ -61,6 +66,7 @@ public interface ConnectionManager {
                             local.remove();
                         }
                     } finally {
+                        PreparedStatementCache.close(con);
                         con.close();
                     }
                 } catch (SQLException ex) {
@@ -75,4 +81,25 @@ public interface ConnectionManager {
     default <R> R execute(Function<Connection, R> block) {
         return execute(null, block);
     }
+
+    /**
+     * Execute the block by another connection for a concurrent branch of the operation
+     * which is using {@code rootCon}, for example, the parallel loading of object fetcher.
+     *
+     * <p>The default implementation ignores {@code rootCon},
+     * routing connection managers can use the database of {@code rootCon}.</p>
+     */
+    default <R> R executeBranch(@Nullable Connection rootCon, Function<Connection, R> block) {
+        return execute(block);
+    }
+
+    /**
+     * Whether the connection or the state used by the current thread is bound to it,
+     * for example, the connection of the transaction of spring.
+     * The statements executed by other threads cannot see it, so they
+     * neither join its transaction nor use its state.
+     */
+    default boolean isConnectionBoundToThread() {
+        return false;
+    }
 }
@@ -9,12 +9,14 @@ import org.babyfish.jimmer.sql.association.meta.AssociationType;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple2;
 import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
 import org.babyfish.jimmer.sql.exception.DatabaseValidationException;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
 import org.babyfish.jimmer.sql.meta.*;
 import org.babyfish.jimmer.sql.meta.impl.DatabaseIdentifiers;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -34,8 +36,29 @@ public class DatabaseValidators {
 
     private final Connection con;
 
+    private final ConnectionManager connectionManager;
+
+    private final int parallelism;
+
     private final List<DatabaseValidationException.Item> items;
 
+    // Tables of each (catalog, schema) pattern, loaded by one `getTables`
+    private final Map<Tuple2<String, String>, List<Table>> tablesMap = new HashMap<>();
+
+    // (catalog, schema) of the connection, loaded lazily
+    private Tuple2<String, String> currentSchema;
+
+    // Columns of each (catalog, schema) grouped by table name, loaded by one `getColumns`
+    private final Map<Tuple2<String, String>, Map<String, Map<String, Column>>> columnsMap = new HashMap<>();
+
+    // Prefetched by parallel connections, see `prefetch`
+    private final Map<Tuple3<String, String, String>, Set<String>> primaryKeyColumnsMap =
+            new ConcurrentHashMap<>();
+
+    // Prefetched by parallel connections, see `prefetch`
+    private final Map<Tuple3<String, String, String>, List<ImportedKey>> importedKeysMap =
+            new ConcurrentHashMap<>();
+
     private final Map<ImmutableType, org.babyfish.jimmer.lang.Ref<Table>> tableRefMap = new HashMap<>();
 
     private final Map<ImmutableProp, org.babyfish.jimmer.lang.Ref<Table>> middleTableRefMap = new HashMap<>();
@@ -57,10 +80,53 @@ public class DatabaseValidators {
                 strategy,
                 catalog,
                 schema,
-                con
+                con,
+                null,
+                1
         ).validate();
     }
 
+    /**
+     * Validate the database by the connection manager.
+     *
+     * <p>The tables and columns of each schema are loaded by one metadata query.
+     * If {@code parallelism} is greater than 1, the primary keys and foreign keys
+     * of tables, which can only be loaded table by table, are loaded by
+     * {@code parallelism} other connections concurrently.</p>
+     */
+    @Nullable
+    public static DatabaseValidationException validate(
+            EntityManager entityManager,
+            String microServiceName,
+            boolean defaultDissociationActionCheckable,
+            MetadataStrategy strategy,
+            String catalog,
+            String schema,
+            ConnectionManager connectionManager,
+            int parallelism
+    ) {
+        return connectionManager.execute(con -> {
+            try {
+                return new DatabaseValidators(
+                        entityManager,
+                        microServiceName,
+                        defaultDissociationActionCheckable,
+                        strategy,
+                        catalog,
+                        schema,
+                        con,
+                        connectionManager,
+                        parallelism
+                ).validate();
+            } catch (SQLException ex) {
+                throw new ExecutionException(
+                        "Cannot validate the database because of SQL exception",
+                        ex
+                );
+            }
+        });
+    }
+
     private DatabaseValidators(
             EntityManager entityManager,
             String microServiceName,
@@ -68,7 +134,9 @@ public class DatabaseValidators {
             MetadataStrategy strategy,
             String catalog,
             String schema,
-            Connection con
+            Connection con,
+            ConnectionManager connectionManager,
+            int parallelism
     ) {
         this.entityManager = entityManager;
         this.microServiceName = microServiceName;
@@ -77,19 +145,26 @@ public class DatabaseValidators {
         this.catalog = catalog != null && !catalog.isEmpty() ? catalog : null;
         this.schema = schema != null && !schema.isEmpty() ? schema : null;
         this.con = con;
+        this.connectionManager = connectionManager;
+        this.parallelism = parallelism;
         this.items = new ArrayList<>();
     }
 
     private DatabaseValidationException validate() throws SQLException {
+        List<ImmutableType> types = new ArrayList<>();
         for (ImmutableType type : entityManager.getAllTypes(microServiceName)) {
             if (type.isEntity() && !(type instanceof AssociationType) && !type.getJavaClass().isAnnotationPresent(DatabaseValidationIgnore.class)) {
-                validateSelf(type);
+                types.add(type);
             }
         }
-        for (ImmutableType type : entityManager.getAllTypes(microServiceName)) {
-            if (type.isEntity() && !(type instanceof AssociationType) && !type.getJavaClass().isAnnotationPresent(DatabaseValidationIgnore.class)) {
-                validateForeignKey(type);
-            }
+        if (connectionManager != null && parallelism > 1) {
+            prefetch(types);
+        }
+        for (ImmutableType type : types) {
+            validateSelf(type);
+        }
+        for (ImmutableType type : types) {
+            validateForeignKey(type);
         }
         if (!items.isEmpty()) {
             return new DatabaseValidationException(items);
@@ -97,6 +172,78 @@ public class DatabaseValidators {
         return null;
     }
 
+    private void prefetch(List<ImmutableType> types) throws SQLException {
+        Set<Table> tables = new LinkedHashSet<>();
+        for (ImmutableType type : types) {
+            Set<Table> typeTables = tablesOf(DatabaseIdentifiers.rawIdentifier(type.getTableName(strategy)));
+            if (typeTables.size() == 1) {
+                tables.addAll(typeTables);
+            }
+            for (ImmutableProp prop : type.getProps().values()) {
+                Storage storage = prop.getStorage(strategy);
+                if (storage instanceof MiddleTable) {
+                    Set<Table> middleTables = tablesOf(((MiddleTable) storage).getTableName());
+                    if (middleTables.size() == 1) {
+                        tables.addAll(middleTables);
+                    }
+                }
+            }
+        }
+        int threadCount = Math.min(parallelism, tables.size());
+        if (threadCount < 2) {
+            return;
+        }
+        List<List<Table>> chunks = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        int index = 0;
+        for (Table table : tables) {
+            chunks.get(index++ % threadCount).add(table);
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "jimmer-database-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(threadCount);
+            for (List<Table> chunk : chunks) {
+                futures.add(
+                        CompletableFuture.runAsync(
+                                () -> connectionManager.execute(con -> {
+                                    try {
+                                        for (Table table : chunk) {
+                                            primaryKeyColumnsMap.put(table.key(), loadPrimaryKeyColumns(con, table));
+                                            importedKeysMap.put(table.key(), loadImportedKeys(con, table));
+                                        }
+                                    } catch (SQLException ex) {
+                                        throw new ExecutionException(
+                                                "Cannot validate the database because of SQL exception",
+                                                ex
+                                        );
+                                    }
+                                    return null;
+                                }),
+                                executorService
+                        )
+                );
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExecutionException("Cannot validate the database", cause);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
     private void validateSelf(ImmutableType type) throws SQLException {
         Table table = tableOf(type);
         if (table == null) {
@@ -348,7 +495,66 @@ public class DatabaseValidators {
     }
 
     private Set<Table> tablesOf0(String catalogName, String schemaName, String tableName) throws SQLException {
-        Set<Table> tables = new LinkedHashSet<>();
+        if (catalogName != null || schemaName != null) {
+            return matchedTables(schemaTables(catalogName, schemaName), tableName);
+        }
+        // The name is not qualified, loading all tables in bulk would list every schema
+        // of the database, so only the current schema of the connection is loaded in bulk,
+        // the tables of other schemas, such as the ones found by search path,
+        // are still queried one by one.
+        Tuple2<String, String> currentSchema = currentSchema();
+        if (currentSchema.get_1() != null || currentSchema.get_2() != null) {
+            Set<Table> tables = matchedTables(
+                    schemaTables(currentSchema.get_1(), currentSchema.get_2()),
+                    tableName
+            );
+            if (!tables.isEmpty()) {
+                return tables;
+            }
+        }
+        return matchedTables(loadTables(null, null, tableName), tableName);
+    }
+
+    private Tuple2<String, String> currentSchema() throws SQLException {
+        Tuple2<String, String> currentSchema = this.currentSchema;
+        if (currentSchema == null) {
+            String schemaName;
+            try {
+                schemaName = con.getSchema();
+            } catch (SQLFeatureNotSupportedException | AbstractMethodError ex) {
+                // JDBC 4.0 driver
+                schemaName = null;
+            }
+            this.currentSchema = currentSchema = new Tuple2<>(con.getCatalog(), schemaName);
+        }
+        return currentSchema;
+    }
+
+    private List<Table> schemaTables(String catalogName, String schemaName) throws SQLException {
+        Tuple2<String, String> schemaKey = new Tuple2<>(catalogName, schemaName);
+        List<Table> tables = tablesMap.get(schemaKey);
+        if (tables == null) {
+            tables = loadTables(catalogName, schemaName, null);
+            tablesMap.put(schemaKey, tables);
+        }
+        return tables;
+    }
+
+    private Set<Table> matchedTables(List<Table> tables, String tableName) {
+        return tables
+                .stream()
+                .filter(it -> it.catalog == null || catalog == null || it.catalog.equalsIgnoreCase(catalog))
+                .filter(it -> it.schema == null || schema == null || it.schema.equalsIgnoreCase(schema))
+                .filter(it -> it.name.equalsIgnoreCase(tableName))
+                .collect(Collectors.toSet());
+    }
+
+    private List<Table> loadTables(
+            String catalogName,
+            String schemaName,
+            @Nullable String tableName
+    ) throws SQLException {
+        List<Table> tables = new ArrayList<>();
         try (ResultSet rs = con.getMetaData().getTables(
                 catalogName,
                 schemaName,
@@ -365,35 +571,59 @@ public class DatabaseValidators {
                 );
             }
         }
-        return tables
-                .stream()
-                .filter(it -> it.catalog == null || catalog == null || it.catalog.equalsIgnoreCase(catalog))
-                .filter(it -> it.schema == null || schema == null || it.schema.equalsIgnoreCase(schema))
-                .filter(it -> it.name.equalsIgnoreCase(tableName))
-                .collect(Collectors.toSet());
+        return tables;
     }
 
     private Map<String, Column> columnsOf(Table table) throws SQLException {
-        Map<String, Column> columnMap = new HashMap<>();
+        if (table.catalog == null && table.schema == null) {
+            // Unknown schema, loading all columns in bulk would list every schema of the database
+            return loadColumns(table, table.name).getOrDefault(table.name, Collections.emptyMap());
+        }
+        Tuple2<String, String> schemaKey = new Tuple2<>(table.catalog, table.schema);
+        Map<String, Map<String, Column>> tableColumnsMap = columnsMap.get(schemaKey);
+        if (tableColumnsMap == null) {
+            tableColumnsMap = loadColumns(table, null);
+            columnsMap.put(schemaKey, tableColumnsMap);
+        }
+        Map<String, Column> columnMap = tableColumnsMap.get(table.name);
+        return columnMap != null ? columnMap : Collections.emptyMap();
+    }
+
+    private Map<String, Map<String, Column>> loadColumns(
+            Table table,
+            @Nullable String tableName
+    ) throws SQLException {
+        Map<String, Map<String, Column>> tableColumnsMap = new HashMap<>();
         try (ResultSet rs = con.getMetaData().getColumns(
                 table.catalog,
                 table.schema,
-                table.name,
+                tableName,
                 null
         )) {
             while (rs.next()) {
+                String columnTableName = rs.getString("TABLE_NAME");
                 Column column = new Column(
-                        table,
+                        new Table(table.catalog, table.schema, columnTableName),
                         rs.getString("COLUMN_NAME").toUpperCase(),
                         rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable
                 );
-                columnMap.put(column.name.toUpperCase(), column);
+                tableColumnsMap
+                        .computeIfAbsent(columnTableName, it -> new HashMap<>())
+                        .put(column.name, column);
             }
         }
-        return columnMap;
+        return tableColumnsMap;
     }
 
     private Set<String> primaryKeyColumns(Table table) throws SQLException {
+        Set<String> columnNames = primaryKeyColumnsMap.get(table.key());
+        if (columnNames != null) {
+            return columnNames;
+        }
+        return loadPrimaryKeyColumns(con, table);
+    }
+
+    private static Set<String> loadPrimaryKeyColumns(Connection con, Table table) throws SQLException {
         Set<String> columnNames = new HashSet<>();
         try (ResultSet rs = con.getMetaData().getPrimaryKeys(
                 table.catalog,
@@ -410,26 +640,21 @@ public class DatabaseValidators {
     }
 
     private Map<Set<String>, ForeignKey> foreignKeys(Table table) throws SQLException {
+        List<ImportedKey> importedKeys = importedKeysMap.get(table.key());
+        if (importedKeys == null) {
+            importedKeys = loadImportedKeys(con, table);
+        }
         Map<Tuple2<String, Table>, Map<String, String>> map = new HashMap<>();
-        try (ResultSet rs = con.getMetaData().getImportedKeys(
-                table.catalog,
-                table.schema,
-                table.name
-        )) {
-            while (rs.next()) {
-                String constraintName = rs.getString("FK_NAME").toUpperCase();
-                Table referencedTable = tablesOf(
-                        upper(rs.getString("PKTABLE_CAT")),
-                        upper(rs.getString("PKTABLE_SCHEM")),
-                        rs.getString("PKTABLE_NAME").toUpperCase()
-                ).iterator().next();
-                String columnName = upper(rs.getString("FKCOLUMN_NAME"));
-                String referencedColumnName = upper(rs.getString("PKCOLUMN_NAME"));
-                map.computeIfAbsent(
-                        new Tuple2<>(constraintName, referencedTable),
-                        it -> new LinkedHashMap<>()
-                ).put(columnName, referencedColumnName);
-            }
+        for (ImportedKey importedKey : importedKeys) {
+            Table referencedTable = tablesOf(
+                    importedKey.referencedCatalog,
+                    importedKey.referencedSchema,
+                    importedKey.referencedTableName
+            ).iterator().next();
+            map.computeIfAbsent(
+                    new Tuple2<>(importedKey.constraintName, referencedTable),
+                    it -> new LinkedHashMap<>()
+            ).put(importedKey.columnName, importedKey.referencedColumnName);
         }
         if (map.isEmpty()) {
             return Collections.emptyMap();
@@ -455,6 +680,29 @@ public class DatabaseValidators {
         return foreignKeyMap;
     }
 
+    private static List<ImportedKey> loadImportedKeys(Connection con, Table table) throws SQLException {
+        List<ImportedKey> importedKeys = new ArrayList<>();
+        try (ResultSet rs = con.getMetaData().getImportedKeys(
+                table.catalog,
+                table.schema,
+                table.name
+        )) {
+            while (rs.next()) {
+                importedKeys.add(
+                        new ImportedKey(
+                                rs.getString("FK_NAME").toUpperCase(),
+                                upper(rs.getString("PKTABLE_CAT")),
+                                upper(rs.getString("PKTABLE_SCHEM")),
+                                rs.getString("PKTABLE_NAME").toUpperCase(),
+                                upper(rs.getString("FKCOLUMN_NAME")),
+                                upper(rs.getString("PKCOLUMN_NAME"))
+                        )
+                );
+            }
+        }
+        return importedKeys;
+    }
+
     private static String upper(String text) {
         return text == null ? null : text.toUpperCase();
     }
@@ -565,6 +813,10 @@ public class DatabaseValidators {
             return catalog + '.' + schema + '.' + name;
         }
 
+        Tuple3<String, String, String> key() {
+            return new Tuple3<>(catalog, schema, name);
+        }
+
         private Map<Set<String>, ForeignKey> getForeignKeyMap(ForeignKeyContext ctx) throws SQLException {
             Map<Set<String>, ForeignKey> map = _foreignKeyMap;
             if (map == null) {
@@ -644,6 +896,38 @@ public class DatabaseValidators {
         }
     }
 
+    private static class ImportedKey {
+
+        // Always capitalized
+        final String constraintName;
+
+        final String referencedCatalog;
+
+        final String referencedSchema;
+
+        final String referencedTableName;
+
+        final String columnName;
+
+        final String referencedColumnName;
+
+        ImportedKey(
+                String constraintName,
+                String referencedCatalog,
+                String referencedSchema,
+                String referencedTableName,
+                String columnName,
+                String referencedColumnName
+        ) {
+            this.constraintName = constraintName;
+            this.referencedCatalog = referencedCatalog;
+            this.referencedSchema = referencedSchema;
+            this.referencedTableName = referencedTableName;
+            this.columnName = columnName;
+            this.referencedColumnName = referencedColumnName;
+        }
+    }
+
     private static class ForeignKeyContext {
 
         final DatabaseValidators databaseValidators;
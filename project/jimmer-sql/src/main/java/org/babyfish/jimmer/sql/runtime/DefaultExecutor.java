@@ -12,6 +12,7 @@ import org.jetbrains.annotations.Nullable;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.function.BiFunction;
 
 import static org.babyfish.jimmer.sql.ScalarProviderUtils.getSqlType;
@@ -55,13 +56,28 @@ public class DefaultExecutor implements Executor {
         String sql = args.sql;
         List<Object> variables = args.variables;
         JSqlClientImplementor sqlClient = args.sqlClient;
-        try (PreparedStatement stmt = args.statementFactory != null ?
-                args.statementFactory.preparedStatement(args.con, sql) :
-                args.con.prepareStatement(sql)
-        ) {
-            setParameters(stmt, variables, sqlClient);
-            return args.block.apply(stmt);
+        PreparedStatementCache statementCache =
+                args.statementFactory == null ? sqlClient.getPreparedStatementCache() : null;
+        try {
+            if (statementCache != null) {
+                return executeCached(args, statementCache);
+            }
+            if (args.statementOwnedByCaller) {
+                return execute(args.statementFactory.preparedStatement(args.con, sql), args);
+            }
+            try (PreparedStatement stmt = args.statementFactory != null ?
+                    args.statementFactory.preparedStatement(args.con, sql) :
+                    args.con.prepareStatement(sql)
+            ) {
+                return execute(stmt, args);
+            }
+        } catch (CancellationException ex) {
+            throw ex;
         } catch (Exception ex) {
+            if (JdbcDispatcher.isCancelled()) {
+                // The statement is failed because it is cancelled by the dispatcher
+                throw cancellationException(ex);
+            }
             ExceptionTranslator<Exception> exceptionTranslator =
                     args.sqlClient.getExceptionTranslator();
             if (exceptionTranslator != null) {
@@ -80,6 +96,47 @@ public class DefaultExecutor implements Executor {
         }
     }
 
+    private static <R> R executeCached(
+            Args<R> args,
+            PreparedStatementCache statementCache
+    ) throws Exception {
+        PreparedStatement stmt = statementCache.acquire(
+                args.con,
+                args.sql,
+                PreparedStatementCache.NO_GENERATED_KEYS
+        );
+        boolean reusable = false;
+        try {
+            R result = execute(stmt, args);
+            reusable = !JdbcDispatcher.isCancelled();
+            return result;
+        } finally {
+            statementCache.release(
+                    args.con,
+                    args.sql,
+                    PreparedStatementCache.NO_GENERATED_KEYS,
+                    stmt,
+                    reusable
+            );
+        }
+    }
+
+    private static CancellationException cancellationException(Exception cause) {
+        CancellationException ex = new CancellationException("The dispatched JDBC task has been cancelled");
+        ex.initCause(cause);
+        return ex;
+    }
+
+    private static <R> R execute(PreparedStatement stmt, Args<R> args) throws Exception {
+        Statement prevStmt = JdbcDispatcher.enterStatement(stmt);
+        try {
+            setParameters(stmt, args.variables, args.sqlClient);
+            return args.block.apply(stmt);
+        } finally {
+            JdbcDispatcher.exitStatement(prevStmt);
+        }
+    }
+
     @Override
     public BatchContext executeBatch(
             @NotNull Connection con,
@@ -104,10 +161,21 @@ public class DefaultExecutor implements Executor {
 
         private final Savepoint savepoint;
 
+        private final Connection con;
+
         private final String sql;
 
         private final PreparedStatement statement;
 
+        private final int generatedKeys;
+
+        @Nullable
+        private final PreparedStatementCache statementCache;
+
+        // Whether there are batches which are added but not executed successfully,
+        // if so, the statement cannot be given back to the statement cache
+        private boolean dirty;
+
         @Nullable
         private final ImmutableProp generatedIdProp;
 
@@ -139,15 +207,26 @@ public class DefaultExecutor implements Executor {
             } else {
                 savepoint = null;
             }
+            int generatedKeys;
+            if (generatedIdProp != null) {
+                IdGenerator idGenerator = sqlClient.getIdGenerator(generatedIdProp.getDeclaringType().getJavaClass());
+                if (idGenerator instanceof SequenceIdGenerator) {
+                    generatedKeys = PreparedStatementCache.FIRST_COLUMN_KEYS;
+                } else {
+                    generatedKeys = PreparedStatementCache.RETURN_GENERATED_KEYS;
+                }
+            } else {
+                generatedKeys = PreparedStatementCache.NO_GENERATED_KEYS;
+            }
+            PreparedStatementCache statementCache = sqlClient.getPreparedStatementCache();
             PreparedStatement statement;
             try {
-                if (generatedIdProp != null) {
-                    IdGenerator idGenerator = sqlClient.getIdGenerator(generatedIdProp.getDeclaringType().getJavaClass());
-                    if (idGenerator instanceof SequenceIdGenerator) {
-                        statement = con.prepareStatement(sql, new int[]{1});
-                    } else {
-                        statement = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-                    }
+                if (statementCache != null) {
+                    statement = statementCache.acquire(con, sql, generatedKeys);
+                } else if (generatedKeys == PreparedStatementCache.FIRST_COLUMN_KEYS) {
+                    statement = con.prepareStatement(sql, new int[]{1});
+                } else if (generatedKeys == PreparedStatementCache.RETURN_GENERATED_KEYS) {
+                    statement = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
                 } else {
                     statement = con.prepareStatement(sql);
                 }
@@ -159,8 +238,11 @@ public class DefaultExecutor implements Executor {
             }
             this.purpose = purpose;
             this.executorContext = executorContext;
+            this.con = con;
             this.sql = sql;
             this.statement = statement;
+            this.generatedKeys = generatedKeys;
+            this.statementCache = statementCache;
             this.generatedIdProp = generatedIdProp;
             this.sqlClient = sqlClient;
         }
@@ -187,6 +269,7 @@ public class DefaultExecutor implements Executor {
 
         @Override
         public void add(List<Object> variables) {
+            dirty = true;
             try {
                 setParameters(statement, variables, sqlClient);
                 statement.addBatch();
@@ -204,8 +287,11 @@ public class DefaultExecutor implements Executor {
 
         @Override
         public int[] execute(BiFunction<SQLException, BatchContext, Exception> exceptionTranslator) {
+            Statement prevStatement = JdbcDispatcher.enterStatement(statement);
             try {
-                return statement.executeBatch();
+                int[] rowCounts = statement.executeBatch();
+                dirty = false;
+                return rowCounts;
             } catch (SQLException ex) {
                 if (savepoint != null) {
                     try {
@@ -214,6 +300,9 @@ public class DefaultExecutor implements Executor {
                         throwException(innerEx);
                     }
                 }
+                if (JdbcDispatcher.isCancelled()) {
+                    throw cancellationException(ex);
+                }
                 if (exceptionTranslator != null) {
                     Exception translatedException = exceptionTranslator.apply(ex, this);
                     if (translatedException != null) {
@@ -231,6 +320,8 @@ public class DefaultExecutor implements Executor {
                 }
                 throwException(ex);
                 throw new AssertionError("Internal bug");
+            } finally {
+                JdbcDispatcher.exitStatement(prevStatement);
             }
         }
 
@@ -292,7 +383,17 @@ public class DefaultExecutor implements Executor {
                         statement.getConnection().releaseSavepoint(savepoint);
                     }
                 } finally {
-                    statement.close();
+                    if (statementCache != null) {
+                        statementCache.release(
+                                con,
+                                sql,
+                                generatedKeys,
+                                statement,
+                                !dirty && !JdbcDispatcher.isCancelled()
+                        );
+                    } else {
+                        statement.close();
+                    }
                 }
             } catch (SQLException ex) {
                 throw new ExecutionException(
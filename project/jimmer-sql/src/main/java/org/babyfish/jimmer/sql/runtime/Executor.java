@@ -77,6 +77,14 @@ public interface Executor {
 
         public final SqlFunction<PreparedStatement, R> block;
 
+        /**
+         * If true, the statement created by {@link #statementFactory} is owned
+         * by the caller which still uses it after the execution, for example,
+         * the result set of streaming query is read after the execution.
+         * The executor must not close that statement, the caller closes it.
+         */
+        public final boolean statementOwnedByCaller;
+
         /**
          * If non-null, it means the current callback is not normal operation,
          * but `Query.forEach`
@@ -95,6 +103,36 @@ public interface Executor {
                 StatementFactory statementFactory,
                 SqlFunction<PreparedStatement, R> block
         ) {
+            this(
+                    sqlClient,
+                    con,
+                    sql,
+                    variables,
+                    variablePositions,
+                    purpose,
+                    statementFactory,
+                    block,
+                    false
+            );
+        }
+
+        public Args(
+                JSqlClientImplementor sqlClient,
+                Connection con,
+                String sql,
+                List<Object> variables,
+                @Nullable List<Integer> variablePositions,
+                ExecutionPurpose purpose,
+                @Nullable
+                StatementFactory statementFactory,
+                SqlFunction<PreparedStatement, R> block,
+                boolean statementOwnedByCaller
+        ) {
+            if (statementOwnedByCaller && statementFactory == null) {
+                throw new IllegalArgumentException(
+                        "The `statementFactory` must be specified when the statement is owned by caller"
+                );
+            }
             this.sqlClient = sqlClient;
             this.con = con;
             this.sql = sql;
@@ -104,6 +142,7 @@ public interface Executor {
             this.ctx = ExecutorContext.create(sqlClient);
             this.statementFactory = statementFactory;
             this.block = block;
+            this.statementOwnedByCaller = statementOwnedByCaller;
             this.closingCursorId = null;
         }
 
@@ -128,6 +167,7 @@ public interface Executor {
             this.ctx = ExecutorContext.create(sqlClient);
             this.statementFactory = statementFactory;
             this.block = block;
+            this.statementOwnedByCaller = false;
             this.closingCursorId = closingCursorId;
         }
 
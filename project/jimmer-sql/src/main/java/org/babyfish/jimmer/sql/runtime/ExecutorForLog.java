@@ -129,7 +129,7 @@ public class ExecutorForLog extends AbstractExecutorProxy {
         millis = System.currentTimeMillis() - millis;
         int affectedRowCount = -1;
         char ch = args.sql.charAt(0);
-        if ((ch == 'i' || ch == 'u' || ch == 'd') && result instanceof Integer) {
+        if ((ch == 'i' || ch == 'u' || ch == 'd' || args.sql.startsWith("copy ")) && result instanceof Integer) {
             affectedRowCount = (Integer)result;
         }
 
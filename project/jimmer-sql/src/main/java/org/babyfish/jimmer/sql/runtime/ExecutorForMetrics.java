@@ -0,0 +1,108 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+public class ExecutorForMetrics extends AbstractExecutorProxy {
+
+    private final SqlMetrics metrics;
+
+    public static Executor wrap(Executor raw, SqlMetrics metrics) {
+        return applier(
+                ExecutorForMetrics.class,
+                p -> p.metrics == metrics,
+                r -> new ExecutorForMetrics(r, metrics)
+        ).applyTo(raw);
+    }
+
+    private ExecutorForMetrics(Executor raw, SqlMetrics metrics) {
+        super(raw);
+        this.metrics = metrics;
+    }
+
+    public SqlMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public <R> R execute(@NotNull Args<R> args) {
+        long start = System.nanoTime();
+        R result;
+        try {
+            result = raw.execute(args);
+        } catch (RuntimeException | Error ex) {
+            metrics.recordExecution(args.purpose, System.nanoTime() - start, -1, false);
+            throw ex;
+        }
+        metrics.recordExecution(
+                args.purpose,
+                System.nanoTime() - start,
+                result instanceof Collection<?> ? ((Collection<?>) result).size() : -1,
+                true
+        );
+        return result;
+    }
+
+    @Override
+    public void openCursor(
+            long cursorId,
+            String sql,
+            List<Object> variables,
+            List<Integer> variablePositions,
+            ExecutionPurpose purpose,
+            @Nullable ExecutorContext ctx,
+            JSqlClientImplementor sqlClient
+    ) {
+        raw.openCursor(cursorId, sql, variables, variablePositions, purpose, ctx, sqlClient);
+    }
+
+    @Override
+    protected AbstractExecutorProxy recreate(Executor raw) {
+        return new ExecutorForMetrics(raw, metrics);
+    }
+
+    @Override
+    protected Batch createBatch(BatchContext raw) {
+        return new Batch(raw, metrics);
+    }
+
+    protected static class Batch extends AbstractExecutorProxy.Batch {
+
+        private final SqlMetrics metrics;
+
+        private int batchSize;
+
+        Batch(BatchContext raw, SqlMetrics metrics) {
+            super(raw);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void add(List<Object> variables) {
+            raw.add(variables);
+            batchSize++;
+        }
+
+        @Override
+        public int[] execute(BiFunction<SQLException, BatchContext, Exception> exceptionTranslator) {
+            int size = batchSize;
+            batchSize = 0;
+            long start = System.nanoTime();
+            int[] rowCounts;
+            try {
+                rowCounts = raw.execute(exceptionTranslator);
+            } catch (RuntimeException | Error ex) {
+                metrics.recordBatchExecution(raw.purpose(), System.nanoTime() - start, size, false);
+                throw ex;
+            }
+            metrics.recordBatchExecution(raw.purpose(), System.nanoTime() - start, size, true);
+            return rowCounts;
+        }
+    }
+}
@@ -14,11 +14,13 @@ import org.babyfish.jimmer.sql.di.StrategyProvider;
 import org.babyfish.jimmer.sql.dialect.Dialect;
 import org.babyfish.jimmer.sql.event.TriggerType;
 import org.babyfish.jimmer.sql.filter.FilterConfig;
+import org.babyfish.jimmer.sql.loader.LoadCoalescer;
 import org.babyfish.jimmer.sql.loader.graphql.Loaders;
 import org.babyfish.jimmer.sql.meta.IdGenerator;
 import org.babyfish.jimmer.sql.meta.MetadataStrategy;
 import org.babyfish.jimmer.sql.meta.SqlContext;
 import org.babyfish.jimmer.sql.meta.UserIdGenerator;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.ZoneId;
@@ -65,8 +67,35 @@ public interface JSqlClientImplementor extends JSqlClient, SqlContext {
 
     boolean isExpandedInListPaddingEnabled();
 
+    boolean isInListToAnyEqualityEnabled();
+
     int getOffsetOptimizingThreshold();
 
+    @Nullable
+    PreparedStatementCache getPreparedStatementCache();
+
+    int getMaxInvestigationRowCount();
+
+    @Nullable
+    java.time.Duration getInvestigationTimeout();
+
+    @Nullable
+    SqlMetrics getMetrics();
+
+    @Nullable
+    java.util.concurrent.Executor getParallelFetchingExecutor();
+
+    @Nullable
+    PageCountExecutor getPageCountExecutor();
+
+    long getApproximatePageCountThreshold();
+
+    @Nullable
+    LoadCoalescer getLoadCoalescer();
+
+    @Nullable
+    JdbcDispatcher getJdbcDispatcher();
+
     LockMode getDefaultLockMode();
 
     int getMaxCommandJoinCount();
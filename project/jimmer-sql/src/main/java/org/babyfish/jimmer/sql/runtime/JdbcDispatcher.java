@@ -0,0 +1,203 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches blocking JDBC work to an executor with bounded concurrency,
+ * it is the foundation of non-blocking facades such as
+ * {@link org.babyfish.jimmer.sql.reactive.ReactiveSqlClient}.
+ *
+ * <p>The {@code maxConcurrency} should not be greater than the size of the
+ * connection pool. Tasks exceeding it wait in a queue without occupying any thread,
+ * rather than blocking threads which wait for connections.</p>
+ *
+ * <p>Cancelling the returned future of a running task calls
+ * {@link Statement#cancel()} of the statement being executed by
+ * {@link DefaultExecutor}, a task cancelled before it starts is never executed.
+ * The failure of the cancelled statement is reported as an untranslated
+ * {@link CancellationException}.</p>
+ *
+ * <p>Only {@link DefaultExecutor}, including the executors which delegate to it
+ * such as the SQL logger, registers its statements; if the sql client uses
+ * another executor, a cancelled task is only stopped before its next statement
+ * executed by {@link DefaultExecutor}.</p>
+ */
+public class JdbcDispatcher {
+
+    private static final ThreadLocal<Task<?>> CURRENT_TASK_LOCAL = new ThreadLocal<>();
+
+    /*
+     * Set when the first dispatcher is created, so that the statements of
+     * applications which never use a dispatcher do not look up the thread local.
+     * It is not volatile, a task is always handed over to its thread after the
+     * dispatcher is created, the threads which have not seen it have no task.
+     */
+    private static boolean used;
+
+    private final java.util.concurrent.Executor executor;
+
+    private final int maxConcurrency;
+
+    private final Queue<Task<?>> waitingTasks = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    public JdbcDispatcher(@NotNull java.util.concurrent.Executor executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("`maxConcurrency` must be positive");
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        used = true;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public <R> CompletableFuture<R> dispatch(@NotNull Supplier<R> block) {
+        Task<R> task = new Task<>(block);
+        waitingTasks.add(task);
+        drain();
+        return task;
+    }
+
+    private void drain() {
+        while (!waitingTasks.isEmpty()) {
+            int count = runningCount.get();
+            if (count >= maxConcurrency) {
+                return;
+            }
+            if (!runningCount.compareAndSet(count, count + 1)) {
+                continue;
+            }
+            Task<?> task = waitingTasks.poll();
+            if (task == null) {
+                runningCount.decrementAndGet();
+                continue;
+            }
+            try {
+                executor.execute(() -> run(task));
+            } catch (RuntimeException ex) {
+                runningCount.decrementAndGet();
+                task.completeExceptionally(ex);
+            }
+        }
+    }
+
+    private void run(Task<?> task) {
+        try {
+            task.run();
+        } finally {
+            runningCount.decrementAndGet();
+            drain();
+        }
+    }
+
+    /**
+     * Called by {@link DefaultExecutor} before a statement is executed.
+     *
+     * @return The statement of the outer execution, it must be passed to
+     * {@link #exitStatement(Statement)}
+     */
+    @Nullable
+    static Statement enterStatement(Statement statement) {
+        Task<?> task = currentTask();
+        if (task == null) {
+            return null;
+        }
+        synchronized (task) {
+            Statement prevStatement = task.statement;
+            task.statement = statement;
+            if (task.isCancelled()) {
+                task.statement = prevStatement;
+                throw new CancellationException("The dispatched JDBC task has been cancelled");
+            }
+            return prevStatement;
+        }
+    }
+
+    /**
+     * Called by {@link DefaultExecutor} after a statement is executed,
+     * once it returns, the statement is never cancelled by the task
+     * so that it can be given back to {@link PreparedStatementCache}.
+     */
+    static void exitStatement(@Nullable Statement prevStatement) {
+        Task<?> task = currentTask();
+        if (task != null) {
+            synchronized (task) {
+                task.statement = prevStatement;
+            }
+        }
+    }
+
+    /**
+     * @return Whether the dispatched task of current thread has been cancelled,
+     * a statement which may have been cancelled must not be reused.
+     */
+    static boolean isCancelled() {
+        Task<?> task = currentTask();
+        return task != null && task.isCancelled();
+    }
+
+    @Nullable
+    private static Task<?> currentTask() {
+        return used ? CURRENT_TASK_LOCAL.get() : null;
+    }
+
+    private static class Task<R> extends CompletableFuture<R> {
+
+        private final Supplier<R> block;
+
+        // Guarded by `this`
+        Statement statement;
+
+        Task(Supplier<R> block) {
+            this.block = block;
+        }
+
+        void run() {
+            if (isDone()) {
+                return;
+            }
+            CURRENT_TASK_LOCAL.set(this);
+            try {
+                complete(block.get());
+            } catch (Throwable ex) {
+                completeExceptionally(ex);
+            } finally {
+                CURRENT_TASK_LOCAL.remove();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                // Hold the lock so that the statement cannot be exited and
+                // given back to the statement cache while it is being cancelled
+                synchronized (this) {
+                    Statement statement = this.statement;
+                    if (statement != null) {
+                        try {
+                            statement.cancel();
+                        } catch (SQLException ex) {
+                            // The statement may have been completed or closed
+                        }
+                    }
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.sql.association.meta.AssociationType;
+import org.babyfish.jimmer.sql.filter.Filters;
+import org.babyfish.jimmer.sql.meta.MetadataStrategy;
+
+/**
+ * Builds the lazily created metadata of all entity types eagerly,
+ * so that the first requests do not pay for it.
+ *
+ * <ul>
+ *     <li>The lazy properties of {@link ImmutableType} and {@link ImmutableProp},
+ *     such as selectable properties, table names and column definitions</li>
+ *     <li>The readers of {@link ReaderManager} and the scalar providers</li>
+ *     <li>The type filters and association target filters of {@link Filters}</li>
+ *     <li>The draft interceptors and the association types of middle tables</li>
+ * </ul>
+ *
+ * <p>All these caches are thread-safe, so the warmup can be executed
+ * by a background thread while the sql client is being used.</p>
+ */
+public class MetadataWarmer {
+
+    private MetadataWarmer() {}
+
+    public static void warmUp(JSqlClientImplementor sqlClient) {
+        MetadataStrategy strategy = sqlClient.getMetadataStrategy();
+        Filters filters = sqlClient.getFilters();
+        for (ImmutableType type : sqlClient.getEntityManager().getAllTypes(sqlClient.getMicroServiceName())) {
+            if (!type.isEntity() || type instanceof AssociationType) {
+                continue;
+            }
+            type.getTableName(strategy);
+            type.getSelectableProps();
+            type.getSelectableScalarProps();
+            type.getLogicalDeletedInfo();
+            filters.getFilter(type, false);
+            filters.getFilter(type, true);
+            sqlClient.getDraftInterceptor(type);
+            for (ImmutableProp prop : type.getProps().values()) {
+                if (prop.isColumnDefinition()) {
+                    prop.getStorage(strategy);
+                    if (!prop.isAssociation(TargetLevel.ENTITY) && prop.getTargetType() == null) {
+                        sqlClient.getScalarProvider(prop);
+                    }
+                } else if (prop.isMiddleTableDefinition()) {
+                    prop.getStorage(strategy);
+                    AssociationType.of(prop);
+                }
+                if (prop.isAssociation(TargetLevel.PERSISTENT) && !prop.isRemote()) {
+                    filters.getTargetFilter(prop, false);
+                    filters.getTargetFilter(prop, true);
+                }
+            }
+            // Creates the readers of all selectable properties
+            sqlClient.getReader(type);
+        }
+    }
+}
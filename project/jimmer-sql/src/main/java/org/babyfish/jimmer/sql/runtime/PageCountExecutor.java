@@ -0,0 +1,60 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executes the count queries of
+ * {@link org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery#fetchPage(int, int)}
+ * concurrently with their data queries.
+ *
+ * <p>Each concurrent count query borrows another connection while the connection
+ * of its data query is still held, so that the pool could be exhausted by the
+ * pages which are waiting for each other. To avoid it,</p>
+ * <ul>
+ *     <li>At most {@code maxConcurrency} count queries borrow connections at the same time,
+ *     if there is no permit, the page is counted by its own connection after the data query</li>
+ *     <li>If the executor has not started the count query when the data query is finished,
+ *     the count query is executed by the connection of the data query
+ *     and the queued task does nothing</li>
+ * </ul>
+ *
+ * <p>So {@code maxConcurrency} should be less than the spare connections of the pool.</p>
+ *
+ * <p>It is shared by all sql clients derived from the same builder.</p>
+ */
+public class PageCountExecutor {
+
+    private final java.util.concurrent.Executor executor;
+
+    private final int maxConcurrency;
+
+    private final Semaphore semaphore;
+
+    public PageCountExecutor(java.util.concurrent.Executor executor, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("`maxConcurrency` cannot be less than 1");
+        }
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.semaphore = new Semaphore(maxConcurrency);
+    }
+
+    public java.util.concurrent.Executor getExecutor() {
+        return executor;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Try to reserve a connection for a concurrent count query, never blocks.
+     */
+    public boolean tryAcquire() {
+        return semaphore.tryAcquire();
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+}
@@ -0,0 +1,270 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connection-scoped bounded LRU cache of prepared statements,
+ * it is used by {@link DefaultExecutor} so that the statements
+ * executed again and again by the same connection, for example,
+ * the statements of data loaders and save commands in one transaction,
+ * reuse the prepared plans of the database server even if the JDBC driver
+ * has no statement cache of its own.
+ *
+ * <p>Statements are cached per connection object and per thread because JDBC
+ * connections are not shared by concurrent threads. A statement is taken
+ * out of the cache while it is used, so nested executions of the same SQL
+ * never share one statement.</p>
+ *
+ * <p>The cached statements of a connection are closed by {@link #close(Connection)},
+ * the built-in connection managers call it before the connection is closed or
+ * returned to the pool, so the cache of the thread is released with the connection.
+ * Custom connection managers should do the same, otherwise the statements are only
+ * closed when the same thread uses another connection and the connection
+ * is found closed.</p>
+ */
+public class PreparedStatementCache {
+
+    /**
+     * Prepared by {@link Connection#prepareStatement(String)}
+     */
+    public static final int NO_GENERATED_KEYS = 0;
+
+    /**
+     * Prepared by {@link Connection#prepareStatement(String, int[])} with the first column
+     */
+    public static final int FIRST_COLUMN_KEYS = 1;
+
+    /**
+     * Prepared by {@link Connection#prepareStatement(String, int)}
+     * with {@link java.sql.Statement#RETURN_GENERATED_KEYS}
+     */
+    public static final int RETURN_GENERATED_KEYS = 2;
+
+    private final int capacity;
+
+    // Connection -> Cache -> Statements, it is shared by all the caches so that
+    // connection managers can release the connection without knowing the caches
+    private static final ThreadLocal<Map<Connection, Map<PreparedStatementCache, StatementMap>>> LOCAL =
+            new ThreadLocal<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public PreparedStatementCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be less than 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Take a statement out of the cache, or create it if it is absent.
+     * The returned statement must be given back by {@link #release}.
+     *
+     * @param con The connection
+     * @param sql The SQL text
+     * @param generatedKeys One of {@link #NO_GENERATED_KEYS},
+     *                      {@link #FIRST_COLUMN_KEYS} and {@link #RETURN_GENERATED_KEYS}
+     */
+    public PreparedStatement acquire(
+            Connection con,
+            String sql,
+            int generatedKeys
+    ) throws SQLException {
+        Map<Connection, Map<PreparedStatementCache, StatementMap>> connectionMap = LOCAL.get();
+        if (connectionMap == null) {
+            LOCAL.set(connectionMap = new IdentityHashMap<>());
+        }
+        Map<PreparedStatementCache, StatementMap> cacheMap = connectionMap.get(con);
+        if (cacheMap == null) {
+            closeStaleStatements(connectionMap);
+            connectionMap.put(con, cacheMap = new IdentityHashMap<>());
+        }
+        StatementMap statementMap = cacheMap.get(this);
+        if (statementMap == null) {
+            cacheMap.put(this, new StatementMap(capacity));
+        } else {
+            PreparedStatement stmt = statementMap.remove(new Key(sql, generatedKeys));
+            if (stmt != null && !stmt.isClosed()) {
+                hitCount.incrementAndGet();
+                return stmt;
+            }
+        }
+        missCount.incrementAndGet();
+        switch (generatedKeys) {
+            case FIRST_COLUMN_KEYS:
+                return con.prepareStatement(sql, new int[] { 1 });
+            case RETURN_GENERATED_KEYS:
+                return con.prepareStatement(sql, java.sql.Statement.RETURN_GENERATED_KEYS);
+            default:
+                return con.prepareStatement(sql);
+        }
+    }
+
+    /**
+     * Give a statement returned by {@link #acquire} back to the cache.
+     *
+     * @param con The connection
+     * @param sql The SQL text
+     * @param generatedKeys The same value used by {@link #acquire}
+     * @param stmt The statement
+     * @param reusable false if the execution is failed, the statement is closed
+     */
+    public void release(
+            Connection con,
+            String sql,
+            int generatedKeys,
+            PreparedStatement stmt,
+            boolean reusable
+    ) {
+        StatementMap statementMap = reusable ? statementMap(con) : null;
+        if (statementMap != null) {
+            // The batch has been reset by `executeBatch`,
+            // only the parameters need to be cleared
+            try {
+                stmt.clearParameters();
+            } catch (SQLException ex) {
+                statementMap = null;
+            }
+        }
+        if (statementMap == null) {
+            closeQuietly(stmt);
+            return;
+        }
+        PreparedStatement conflictStmt = statementMap.put(new Key(sql, generatedKeys), stmt);
+        if (conflictStmt != null && conflictStmt != stmt) {
+            closeQuietly(conflictStmt);
+        }
+    }
+
+    /**
+     * Close the cached statements of the connection used by current thread,
+     * the connection managers call it before the connection is closed or
+     * returned to the connection pool. The statements which are being used
+     * have been taken out of the cache, so they are not affected.
+     */
+    public static void close(Connection con) {
+        Map<Connection, Map<PreparedStatementCache, StatementMap>> connectionMap = LOCAL.get();
+        if (connectionMap == null) {
+            return;
+        }
+        Map<PreparedStatementCache, StatementMap> cacheMap = connectionMap.remove(con);
+        if (connectionMap.isEmpty()) {
+            LOCAL.remove();
+        }
+        if (cacheMap != null) {
+            for (StatementMap statementMap : cacheMap.values()) {
+                statementMap.close();
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    private StatementMap statementMap(Connection con) {
+        Map<Connection, Map<PreparedStatementCache, StatementMap>> connectionMap = LOCAL.get();
+        if (connectionMap == null) {
+            return null;
+        }
+        Map<PreparedStatementCache, StatementMap> cacheMap = connectionMap.get(con);
+        return cacheMap != null ? cacheMap.get(this) : null;
+    }
+
+    private static void closeStaleStatements(Map<Connection, Map<PreparedStatementCache, StatementMap>> connectionMap) {
+        Iterator<Map.Entry<Connection, Map<PreparedStatementCache, StatementMap>>> itr =
+                connectionMap.entrySet().iterator();
+        while (itr.hasNext()) {
+            Map.Entry<Connection, Map<PreparedStatementCache, StatementMap>> e = itr.next();
+            boolean closed;
+            try {
+                closed = e.getKey().isClosed();
+            } catch (SQLException ex) {
+                closed = true;
+            }
+            if (closed) {
+                itr.remove();
+                for (StatementMap statementMap : e.getValue().values()) {
+                    statementMap.close();
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException ex) {
+            // Ignore, the statement cannot be used any more
+        }
+    }
+
+    private static class StatementMap extends LinkedHashMap<Key, PreparedStatement> {
+
+        private final int capacity;
+
+        StatementMap(int capacity) {
+            super((capacity * 4 + 2) / 3, .75F, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+            if (size() > capacity) {
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+
+        void close() {
+            for (PreparedStatement stmt : values()) {
+                closeQuietly(stmt);
+            }
+            clear();
+        }
+    }
+
+    private static class Key {
+
+        private final String sql;
+
+        private final int generatedKeys;
+
+        Key(String sql, int generatedKeys) {
+            this.sql = sql;
+            this.generatedKeys = generatedKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return sql.hashCode() * 31 + generatedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return generatedKeys == other.generatedKeys && sql.equals(other.sql);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.babyfish.jimmer.sql.meta.FormulaTemplate;
 import org.babyfish.jimmer.sql.meta.SqlTemplate;
 import org.babyfish.jimmer.sql.meta.Storage;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -39,6 +40,8 @@ public class ReaderManager {
 
     private static final Map<Class<?>, Reader<?>> SIMPLE_LIST_READER_MAP;
 
+    private static final Set<Reader<?>> SCALAR_READERS;
+
     private final JSqlClientImplementor sqlClient;
 
     private final TypeCache<Reader<?>> typeReaderCache =
@@ -64,6 +67,14 @@ public class ReaderManager {
         return propReaderCache.get(prop);
     }
 
+    boolean isCached(ImmutableType type) {
+        return typeReaderCache.isCached(type);
+    }
+
+    boolean isCached(ImmutableProp prop) {
+        return propReaderCache.isCached(prop);
+    }
+
     @SuppressWarnings("unchecked")
     private Reader<?> createPropReader(ImmutableProp prop) {
 
@@ -775,6 +786,59 @@ public class ReaderManager {
         }
     }
 
+    /**
+     * Whether the reader is known to never create drafts, so that it can
+     * be used by {@link ColumnarList} without draft context.
+     *
+     * <p>Only the built-in scalar readers are accepted, a reader of scalar provider
+     * is accepted only if its sql value is read by a built-in reader and its jvm type
+     * is neither immutable type nor container which may hold immutable objects.
+     * Any other reader, such as the readers of dialects and user-defined readers,
+     * is considered to be unsafe.</p>
+     */
+    static boolean isScalarReader(Reader<?> reader) {
+        if (reader instanceof CustomizedScalarReader<?, ?>) {
+            CustomizedScalarReader<?, ?> customizedReader = (CustomizedScalarReader<?, ?>) reader;
+            return isPlainScalarType(customizedReader.scalarProvider.getScalarType()) &&
+                    isScalarReader(customizedReader.sqlReader);
+        }
+        return reader instanceof JsonReader || SCALAR_READERS.contains(reader);
+    }
+
+    private static boolean isPlainScalarType(Type type) {
+        if (!(type instanceof Class<?>)) {
+            return false;
+        }
+        Class<?> clazz = (Class<?>) type;
+        if (clazz.isArray()) {
+            return isPlainScalarType(clazz.getComponentType());
+        }
+        return ImmutableType.tryGet(clazz) == null &&
+                !Collection.class.isAssignableFrom(clazz) &&
+                !Map.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * Get the primitive type read by a standard reader,
+     * or null if the value of the reader cannot be stored in a primitive column.
+     */
+    @Nullable
+    static Class<?> primitiveType(Reader<?> reader) {
+        if (reader instanceof LongReader) {
+            return long.class;
+        }
+        if (reader instanceof IntReader) {
+            return int.class;
+        }
+        if (reader instanceof DoubleReader) {
+            return double.class;
+        }
+        if (reader instanceof BooleanReader) {
+            return boolean.class;
+        }
+        return null;
+    }
+
     public static boolean isStandardScalarType(Class<?> type) {
         return BASE_READER_MAP.containsKey(type);
     }
@@ -838,5 +902,10 @@ public class ReaderManager {
         simpleListReaderMap.put(String.class, new StringListReader());
         simpleListReaderMap.put(UUID.class, new UUIDListReader());
         SIMPLE_LIST_READER_MAP = simpleListReaderMap;
+
+        Set<Reader<?>> scalarReaders = Collections.newSetFromMap(new IdentityHashMap<>());
+        scalarReaders.addAll(baseReaderMap.values());
+        scalarReaders.addAll(simpleListReaderMap.values());
+        SCALAR_READERS = scalarReaders;
     }
 }
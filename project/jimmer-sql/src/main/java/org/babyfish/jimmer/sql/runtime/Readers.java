@@ -98,7 +98,7 @@ class Readers {
         }
     }
 
-    private static Reader<?> createSingleReader(JSqlClientImplementor sqlClient, Selection<?> selection) {
+    static Reader<?> createSingleReader(JSqlClientImplementor sqlClient, Selection<?> selection) {
         if (selection instanceof TableSelection) {
             ImmutableType immutableType =
                     ((TableSelection)selection).getImmutableType();
@@ -0,0 +1,363 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read/write splitting connection manager which routes reads to replicas.
+ *
+ * <p>Usage</p>
+ * <pre>{@code
+ * RoutingConnectionManager routing = RoutingConnectionManager
+ *     .newBuilder(primaryConnectionManager)
+ *     .addReplica(replicaConnectionManager1)
+ *     .addReplica(replicaConnectionManager2)
+ *     .build();
+ * JSqlClient sqlClient = JSqlClient
+ *     .newBuilder()
+ *     .setConnectionManager(routing.getWriteConnectionManager())
+ *     .setSlaveConnectionManager(routing)
+ *     ...
+ *     .build();
+ * }</pre>
+ *
+ * <ul>
+ *     <li>Reads are balanced between replicas by {@link Balancing}</li>
+ *     <li>Each operation of {@link #getWriteConnectionManager()} records
+ *     the commit timestamp of the current session, the reads of this session
+ *     are routed to the primary database until a replica catches up.
+ *     A replica is considered caught up when its replication lag, reported by
+ *     {@link #reportReplicationLag(int, Duration)}, shows that it has applied
+ *     the changes of that timestamp. Before any lag is reported, the lag of a
+ *     replica is considered to be the max replication lag.</li>
+ *     <li>Nested executions of the same thread and the concurrent branches of
+ *     the same query, such as parallel object fetchers and page counting, are
+ *     routed to the database of the root query</li>
+ * </ul>
+ *
+ * <p>If the connections of writes are not in auto-commit mode, the transaction
+ * is committed after the execution of jimmer, such applications should call
+ * {@link #recordCommit()} after the commit, for example, by the transaction
+ * synchronization of the transaction framework.</p>
+ */
+public class RoutingConnectionManager implements ConnectionManager {
+
+    private final Route primary;
+
+    private final List<Route> replicas;
+
+    private final Balancing balancing;
+
+    private final long maxLagMillis;
+
+    private final SessionTracker sessionTracker;
+
+    private final ConnectionManager writeConnectionManager;
+
+    private final AtomicInteger roundRobinCounter = new AtomicInteger();
+
+    private final ThreadLocal<Route> routeLocal = new ThreadLocal<>();
+
+    private final Map<Connection, Route> activeRouteMap = new IdentityHashMap<>();
+
+    private RoutingConnectionManager(Builder builder) {
+        this.primary = new Route(-1, builder.primary, 0L);
+        List<Route> replicas = new ArrayList<>(builder.replicas.size());
+        for (ConnectionManager replica : builder.replicas) {
+            replicas.add(new Route(replicas.size(), replica, builder.maxLagMillis));
+        }
+        this.replicas = Collections.unmodifiableList(replicas);
+        this.balancing = builder.balancing;
+        this.maxLagMillis = builder.maxLagMillis;
+        this.sessionTracker = builder.sessionTracker;
+        this.writeConnectionManager = new ConnectionManager() {
+            @Override
+            public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+                try {
+                    return primary.connectionManager.execute(con, block);
+                } finally {
+                    recordCommit();
+                }
+            }
+            @Override
+            public boolean isConnectionBoundToThread() {
+                return primary.connectionManager.isConnectionBoundToThread();
+            }
+        };
+    }
+
+    public static Builder newBuilder(ConnectionManager primary) {
+        return new Builder(primary);
+    }
+
+    /**
+     * @return The connection manager of the primary database which records
+     * the commit timestamp of the current session after each execution
+     */
+    public ConnectionManager getWriteConnectionManager() {
+        return writeConnectionManager;
+    }
+
+    @Override
+    public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+        if (con != null) {
+            return block.apply(con);
+        }
+        Route route = routeLocal.get();
+        if (route != null) {
+            return route.connectionManager.execute(block);
+        }
+        return executeRoute(select(), block);
+    }
+
+    @Override
+    public boolean isConnectionBoundToThread() {
+        if (routeLocal.get() != null || primary.connectionManager.isConnectionBoundToThread()) {
+            return true;
+        }
+        for (Route replica : replicas) {
+            if (replica.connectionManager.isConnectionBoundToThread()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public <R> R executeBranch(@Nullable Connection rootCon, Function<Connection, R> block) {
+        Route route = null;
+        if (rootCon != null) {
+            synchronized (activeRouteMap) {
+                route = activeRouteMap.get(rootCon);
+            }
+        }
+        if (route == null) {
+            return execute(null, block);
+        }
+        return executeRoute(route, block);
+    }
+
+    /**
+     * Record the commit timestamp of the current session,
+     * the following reads of this session are routed to the primary database
+     * until a replica catches up.
+     */
+    public void recordCommit() {
+        sessionTracker.setLastCommitMillis(System.currentTimeMillis());
+    }
+
+    /**
+     * Report the current replication lag of a replica, for example,
+     * by a scheduled job querying the replay timestamp or LSN of the replica.
+     *
+     * @param replicaIndex The index of replica, in the order of {@link Builder#addReplica(ConnectionManager)}
+     * @param lag The replication lag, if it is greater than the max replication lag,
+     *            the replica is not used until a smaller lag is reported.
+     */
+    public void reportReplicationLag(int replicaIndex, Duration lag) {
+        if (lag.isNegative()) {
+            throw new IllegalArgumentException("`lag` cannot be negative");
+        }
+        replicas.get(replicaIndex).lagMillis = lag.toMillis();
+    }
+
+    private <R> R executeRoute(Route route, Function<Connection, R> block) {
+        long start = System.nanoTime();
+        try {
+            return route.connectionManager.execute(c -> {
+                Route oldRoute = routeLocal.get();
+                routeLocal.set(route);
+                boolean registered = false;
+                if (c != null) {
+                    synchronized (activeRouteMap) {
+                        registered = activeRouteMap.putIfAbsent(c, route) == null;
+                    }
+                }
+                try {
+                    return block.apply(c);
+                } finally {
+                    if (registered) {
+                        synchronized (activeRouteMap) {
+                            activeRouteMap.remove(c);
+                        }
+                    }
+                    if (oldRoute != null) {
+                        routeLocal.set(oldRoute);
+                    } else {
+                        routeLocal.remove();
+                    }
+                }
+            });
+        } finally {
+            route.recordLatency(System.nanoTime() - start);
+        }
+    }
+
+    private Route select() {
+        List<Route> replicas = this.replicas;
+        int size = replicas.size();
+        if (size == 0) {
+            return primary;
+        }
+        long lastCommitMillis = sessionTracker.getLastCommitMillis();
+        long now = System.currentTimeMillis();
+        if (balancing == Balancing.LEAST_LATENCY) {
+            Route best = null;
+            for (Route replica : replicas) {
+                if (replica.isAvailable(now, lastCommitMillis, maxLagMillis) &&
+                        (best == null || replica.latencyNanos.get() < best.latencyNanos.get())) {
+                    best = replica;
+                }
+            }
+            return best != null ? best : primary;
+        }
+        int start = Math.floorMod(roundRobinCounter.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Route replica = replicas.get((start + i) % size);
+            if (replica.isAvailable(now, lastCommitMillis, maxLagMillis)) {
+                return replica;
+            }
+        }
+        return primary;
+    }
+
+    public enum Balancing {
+
+        /**
+         * Replicas are used in turn
+         */
+        ROUND_ROBIN,
+
+        /**
+         * The replica with the least moving average of execution latency is used
+         */
+        LEAST_LATENCY
+    }
+
+    /**
+     * Storage of the commit timestamp of the logical session,
+     * the default implementation stores it in a thread local variable.
+     * Applications whose logical sessions are not bound to threads,
+     * for example, http sessions, can store it elsewhere.
+     */
+    public interface SessionTracker {
+
+        /**
+         * @return The last commit timestamp in milliseconds of the current session, 0 means no commit
+         */
+        long getLastCommitMillis();
+
+        void setLastCommitMillis(long millis);
+
+        static SessionTracker threadLocal() {
+            ThreadLocal<Long> local = new ThreadLocal<>();
+            return new SessionTracker() {
+                @Override
+                public long getLastCommitMillis() {
+                    Long millis = local.get();
+                    return millis != null ? millis : 0L;
+                }
+                @Override
+                public void setLastCommitMillis(long millis) {
+                    local.set(millis);
+                }
+            };
+        }
+    }
+
+    public static class Builder {
+
+        private final ConnectionManager primary;
+
+        private final List<ConnectionManager> replicas = new ArrayList<>();
+
+        private Balancing balancing = Balancing.ROUND_ROBIN;
+
+        private long maxLagMillis = 1000L;
+
+        private SessionTracker sessionTracker;
+
+        private Builder(ConnectionManager primary) {
+            this.primary = Objects.requireNonNull(primary, "`primary` cannot be null");
+        }
+
+        public Builder addReplica(ConnectionManager replica) {
+            replicas.add(Objects.requireNonNull(replica, "`replica` cannot be null"));
+            return this;
+        }
+
+        public Builder setBalancing(Balancing balancing) {
+            this.balancing = Objects.requireNonNull(balancing, "`balancing` cannot be null");
+            return this;
+        }
+
+        /**
+         * @param maxLag The max acceptable replication lag, it is also the
+         *               assumed lag of the replicas whose lag has not been reported.
+         *               The default value is 1 second.
+         */
+        public Builder setMaxReplicationLag(Duration maxLag) {
+            if (maxLag.isNegative()) {
+                throw new IllegalArgumentException("`maxLag` cannot be negative");
+            }
+            this.maxLagMillis = maxLag.toMillis();
+            return this;
+        }
+
+        public Builder setSessionTracker(SessionTracker sessionTracker) {
+            this.sessionTracker = sessionTracker;
+            return this;
+        }
+
+        public RoutingConnectionManager build() {
+            if (sessionTracker == null) {
+                sessionTracker = SessionTracker.threadLocal();
+            }
+            return new RoutingConnectionManager(this);
+        }
+    }
+
+    private static class Route {
+
+        final int index;
+
+        final ConnectionManager connectionManager;
+
+        volatile long lagMillis;
+
+        // Exponential moving average, 0 before the first execution
+        // so that the unused replicas are preferred
+        final AtomicLong latencyNanos = new AtomicLong();
+
+        Route(int index, ConnectionManager connectionManager, long lagMillis) {
+            this.index = index;
+            this.connectionManager = connectionManager;
+            this.lagMillis = lagMillis;
+        }
+
+        boolean isAvailable(long now, long lastCommitMillis, long maxLagMillis) {
+            long lag = lagMillis;
+            return lag <= maxLagMillis && now - lag >= lastCommitMillis;
+        }
+
+        void recordLatency(long nanos) {
+            if (index == -1) {
+                return;
+            }
+            long oldValue = latencyNanos.get();
+            long newValue = oldValue == 0 ? nanos : oldValue + (nanos - oldValue) / 5;
+            latencyNanos.compareAndSet(oldValue, newValue);
+        }
+
+        @Override
+        public String toString() {
+            return index == -1 ? "primary" : "replica-" + index;
+        }
+    }
+}
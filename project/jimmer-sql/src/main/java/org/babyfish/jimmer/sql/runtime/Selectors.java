@@ -2,15 +2,20 @@ package org.babyfish.jimmer.sql.runtime;
 
 import org.babyfish.jimmer.runtime.Internal;
 import org.babyfish.jimmer.sql.ast.Selection;
+import org.babyfish.jimmer.sql.dialect.Dialect;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
 import org.babyfish.jimmer.sql.fetcher.impl.FetcherUtil;
 import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.ArrayList;
-import java.util.List;
+import java.sql.SQLException;
+import java.util.*;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Selectors {
 
@@ -38,6 +43,16 @@ public class Selectors {
                         purpose,
                         null,
                         stmt -> {
+                            List<Reader<?>> scalarReaders = ColumnarList.scalarReaders(sqlClient, selections);
+                            if (scalarReaders != null) {
+                                try (ResultSet resultSet = stmt.executeQuery()) {
+                                    return ColumnarList.read(
+                                            resultSet,
+                                            scalarReaders,
+                                            new Reader.Context(null, sqlClient)
+                                    );
+                                }
+                            }
                             Reader<?> reader = Readers.createReader(sqlClient, selections);
                             return Internal.usingSqlDraftContext(draftCtx -> {
                                 Reader.Context ctx = new Reader.Context(draftCtx, sqlClient);
@@ -114,4 +129,230 @@ public class Selectors {
             Cursors.setCurrentCursorId(oldCursorId);
         }
     }
+
+    /**
+     * Open a forward-only cursor and return a lazy stream over it.
+     *
+     * <p>The statement and the result set are kept open after this method returns,
+     * rows are read chunk by chunk and the associations of each chunk are
+     * fetched by {@link FetcherUtil} before the rows of that chunk are emitted.
+     * The cursor is released when the stream is exhausted or closed.</p>
+     *
+     * <p>The fetch size of the statement is decided by {@link Dialect#getStreamingFetchSize(int)},
+     * the query is rejected if the rows cannot be read by cursor
+     * ({@link Dialect#isStreamingAutoCommitForbidden()}) or the object fetchers need
+     * the connection exclusively used by the cursor ({@link Dialect#isStreamingConnectionExclusive()}).</p>
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> Stream<R> stream(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            String sql,
+            List<Object> variables,
+            @Nullable List<Integer> variablePositions,
+            List<Selection<?>> selections,
+            ExecutionPurpose purpose,
+            int batchSize
+    ) {
+        validateStreaming(sqlClient, con, sql, selections);
+        int fetchSize = sqlClient.getDialect().getStreamingFetchSize(batchSize);
+        PreparedStatement[] realStatementRef = new PreparedStatement[1];
+        ResultSet resultSet;
+        try {
+            resultSet = sqlClient.getExecutor().execute(
+                    new Executor.Args<>(
+                            sqlClient,
+                            con,
+                            sql,
+                            variables,
+                            variablePositions,
+                            purpose,
+                            (c, s) -> {
+                                PreparedStatement stmt = c.prepareStatement(
+                                        s,
+                                        ResultSet.TYPE_FORWARD_ONLY,
+                                        ResultSet.CONCUR_READ_ONLY
+                                );
+                                stmt.setFetchSize(fetchSize);
+                                realStatementRef[0] = stmt;
+                                return stmt;
+                            },
+                            stmt -> {
+                                if (realStatementRef[0] == null) {
+                                    throw new ExecutionException(
+                                            "The executor must create statement by `Executor.Args.statementFactory` " +
+                                                    "to support the streaming query"
+                                    );
+                                }
+                                return stmt.executeQuery();
+                            },
+                            true
+                    )
+            );
+        } catch (RuntimeException | Error ex) {
+            close(null, realStatementRef[0]);
+            throw ex;
+        }
+        Reader<?> reader = Readers.createReader(sqlClient, selections);
+        Cursor<R> cursor = new Cursor<>(
+                batchSize,
+                resultSet,
+                realStatementRef[0],
+                chunk -> {
+                    try {
+                        Internal.usingSqlDraftContext(draftCtx -> {
+                            Reader.Context ctx = new Reader.Context(draftCtx, sqlClient);
+                            while (chunk.size() < batchSize && resultSet.next()) {
+                                chunk.add((R) reader.read(resultSet, ctx));
+                                ctx.resetCol();
+                            }
+                            return null;
+                        });
+                    } catch (SQLException ex) {
+                        throw new ExecutionException(
+                                "Cannot read the result set of SQL statement: " + sql,
+                                ex
+                        );
+                    }
+                },
+                chunk -> FetcherUtil.fetch(sqlClient, con, selections, chunk)
+        );
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static void validateStreaming(
+            JSqlClientImplementor sqlClient,
+            Connection con,
+            String sql,
+            List<Selection<?>> selections
+    ) {
+        Dialect dialect = sqlClient.getDialect();
+        if (dialect.isStreamingAutoCommitForbidden()) {
+            boolean autoCommit;
+            try {
+                autoCommit = con.getAutoCommit();
+            } catch (SQLException ex) {
+                throw new ExecutionException(
+                        "Cannot get the auto-commit of the connection of SQL statement: " + sql,
+                        ex
+                );
+            }
+            if (autoCommit) {
+                throw new IllegalStateException(
+                        "The streaming query cannot be executed by the auto-commit connection " +
+                                "because the current dialect \"" +
+                                dialect.getClass().getName() +
+                                "\" can only read the rows by cursor in transaction, " +
+                                "please execute it in transaction"
+                );
+            }
+        }
+        if (dialect.isStreamingConnectionExclusive() && FetcherUtil.isFetchRequired(sqlClient, selections)) {
+            throw new IllegalStateException(
+                    "The streaming query cannot fetch associated objects " +
+                            "because the current dialect \"" +
+                            dialect.getClass().getName() +
+                            "\" cannot execute other statements by the connection until the stream is closed, " +
+                            "please remove the associations from the object fetcher and load them later, " +
+                            "or use `forEach` which reads the rows by batches"
+            );
+        }
+    }
+
+    private static void close(@Nullable ResultSet resultSet, @Nullable PreparedStatement stmt) {
+        SQLException exception = null;
+        if (resultSet != null) {
+            try {
+                resultSet.close();
+            } catch (SQLException ex) {
+                exception = ex;
+            }
+        }
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+        if (exception != null) {
+            throw new ExecutionException("Cannot close the streaming query cursor", exception);
+        }
+    }
+
+    private static class Cursor<R> extends Spliterators.AbstractSpliterator<R> {
+
+        private final int batchSize;
+
+        private final ResultSet resultSet;
+
+        private final PreparedStatement statement;
+
+        private final Consumer<List<R>> reader;
+
+        private final Consumer<List<R>> fetcher;
+
+        private List<R> chunk = Collections.emptyList();
+
+        private int index;
+
+        private boolean closed;
+
+        Cursor(
+                int batchSize,
+                ResultSet resultSet,
+                PreparedStatement statement,
+                Consumer<List<R>> reader,
+                Consumer<List<R>> fetcher
+        ) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.batchSize = batchSize;
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.reader = reader;
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            if (index >= chunk.size()) {
+                if (closed) {
+                    return false;
+                }
+                List<R> newChunk = new ArrayList<>(Math.min(batchSize, 1024));
+                try {
+                    reader.accept(newChunk);
+                    if (newChunk.size() < batchSize) {
+                        close();
+                    }
+                    fetcher.accept(newChunk);
+                } catch (RuntimeException | Error ex) {
+                    try {
+                        close();
+                    } catch (RuntimeException closeEx) {
+                        ex.addSuppressed(closeEx);
+                    }
+                    throw ex;
+                }
+                chunk = newChunk;
+                index = 0;
+                if (chunk.isEmpty()) {
+                    return false;
+                }
+            }
+            action.accept(chunk.get(index++));
+            return true;
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                Selectors.close(resultSet, statement);
+            }
+        }
+    }
 }
@@ -0,0 +1,614 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.meta.TargetLevel;
+import org.babyfish.jimmer.sql.ast.Predicate;
+import org.babyfish.jimmer.sql.ast.impl.ShardKeyPredicates;
+import org.babyfish.jimmer.sql.exception.ExecutionException;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Connection manager which routes statements to the shards,
+ * each shard is another connection manager, such as the connection manager of another
+ * {@link javax.sql.DataSource}.
+ *
+ * <p>Usage</p>
+ * <pre>{@code
+ * ShardingConnectionManager sharding = ShardingConnectionManager
+ *     .newBuilder(tenantId -> "shard-" + Math.floorMod(tenantId.hashCode(), 2))
+ *     .addShard("shard-0", ConnectionManager.simpleConnectionManager(dataSource0))
+ *     .addShard("shard-1", ConnectionManager.simpleConnectionManager(dataSource1))
+ *     .addShardKey(BookProps.TENANT.unwrap())
+ *     .build();
+ * JSqlClient sqlClient = JSqlClient
+ *     .newBuilder()
+ *     .setConnectionManager(sharding)
+ *     ...
+ *     .build();
+ * }</pre>
+ *
+ * <p>The shard of an execution is determined by</p>
+ * <ul>
+ *     <li>The shard bound by {@link #executeOn(Object, Supplier)},
+ *     {@link #executeOnShard(String, Supplier)}, {@link #scatter(Supplier)}
+ *     or {@link #executeByShard(Collection, Function, Function)},
+ *     a {@code shardKey = value} predicate of root queries which conflicts with it
+ *     is rejected</li>
+ *     <li>The top-level {@code shardKey = value} predicate of root queries
+ *     specified by {@code where}. The predicates of global filters are applied
+ *     after the connection is chosen, so the applications using
+ *     {@link org.babyfish.jimmer.sql.filter.ShardingFilter} should bind the shard
+ *     by {@link #executeOn(Object, Supplier)} with the value used by the filter</li>
+ *     <li>The default shard, if it is configured</li>
+ * </ul>
+ * <p>Otherwise, the root queries of the entity types with shard keys are scattered
+ * to all the shards automatically, the rows are concatenated, or merged by
+ * the {@code orderBy} of the query and then paginated, and {@code fetchUnlimitedCount}
+ * sums the counts of shards. Queries using {@code distinct}, {@code group by} or aggregation,
+ * and all other executions, are rejected; they should be executed by {@link #scatter(Supplier)}
+ * and merged by the caller.
+ * The merge runs in memory, it cannot know the collation and the default null order of
+ * the database, so the order expressions of the merged queries must be numbers, booleans or
+ * date/time values without scalar provider, or strings compared by
+ * {@link Builder#setStringComparator(Comparator)}; and nullable order expressions must
+ * specify {@code nullsFirst()} or {@code nullsLast()}.
+ * Object fetchers and other nested executions of a statement use the shard of that statement.</p>
+ *
+ * <p>Each shard has its own transactions, the operations of different shards
+ * are not atomic.</p>
+ */
+public class ShardingConnectionManager implements ConnectionManager {
+
+    private final Map<String, Shard> shardMap;
+
+    private final List<Shard> shards;
+
+    private final Function<Object, String> shardResolver;
+
+    private final Map<ImmutableType, ImmutableProp> shardKeyPropMap;
+
+    @Nullable
+    private final Shard defaultShard;
+
+    @Nullable
+    private final java.util.concurrent.Executor scatterExecutor;
+
+    @Nullable
+    private final Comparator<? super String> stringComparator;
+
+    private final ThreadLocal<Shard> shardLocal = new ThreadLocal<>();
+
+    private final Map<Connection, Shard> activeShardMap = new IdentityHashMap<>();
+
+    private ShardingConnectionManager(Builder builder) {
+        Map<String, Shard> shardMap = new LinkedHashMap<>();
+        for (Map.Entry<String, ConnectionManager> e : builder.connectionManagerMap.entrySet()) {
+            shardMap.put(e.getKey(), new Shard(e.getKey(), e.getValue()));
+        }
+        this.shardMap = Collections.unmodifiableMap(shardMap);
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shardMap.values()));
+        this.shardResolver = builder.shardResolver;
+        this.shardKeyPropMap = Collections.unmodifiableMap(new HashMap<>(builder.shardKeyPropMap));
+        this.defaultShard = builder.defaultShardName != null ? shard(builder.defaultShardName) : null;
+        this.scatterExecutor = builder.scatterExecutor;
+        this.stringComparator = builder.stringComparator;
+    }
+
+    /**
+     * @param shardResolver Resolve the shard name by the value of shard key
+     */
+    public static Builder newBuilder(Function<Object, String> shardResolver) {
+        return new Builder(shardResolver);
+    }
+
+    public Set<String> getShardNames() {
+        return shardMap.keySet();
+    }
+
+    /**
+     * @return The comparator used to merge the scattered rows ordered by strings,
+     * null means such queries cannot be scattered automatically.
+     */
+    @Nullable
+    public Comparator<? super String> getStringComparator() {
+        return stringComparator;
+    }
+
+    @Override
+    public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+        if (con != null) {
+            return block.apply(con);
+        }
+        Shard shard = shardLocal.get();
+        if (shard == null) {
+            shard = defaultShard;
+            if (shard == null) {
+                throw new IllegalStateException(
+                        "Cannot determine the shard of the execution, " +
+                                "please execute it by `executeOn`, `executeOnShard`, " +
+                                "`scatter` or `executeByShard` of \"" +
+                                ShardingConnectionManager.class.getName() +
+                                "\", or configure the default shard"
+                );
+            }
+        }
+        return executeImpl(shard, block);
+    }
+
+    @Override
+    public <R> R executeBranch(@Nullable Connection rootCon, Function<Connection, R> block) {
+        Shard shard = null;
+        if (rootCon != null) {
+            synchronized (activeShardMap) {
+                shard = activeShardMap.get(rootCon);
+            }
+        }
+        if (shard == null) {
+            return execute(null, block);
+        }
+        Shard rootShard = shard;
+        return executeOnShard(rootShard, () -> executeImpl(rootShard, block));
+    }
+
+    /**
+     * Get the connection manager for a root statement, if the statement has
+     * the {@code shardKey = value} predicate, the returned connection manager
+     * routes it to the shard of that value, otherwise, returns this object.
+     *
+     * @exception IllegalStateException The shard of the {@code shardKey = value} predicate
+     * conflicts with the shard bound by {@link #executeOn(Object, Supplier)},
+     * {@link #executeOnShard(String, Supplier)}, {@link #scatter(Supplier)}
+     * or {@link #executeByShard(Collection, Function, Function)}
+     */
+    public ConnectionManager forStatement(ImmutableType type, List<Predicate> predicates) {
+        ImmutableProp shardKeyProp = shardKeyPropMap.get(type);
+        Object value = shardKeyProp != null ?
+                ShardKeyPredicates.findValue(predicates, shardKeyProp) :
+                null;
+        Shard boundShard = shardLocal.get();
+        if (boundShard != null) {
+            if (value != null && resolve(value) != boundShard) {
+                throw new IllegalStateException(
+                        "The predicate \"" +
+                                shardKeyProp +
+                                " = " +
+                                value +
+                                "\" belongs to the shard \"" +
+                                resolve(value) +
+                                "\", but the execution is bound to the shard \"" +
+                                boundShard +
+                                "\""
+                );
+            }
+            return this;
+        }
+        if (value == null) {
+            return this;
+        }
+        Shard shard = resolve(value);
+        return new ConnectionManager() {
+            @Override
+            public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+                if (con != null) {
+                    return block.apply(con);
+                }
+                return executeOnShard(shard, () -> executeImpl(shard, block));
+            }
+            @Override
+            public <R> R executeBranch(@Nullable Connection rootCon, Function<Connection, R> block) {
+                return ShardingConnectionManager.this.executeBranch(rootCon, block);
+            }
+            @Override
+            public boolean isConnectionBoundToThread() {
+                return ShardingConnectionManager.this.isConnectionBoundToThread();
+            }
+        };
+    }
+
+    /**
+     * The shard bound by {@link #executeOn(Object, Supplier)} and its siblings
+     * is also bound to the current thread.
+     */
+    @Override
+    public boolean isConnectionBoundToThread() {
+        if (shardLocal.get() != null) {
+            return true;
+        }
+        for (Shard shard : shards) {
+            if (shard.connectionManager.isConnectionBoundToThread()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the root statement of a sharded entity type cannot be routed to one shard,
+     * that is, no shard is bound, the statement has no {@code shardKey = value}
+     * predicate and the default shard is not configured.
+     * Such root queries are scattered to all the shards automatically.
+     */
+    public boolean isScatterRequired(ImmutableType type, List<Predicate> predicates) {
+        if (shardLocal.get() != null || defaultShard != null) {
+            return false;
+        }
+        ImmutableProp shardKeyProp = shardKeyPropMap.get(type);
+        return shardKeyProp != null && ShardKeyPredicates.findValue(predicates, shardKeyProp) == null;
+    }
+
+    /**
+     * Execute the block with the shard of the shard key value,
+     * all the executions of this connection manager in the block use that shard.
+     */
+    public <R> R executeOn(Object shardKey, Supplier<R> block) {
+        return executeOnShard(resolve(shardKey), block);
+    }
+
+    /**
+     * Execute the block with the specified shard,
+     * all the executions of this connection manager in the block use that shard.
+     */
+    public <R> R executeOnShard(String shardName, Supplier<R> block) {
+        return executeOnShard(shard(shardName), block);
+    }
+
+    /**
+     * Execute the block with each shard, in parallel if the scatter executor is configured.
+     *
+     * <p>The results need to be merged by the caller, for example</p>
+     * <ul>
+     *     <li>Unordered rows can be concatenated</li>
+     *     <li>For {@code orderBy} and {@code limit(limit, offset)}, each shard should
+     *     execute the query with {@code limit(offset + limit, 0)}, and the results
+     *     are merged by {@link #mergeSorted(List, Comparator, int, int)}</li>
+     *     <li>{@code count}, {@code sum}, {@code min} and {@code max} can be combined by
+     *     {@link #combine(List, BinaryOperator)}, {@code avg} should be calculated by
+     *     the combined {@code sum} and {@code count}</li>
+     * </ul>
+     *
+     * @return The results of shards, in the order of {@link #getShardNames()}
+     */
+    public <R> List<R> scatter(Supplier<R> block) {
+        List<R> results = new ArrayList<>(shards.size());
+        java.util.concurrent.Executor executor = scatterExecutor;
+        if (executor == null || shards.size() < 2) {
+            for (Shard shard : shards) {
+                results.add(executeOnShard(shard, block));
+            }
+            return results;
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> executeOnShard(shard, block), executor));
+        }
+        join(futures, results);
+        return results;
+    }
+
+    /**
+     * Split the items by shard and execute the block with each shard and its items,
+     * for example, {@code saveEntities} of the entities of each shard.
+     *
+     * @param items The items
+     * @param shardKeyGetter Get the value of shard key of an item
+     * @param block The block, it is invoked with the items of one shard
+     * @return The results of the shards which have items,
+     * in the order of {@link #getShardNames()}
+     */
+    public <E, R> List<R> executeByShard(
+            Collection<E> items,
+            Function<? super E, ?> shardKeyGetter,
+            Function<List<E>, R> block
+    ) {
+        Map<Shard, List<E>> itemMap = new LinkedHashMap<>();
+        for (Shard shard : shards) {
+            itemMap.put(shard, new ArrayList<>());
+        }
+        for (E item : items) {
+            itemMap.get(resolve(shardKeyGetter.apply(item))).add(item);
+        }
+        itemMap.values().removeIf(List::isEmpty);
+        List<R> results = new ArrayList<>(itemMap.size());
+        java.util.concurrent.Executor executor = scatterExecutor;
+        if (executor == null || itemMap.size() < 2) {
+            for (Map.Entry<Shard, List<E>> e : itemMap.entrySet()) {
+                results.add(executeOnShard(e.getKey(), () -> block.apply(e.getValue())));
+            }
+            return results;
+        }
+        List<CompletableFuture<R>> futures = new ArrayList<>(itemMap.size());
+        for (Map.Entry<Shard, List<E>> e : itemMap.entrySet()) {
+            futures.add(
+                    CompletableFuture.supplyAsync(
+                            () -> executeOnShard(e.getKey(), () -> block.apply(e.getValue())),
+                            executor
+                    )
+            );
+        }
+        join(futures, results);
+        return results;
+    }
+
+    /**
+     * Merge the sorted results of shards.
+     *
+     * @param sortedResults The results of shards, each of them is sorted by the comparator
+     *                      and contains at least {@code offset + limit} rows if the shard has enough rows
+     * @param comparator The comparator which is same with the {@code orderBy} of the query
+     * @param limit The max row count, {@link Integer#MAX_VALUE} means no limit
+     * @param offset The skipped row count
+     */
+    public static <E> List<E> mergeSorted(
+            List<? extends List<E>> sortedResults,
+            Comparator<? super E> comparator,
+            int limit,
+            int offset
+    ) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("`limit` cannot be negative");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("`offset` cannot be negative");
+        }
+        PriorityQueue<PeekingIterator<E>> queue = new PriorityQueue<>(
+                Math.max(1, sortedResults.size()),
+                (a, b) -> comparator.compare(a.peek(), b.peek())
+        );
+        for (List<E> result : sortedResults) {
+            if (!result.isEmpty()) {
+                queue.add(new PeekingIterator<>(result.iterator()));
+            }
+        }
+        List<E> merged = new ArrayList<>();
+        int skipped = 0;
+        while (merged.size() < limit && !queue.isEmpty()) {
+            PeekingIterator<E> itr = queue.poll();
+            E row = itr.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(row);
+            }
+            if (itr.hasNext()) {
+                queue.add(itr);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Combine the aggregated values of shards, null values,
+     * for example, the {@code sum} of shards without rows, are ignored.
+     *
+     * @return The combined value, or null if all values are null
+     */
+    @Nullable
+    public static <E> E combine(List<E> values, BinaryOperator<E> combiner) {
+        E combined = null;
+        for (E value : values) {
+            if (value != null) {
+                combined = combined == null ? value : combiner.apply(combined, value);
+            }
+        }
+        return combined;
+    }
+
+    private <R> R executeOnShard(Shard shard, Supplier<R> block) {
+        Shard oldShard = shardLocal.get();
+        shardLocal.set(shard);
+        try {
+            return block.get();
+        } finally {
+            if (oldShard != null) {
+                shardLocal.set(oldShard);
+            } else {
+                shardLocal.remove();
+            }
+        }
+    }
+
+    private <R> R executeImpl(Shard shard, Function<Connection, R> block) {
+        return shard.connectionManager.execute(c -> {
+            boolean registered = false;
+            if (c != null) {
+                synchronized (activeShardMap) {
+                    registered = activeShardMap.putIfAbsent(c, shard) == null;
+                }
+            }
+            try {
+                return block.apply(c);
+            } finally {
+                if (registered) {
+                    synchronized (activeShardMap) {
+                        activeShardMap.remove(c);
+                    }
+                }
+            }
+        });
+    }
+
+    private Shard resolve(Object shardKey) {
+        if (shardKey == null) {
+            throw new IllegalArgumentException("The shard key cannot be null");
+        }
+        return shard(shardResolver.apply(shardKey));
+    }
+
+    private Shard shard(String shardName) {
+        Shard shard = shardMap.get(shardName);
+        if (shard == null) {
+            throw new IllegalArgumentException(
+                    "Illegal shard name \"" +
+                            shardName +
+                            "\", it must be one of " +
+                            shardMap.keySet()
+            );
+        }
+        return shard;
+    }
+
+    private static <R> void join(List<CompletableFuture<R>> futures, List<R> results) {
+        Throwable throwable = null;
+        for (CompletableFuture<R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException ex) {
+                if (throwable == null) {
+                    throwable = ex.getCause() != null ? ex.getCause() : ex;
+                }
+            }
+        }
+        if (throwable instanceof RuntimeException) {
+            throw (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable != null) {
+            throw new ExecutionException("Failed to execute on the shards", throwable);
+        }
+    }
+
+    public static class Builder {
+
+        private final Function<Object, String> shardResolver;
+
+        private final Map<String, ConnectionManager> connectionManagerMap = new LinkedHashMap<>();
+
+        private final Map<ImmutableType, ImmutableProp> shardKeyPropMap = new HashMap<>();
+
+        private String defaultShardName;
+
+        private java.util.concurrent.Executor scatterExecutor;
+
+        private Comparator<? super String> stringComparator;
+
+        private Builder(Function<Object, String> shardResolver) {
+            this.shardResolver = Objects.requireNonNull(shardResolver, "`shardResolver` cannot be null");
+        }
+
+        public Builder addShard(String name, ConnectionManager connectionManager) {
+            Objects.requireNonNull(name, "`name` cannot be null");
+            Objects.requireNonNull(connectionManager, "`connectionManager` cannot be null");
+            if (connectionManagerMap.putIfAbsent(name, connectionManager) != null) {
+                throw new IllegalArgumentException("Duplicated shard name \"" + name + "\"");
+            }
+            return this;
+        }
+
+        /**
+         * Set the shard key property of an entity type, the root queries of this
+         * entity type with the {@code shardKey = value} predicate are routed automatically.
+         */
+        public Builder addShardKey(ImmutableProp prop) {
+            if (!prop.isColumnDefinition() || prop.isReference(TargetLevel.PERSISTENT)) {
+                throw new IllegalArgumentException(
+                        "The shard key property \"" + prop + "\" must be scalar property"
+                );
+            }
+            shardKeyPropMap.put(prop.getDeclaringType(), prop);
+            return this;
+        }
+
+        /**
+         * @param shardName The shard used when the shard of an execution cannot be determined,
+         *                  by default, such executions are rejected.
+         */
+        public Builder setDefaultShard(@Nullable String shardName) {
+            this.defaultShardName = shardName;
+            return this;
+        }
+
+        /**
+         * @param executor The executor used by {@link #scatter(Supplier)} and
+         *                 {@link #executeByShard(Collection, Function, Function)}
+         *                 to execute the shards in parallel, null means serial execution.
+         */
+        public Builder setScatterExecutor(@Nullable java.util.concurrent.Executor executor) {
+            this.scatterExecutor = executor;
+            return this;
+        }
+
+        /**
+         * @param comparator The comparator used to merge the rows of the root queries
+         *                   which are scattered automatically and ordered by strings,
+         *                   it must be consistent with the collation of the databases.
+         *                   By default, such queries are rejected.
+         */
+        public Builder setStringComparator(@Nullable Comparator<? super String> comparator) {
+            this.stringComparator = comparator;
+            return this;
+        }
+
+        public ShardingConnectionManager build() {
+            if (connectionManagerMap.isEmpty()) {
+                throw new IllegalStateException("No shard is added");
+            }
+            if (defaultShardName != null && !connectionManagerMap.containsKey(defaultShardName)) {
+                throw new IllegalStateException(
+                        "The default shard \"" + defaultShardName + "\" is not added"
+                );
+            }
+            return new ShardingConnectionManager(this);
+        }
+    }
+
+    private static class Shard {
+
+        final String name;
+
+        final ConnectionManager connectionManager;
+
+        Shard(String name, ConnectionManager connectionManager) {
+            this.name = name;
+            this.connectionManager = connectionManager;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private static class PeekingIterator<E> {
+
+        private final Iterator<E> itr;
+
+        private E next;
+
+        private boolean hasNext = true;
+
+        PeekingIterator(Iterator<E> itr) {
+            this.itr = itr;
+            this.next = itr.next();
+        }
+
+        E peek() {
+            return next;
+        }
+
+        E next() {
+            E current = next;
+            if (itr.hasNext()) {
+                next = itr.next();
+            } else {
+                next = null;
+                hasNext = false;
+            }
+            return current;
+        }
+
+        boolean hasNext() {
+            return hasNext;
+        }
+    }
+}
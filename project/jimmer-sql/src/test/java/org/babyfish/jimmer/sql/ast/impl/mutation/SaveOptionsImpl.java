@@ -81,6 +81,16 @@ public class SaveOptionsImpl implements SaveOptions {
         return LockMode.AUTO;
     }
 
+    @Override
+    public boolean isBulkInsert() {
+        return false;
+    }
+
+    @Override
+    public boolean isAssociationBatchMerged() {
+        return false;
+    }
+
     @Override
     public UserOptimisticLock<?, ?> getUserOptimisticLock(ImmutableType type) {
         return userOptimisticLock;
@@ -0,0 +1,72 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookDraft;
+import org.babyfish.jimmer.sql.model.BookStoreProps;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public class BinaryValueSerializerTest {
+
+    private static final UUID BOOK_ID =
+            UUID.fromString("a62f7aa3-9490-4612-98b5-98aae0e77120");
+
+    private static final UUID STORE_ID =
+            UUID.fromString("d38c10da-6be8-4924-b9b9-5e81899612a0");
+
+    private static final Book BOOK = BookDraft.$.produce(draft -> {
+        draft.setId(BOOK_ID);
+        draft.setName("GraphQL in Action");
+        draft.setEdition(3);
+        draft.setPrice(new BigDecimal("80.00"));
+        draft.applyStore(store -> store.setId(STORE_ID));
+    });
+
+    @Test
+    public void testObject() {
+        BinaryValueSerializer<Book> serializer =
+                new BinaryValueSerializer<>(ImmutableType.get(Book.class));
+        byte[] bytes = serializer.serialize(BOOK);
+        byte[] jsonBytes = new ValueSerializer<Book>(ImmutableType.get(Book.class)).serialize(BOOK);
+        Assertions.assertTrue(bytes.length < jsonBytes.length);
+        Assertions.assertEquals(BOOK.toString(), serializer.deserialize(bytes).toString());
+        Assertions.assertNull(serializer.deserialize(serializer.serialize(null)));
+    }
+
+    @Test
+    public void testProp() {
+        BinaryValueSerializer<List<UUID>> serializer =
+                new BinaryValueSerializer<>(BookStoreProps.BOOKS.unwrap());
+        List<UUID> ids = Arrays.asList(BOOK_ID, STORE_ID);
+        Assertions.assertEquals(ids, serializer.deserialize(serializer.serialize(ids)));
+    }
+
+    @Test
+    public void testJsonCompatibility() {
+        BinaryValueSerializer<Book> serializer =
+                new BinaryValueSerializer<>(ImmutableType.get(Book.class));
+        byte[] jsonBytes = new ValueSerializer<Book>(ImmutableType.get(Book.class)).serialize(BOOK);
+        Assertions.assertEquals(BOOK.toString(), serializer.deserialize(jsonBytes).toString());
+    }
+
+    @Test
+    public void testFingerprintMismatch() {
+        BinaryValueSerializer<Book> serializer =
+                new BinaryValueSerializer<>(ImmutableType.get(Book.class));
+        byte[] bytes = serializer.serialize(BOOK);
+        bytes[2] ^= 0xFF;
+        Map<String, Book> map = serializer.deserialize(
+                Collections.singletonList("Book-" + BOOK_ID),
+                Collections.singletonList(bytes)
+        );
+        Assertions.assertTrue(map.isEmpty());
+    }
+}
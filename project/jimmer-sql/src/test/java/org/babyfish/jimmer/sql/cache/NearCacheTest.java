@@ -0,0 +1,127 @@
+package org.babyfish.jimmer.sql.cache;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.cache.caffeine.CaffeineNearBinder;
+import org.babyfish.jimmer.sql.model.BookStore;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NearCacheTest {
+
+    private static final UUID ID =
+            UUID.fromString("d38c10da-6be8-4924-b9b9-5e81899612a0");
+
+    @Test
+    public void testInvalidationOfResidentKeys() {
+        KeyTracker keyTracker = KeyTracker.local();
+        Map<UUID, String> remoteMap = new HashMap<>();
+        remoteMap.put(ID, "O'REILLY");
+        CaffeineNearBinder<UUID, String> binder1 = binder(keyTracker);
+        CaffeineNearBinder<UUID, String> binder2 = binder(keyTracker);
+        binder1.initialize(keys -> load(remoteMap, keys));
+        binder2.initialize(keys -> load(remoteMap, keys));
+
+        Assertions.assertEquals("O'REILLY", binder1.getAll(Collections.singleton(ID)).get(ID));
+        Assertions.assertEquals("O'REILLY", binder2.getAll(Collections.singleton(ID)).get(ID));
+
+        remoteMap.put(ID, "MANNING");
+        Assertions.assertEquals("O'REILLY", binder1.getAll(Collections.singleton(ID)).get(ID));
+
+        // Deleted by another node
+        binder2.deleteAll(Collections.singleton(ID), null);
+        Assertions.assertEquals("MANNING", binder1.getAll(Collections.singleton(ID)).get(ID));
+        Assertions.assertEquals("MANNING", binder2.getAll(Collections.singleton(ID)).get(ID));
+    }
+
+    @Test
+    public void testInvalidationDuringLoading() {
+        KeyTracker keyTracker = KeyTracker.local();
+        Map<UUID, String> remoteMap = new HashMap<>();
+        remoteMap.put(ID, "O'REILLY");
+        AtomicInteger loadCount = new AtomicInteger();
+        CaffeineNearBinder<UUID, String> binder1 = binder(keyTracker);
+        CaffeineNearBinder<UUID, String> binder2 = binder(keyTracker);
+        binder1.initialize(keys -> {
+            Map<UUID, String> map = load(remoteMap, keys);
+            if (loadCount.incrementAndGet() == 1) {
+                // Another node modifies the data after it is read by this node
+                remoteMap.put(ID, "MANNING");
+                binder2.deleteAll(Collections.singleton(ID), null);
+            }
+            return map;
+        });
+        binder2.initialize(keys -> load(remoteMap, keys));
+
+        Assertions.assertEquals("O'REILLY", binder1.getAll(Collections.singleton(ID)).get(ID));
+        // The stale value is not cached
+        Assertions.assertEquals("MANNING", binder1.getAll(Collections.singleton(ID)).get(ID));
+        Assertions.assertEquals("MANNING", binder1.getAll(Collections.singleton(ID)).get(ID));
+        Assertions.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testCountedSubscriptionAndPublisherExclusion() {
+        KeyTracker keyTracker = KeyTracker.local();
+        List<Object> invalidatedKeys1 = new ArrayList<>();
+        List<Object> invalidatedKeys2 = new ArrayList<>();
+        KeyTracker.Subscriber subscriber1 = subscriber(invalidatedKeys1);
+        KeyTracker.Subscriber subscriber2 = subscriber(invalidatedKeys2);
+        CacheTracker.InvalidateEvent event =
+                new CacheTracker.InvalidateEvent(ImmutableType.get(BookStore.class), Collections.singleton(ID));
+
+        keyTracker.subscribe(subscriber1, Collections.singleton(ID));
+        keyTracker.subscribe(subscriber1, Collections.singleton(ID));
+        keyTracker.subscribe(subscriber2, Collections.singleton(ID));
+        keyTracker.unsubscribe(subscriber1, Collections.singleton(ID));
+
+        // Still subscribed once, and the publisher does not receive its own invalidation
+        keyTracker.publish(subscriber2, event);
+        Assertions.assertEquals(Collections.singletonList(ID), invalidatedKeys1);
+        Assertions.assertTrue(invalidatedKeys2.isEmpty());
+
+        keyTracker.unsubscribe(subscriber1, Collections.singleton(ID));
+        keyTracker.publish(subscriber2, event);
+        Assertions.assertEquals(Collections.singletonList(ID), invalidatedKeys1);
+    }
+
+    private static KeyTracker.Subscriber subscriber(List<Object> invalidatedKeys) {
+        return new KeyTracker.Subscriber() {
+            @Override
+            public ImmutableType type() {
+                return ImmutableType.get(BookStore.class);
+            }
+            @Override
+            public ImmutableProp prop() {
+                return null;
+            }
+            @Override
+            public void onInvalidate(@NotNull Collection<?> keys) {
+                invalidatedKeys.addAll(keys);
+            }
+            @Override
+            public void onReconnect() {}
+        };
+    }
+
+    private static CaffeineNearBinder<UUID, String> binder(KeyTracker keyTracker) {
+        return CaffeineNearBinder
+                .<UUID, String>forObject(ImmutableType.get(BookStore.class))
+                .keyTracker(keyTracker)
+                .build();
+    }
+
+    private static Map<UUID, String> load(Map<UUID, String> remoteMap, Collection<UUID> keys) {
+        Map<UUID, String> map = new HashMap<>();
+        for (UUID key : keys) {
+            if (remoteMap.containsKey(key)) {
+                map.put(key, remoteMap.get(key));
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,203 @@
+package org.babyfish.jimmer.sql.cache.transaction;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.cache.*;
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.babyfish.jimmer.sql.event.TriggerType;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class OutboxCacheOperatorTest extends AbstractTest {
+
+    private final List<Object> deletedKeys = new ArrayList<>();
+
+    private final List<CommitHook.Callback> callbacks = new ArrayList<>();
+
+    private final Deque<Map<Object, CommitHook.Callback>> transactions = new ArrayDeque<>();
+
+    private boolean failDeletion;
+
+    private JSqlClient sqlClient;
+
+    @BeforeEach
+    public void initCacheOperator() {
+        deletedKeys.clear();
+        callbacks.clear();
+        transactions.clear();
+        transactions.push(new HashMap<>());
+        failDeletion = false;
+        sqlClient = getSqlClient(cfg -> {
+            cfg.setConnectionManager(testConnectionManager());
+            cfg.setTriggerType(TriggerType.TRANSACTION_ONLY);
+            cfg.setCacheOperator(
+                    new OutboxCacheOperator(new CommitHook() {
+                        @SuppressWarnings("unchecked")
+                        @Override
+                        public <C extends Callback> C callback(Object key, Supplier<C> creator) {
+                            Map<Object, Callback> transaction = transactions.peek();
+                            if (transaction == null) {
+                                return null;
+                            }
+                            return (C) transaction.computeIfAbsent(key, it -> {
+                                C callback = creator.get();
+                                callbacks.add(callback);
+                                return callback;
+                            });
+                        }
+                    })
+            );
+            cfg.setCacheFactory(new CacheFactory() {
+                @Override
+                public Cache<?, ?> createObjectCache(@NotNull ImmutableType type) {
+                    return new ObjectCacheImpl<>(type);
+                }
+            });
+        });
+        operator().flush();
+        deletedKeys.clear();
+    }
+
+    @Test
+    public void testTransaction() {
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        cache.delete(learningGraphQLId1);
+        cache.deleteAll(Arrays.asList(learningGraphQLId2, learningGraphQLId3));
+        Assertions.assertEquals(1, callbacks.size());
+        Assertions.assertEquals(0, outboxRowCount());
+
+        callbacks.get(0).beforeCommit();
+        Assertions.assertEquals(1, outboxRowCount());
+        Assertions.assertTrue(deletedKeys.isEmpty());
+
+        callbacks.get(0).afterCommit();
+        Assertions.assertEquals(0, outboxRowCount());
+        Assertions.assertEquals(
+                Arrays.asList(learningGraphQLId1, learningGraphQLId2, learningGraphQLId3),
+                deletedKeys
+        );
+    }
+
+    @Test
+    public void testRollback() {
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        cache.delete(learningGraphQLId1);
+        callbacks.get(0).afterRollback();
+        Assertions.assertEquals(0, outboxRowCount());
+        Assertions.assertTrue(deletedKeys.isEmpty());
+
+        // The next deletion starts a new transaction
+        transactions.pop();
+        transactions.push(new HashMap<>());
+        cache.delete(learningGraphQLId2);
+        Assertions.assertEquals(2, callbacks.size());
+    }
+
+    @Test
+    public void testRequiresNew() {
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        cache.delete(learningGraphQLId1);
+
+        // Suspend the outer transaction and start an independent one
+        transactions.push(new HashMap<>());
+        cache.delete(learningGraphQLId2);
+        Assertions.assertEquals(2, callbacks.size());
+        callbacks.get(1).beforeCommit();
+        callbacks.get(1).afterCommit();
+        transactions.pop();
+        Assertions.assertEquals(Collections.singletonList(learningGraphQLId2), deletedKeys);
+
+        // The outer transaction is resumed and still uses its own outbox
+        cache.delete(learningGraphQLId3);
+        Assertions.assertEquals(2, callbacks.size());
+        callbacks.get(0).afterRollback();
+        Assertions.assertEquals(0, outboxRowCount());
+        Assertions.assertEquals(Collections.singletonList(learningGraphQLId2), deletedKeys);
+    }
+
+    @Test
+    public void testWithoutTransaction() {
+        transactions.clear();
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        cache.deleteAll(Arrays.asList(learningGraphQLId1, learningGraphQLId2));
+        Assertions.assertEquals(0, outboxRowCount());
+        Assertions.assertEquals(Arrays.asList(learningGraphQLId1, learningGraphQLId2), deletedKeys);
+    }
+
+    @Test
+    public void testRetryWithoutTransaction() {
+        transactions.clear();
+        failDeletion = true;
+        Cache<UUID, Book> cache = sqlClient.getCaches().getObjectCache(Book.class);
+        cache.deleteAll(Arrays.asList(learningGraphQLId1, learningGraphQLId2));
+        Assertions.assertEquals(1, outboxRowCount());
+        Assertions.assertTrue(deletedKeys.isEmpty());
+
+        failDeletion = false;
+        operator().flush();
+        Assertions.assertEquals(0, outboxRowCount());
+        Assertions.assertEquals(Arrays.asList(learningGraphQLId1, learningGraphQLId2), deletedKeys);
+    }
+
+    private OutboxCacheOperator operator() {
+        return (OutboxCacheOperator) ((JSqlClientImplementor) sqlClient).getCacheOperator();
+    }
+
+    private static int outboxRowCount() {
+        int[] countBox = new int[1];
+        jdbc(con -> {
+            try (Statement stmt = con.createStatement();
+                 ResultSet rs = stmt.executeQuery("select count(*) from " + OutboxCacheOperator.TABLE_NAME)
+            ) {
+                rs.next();
+                countBox[0] = rs.getInt(1);
+            }
+        });
+        return countBox[0];
+    }
+
+    private class ObjectCacheImpl<K, V> implements Cache<K, V> {
+
+        private final ImmutableType type;
+
+        ObjectCacheImpl(ImmutableType type) {
+            this.type = type;
+        }
+
+        @Override
+        public @NotNull ImmutableType type() {
+            return type;
+        }
+
+        @Override
+        public @Nullable ImmutableProp prop() {
+            return null;
+        }
+
+        @Override
+        public @NotNull Map<K, V> getAll(@NotNull Collection<K> keys, @NotNull CacheEnvironment<K, V> env) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteAll(@NotNull Collection<K> keys, @Nullable Object reason) {
+            if (failDeletion) {
+                throw new IllegalStateException("Cache server is unavailable");
+            }
+            deletedKeys.addAll(keys);
+        }
+    }
+}
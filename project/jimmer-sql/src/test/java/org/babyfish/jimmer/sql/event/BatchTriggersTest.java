@@ -0,0 +1,82 @@
+package org.babyfish.jimmer.sql.event;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.model.AuthorProps;
+import org.babyfish.jimmer.sql.model.BookProps;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class BatchTriggersTest {
+
+    @Test
+    public void testBatch() {
+        JSqlClient sqlClient = JSqlClient.newBuilder().build();
+        Triggers triggers = sqlClient.getTriggers();
+        BatchRecorder bookAuthorsRecorder = new BatchRecorder();
+        BatchRecorder authorBooksRecorder = new BatchRecorder();
+        triggers.addAssociationListener(BookProps.AUTHORS, bookAuthorsRecorder);
+        triggers.addAssociationListener(AuthorProps.BOOKS, authorBooksRecorder);
+        triggers.batch(() -> {
+            triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId1, eveId, null);
+            triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId2, eveId, null);
+            triggers.fireMiddleTableDelete(BookProps.AUTHORS, learningGraphQLId3, alexId, null);
+            Assertions.assertTrue(bookAuthorsRecorder.batches.isEmpty());
+        });
+        Assertions.assertEquals(1, bookAuthorsRecorder.batches.size());
+        Assertions.assertEquals(3, bookAuthorsRecorder.batches.get(0).size());
+        Assertions.assertEquals(1, authorBooksRecorder.batches.size());
+        Assertions.assertEquals(3, authorBooksRecorder.batches.get(0).size());
+    }
+
+    @Test
+    public void testEventOutsideBatch() {
+        JSqlClient sqlClient = JSqlClient.newBuilder().build();
+        Triggers triggers = sqlClient.getTriggers();
+        BatchRecorder recorder = new BatchRecorder();
+        triggers.addAssociationListener(BookProps.AUTHORS, recorder);
+        triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId1, eveId, null);
+        triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId2, eveId, null);
+        Assertions.assertEquals(2, recorder.batches.size());
+    }
+
+    @Test
+    public void testDispatchExecutor() {
+        List<Runnable> tasks = new ArrayList<>();
+        JSqlClient sqlClient = JSqlClient
+                .newBuilder()
+                .setTriggerDispatchExecutor(tasks::add, 2)
+                .build();
+        Triggers triggers = sqlClient.getTriggers();
+        BatchRecorder recorder = new BatchRecorder();
+        triggers.addAssociationListener(BookProps.AUTHORS, recorder);
+        triggers.batch(() -> {
+            triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId1, eveId, null);
+            triggers.fireMiddleTableInsert(BookProps.AUTHORS, learningGraphQLId2, eveId, null);
+        });
+        Assertions.assertEquals(1, tasks.size());
+        Assertions.assertTrue(recorder.batches.isEmpty());
+        tasks.get(0).run();
+        Assertions.assertEquals(1, recorder.batches.size());
+        Assertions.assertEquals(2, recorder.batches.get(0).size());
+    }
+
+    private static class BatchRecorder implements AssociationListener {
+
+        final List<List<AssociationEvent>> batches = new ArrayList<>();
+
+        @Override
+        public void onChange(AssociationEvent e) {
+            throw new AssertionError("Events must be delivered by batch");
+        }
+
+        @Override
+        public void onChanges(List<AssociationEvent> events) {
+            batches.add(new ArrayList<>(events));
+        }
+    }
+}
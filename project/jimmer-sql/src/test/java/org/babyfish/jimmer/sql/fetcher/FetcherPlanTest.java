@@ -0,0 +1,61 @@
+package org.babyfish.jimmer.sql.fetcher;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.fetcher.impl.FetcherImplementor;
+import org.babyfish.jimmer.sql.fetcher.impl.FetcherPlan;
+import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FetcherPlanTest extends AbstractQueryTest {
+
+    private static final Fetcher<Book> FETCHER =
+            BookFetcher.$
+                    .allScalarFields()
+                    .store(BookStoreFetcher.$.name())
+                    .authors(AuthorFetcher.$.firstName(), it -> it.batch(3));
+
+    @Test
+    public void testReuse() {
+        JSqlClient sqlClient = getSqlClient();
+        FetcherPlan plan = plan(sqlClient);
+        Assertions.assertSame(plan, plan(sqlClient));
+        Assertions.assertTrue(plan.isFetchRequired());
+        Assertions.assertEquals(2, plan.getFieldPlans().size());
+        FetcherPlan.FieldPlan storePlan = plan.getFieldPlans().get(0);
+        FetcherPlan.FieldPlan authorsPlan = plan.getFieldPlans().get(1);
+        Assertions.assertEquals("store", storePlan.getField().getProp().getName());
+        Assertions.assertEquals(sqlClient.getDefaultBatchSize(), storePlan.getBatchSize());
+        Assertions.assertEquals("authors", authorsPlan.getField().getProp().getName());
+        Assertions.assertEquals(3, authorsPlan.getBatchSize());
+        Assertions.assertNotNull(storePlan.getLoaderStrategy());
+        Assertions.assertNotNull(storePlan.getLoaderStrategy().getStorage());
+        Assertions.assertNull(storePlan.getLoaderStrategy().getResolver());
+        Assertions.assertNull(storePlan.getLoaderStrategy().getCache());
+    }
+
+    @Test
+    public void testRecompile() {
+        FetcherPlan plan = plan(getSqlClient());
+        FetcherPlan otherPlan = plan(getSqlClient(it -> it.setDefaultBatchSize(7)));
+        Assertions.assertNotSame(plan, otherPlan);
+        Assertions.assertEquals(7, otherPlan.getFieldPlans().get(0).getBatchSize());
+    }
+
+    @Test
+    public void testSwitchBack() {
+        JSqlClient sqlClient = getSqlClient();
+        JSqlClient otherSqlClient = getSqlClient(it -> it.setDefaultBatchSize(7));
+        FetcherPlan plan = plan(sqlClient);
+        FetcherPlan otherPlan = plan(otherSqlClient);
+        Assertions.assertNotSame(plan, otherPlan);
+        Assertions.assertSame(plan, plan(sqlClient));
+        Assertions.assertSame(otherPlan, plan(otherSqlClient));
+    }
+
+    private static FetcherPlan plan(JSqlClient sqlClient) {
+        return ((FetcherImplementor<Book>) FETCHER).__plan((JSqlClientImplementor) sqlClient);
+    }
+}
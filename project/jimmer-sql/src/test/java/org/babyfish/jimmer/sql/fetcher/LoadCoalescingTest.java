@@ -0,0 +1,157 @@
+package org.babyfish.jimmer.sql.fetcher;
+
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.DefaultExecutor;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.babyfish.jimmer.sql.runtime.RoutingConnectionManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadCoalescingTest extends AbstractQueryTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Exception {
+        AtomicInteger storeQueryCount = new AtomicInteger();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setExecutor(new CountingExecutor(storeQueryCount));
+            it.setConnectionManager(testConnectionManager());
+            it.setLoadCoalescingWindow(Duration.ofMillis(500));
+        });
+        JSqlClient serialClient = getSqlClient(it -> {
+            it.setExecutor(null);
+            it.setConnectionManager(testConnectionManager());
+        });
+        CyclicBarrier barrier = new CyclicBarrier(4);
+        List<Future<List<Book>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(
+                    executorService.submit(() -> {
+                        barrier.await();
+                        return query(sqlClient);
+                    })
+            );
+        }
+        String expected = query(serialClient).toString();
+        for (Future<List<Book>> future : futures) {
+            Assertions.assertEquals(expected, future.get(10, TimeUnit.SECONDS).toString());
+        }
+        Assertions.assertEquals(1, storeQueryCount.get());
+    }
+
+    @Test
+    public void testTransaction() {
+        AtomicInteger storeQueryCount = new AtomicInteger();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setExecutor(new CountingExecutor(storeQueryCount));
+            it.setLoadCoalescingWindow(Duration.ofMillis(500));
+        });
+        jdbc(null, true, con -> {
+            long start = System.nanoTime();
+            BookTable table = BookTable.$;
+            sqlClient
+                    .createQuery(table)
+                    .select(table.fetch(BookFetcher.$.store(BookStoreFetcher.$.name())))
+                    .execute(con);
+            // Loads inside transaction are never coalesced so that they do not wait for the window
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+        });
+        Assertions.assertEquals(1, storeQueryCount.get());
+    }
+
+    @Test
+    public void testRoutedLoads() throws Exception {
+        AtomicInteger storeQueryCount = new AtomicInteger();
+        RoutingConnectionManager routing = RoutingConnectionManager
+                .newBuilder(testConnectionManager())
+                .build();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setExecutor(new CountingExecutor(storeQueryCount));
+            it.setConnectionManager(routing.getWriteConnectionManager());
+            it.setSlaveConnectionManager(routing);
+            it.setLoadCoalescingWindow(Duration.ofMillis(500));
+        });
+        CyclicBarrier barrier = new CyclicBarrier(4);
+        List<Future<List<Book>>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(
+                    executorService.submit(() -> {
+                        barrier.await();
+                        return query(sqlClient);
+                    })
+            );
+        }
+        for (Future<List<Book>> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        // Routed loads may read different databases, they are never coalesced
+        Assertions.assertEquals(4, storeQueryCount.get());
+    }
+
+    private static List<Book> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name().asc(), table.edition().desc())
+                .select(
+                        table.fetch(
+                                BookFetcher.$
+                                        .allScalarFields()
+                                        .store(
+                                                BookStoreFetcher.$
+                                                        .allScalarFields()
+                                        )
+                        )
+                )
+                .execute();
+    }
+
+    private static class CountingExecutor implements Executor {
+
+        private final AtomicInteger storeQueryCount;
+
+        CountingExecutor(AtomicInteger storeQueryCount) {
+            this.storeQueryCount = storeQueryCount;
+        }
+
+        @Override
+        public <R> R execute(@NotNull Args<R> args) {
+            if (args.sql.contains("from BOOK_STORE")) {
+                storeQueryCount.incrementAndGet();
+            }
+            return DefaultExecutor.INSTANCE.execute(args);
+        }
+
+        @Override
+        public BatchContext executeBatch(
+                @NotNull Connection con,
+                @NotNull String sql,
+                @Nullable ImmutableProp generatedIdProp,
+                @NotNull ExecutionPurpose purpose,
+                @NotNull JSqlClientImplementor sqlClient
+        ) {
+            return DefaultExecutor.INSTANCE.executeBatch(con, sql, generatedIdProp, purpose, sqlClient);
+        }
+    }
+}
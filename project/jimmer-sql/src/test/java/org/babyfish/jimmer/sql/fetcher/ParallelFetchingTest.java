@@ -0,0 +1,107 @@
+package org.babyfish.jimmer.sql.fetcher;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelFetchingTest extends AbstractQueryTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    private final Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+    @Test
+    public void testSiblingAssociations() {
+        List<Book> expected = query(serialClient());
+        List<Book> actual = query(parallelClient());
+        Assertions.assertEquals(expected.toString(), actual.toString());
+        Assertions.assertFalse(threadNames.isEmpty());
+    }
+
+    @Test
+    public void testNullableForeignKeyAndChildren() {
+        List<TreeNode> expected = queryTreeNodes(serialClient());
+        List<TreeNode> actual = queryTreeNodes(parallelClient());
+        Assertions.assertEquals(expected.toString(), actual.toString());
+        Assertions.assertNull(actual.get(0).parent());
+        Assertions.assertFalse(threadNames.isEmpty());
+    }
+
+    private JSqlClient serialClient() {
+        return getSqlClient(it -> {
+            it.setExecutor(null);
+            it.setConnectionManager(testConnectionManager());
+        });
+    }
+
+    private JSqlClient parallelClient() {
+        return getSqlClient(it -> {
+            it.setExecutor(null);
+            it.setConnectionManager(testConnectionManager());
+            it.setParallelFetchingExecutor(command ->
+                    executorService.execute(() -> {
+                        threadNames.add(Thread.currentThread().getName());
+                        command.run();
+                    })
+            );
+        });
+    }
+
+    private static List<Book> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name().asc(), table.edition().desc())
+                .select(
+                        table.fetch(
+                                BookFetcher.$
+                                        .allScalarFields()
+                                        .store(
+                                                BookStoreFetcher.$
+                                                        .allScalarFields()
+                                        )
+                                        .authors(
+                                                AuthorFetcher.$
+                                                        .allScalarFields()
+                                        )
+                        )
+                )
+                .execute();
+    }
+
+    private static List<TreeNode> queryTreeNodes(JSqlClient sqlClient) {
+        TreeNodeTable table = TreeNodeTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.id().asc())
+                .select(
+                        table.fetch(
+                                TreeNodeFetcher.$
+                                        .allScalarFields()
+                                        .parent(
+                                                TreeNodeFetcher.$
+                                                        .allScalarFields()
+                                        )
+                                        .childNodes(
+                                                TreeNodeFetcher.$
+                                                        .allScalarFields()
+                                        )
+                        )
+                )
+                .execute();
+    }
+}
@@ -0,0 +1,157 @@
+package org.babyfish.jimmer.sql.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.metrics.jfr.JfrSqlMetrics;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookFetcher;
+import org.babyfish.jimmer.sql.model.BookStoreFetcher;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class JfrSqlMetricsTest extends AbstractQueryTest {
+
+    private static final String EXECUTION = "org.babyfish.jimmer.SqlExecution";
+
+    private static final String BATCH_EXECUTION = "org.babyfish.jimmer.SqlBatchExecution";
+
+    private static final String FETCH = "org.babyfish.jimmer.Fetch";
+
+    private static final String LOAD = "org.babyfish.jimmer.Load";
+
+    @Test
+    public void testQueryAndFetch() throws IOException {
+        JSqlClient sqlClient = getSqlClient(it -> it.setMetrics(JfrSqlMetrics.INSTANCE));
+        BookTable table = BookTable.$;
+        List<RecordedEvent> events = record(() -> {
+            List<Book> books = sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .orderBy(table.name().asc())
+                    .select(
+                            table.fetch(
+                                    BookFetcher.$
+                                            .name()
+                                            .store(BookStoreFetcher.$.name())
+                            )
+                    )
+                    .execute();
+            Assertions.assertEquals(4, books.size());
+        });
+
+        List<RecordedEvent> executionEvents = eventsOf(events, EXECUTION);
+        Assertions.assertEquals(
+                Arrays.asList("QUERY, 4, true", "LOAD, 2, true"),
+                executionEvents
+                        .stream()
+                        .map(e -> e.getString("purpose") + ", " + e.getInt("rowCount") + ", " + e.getBoolean("succeeded"))
+                        .collect(Collectors.toList())
+        );
+        for (RecordedEvent e : executionEvents) {
+            Assertions.assertTrue(e.getDuration("elapsed").toNanos() > 0);
+        }
+
+        List<RecordedEvent> loadEvents = eventsOf(events, LOAD);
+        Assertions.assertEquals(1, loadEvents.size());
+        Assertions.assertEquals("store", loadEvents.get(0).getString("path"));
+        Assertions.assertEquals(2, loadEvents.get(0).getInt("sourceCount"));
+
+        List<RecordedEvent> fetchEvents = eventsOf(events, FETCH);
+        Assertions.assertEquals(1, fetchEvents.size());
+        RecordedEvent fetchEvent = fetchEvents.get(0);
+        Assertions.assertEquals("store", fetchEvent.getString("path"));
+        Assertions.assertEquals(1, fetchEvent.getInt("round"));
+        Assertions.assertEquals(1, fetchEvent.getInt("depth"));
+        Assertions.assertEquals(2, fetchEvent.getInt("keyCount"));
+        Assertions.assertTrue(fetchEvent.getDuration("elapsed").toNanos() > 0);
+
+        Assertions.assertTrue(eventsOf(events, BATCH_EXECUTION).isEmpty());
+    }
+
+    @Test
+    public void testBatch() throws IOException {
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient(
+                it -> it.setMetrics(JfrSqlMetrics.INSTANCE)
+        );
+        List<RecordedEvent> events = record(() -> {
+            jdbc(null, true, con -> {
+                try (Executor.BatchContext ctx = sqlClient.getExecutor().executeBatch(
+                        con,
+                        "update BOOK set EDITION = EDITION where EDITION = ?",
+                        null,
+                        ExecutionPurpose.MUTATE,
+                        sqlClient
+                )) {
+                    ctx.add(Collections.singletonList(1));
+                    ctx.add(Collections.singletonList(2));
+                    ctx.execute(null);
+                }
+            });
+        });
+
+        List<RecordedEvent> batchEvents = eventsOf(events, BATCH_EXECUTION);
+        Assertions.assertEquals(1, batchEvents.size());
+        RecordedEvent batchEvent = batchEvents.get(0);
+        Assertions.assertEquals("MUTATE", batchEvent.getString("purpose"));
+        Assertions.assertEquals(2, batchEvent.getInt("batchSize"));
+        Assertions.assertTrue(batchEvent.getBoolean("succeeded"));
+        Assertions.assertTrue(batchEvent.getDuration("elapsed").toNanos() > 0);
+    }
+
+    @Test
+    public void testDisabledEvents() throws IOException {
+        JSqlClient sqlClient = getSqlClient(it -> it.setMetrics(JfrSqlMetrics.INSTANCE));
+        BookTable table = BookTable.$;
+        List<RecordedEvent> events = record(
+                () -> sqlClient
+                        .createQuery(table)
+                        .where(table.edition().eq(3))
+                        .select(table)
+                        .execute(),
+                LOAD
+        );
+        Assertions.assertTrue(eventsOf(events, EXECUTION).isEmpty());
+    }
+
+    private static List<RecordedEvent> record(Runnable block) throws IOException {
+        return record(block, EXECUTION, BATCH_EXECUTION, FETCH, LOAD);
+    }
+
+    private static List<RecordedEvent> record(Runnable block, String ... eventNames) throws IOException {
+        Path file = Files.createTempFile("jimmer-metrics", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String eventName : eventNames) {
+                recording.enable(eventName);
+            }
+            recording.start();
+            block.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events
+                .stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,150 @@
+package org.babyfish.jimmer.sql.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.metrics.micrometer.MicrometerSqlMetrics;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookFetcher;
+import org.babyfish.jimmer.sql.model.BookStoreFetcher;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class MicrometerSqlMetricsTest extends AbstractQueryTest {
+
+    @Test
+    public void testQueryAndFetch() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JSqlClient sqlClient = getSqlClient(it -> it.setMetrics(new MicrometerSqlMetrics(registry)));
+        BookTable table = BookTable.$;
+        List<Book> books = sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(3))
+                .orderBy(table.name().asc())
+                .select(
+                        table.fetch(
+                                BookFetcher.$
+                                        .name()
+                                        .store(BookStoreFetcher.$.name())
+                        )
+                )
+                .execute();
+        Assertions.assertEquals(4, books.size());
+
+        Timer queryTimer = executionTimer(registry, "QUERY", "success");
+        Assertions.assertEquals(1, queryTimer.count());
+        Assertions.assertTrue(queryTimer.totalTime(TimeUnit.NANOSECONDS) > 0);
+        Assertions.assertEquals(0, executionTimer(registry, "QUERY", "failure").count());
+        DistributionSummary queryRows = rowSummary(registry, "QUERY");
+        Assertions.assertEquals(1, queryRows.count());
+        Assertions.assertEquals(4.0, queryRows.totalAmount());
+
+        Assertions.assertEquals(1, executionTimer(registry, "LOAD", "success").count());
+        DistributionSummary loadRows = rowSummary(registry, "LOAD");
+        Assertions.assertEquals(1, loadRows.count());
+        Assertions.assertEquals(2.0, loadRows.totalAmount());
+
+        Assertions.assertEquals(
+                1,
+                registry.get("jimmer.fetch").tag("path", "Book.store").timer().count()
+        );
+        Assertions.assertEquals(
+                1.0,
+                registry.get("jimmer.fetch.round").tag("path", "Book.store").summary().max()
+        );
+        Assertions.assertEquals(
+                1.0,
+                registry.get("jimmer.fetch.depth").tag("path", "Book.store").summary().max()
+        );
+        Assertions.assertEquals(
+                2.0,
+                registry.get("jimmer.fetch.keys").tag("path", "Book.store").summary().totalAmount()
+        );
+        Assertions.assertEquals(
+                1,
+                registry.get("jimmer.load").tag("path", "Book.store").timer().count()
+        );
+    }
+
+    @Test
+    public void testBatch() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient(
+                it -> it.setMetrics(new MicrometerSqlMetrics(registry, "test"))
+        );
+        jdbc(null, true, con -> {
+            try (Executor.BatchContext ctx = sqlClient.getExecutor().executeBatch(
+                    con,
+                    "update BOOK set EDITION = EDITION where EDITION = ?",
+                    null,
+                    ExecutionPurpose.MUTATE,
+                    sqlClient
+            )) {
+                ctx.add(Collections.singletonList(1));
+                ctx.add(Collections.singletonList(2));
+                ctx.execute(null);
+            }
+            try (Executor.BatchContext ctx = sqlClient.getExecutor().executeBatch(
+                    con,
+                    "update BOOK set EDITION = null where EDITION = ?",
+                    null,
+                    ExecutionPurpose.MUTATE,
+                    sqlClient
+            )) {
+                ctx.add(Collections.singletonList(3));
+                Assertions.assertThrows(RuntimeException.class, () -> ctx.execute(null));
+            }
+        });
+
+        Timer successTimer = registry
+                .get("test.sql.batch.execution")
+                .tag("purpose", "MUTATE")
+                .tag("outcome", "success")
+                .timer();
+        Assertions.assertEquals(1, successTimer.count());
+        Assertions.assertTrue(successTimer.totalTime(TimeUnit.NANOSECONDS) > 0);
+        Assertions.assertEquals(
+                1,
+                registry
+                        .get("test.sql.batch.execution")
+                        .tag("purpose", "MUTATE")
+                        .tag("outcome", "failure")
+                        .timer()
+                        .count()
+        );
+        DistributionSummary batchSizes = registry
+                .get("test.sql.batch.size")
+                .tag("purpose", "MUTATE")
+                .summary();
+        Assertions.assertEquals(2, batchSizes.count());
+        Assertions.assertEquals(3.0, batchSizes.totalAmount());
+        Assertions.assertEquals(2.0, batchSizes.max());
+        Assertions.assertTrue(registry.find("jimmer.sql.batch.execution").meters().isEmpty());
+    }
+
+    private static Timer executionTimer(MeterRegistry registry, String purpose, String outcome) {
+        return registry
+                .get("jimmer.sql.execution")
+                .tag("purpose", purpose)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private static DistributionSummary rowSummary(MeterRegistry registry, String purpose) {
+        return registry
+                .get("jimmer.sql.rows")
+                .tag("purpose", purpose)
+                .summary();
+    }
+}
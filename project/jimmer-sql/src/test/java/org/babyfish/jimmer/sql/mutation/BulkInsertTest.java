@@ -0,0 +1,188 @@
+package org.babyfish.jimmer.sql.mutation;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.mutation.AffectedTable;
+import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
+import org.babyfish.jimmer.sql.common.AbstractMutationTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.exception.SaveException;
+import org.babyfish.jimmer.sql.model.TreeNode;
+import org.babyfish.jimmer.sql.model.TreeNodeDraft;
+import org.babyfish.jimmer.sql.model.TreeNodeProps;
+import org.babyfish.jimmer.sql.runtime.DbLiteral;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BulkInsertTest extends AbstractMutationTest {
+
+    private static final List<TreeNode> TREE_NODES = Arrays.asList(
+            TreeNodeDraft.$.produce(draft -> {
+                draft.setId(50L);
+                draft.setName("Root2");
+                draft.setParent(null);
+            }),
+            TreeNodeDraft.$.produce(draft -> {
+                draft.setId(51L);
+                draft.setName("Root3");
+                draft.setParent(null);
+            })
+    );
+
+    @Test
+    public void testBulkInsert() {
+        executeAndExpectResult(
+                getSqlClient().getEntities()
+                        .saveEntitiesCommand(TREE_NODES)
+                        .setMode(SaveMode.INSERT_ONLY)
+                        .setBulkInsert(true),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql(
+                                "insert into TREE_NODE(NODE_ID, NAME, PARENT_ID) " +
+                                        "values(?, ?, ?), (?, ?, ?)"
+                        );
+                        it.variables(
+                                50L, "Root2", new DbLiteral.DbNull(long.class),
+                                51L, "Root3", new DbLiteral.DbNull(long.class)
+                        );
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                        it.modified("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                        it.modified("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                    });
+                    ctx.totalRowCount(2);
+                    ctx.rowCount(AffectedTable.of(TreeNode.class), 2);
+                }
+        );
+    }
+
+    @Test
+    public void testBulkInsertSplitByVariableCount() {
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(
+                    new H2Dialect() {
+                        @Override
+                        public int getMaxVariableCount() {
+                            return 4;
+                        }
+                    }
+            );
+        });
+        executeAndExpectResult(
+                sqlClient.getEntities()
+                        .saveEntitiesCommand(TREE_NODES)
+                        .setMode(SaveMode.INSERT_ONLY)
+                        .setBulkInsert(true),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql("insert into TREE_NODE(NODE_ID, NAME, PARENT_ID) values(?, ?, ?)");
+                        it.variables(50L, "Root2", new DbLiteral.DbNull(long.class));
+                    });
+                    ctx.statement(it -> {
+                        it.sql("insert into TREE_NODE(NODE_ID, NAME, PARENT_ID) values(?, ?, ?)");
+                        it.variables(51L, "Root3", new DbLiteral.DbNull(long.class));
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                        it.modified("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                        it.modified("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                    });
+                    ctx.totalRowCount(2);
+                    ctx.rowCount(AffectedTable.of(TreeNode.class), 2);
+                }
+        );
+    }
+
+    @Test
+    public void testBulkInsertByCopy() {
+        List<String> copiedTexts = new ArrayList<>();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(
+                    new H2Dialect() {
+                        @Override
+                        public boolean isCopyInSupported() {
+                            return true;
+                        }
+                        @Override
+                        public long copyIn(Connection con, String sql, Reader reader) throws SQLException {
+                            StringBuilder builder = new StringBuilder();
+                            try {
+                                int ch;
+                                while ((ch = reader.read()) != -1) {
+                                    builder.append((char) ch);
+                                }
+                            } catch (IOException ex) {
+                                throw new SQLException(ex);
+                            }
+                            copiedTexts.add(builder.toString());
+                            return builder.chars().filter(c -> c == '\n').count();
+                        }
+                    }
+            );
+        });
+        executeAndExpectResult(
+                sqlClient.getEntities()
+                        .saveEntitiesCommand(TREE_NODES)
+                        .setMode(SaveMode.INSERT_ONLY)
+                        .setBulkInsert(true),
+                ctx -> {
+                    // The copy is executed by the executor, so that it is logged and measured
+                    ctx.statement(it -> {
+                        it.sql("copy TREE_NODE(NODE_ID, NAME, PARENT_ID) from stdin");
+                        it.variables();
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                        it.modified("{\"id\":50,\"name\":\"Root2\",\"parent\":null}");
+                    });
+                    ctx.entity(it -> {
+                        it.original("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                        it.modified("{\"id\":51,\"name\":\"Root3\",\"parent\":null}");
+                    });
+                    ctx.totalRowCount(2);
+                    ctx.rowCount(AffectedTable.of(TreeNode.class), 2);
+                }
+        );
+        Assertions.assertEquals(
+                Collections.singletonList("50\tRoot2\t\\N\n51\tRoot3\t\\N\n"),
+                copiedTexts
+        );
+    }
+
+    @Test
+    public void testBulkInsertConflictId() {
+        TreeNode conflictNode = TreeNodeDraft.$.produce(draft -> {
+            draft.setId(1L);
+            draft.setName("Root3");
+            draft.setParent(null);
+        });
+        jdbc(null, true, con -> {
+            SaveException.NotUnique ex = Assertions.assertThrows(
+                    SaveException.NotUnique.class,
+                    () -> getSqlClient()
+                            .getEntities()
+                            .saveEntitiesCommand(Arrays.asList(TREE_NODES.get(0), conflictNode))
+                            .setMode(SaveMode.INSERT_ONLY)
+                            .setBulkInsert(true)
+                            .execute(con)
+            );
+            Assertions.assertTrue(ex.isMatched(TreeNodeProps.ID));
+        });
+    }
+}
@@ -5,6 +5,8 @@ import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
 import org.babyfish.jimmer.sql.common.AbstractMutationTest;
 import org.babyfish.jimmer.sql.common.Constants;
 import org.babyfish.jimmer.sql.common.NativeDatabases;
+import org.babyfish.jimmer.sql.dialect.ConstraintViolation;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
 import org.babyfish.jimmer.sql.dialect.MySqlDialect;
 import org.babyfish.jimmer.sql.dialect.PostgresDialect;
 import org.babyfish.jimmer.sql.meta.UserIdGenerator;
@@ -22,6 +24,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.UUID;
 
@@ -881,4 +884,125 @@ public class ConstraintViolationTest extends AbstractMutationTest {
                 }
         );
     }
+
+    @Test
+    public void testConflictKeyByMessage() {
+        Book book1 = BookDraft.$.produce(draft -> {
+            draft.setName("GraphQL in Action");
+            draft.setEdition(4);
+            draft.setPrice(new BigDecimal("56.9"));
+        });
+        Book book2 = BookDraft.$.produce(draft -> {
+            draft.setName("GraphQL in Action");
+            draft.setEdition(3);
+            draft.setPrice(new BigDecimal("54.9"));
+        });
+        setAutoIds(Book.class, UUID.randomUUID(), UUID.randomUUID());
+        executeAndExpectResult(
+                getSqlClient(it -> {
+                    it.setDialect(
+                            new H2Dialect() {
+                                @Override
+                                public ConstraintViolation parseConstraintViolation(SQLException ex) {
+                                    return new PostgresDialect().parseConstraintViolation(
+                                            new SQLException(
+                                                    "ERROR: duplicate key value violates " +
+                                                            "unique constraint \"business_key\"\n" +
+                                                            "  Detail: Key (name, edition)=(GraphQL in Action, 3) " +
+                                                            "already exists.",
+                                                    "23505"
+                                            )
+                                    );
+                                }
+                            }
+                    );
+                    it.setMaxInvestigationRowCount(0);
+                })
+                        .getEntities()
+                        .saveEntitiesCommand(
+                                Arrays.asList(book1, book2)
+                        )
+                        .setMode(SaveMode.INSERT_ONLY),
+                ctx -> {
+                    ctx.statement(it -> {
+                        it.sql(
+                                "insert into BOOK(ID, NAME, EDITION, PRICE) " +
+                                        "values(?, ?, ?, ?)"
+                        );
+                        it.batchVariables(
+                                0,
+                                UNKNOWN_VARIABLE, "GraphQL in Action", 4, new BigDecimal("56.9")
+                        );
+                        it.batchVariables(
+                                1,
+                                UNKNOWN_VARIABLE, "GraphQL in Action", 3, new BigDecimal("54.9")
+                        );
+                    });
+                    ctx.throwable(it -> {
+                        it.message(
+                                "Save error caused by the path: \"<root>\": Cannot save the entity, " +
+                                        "the value of the key properties \"[" +
+                                        "org.babyfish.jimmer.sql.model.Book.name, " +
+                                        "org.babyfish.jimmer.sql.model.Book.edition" +
+                                        "]\" are \"Tuple2(_1=GraphQL in Action, _2=3)\" which already exists"
+                        );
+                        SaveException.NotUnique ex = it.type(SaveException.NotUnique.class);
+                        Assertions.assertTrue(
+                                ex.isMatched(
+                                        BookProps.NAME,
+                                        BookProps.EDITION
+                                )
+                        );
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testParseConstraintViolation() {
+        ConstraintViolation violation = new PostgresDialect().parseConstraintViolation(
+                new SQLException(
+                        "Batch entry 0 insert into book(id, store_id) values(...) was aborted: " +
+                                "ERROR: insert or update on table \"book\" violates " +
+                                "foreign key constraint \"fk_book__book_store\"\n" +
+                                "  Detail: Key (store_id)=(99) is not present in table \"book_store\".  " +
+                                "Call getNextException to see other errors in the batch.",
+                        "23503"
+                )
+        );
+        Assertions.assertEquals(
+                "ConstraintViolation{kind=FOREIGN_KEY, constraintName='fk_book__book_store', " +
+                        "columnNames=[store_id], values=[99]}",
+                String.valueOf(violation)
+        );
+        violation = new MySqlDialect().parseConstraintViolation(
+                new SQLException(
+                        "Duplicate entry 'GraphQL in Action-3' for key 'book.business_key'",
+                        "23000",
+                        1062
+                )
+        );
+        Assertions.assertEquals(
+                "ConstraintViolation{kind=UNIQUE, constraintName='business_key', " +
+                        "columnNames=[], values=[GraphQL in Action-3]}",
+                String.valueOf(violation)
+        );
+        violation = new MySqlDialect().parseConstraintViolation(
+                new SQLException(
+                        "Cannot add or update a child row: a foreign key constraint fails " +
+                                "(`jimmer`.`book`, CONSTRAINT `fk_book__book_store` " +
+                                "FOREIGN KEY (`STORE_ID`) REFERENCES `book_store` (`ID`))",
+                        "23000",
+                        1452
+                )
+        );
+        Assertions.assertEquals(
+                "ConstraintViolation{kind=FOREIGN_KEY, constraintName='fk_book__book_store', " +
+                        "columnNames=[STORE_ID], values=[]}",
+                String.valueOf(violation)
+        );
+        Assertions.assertNull(
+                new MySqlDialect().parseConstraintViolation(new SQLException("Unknown", "23000", 1048))
+        );
+    }
 }
@@ -0,0 +1,70 @@
+package org.babyfish.jimmer.sql.mutation;
+
+import org.babyfish.jimmer.sql.ast.mutation.SaveMode;
+import org.babyfish.jimmer.sql.common.AbstractMutationTest;
+import org.babyfish.jimmer.sql.model.middle.Shop;
+import org.babyfish.jimmer.sql.model.middle.ShopDraft;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+public class MergedAssociationBatchTest extends AbstractMutationTest {
+
+    // Two shops with different association shapes
+    private static final List<Shop> SHOPS = Arrays.asList(
+            ShopDraft.$.produce(draft -> {
+                draft.setId(3L);
+                draft.setName("Costa");
+                draft.addIntoVipCustomers(customer -> customer.setId(1L));
+            }),
+            ShopDraft.$.produce(draft -> {
+                draft.setId(4L);
+                draft.setName("Tims");
+                draft.addIntoVipCustomers(customer -> customer.setId(2L));
+                draft.addIntoOrdinaryCustomers(customer -> customer.setId(3L));
+            })
+    );
+
+    @Test
+    public void testMergedAssociationBatch() {
+        int[] separatedCounts = save(false);
+        int[] mergedCounts = save(true);
+        Assertions.assertEquals(3, separatedCounts[1]);
+        Assertions.assertEquals(3, mergedCounts[1]);
+        Assertions.assertTrue(mergedCounts[0] < separatedCounts[0]);
+    }
+
+    // Returns statement count and mapping row count
+    private int[] save(boolean merged) {
+        int[] counts = new int[2];
+        jdbc(null, true, con -> {
+            clearExecutions();
+            getSqlClient()
+                    .getEntities()
+                    .saveEntitiesCommand(SHOPS)
+                    .setMode(SaveMode.INSERT_ONLY)
+                    .setAssociationBatchMerged(merged)
+                    .execute(con);
+            counts[0] = getExecutions().size();
+            counts[1] = mappingCount(con);
+        });
+        return counts;
+    }
+
+    private static int mappingCount(Connection con) throws SQLException {
+        try (Statement stmt = con.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "select count(*) from shop_customer_mapping where shop_id in (3, 4)"
+             )
+        ) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
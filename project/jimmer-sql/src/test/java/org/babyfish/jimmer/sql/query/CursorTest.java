@@ -1,11 +1,21 @@
 package org.babyfish.jimmer.sql.query;
 
 import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.MySqlDialect;
+import org.babyfish.jimmer.sql.dialect.PostgresDialect;
 import org.babyfish.jimmer.sql.model.*;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class CursorTest extends AbstractQueryTest {
 
@@ -152,4 +162,155 @@ public class CursorTest extends AbstractQueryTest {
                 }
         );
     }
+
+    @Test
+    public void stream() {
+        connectAndExpect(
+                con -> {
+                    BookTable table = BookTable.$;
+                    try (Stream<Book> stream = getSqlClient()
+                            .createQuery(table)
+                            .where(table.edition().eq(3))
+                            .orderBy(table.name().asc())
+                            .select(
+                                    table.fetch(
+                                            BookFetcher.$.allScalarFields()
+                                                    .store(BookStoreFetcher.$.name())
+                                    )
+                            )
+                            .stream(con, 3)
+                    ) {
+                        return stream.collect(Collectors.toList());
+                    }
+                },
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc"
+                    );
+                    ctx.statement(1).sql(
+                            "select tb_1_.ID, tb_1_.NAME " +
+                                    "from BOOK_STORE tb_1_ " +
+                                    "where tb_1_.ID in (?, ?)"
+                    );
+                    ctx.statement(2).sql(
+                            "select tb_1_.ID, tb_1_.NAME " +
+                                    "from BOOK_STORE tb_1_ " +
+                                    "where tb_1_.ID = ?"
+                    );
+                    ctx.rows(
+                            "[" +
+                                    "--->{" +
+                                    "--->--->\"id\":\"9eded40f-6d2e-41de-b4e7-33a28b11c8b6\"," +
+                                    "--->--->\"name\":\"Effective TypeScript\"," +
+                                    "--->--->\"edition\":3," +
+                                    "--->--->\"price\":88.00," +
+                                    "--->--->\"store\":{" +
+                                    "--->--->--->\"id\":\"d38c10da-6be8-4924-b9b9-5e81899612a0\"," +
+                                    "--->--->--->\"name\":\"O'REILLY\"" +
+                                    "--->--->}" +
+                                    "--->},{" +
+                                    "--->--->\"id\":\"780bdf07-05af-48bf-9be9-f8c65236fecc\"," +
+                                    "--->--->\"name\":\"GraphQL in Action\"," +
+                                    "--->--->\"edition\":3," +
+                                    "--->--->\"price\":80.00," +
+                                    "--->--->\"store\":{" +
+                                    "--->--->--->\"id\":\"2fa3955e-3e83-49b9-902e-0465c109c779\"," +
+                                    "--->--->--->\"name\":\"MANNING\"" +
+                                    "--->--->}" +
+                                    "--->},{" +
+                                    "--->--->\"id\":\"64873631-5d82-4bae-8eb8-72dd955bfc56\"," +
+                                    "--->--->\"name\":\"Learning GraphQL\"," +
+                                    "--->--->\"edition\":3," +
+                                    "--->--->\"price\":51.00," +
+                                    "--->--->\"store\":{" +
+                                    "--->--->--->\"id\":\"d38c10da-6be8-4924-b9b9-5e81899612a0\"," +
+                                    "--->--->--->\"name\":\"O'REILLY\"" +
+                                    "--->--->}" +
+                                    "--->},{" +
+                                    "--->--->\"id\":\"782b9a9d-eac8-41c4-9f2d-74a5d047f45a\"," +
+                                    "--->--->\"name\":\"Programming TypeScript\"," +
+                                    "--->--->\"edition\":3," +
+                                    "--->--->\"price\":48.00," +
+                                    "--->--->\"store\":{" +
+                                    "--->--->--->\"id\":\"d38c10da-6be8-4924-b9b9-5e81899612a0\"," +
+                                    "--->--->--->\"name\":\"O'REILLY\"" +
+                                    "--->--->}" +
+                                    "--->}" +
+                                    "]"
+                    );
+                }
+        );
+    }
+
+    @Test
+    public void closeStreamEarly() {
+        jdbc(con -> {
+            List<PreparedStatement> statements = new ArrayList<>();
+            Connection trackedCon = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class[] { Connection.class },
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(con, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                        if (result instanceof PreparedStatement) {
+                            statements.add((PreparedStatement) result);
+                        }
+                        return result;
+                    }
+            );
+            BookTable table = BookTable.$;
+            Book book;
+            try (Stream<Book> stream = getSqlClient()
+                    .createQuery(table)
+                    .orderBy(table.name().asc())
+                    .select(table)
+                    .stream(trackedCon, 2)
+            ) {
+                book = stream.findFirst().orElse(null);
+                Assertions.assertEquals(1, statements.size());
+                Assertions.assertFalse(statements.get(0).isClosed());
+            }
+            Assertions.assertNotNull(book);
+            Assertions.assertEquals(1, statements.size());
+            Assertions.assertTrue(statements.get(0).isClosed());
+            Assertions.assertFalse(con.isClosed());
+            try (PreparedStatement stmt = con.prepareStatement("select count(*) from BOOK");
+                 ResultSet rs = stmt.executeQuery()
+            ) {
+                Assertions.assertTrue(rs.next());
+                Assertions.assertEquals(12, rs.getInt(1));
+            }
+        });
+    }
+
+    @Test
+    public void rejectUnsupportedStreaming() {
+        jdbc(con -> {
+            BookTable table = BookTable.$;
+            // PostgreSQL only reads rows by cursor in transaction
+            Assertions.assertTrue(con.getAutoCommit());
+            Assertions.assertThrows(
+                    IllegalStateException.class,
+                    () -> getSqlClient(it -> it.setDialect(new PostgresDialect()))
+                            .createQuery(table)
+                            .select(table)
+                            .stream(con, 2)
+            );
+            // MySQL cannot fetch associations by the connection of the open cursor
+            Assertions.assertThrows(
+                    IllegalStateException.class,
+                    () -> getSqlClient(it -> it.setDialect(new MySqlDialect()))
+                            .createQuery(table)
+                            .select(table.fetch(BookFetcher.$.name().store(BookStoreFetcher.$.name())))
+                            .stream(con, 2)
+            );
+        });
+    }
 }
@@ -15,6 +15,7 @@ import org.babyfish.jimmer.sql.model.inheritance.AdministratorMetadataTable;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import static org.babyfish.jimmer.sql.common.Constants.*;
 
 public class InCollectionTest extends AbstractQueryTest {
@@ -1063,6 +1064,46 @@ public class InCollectionTest extends AbstractQueryTest {
         );
     }
 
+    @Test
+    public void testSingleIdByAnyEquality() {
+        TreeNodeTable table = TreeNodeTable.$;
+        executeAndExpect(
+                getSqlClient(cfg -> {
+                    cfg.setDialect(new H2Dialect());
+                    cfg.setInListToAnyEqualityEnabled(true);
+                })
+                        .createQuery(table)
+                        .where(table.id().in(Collections.singletonList(1L)))
+                        .select(table),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.NODE_ID, tb_1_.NAME, tb_1_.PARENT_ID " +
+                                    "from TREE_NODE tb_1_ " +
+                                    "where tb_1_.NODE_ID = any(?)"
+                    ).variables((Object) new Object[] { 1L });
+                    ctx.rows("[{\"id\":1,\"name\":\"Home\",\"parent\":null}]");
+                }
+        );
+    }
+
+    @Test
+    public void testFindByIdByAnyEquality() {
+        connectAndExpect(
+                con -> getSqlClient(cfg -> {
+                    cfg.setDialect(new H2Dialect());
+                    cfg.setInListToAnyEqualityEnabled(true);
+                }).getEntities().forConnection(con).findById(TreeNode.class, 1L),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.NODE_ID, tb_1_.NAME, tb_1_.PARENT_ID " +
+                                    "from TREE_NODE tb_1_ " +
+                                    "where tb_1_.NODE_ID = any(?)"
+                    ).variables((Object) new Object[] { 1L });
+                    ctx.rows("[{\"id\":1,\"name\":\"Home\",\"parent\":null}]");
+                }
+        );
+    }
+
     @Override
     protected boolean isAnyEqualityOfArraySupported() {
         return true;
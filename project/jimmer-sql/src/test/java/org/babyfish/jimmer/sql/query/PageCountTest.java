@@ -0,0 +1,244 @@
+package org.babyfish.jimmer.sql.query;
+
+import org.babyfish.jimmer.Page;
+import org.babyfish.jimmer.meta.ImmutableProp;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.babyfish.jimmer.sql.runtime.DefaultExecutor;
+import org.babyfish.jimmer.sql.runtime.ExecutionPurpose;
+import org.babyfish.jimmer.sql.runtime.Executor;
+import org.babyfish.jimmer.sql.runtime.JSqlClientImplementor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class PageCountTest extends AbstractQueryTest {
+
+    @Test
+    public void testParallelCount() throws InterruptedException {
+        ExecutorService countExecutor = Executors.newSingleThreadExecutor();
+        List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch countLatch = new CountDownLatch(1);
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setConnectionManager(testConnectionManager());
+            it.setExecutor(new Executor() {
+                @Override
+                public <R> R execute(@NotNull Args<R> args) {
+                    boolean isCount = args.sql.startsWith("select count(1)");
+                    if (!isCount) {
+                        // Make sure the count query is executed by the executor concurrently
+                        try {
+                            Assertions.assertTrue(countLatch.await(10, TimeUnit.SECONDS));
+                        } catch (InterruptedException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                    threadNames.add((isCount ? "count:" : "data:") + Thread.currentThread().getName());
+                    R result = DefaultExecutor.INSTANCE.execute(args);
+                    if (isCount) {
+                        countLatch.countDown();
+                    }
+                    return result;
+                }
+
+                @Override
+                public BatchContext executeBatch(
+                        @NotNull Connection con,
+                        @NotNull String sql,
+                        @Nullable ImmutableProp generatedIdProp,
+                        @NotNull ExecutionPurpose purpose,
+                        @NotNull JSqlClientImplementor sqlClient
+                ) {
+                    return DefaultExecutor.INSTANCE.executeBatch(con, sql, generatedIdProp, purpose, sqlClient);
+                }
+            });
+            it.setPageCountExecutor(countExecutor, 1);
+        });
+        try {
+            jdbc(con -> {
+                Page<UUID> page = query(sqlClient).fetchPage(1, 3, con);
+                Assertions.assertEquals(4L, page.getTotalRowCount());
+                Assertions.assertEquals(
+                        Collections.singletonList(programmingTypeScriptId3),
+                        page.getRows()
+                );
+            });
+        } finally {
+            countExecutor.shutdown();
+            Assertions.assertTrue(countExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+        String currentThreadName = Thread.currentThread().getName();
+        Assertions.assertEquals(2, threadNames.size());
+        Assertions.assertTrue(threadNames.get(0).startsWith("count:"));
+        Assertions.assertNotEquals("count:" + currentThreadName, threadNames.get(0));
+        Assertions.assertEquals("data:" + currentThreadName, threadNames.get(1));
+    }
+
+    @Test
+    public void testParallelCountTakenOver() {
+        List<Runnable> queuedTasks = new ArrayList<>();
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setConnectionManager(testConnectionManager());
+            it.setPageCountExecutor(queuedTasks::add, 1);
+        });
+        anyAndExpect(
+                con -> query(sqlClient).fetchPage(1, 3, con),
+                ctx -> {
+                    // The executor has not started the count query
+                    // when the data query is finished, so it is executed
+                    // by the current connection
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc " +
+                                    "limit ? offset ?"
+                    ).variables(3, 3, 3L);
+                    ctx.statement(1).sql(
+                            "select count(1) " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ?"
+                    ).variables(3);
+                    ctx.rows(pages -> {
+                        Assertions.assertEquals(4L, pages.get(0).getTotalRowCount());
+                    });
+                }
+        );
+        Assertions.assertEquals(1, queuedTasks.size());
+        // The queued task does nothing, and the permit has been released
+        queuedTasks.get(0).run();
+        Assertions.assertEquals(2, getExecutions().size());
+        Assertions.assertTrue(((JSqlClientImplementor) sqlClient).getPageCountExecutor().tryAcquire());
+    }
+
+    @Test
+    public void testApproximateCount() {
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(new EstimationDialect());
+            it.setApproximatePageCountThreshold(100);
+        });
+        anyAndExpect(
+                con -> query(sqlClient).fetchPage(0, 3, con),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc " +
+                                    "limit ?"
+                    ).variables(3, 3);
+                    ctx.statement(1).sql(
+                            "select cast(1000 as bigint) from (" +
+                                    "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ?" +
+                                    ") estimation_ limit 1"
+                    ).variables(3);
+                    ctx.rows(pages -> {
+                        Page<UUID> page = pages.get(0);
+                        Assertions.assertEquals(1000L, page.getTotalRowCount());
+                        Assertions.assertEquals(3, page.getRows().size());
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testApproximateCountOfLastPage() {
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(new EstimationDialect());
+            it.setApproximatePageCountThreshold(100);
+        });
+        anyAndExpect(
+                con -> query(sqlClient).fetchPage(1, 3, con),
+                ctx -> {
+                    // The last page is not full, so the estimation is skipped
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc " +
+                                    "limit ? offset ?"
+                    ).variables(3, 3, 3L);
+                    ctx.rows(pages -> {
+                        Assertions.assertEquals(4L, pages.get(0).getTotalRowCount());
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testEstimationBelowThreshold() {
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(new EstimationDialect());
+            it.setApproximatePageCountThreshold(10000);
+        });
+        anyAndExpect(
+                con -> query(sqlClient).fetchPage(0, 3, con),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc " +
+                                    "limit ?"
+                    ).variables(3, 3);
+                    ctx.statement(1).sql(
+                            "select cast(1000 as bigint) from (" +
+                                    "select tb_1_.ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ?" +
+                                    ") estimation_ limit 1"
+                    ).variables(3);
+                    ctx.statement(2).sql(
+                            "select count(1) " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ?"
+                    ).variables(3);
+                    ctx.rows(pages -> {
+                        Assertions.assertEquals(4L, pages.get(0).getTotalRowCount());
+                    });
+                }
+        );
+    }
+
+    private static ConfigurableRootQuery<BookTable, UUID> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(3))
+                .orderBy(table.name().asc())
+                .select(table.id());
+    }
+
+    private static class EstimationDialect extends H2Dialect {
+
+        @Override
+        public String getRowCountEstimationSql(String sql) {
+            return "select cast(1000 as bigint) from (" + sql + ") estimation_ limit 1";
+        }
+
+        @Override
+        public long readRowCountEstimation(ResultSet rs) throws SQLException {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.babyfish.jimmer.sql.query;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ReExecutedQueryTest extends AbstractQueryTest {
+
+    @Test
+    public void testReExecutedQuery() {
+        JSqlClient sqlClient = getSqlClient();
+        BookTable table = BookTable.$;
+        ConfigurableRootQuery<BookTable, Book> query = sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(3))
+                .orderBy(table.name().asc())
+                .select(table);
+        connectAndExpect(
+                con -> {
+                    List<Book> books = query.execute(con);
+                    Assertions.assertEquals(books, query.execute(con));
+                    Assertions.assertEquals(books, query.execute(con));
+                    return books;
+                },
+                ctx -> {
+                    for (int i = 0; i < 3; i++) {
+                        ctx.statement(i).sql(
+                                "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
+                                        "from BOOK tb_1_ " +
+                                        "where tb_1_.EDITION = ? " +
+                                        "order by tb_1_.NAME asc"
+                        ).variables(3);
+                    }
+                }
+        );
+    }
+
+    @Test
+    public void testSameShape() {
+        JSqlClient sqlClient = getSqlClient();
+        BookTable table = BookTable.$;
+        ConfigurableRootQuery<BookTable, Book> query1 = sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(1))
+                .select(table);
+        ConfigurableRootQuery<BookTable, Book> query2 = sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(2))
+                .select(table);
+        connectAndExpect(
+                con -> {
+                    query1.execute(con);
+                    query2.execute(con);
+                    query1.execute(con);
+                    query2.execute(con);
+                    query1.execute(con);
+                    return query2.execute(con);
+                },
+                ctx -> {
+                    for (int i = 0; i < 6; i++) {
+                        ctx.statement(i).sql(
+                                "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
+                                        "from BOOK tb_1_ " +
+                                        "where tb_1_.EDITION = ?"
+                        ).variables(i % 2 + 1);
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,209 @@
+package org.babyfish.jimmer.sql.query;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.JoinType;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.ast.query.Order;
+import org.babyfish.jimmer.sql.ast.query.SeekPage;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.dialect.H2Dialect;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.babyfish.jimmer.sql.model.TreeNodeTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.babyfish.jimmer.sql.common.Constants.*;
+
+public class SeekPageTest extends AbstractQueryTest {
+
+    @Test
+    public void testForward() {
+        ConfigurableRootQuery<BookTable, UUID> query = query(getSqlClient());
+        connectAndExpect(
+                con -> {
+                    SeekPage<UUID> firstPage = query.fetchSeekPage(null, 4, con);
+                    Assertions.assertEquals(
+                            Arrays.asList(effectiveTypeScriptId1, effectiveTypeScriptId2, effectiveTypeScriptId3, graphQLInActionId1),
+                            firstPage.getRows()
+                    );
+                    Assertions.assertFalse(firstPage.hasPrevious());
+                    Assertions.assertTrue(firstPage.hasNext());
+                    return query.fetchSeekPage(firstPage.getEndCursor(), 4, con);
+                },
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "order by tb_1_.NAME asc, tb_1_.EDITION asc " +
+                                    "limit ?"
+                    ).variables(5);
+                    ctx.statement(1).sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "where (tb_1_.NAME, tb_1_.EDITION) > (?, ?) " +
+                                    "order by tb_1_.NAME asc, tb_1_.EDITION asc " +
+                                    "limit ?"
+                    ).variables("GraphQL in Action", 1, 5);
+                    ctx.rows(pages -> {
+                        SeekPage<UUID> page = pages.get(0);
+                        Assertions.assertEquals(
+                                Arrays.asList(graphQLInActionId2, graphQLInActionId3, learningGraphQLId1, learningGraphQLId2),
+                                page.getRows()
+                        );
+                        Assertions.assertTrue(page.hasPrevious());
+                        Assertions.assertTrue(page.hasNext());
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testBackward() {
+        ConfigurableRootQuery<BookTable, UUID> query = query(getSqlClient());
+        connectAndExpect(
+                con -> {
+                    SeekPage<UUID> lastPage = query.fetchSeekPageBefore(null, 4, con);
+                    Assertions.assertEquals(
+                            Arrays.asList(learningGraphQLId3, programmingTypeScriptId1, programmingTypeScriptId2, programmingTypeScriptId3),
+                            lastPage.getRows()
+                    );
+                    Assertions.assertTrue(lastPage.hasPrevious());
+                    Assertions.assertFalse(lastPage.hasNext());
+                    return query.fetchSeekPageBefore(lastPage.getStartCursor(), 4, con);
+                },
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "order by tb_1_.NAME desc, tb_1_.EDITION desc " +
+                                    "limit ?"
+                    ).variables(5);
+                    ctx.statement(1).sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "where (tb_1_.NAME, tb_1_.EDITION) < (?, ?) " +
+                                    "order by tb_1_.NAME desc, tb_1_.EDITION desc " +
+                                    "limit ?"
+                    ).variables("Learning GraphQL", 3, 5);
+                    ctx.rows(pages -> {
+                        SeekPage<UUID> page = pages.get(0);
+                        Assertions.assertEquals(
+                                Arrays.asList(graphQLInActionId2, graphQLInActionId3, learningGraphQLId1, learningGraphQLId2),
+                                page.getRows()
+                        );
+                        Assertions.assertTrue(page.hasPrevious());
+                        Assertions.assertTrue(page.hasNext());
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testWithoutTupleComparison() {
+        JSqlClient sqlClient = getSqlClient(it -> {
+            it.setDialect(new H2Dialect() {
+                @Override
+                public boolean isTupleComparisonSupported() {
+                    return false;
+                }
+            });
+        });
+        ConfigurableRootQuery<BookTable, UUID> query = query(sqlClient);
+        connectAndExpect(
+                con -> query.fetchSeekPage(query.fetchSeekPage(null, 4, con).getEndCursor(), 4, con),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "order by tb_1_.NAME asc, tb_1_.EDITION asc " +
+                                    "limit ?"
+                    ).variables(5);
+                    ctx.statement(1).sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.NAME > ? or tb_1_.NAME = ? and tb_1_.EDITION > ? " +
+                                    "order by tb_1_.NAME asc, tb_1_.EDITION asc " +
+                                    "limit ?"
+                    ).variables("GraphQL in Action", "GraphQL in Action", 1, 5);
+                    ctx.rows(pages -> {
+                        SeekPage<UUID> page = pages.get(0);
+                        Assertions.assertEquals(
+                                Arrays.asList(graphQLInActionId2, graphQLInActionId3, learningGraphQLId1, learningGraphQLId2),
+                                page.getRows()
+                        );
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testIllegalCursor() {
+        ConfigurableRootQuery<BookTable, UUID> query = query(getSqlClient());
+        Assertions.assertThrows(
+                IllegalArgumentException.class,
+                () -> query.fetchSeekPage("not-a-cursor", 4, null)
+        );
+    }
+
+    @Test
+    public void testNullableOrder() {
+        TreeNodeTable table = TreeNodeTable.$;
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> getSqlClient()
+                        .createQuery(table)
+                        .orderBy(table.parent(JoinType.LEFT).id().asc())
+                        .select(table.id())
+                        .fetchSeekPage(null, 5, null)
+        );
+        List<Function<TreeNodeTable, Order>> parentOrders = Arrays.asList(
+                t -> t.parent(JoinType.LEFT).id().asc().nullsFirst(),
+                t -> t.parent(JoinType.LEFT).id().asc().nullsLast(),
+                t -> t.parent(JoinType.LEFT).id().desc().nullsFirst(),
+                t -> t.parent(JoinType.LEFT).id().desc().nullsLast()
+        );
+        for (Function<TreeNodeTable, Order> parentOrder : parentOrders) {
+            ConfigurableRootQuery<TreeNodeTable, Long> query = getSqlClient()
+                    .createQuery(table)
+                    .orderBy(parentOrder.apply(table), table.id().asc())
+                    .select(table.id());
+            jdbc(con -> {
+                List<Long> expected = query.execute(con);
+                Assertions.assertEquals(24, expected.size());
+
+                List<Long> forward = new ArrayList<>();
+                String cursor = null;
+                SeekPage<Long> page;
+                do {
+                    page = query.fetchSeekPage(cursor, 5, con);
+                    forward.addAll(page.getRows());
+                    cursor = page.getEndCursor();
+                } while (page.hasNext());
+                Assertions.assertEquals(expected, forward);
+
+                List<Long> backward = new ArrayList<>();
+                cursor = null;
+                do {
+                    page = query.fetchSeekPageBefore(cursor, 5, con);
+                    backward.addAll(0, page.getRows());
+                    cursor = page.getStartCursor();
+                } while (page.hasPrevious());
+                Assertions.assertEquals(expected, backward);
+            });
+        }
+    }
+
+    private static ConfigurableRootQuery<BookTable, UUID> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name().asc(), table.edition().asc())
+                .select(table.id());
+    }
+}
@@ -0,0 +1,100 @@
+package org.babyfish.jimmer.sql.reactive;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.*;
+import org.babyfish.jimmer.sql.runtime.JdbcDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ReactiveSqlClientTest extends AbstractQueryTest {
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void shutdown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testExecute() {
+        JSqlClient sqlClient = sqlClient();
+        ReactiveSqlClient reactiveSqlClient = new ReactiveSqlClient(
+                sqlClient,
+                new JdbcDispatcher(executorService, 2)
+        );
+        List<Book> expected = query(sqlClient).execute();
+        List<Book> actual = reactiveSqlClient.execute(query(sqlClient)).block();
+        Assertions.assertEquals(expected.toString(), String.valueOf(actual));
+    }
+
+    @Test
+    public void testStream() {
+        JSqlClient sqlClient = sqlClient();
+        ReactiveSqlClient reactiveSqlClient = new ReactiveSqlClient(
+                sqlClient,
+                new JdbcDispatcher(executorService, 1)
+        );
+        List<Book> expected = query(sqlClient).execute();
+        List<Book> actual = reactiveSqlClient.stream(query(sqlClient), 3).collectList().block();
+        Assertions.assertEquals(expected.toString(), String.valueOf(actual));
+        Assertions.assertEquals(
+                expected.subList(0, 2).toString(),
+                String.valueOf(reactiveSqlClient.stream(query(sqlClient), 3).take(2).collectList().block())
+        );
+    }
+
+    @Test
+    public void testStreamWithSmallBuffer() {
+        JSqlClient sqlClient = sqlClient();
+        ReactiveSqlClient reactiveSqlClient = new ReactiveSqlClient(
+                sqlClient,
+                new JdbcDispatcher(executorService, 1)
+        );
+        List<Book> expected = query(sqlClient).execute();
+        Assertions.assertEquals(
+                expected.toString(),
+                String.valueOf(reactiveSqlClient.stream(query(sqlClient), 2).limitRate(1).collectList().block())
+        );
+        // The cancelled stream gives the only slot of the dispatcher back
+        Assertions.assertEquals(
+                expected.subList(0, 1).toString(),
+                String.valueOf(reactiveSqlClient.stream(query(sqlClient), 2).take(1).collectList().block())
+        );
+        Assertions.assertEquals(
+                expected.toString(),
+                String.valueOf(reactiveSqlClient.execute(query(sqlClient)).block(Duration.ofSeconds(10)))
+        );
+    }
+
+    private JSqlClient sqlClient() {
+        return getSqlClient(it -> {
+            it.setExecutor(null);
+            it.setConnectionManager(testConnectionManager());
+        });
+    }
+
+    private static ConfigurableRootQuery<BookTable, Book> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name().asc(), table.edition().desc())
+                .select(
+                        table.fetch(
+                                BookFetcher.$
+                                        .allScalarFields()
+                                        .store(
+                                                BookStoreFetcher.$
+                                                        .allScalarFields()
+                                        )
+                        )
+                );
+    }
+}
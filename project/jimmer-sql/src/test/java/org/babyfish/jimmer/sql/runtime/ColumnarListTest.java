@@ -0,0 +1,91 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.ast.tuple.Tuple3;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ColumnarListTest extends AbstractQueryTest {
+
+    @Test
+    public void testTupleProjection() {
+        BookTable table = BookTable.$;
+        executeAndExpect(
+                getSqlClient()
+                        .createQuery(table)
+                        .where(table.name().eq("GraphQL in Action"))
+                        .orderBy(table.edition().asc())
+                        .select(table.name(), table.edition(), table.price()),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.NAME = ? " +
+                                    "order by tb_1_.EDITION asc"
+                    );
+                    ctx.rows(rows -> {
+                        Assertions.assertTrue(rows instanceof ColumnarList<?>);
+                        Assertions.assertEquals(3, rows.size());
+                        for (int i = 0; i < 3; i++) {
+                            Tuple3<String, Integer, BigDecimal> row = rows.get(i);
+                            Assertions.assertEquals("GraphQL in Action", row.get_1());
+                            Assertions.assertEquals(i + 1, row.get_2());
+                            Assertions.assertEquals(row, rows.get(i));
+                        }
+                        List<Tuple3<String, Integer, BigDecimal>> expected = new ArrayList<>(rows);
+                        Collections.reverse(expected);
+                        Collections.reverse(rows);
+                        Assertions.assertEquals(expected, rows);
+                    });
+                }
+        );
+    }
+
+    @Test
+    public void testScalarReaders() {
+        BookTable table = BookTable.$;
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient();
+        Assertions.assertTrue(
+                ReaderManager.isScalarReader(Readers.createSingleReader(sqlClient, table.name()))
+        );
+        Assertions.assertTrue(
+                ReaderManager.isScalarReader(Readers.createSingleReader(sqlClient, table.price()))
+        );
+        Assertions.assertFalse(
+                ReaderManager.isScalarReader(Readers.createSingleReader(sqlClient, table))
+        );
+        Assertions.assertFalse(
+                ReaderManager.isScalarReader((rs, ctx) -> rs.getString(ctx.col()))
+        );
+    }
+
+    @Test
+    public void testObjectProjection() {
+        BookTable table = BookTable.$;
+        executeAndExpect(
+                getSqlClient()
+                        .createQuery(table)
+                        .where(table.name().eq("GraphQL in Action"))
+                        .orderBy(table.edition().asc())
+                        .select(table),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.EDITION, tb_1_.PRICE, tb_1_.STORE_ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.NAME = ? " +
+                                    "order by tb_1_.EDITION asc"
+                    );
+                    ctx.rows(rows -> {
+                        Assertions.assertFalse(rows instanceof ColumnarList<?>);
+                        Assertions.assertEquals(3, rows.size());
+                    });
+                }
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.meta.ImmutableType;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.association.meta.AssociationType;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.filter.impl.FilterManager;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookProps;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class MetadataWarmerTest extends AbstractQueryTest {
+
+    @Test
+    public void testWarmUpConcurrently() {
+        JSqlClient sqlClient = getSqlClient();
+        CompletableFuture<Void> future = CompletableFuture.runAsync(
+                () -> MetadataWarmer.warmUp((JSqlClientImplementor) sqlClient)
+        );
+        BookTable table = BookTable.$;
+        jdbc(con -> {
+            List<Book> books = sqlClient
+                    .createQuery(table)
+                    .where(table.edition().eq(3))
+                    .select(table)
+                    .execute(con);
+            Assertions.assertFalse(books.isEmpty());
+        });
+        future.join();
+    }
+
+    @Test
+    public void testCachesArePopulated() throws ReflectiveOperationException {
+        JSqlClientImplementor sqlClient = (JSqlClientImplementor) getSqlClient(it -> {});
+        ReaderManager readerManager = readerManager(sqlClient);
+        FilterManager filterManager = (FilterManager) sqlClient.getFilters();
+        ImmutableType bookType = ImmutableType.get(Book.class);
+        Assertions.assertFalse(readerManager.isCached(bookType));
+        Assertions.assertFalse(filterManager.isCached(bookType, false));
+
+        MetadataWarmer.warmUp(sqlClient);
+
+        int entityTypeCount = 0;
+        for (ImmutableType type : sqlClient.getEntityManager().getAllTypes(sqlClient.getMicroServiceName())) {
+            if (!type.isEntity() || type instanceof AssociationType) {
+                continue;
+            }
+            Assertions.assertTrue(readerManager.isCached(type), "Reader of " + type);
+            Assertions.assertTrue(filterManager.isCached(type, false), "Filter of " + type);
+            Assertions.assertTrue(filterManager.isCached(type, true), "Sharding filter of " + type);
+            entityTypeCount++;
+        }
+        Assertions.assertTrue(entityTypeCount > 0);
+        Assertions.assertTrue(readerManager.isCached(BookProps.NAME.unwrap()));
+        Assertions.assertTrue(readerManager.isCached(BookProps.STORE.unwrap()));
+    }
+
+    private static ReaderManager readerManager(JSqlClientImplementor sqlClient) throws ReflectiveOperationException {
+        Field field = sqlClient.getClass().getDeclaredField("readerManager");
+        field.setAccessible(true);
+        return (ReaderManager) field.get(sqlClient);
+    }
+}
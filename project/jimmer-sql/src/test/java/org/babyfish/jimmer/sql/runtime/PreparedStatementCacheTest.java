@@ -0,0 +1,129 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.h2.Driver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class PreparedStatementCacheTest extends AbstractQueryTest {
+
+    @Test
+    public void testReuse() {
+        JSqlClient sqlClient = getSqlClient(it -> it.setPreparedStatementCacheCapacity(8));
+        PreparedStatementCache cache = ((JSqlClientImplementor) sqlClient).getPreparedStatementCache();
+        Assertions.assertNotNull(cache);
+        jdbc(con -> {
+            BookTable table = BookTable.$;
+            String expected = null;
+            for (int i = 0; i < 3; i++) {
+                List<Book> books = sqlClient
+                        .createQuery(table)
+                        .where(table.edition().eq(3))
+                        .orderBy(table.name().asc())
+                        .select(table)
+                        .execute(con);
+                if (expected == null) {
+                    expected = books.toString();
+                } else {
+                    Assertions.assertEquals(expected, books.toString());
+                }
+            }
+            PreparedStatementCache.close(con);
+        });
+        Assertions.assertEquals(1L, cache.getMissCount());
+        Assertions.assertEquals(2L, cache.getHitCount());
+    }
+
+    @Test
+    public void testEvictionAndClose() {
+        PreparedStatementCache cache = new PreparedStatementCache(1);
+        jdbc(con -> {
+            PreparedStatement stmt1 = cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS);
+            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, stmt1, true);
+            Assertions.assertSame(
+                    stmt1,
+                    cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS)
+            );
+            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, stmt1, true);
+
+            PreparedStatement stmt2 = cache.acquire(con, "select 2", PreparedStatementCache.NO_GENERATED_KEYS);
+            cache.release(con, "select 2", PreparedStatementCache.NO_GENERATED_KEYS, stmt2, true);
+            Assertions.assertTrue(stmt1.isClosed());
+            Assertions.assertFalse(stmt2.isClosed());
+
+            PreparedStatementCache.close(con);
+            Assertions.assertTrue(stmt2.isClosed());
+        });
+    }
+
+    @Test
+    public void testNestedAndFailed() {
+        PreparedStatementCache cache = new PreparedStatementCache(4);
+        jdbc(con -> {
+            PreparedStatement outer = cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS);
+            PreparedStatement inner = cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS);
+            Assertions.assertNotSame(outer, inner);
+            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, inner, false);
+            Assertions.assertTrue(inner.isClosed());
+            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, outer, true);
+            Assertions.assertSame(
+                    outer,
+                    cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS)
+            );
+            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, outer, true);
+            PreparedStatementCache.close(con);
+        });
+    }
+
+    @Test
+    public void testReleasedWithPooledConnection() throws Exception {
+        try (Connection physicalCon = new Driver().connect(JDBC_URL, null)) {
+            // The connection returned to the pool is not closed physically
+            Connection pooledCon = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class[] { Connection.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            return null;
+                        }
+                        return method.invoke(physicalCon, args);
+                    }
+            );
+            DataSource dataSource = (DataSource) Proxy.newProxyInstance(
+                    DataSource.class.getClassLoader(),
+                    new Class[] { DataSource.class },
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("getConnection")) {
+                            return pooledCon;
+                        }
+                        throw new UnsupportedOperationException();
+                    }
+            );
+            PreparedStatementCache cache = new PreparedStatementCache(4);
+            PreparedStatement stmt = ConnectionManager
+                    .simpleConnectionManager(dataSource)
+                    .execute(con -> {
+                        try {
+                            PreparedStatement cachedStmt =
+                                    cache.acquire(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS);
+                            cache.release(con, "select 1", PreparedStatementCache.NO_GENERATED_KEYS, cachedStmt, true);
+                            Assertions.assertFalse(cachedStmt.isClosed());
+                            return cachedStmt;
+                        } catch (SQLException ex) {
+                            throw new AssertionError(ex);
+                        }
+                    });
+            Assertions.assertTrue(stmt.isClosed());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.common.AbstractTest;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+public class RoutingConnectionManagerTest extends AbstractTest {
+
+    @Test
+    public void testRoundRobin() {
+        jdbc(con -> {
+            List<String> routes = Collections.synchronizedList(new ArrayList<>());
+            RoutingConnectionManager routing = RoutingConnectionManager
+                    .newBuilder(new NamedConnectionManager("primary", con, routes))
+                    .addReplica(new NamedConnectionManager("replica-0", con, routes))
+                    .addReplica(new NamedConnectionManager("replica-1", con, routes))
+                    .build();
+            for (int i = 0; i < 4; i++) {
+                routing.execute(c -> null);
+            }
+            Assertions.assertEquals(
+                    Arrays.asList("replica-0", "replica-1", "replica-0", "replica-1"),
+                    routes
+            );
+        });
+    }
+
+    @Test
+    public void testReadAfterWrite() {
+        jdbc(con -> {
+            List<String> routes = Collections.synchronizedList(new ArrayList<>());
+            RoutingConnectionManager routing = RoutingConnectionManager
+                    .newBuilder(new NamedConnectionManager("primary", con, routes))
+                    .addReplica(new NamedConnectionManager("replica-0", con, routes))
+                    .setMaxReplicationLag(Duration.ofMinutes(1))
+                    .build();
+            routing.getWriteConnectionManager().execute(c -> null);
+            routing.execute(c -> null);
+            routing.reportReplicationLag(0, Duration.ofSeconds(2));
+            routing.execute(c -> null);
+            routing.reportReplicationLag(0, Duration.ZERO);
+            sleep(5);
+            routing.execute(c -> null);
+            Assertions.assertEquals(
+                    Arrays.asList("primary", "primary", "primary", "replica-0"),
+                    routes
+            );
+        });
+    }
+
+    @Test
+    public void testBranchFollowsRoot() {
+        jdbc(con -> {
+            List<String> routes = Collections.synchronizedList(new ArrayList<>());
+            RoutingConnectionManager routing = RoutingConnectionManager
+                    .newBuilder(new NamedConnectionManager("primary", con, routes))
+                    .addReplica(new NamedConnectionManager("replica-0", con, routes))
+                    .addReplica(new NamedConnectionManager("replica-1", con, routes))
+                    .build();
+            routing.execute(c -> null);
+            routing.execute(rootCon -> {
+                routing.execute(c -> null);
+                return CompletableFuture
+                        .supplyAsync(() -> routing.executeBranch(rootCon, c -> null))
+                        .join();
+            });
+            Assertions.assertEquals(
+                    Arrays.asList("replica-0", "replica-1", "replica-1", "replica-1"),
+                    routes
+            );
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static class NamedConnectionManager implements ConnectionManager {
+
+        private final String name;
+
+        private final Connection con;
+
+        private final List<String> routes;
+
+        NamedConnectionManager(String name, Connection con, List<String> routes) {
+            this.name = name;
+            this.con = con;
+            this.routes = routes;
+        }
+
+        @Override
+        public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+            routes.add(name);
+            return block.apply(con != null ? con : this.con);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.Page;
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.JoinType;
+import org.babyfish.jimmer.sql.ast.query.ConfigurableRootQuery;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.model.Book;
+import org.babyfish.jimmer.sql.model.BookProps;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.function.Function;
+
+public class ShardingConnectionManagerTest extends AbstractQueryTest {
+
+    @Test
+    public void testRouteByPredicate() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        ShardingConnectionManager sharding = sharding(routes);
+        JSqlClient sqlClient = getSqlClient(it -> it.setConnectionManager(sharding));
+        BookTable table = BookTable.$;
+        List<Book> books = sqlClient
+                .createQuery(table)
+                .where(table.edition().eq(3))
+                .select(table)
+                .execute();
+        Assertions.assertFalse(books.isEmpty());
+        Assertions.assertEquals(Collections.singletonList("odd"), routes);
+        // Aggregation cannot be scattered automatically
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> sqlClient.createQuery(table).select(table.count()).execute()
+        );
+    }
+
+    @Test
+    public void testConflictingShardKey() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        ShardingConnectionManager sharding = sharding(routes);
+        JSqlClient sqlClient = getSqlClient(it -> it.setConnectionManager(sharding));
+        BookTable table = BookTable.$;
+        Assertions.assertFalse(
+                sharding.executeOn(1, () ->
+                        sqlClient.createQuery(table).where(table.edition().eq(3)).select(table).execute()
+                ).isEmpty()
+        );
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> sharding.executeOn(2, () ->
+                        sqlClient.createQuery(table).where(table.edition().eq(3)).select(table).execute()
+                )
+        );
+        Assertions.assertEquals(Collections.singletonList("odd"), routes);
+    }
+
+    @Test
+    public void testAutoScatter() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        ShardingConnectionManager sharding = sharding(routes);
+        JSqlClient sqlClient = getSqlClient(it -> it.setConnectionManager(sharding));
+        BookTable table = BookTable.$;
+        List<UUID> ids = new ArrayList<>();
+        jdbc(con -> ids.addAll(query(sqlClient).execute(con)));
+        // Both shards are the same test database, so each row is merged twice
+        List<UUID> duplicatedIds = new ArrayList<>();
+        for (UUID id : ids) {
+            duplicatedIds.add(id);
+            duplicatedIds.add(id);
+        }
+
+        Assertions.assertEquals(duplicatedIds.subList(1, 4), query(sqlClient).limit(3, 1).execute());
+        Assertions.assertEquals(Arrays.asList("even", "odd"), routes);
+
+        Assertions.assertEquals(ids.size() * 2L, query(sqlClient).fetchUnlimitedCount());
+
+        Page<UUID> page = query(sqlClient).fetchPage(1, 4);
+        Assertions.assertEquals(ids.size() * 2L, page.getTotalRowCount());
+        Assertions.assertEquals(duplicatedIds.subList(4, 8), page.getRows());
+
+        Assertions.assertEquals(
+                ids.size() * 2,
+                sqlClient.createQuery(table).select(table.id()).execute().size()
+        );
+    }
+
+    @Test
+    public void testUnmergeableOrders() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        JSqlClient sqlClient = getSqlClient(it -> it.setConnectionManager(sharding(routes, null)));
+        BookTable table = BookTable.$;
+        // The collation of strings is decided by database
+        Assertions.assertThrows(IllegalStateException.class, () -> query(sqlClient).execute());
+        // Java cannot compare UUID like database
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> sqlClient.createQuery(table).orderBy(table.id()).select(table.id()).execute()
+        );
+        // The default null order is decided by database
+        Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> sqlClient
+                        .createQuery(table)
+                        .orderBy(table.store(JoinType.LEFT).version().asc())
+                        .select(table.id())
+                        .execute()
+        );
+        Assertions.assertTrue(routes.isEmpty());
+        List<UUID> ids = sqlClient
+                .createQuery(table)
+                .orderBy(table.store(JoinType.LEFT).version().asc().nullsLast(), table.edition().asc())
+                .select(table.id())
+                .execute();
+        Assertions.assertEquals(Arrays.asList("even", "odd"), routes);
+        Assertions.assertFalse(ids.isEmpty());
+    }
+
+    @Test
+    public void testScatter() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        ShardingConnectionManager sharding = sharding(routes);
+        JSqlClient sqlClient = getSqlClient(it -> it.setConnectionManager(sharding));
+        BookTable table = BookTable.$;
+        long[] countRef = new long[1];
+        jdbc(con -> countRef[0] = sqlClient.createQuery(table).select(table.count()).execute(con).get(0));
+        List<Long> counts = sharding.scatter(() ->
+                sqlClient
+                        .createQuery(table)
+                        .select(table.count())
+                        .execute()
+                        .get(0)
+        );
+        Assertions.assertEquals(Arrays.asList("even", "odd"), routes);
+        // Both shards are the same test database
+        Assertions.assertEquals(
+                countRef[0] * 2,
+                ShardingConnectionManager.combine(counts, Long::sum)
+        );
+    }
+
+    @Test
+    public void testExecuteByShard() {
+        List<String> routes = Collections.synchronizedList(new ArrayList<>());
+        ShardingConnectionManager sharding = sharding(routes);
+        List<Integer> sizes = sharding.executeByShard(
+                Arrays.asList(1, 2, 3, 5),
+                Function.identity(),
+                List::size
+        );
+        Assertions.assertEquals(Arrays.asList(1, 3), sizes);
+    }
+
+    @Test
+    public void testMergeSorted() {
+        List<List<Integer>> results = Arrays.asList(
+                Arrays.asList(1, 4, 7, 10),
+                Collections.emptyList(),
+                Arrays.asList(2, 3, 8)
+        );
+        Assertions.assertEquals(
+                Arrays.asList(3, 4, 7),
+                ShardingConnectionManager.mergeSorted(results, Comparator.naturalOrder(), 3, 2)
+        );
+        Assertions.assertEquals(
+                Arrays.asList(1, 2, 3, 4, 7, 8, 10),
+                ShardingConnectionManager.mergeSorted(results, Comparator.naturalOrder(), Integer.MAX_VALUE, 0)
+        );
+        Assertions.assertNull(ShardingConnectionManager.combine(Arrays.asList(null, null), Long::sum));
+    }
+
+    private static ConfigurableRootQuery<BookTable, UUID> query(JSqlClient sqlClient) {
+        BookTable table = BookTable.$;
+        return sqlClient
+                .createQuery(table)
+                .orderBy(table.name().asc(), table.edition().desc())
+                .select(table.id());
+    }
+
+    private ShardingConnectionManager sharding(List<String> routes) {
+        // H2 compares strings by their UTF-16 code units, like `String.compareTo`
+        return sharding(routes, Comparator.naturalOrder());
+    }
+
+    private ShardingConnectionManager sharding(
+            List<String> routes,
+            @Nullable Comparator<? super String> stringComparator
+    ) {
+        return ShardingConnectionManager
+                .newBuilder(edition -> ((Integer) edition) % 2 == 0 ? "even" : "odd")
+                .addShard("even", new NamedConnectionManager("even", routes))
+                .addShard("odd", new NamedConnectionManager("odd", routes))
+                .addShardKey(BookProps.EDITION.unwrap())
+                .setStringComparator(stringComparator)
+                .build();
+    }
+
+    private static class NamedConnectionManager implements ConnectionManager {
+
+        private final String name;
+
+        private final List<String> routes;
+
+        NamedConnectionManager(String name, List<String> routes) {
+            this.name = name;
+            this.routes = routes;
+        }
+
+        @Override
+        public <R> R execute(@Nullable Connection con, Function<Connection, R> block) {
+            routes.add(name);
+            if (con != null) {
+                return block.apply(con);
+            }
+            Object[] resultRef = new Object[1];
+            jdbc(c -> resultRef[0] = block.apply(c));
+            @SuppressWarnings("unchecked")
+            R result = (R) resultRef[0];
+            return result;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.babyfish.jimmer.sql.runtime;
+
+import org.babyfish.jimmer.sql.JSqlClient;
+import org.babyfish.jimmer.sql.common.AbstractQueryTest;
+import org.babyfish.jimmer.sql.fetcher.impl.FetchPath;
+import org.babyfish.jimmer.sql.metrics.SqlMetrics;
+import org.babyfish.jimmer.sql.model.BookFetcher;
+import org.babyfish.jimmer.sql.model.BookStoreFetcher;
+import org.babyfish.jimmer.sql.model.BookTable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SqlMetricsTest extends AbstractQueryTest {
+
+    @Test
+    public void testQueryAndFetch() {
+        List<String> records = new ArrayList<>();
+        JSqlClient sqlClient = getSqlClient(it -> it.setMetrics(new SqlMetrics() {
+            @Override
+            public void recordExecution(
+                    ExecutionPurpose purpose,
+                    long elapsedNanos,
+                    int rowCount,
+                    boolean succeeded
+            ) {
+                records.add("execute(" + purpose + ", " + rowCount + ", " + succeeded + ")");
+            }
+            @Override
+            public void recordFetch(
+                    FetchPath path,
+                    int round,
+                    int depth,
+                    int keyCount,
+                    long elapsedNanos
+            ) {
+                records.add("fetch(" + path + ", " + round + ", " + depth + ", " + keyCount + ")");
+            }
+            @Override
+            public void recordLoad(FetchPath path, int sourceCount, long elapsedNanos) {
+                records.add("load(" + path + ", " + sourceCount + ")");
+            }
+        }));
+        BookTable table = BookTable.$;
+        executeAndExpect(
+                sqlClient
+                        .createQuery(table)
+                        .where(table.edition().eq(3))
+                        .orderBy(table.name().asc())
+                        .select(
+                                table.fetch(
+                                        BookFetcher.$
+                                                .name()
+                                                .store(BookStoreFetcher.$.name())
+                                )
+                        ),
+                ctx -> {
+                    ctx.sql(
+                            "select tb_1_.ID, tb_1_.NAME, tb_1_.STORE_ID " +
+                                    "from BOOK tb_1_ " +
+                                    "where tb_1_.EDITION = ? " +
+                                    "order by tb_1_.NAME asc"
+                    );
+                    ctx.statement(1).sql(
+                            "select tb_1_.ID, tb_1_.NAME " +
+                                    "from BOOK_STORE tb_1_ " +
+                                    "where tb_1_.ID in (?, ?)"
+                    );
+                    ctx.rows(4);
+                }
+        );
+        Assertions.assertEquals(
+                Arrays.asList(
+                        "execute(QUERY, 4, true)",
+                        "execute(LOAD, 2, true)",
+                        "load(store, 2)",
+                        "fetch(store, 1, 1, 2)"
+                ),
+                records
+        );
+    }
+}
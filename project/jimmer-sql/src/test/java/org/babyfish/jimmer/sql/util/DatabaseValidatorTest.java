@@ -22,28 +22,7 @@ public class DatabaseValidatorTest extends AbstractTest {
                     EntityManager.fromResources(null, null),
                     "",
                     true,
-                    new MetadataStrategy(
-                            DefaultDatabaseNamingStrategy.UPPER_CASE,
-                            ForeignKeyStrategy.REAL,
-                            new H2Dialect(),
-                            new ScalarTypeStrategy() {
-                                @Override
-                                public Class<?> getOverriddenSqlType(ImmutableProp prop) {
-                                    return null;
-                                }
-                            },
-                            value -> {
-                                switch (value) {
-                                    case "${tables.player}":
-                                        return "players";
-                                    case "${columns.player.name}":
-                                        return "player_name";
-                                    case "${columns.player.teamId}":
-                                        return "team_id";
-                                }
-                                return value;
-                            }
-                    ),
+                    metadataStrategy(),
                     null,
                     null,
                     con
@@ -51,4 +30,44 @@ public class DatabaseValidatorTest extends AbstractTest {
             Assertions.assertNull(ex);
         });
     }
+
+    @Test
+    public void testH2Parallel() {
+        DatabaseValidationException ex = DatabaseValidators.validate(
+                EntityManager.fromResources(null, null),
+                "",
+                true,
+                metadataStrategy(),
+                null,
+                null,
+                testConnectionManager(),
+                4
+        );
+        Assertions.assertNull(ex);
+    }
+
+    private static MetadataStrategy metadataStrategy() {
+        return new MetadataStrategy(
+                DefaultDatabaseNamingStrategy.UPPER_CASE,
+                ForeignKeyStrategy.REAL,
+                new H2Dialect(),
+                new ScalarTypeStrategy() {
+                    @Override
+                    public Class<?> getOverriddenSqlType(ImmutableProp prop) {
+                        return null;
+                    }
+                },
+                value -> {
+                    switch (value) {
+                        case "${tables.player}":
+                            return "players";
+                        case "${columns.player.name}":
+                            return "player_name";
+                        case "${columns.player.teamId}":
+                            return "team_id";
+                    }
+                    return value;
+                }
+        );
+    }
 }
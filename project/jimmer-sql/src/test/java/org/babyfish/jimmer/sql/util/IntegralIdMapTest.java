@@ -0,0 +1,82 @@
+package org.babyfish.jimmer.sql.util;
+
+import org.babyfish.jimmer.sql.ast.impl.util.IntegralIdMap;
+import org.babyfish.jimmer.sql.ast.impl.util.IntegralIdSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+public class IntegralIdMapTest {
+
+    @Test
+    public void testOrder() {
+        Map<Object, String> map = new IntegralIdMap<>(false, 0);
+        map.put(3L, "c");
+        map.put(1L, "a");
+        map.put(2L, "b");
+        map.put(1L, "A");
+        Assertions.assertEquals("{3=c, 1=A, 2=b}", map.toString());
+        Assertions.assertEquals("A", map.get(1L));
+        Assertions.assertNull(map.get(1));
+        Assertions.assertFalse(map.containsKey("1"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(4, "d"));
+    }
+
+    @Test
+    public void testRemoveHead() {
+        Map<Object, Integer> map = new IntegralIdMap<>(true, 0);
+        Map<Object, Integer> expected = new LinkedHashMap<>();
+        int next = 0;
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 37; i++) {
+                map.put(next, next);
+                expected.put(next, next);
+                next++;
+            }
+            Iterator<Map.Entry<Object, Integer>> itr = map.entrySet().iterator();
+            Iterator<Map.Entry<Object, Integer>> expectedItr = expected.entrySet().iterator();
+            for (int i = 0; i < 30; i++) {
+                Assertions.assertEquals(expectedItr.next(), itr.next());
+                itr.remove();
+                expectedItr.remove();
+            }
+            Assertions.assertEquals(expected, map);
+            Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        }
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(7);
+        Map<Object, Long> map = new IntegralIdMap<>(false, 4);
+        Map<Object, Long> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            // Keys with the same low bits to test collisions
+            Long key = (long) random.nextInt(512) << 20;
+            if (random.nextInt(3) == 0) {
+                Assertions.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assertions.assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        Assertions.assertEquals(expected, map);
+        Assertions.assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(map.keySet()));
+        for (Object key : expected.keySet()) {
+            Assertions.assertTrue(map.containsKey(key));
+        }
+    }
+
+    @Test
+    public void testSet() {
+        Set<Object> set = new IntegralIdSet(false, 0);
+        Assertions.assertTrue(set.add(2L));
+        Assertions.assertTrue(set.add(1L));
+        Assertions.assertFalse(set.add(2L));
+        Assertions.assertEquals(new LinkedHashSet<>(Arrays.asList(2L, 1L)), set);
+        Assertions.assertEquals("[2, 1]", set.toString());
+        Assertions.assertTrue(set.remove(2L));
+        Assertions.assertEquals("[1]", set.toString());
+    }
+}
@@ -12,6 +12,7 @@ include(
     "jimmer-spring-boot-starter",
     "jimmer-dto-compiler",
     "jimmer-client-swagger",
+    "jimmer-benchmark",
 )
 
 enableFeaturePreview("TYPESAFE_PROJECT_ACCESSORS")